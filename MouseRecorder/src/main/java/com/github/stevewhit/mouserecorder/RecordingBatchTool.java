@@ -0,0 +1,495 @@
+package com.github.stevewhit.mouserecorder;
+
+import java.awt.Dimension;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.datahandling.BinaryRecordingIOUtils;
+import com.github.stevewhit.mouserecorder.datahandling.CompressedRecordingIOUtils;
+import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingData;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingValidationReport;
+
+/**
+ * Command-line entry point that validates, and optionally converts, every recording in a directory tree on a bounded pool of threads.
+ * It only uses the data handling classes, so neither Swing nor the native hook is ever started and it can run on a machine without a screen.
+ * <pre>
+ * Usage: RecordingBatchTool &lt;directory&gt; [--convert=text|binary|compressed] [--output=&lt;directory&gt;] [--threads=N] [--screen=WIDTHxHEIGHT] [--max-problems=N]
+ * </pre>
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingBatchTool
+{
+	/**
+	 * The encodings that recordings can be converted to.
+	 */
+	public enum TargetFormat
+	{
+		Text(".txt"),
+		Binary(BinaryRecordingIOUtils.BINARY_FILE_EXTENSION),
+		Compressed(CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION);
+
+		private final String fileExtension;
+
+		private TargetFormat(String fileExtension)
+		{
+			this.fileExtension = fileExtension;
+		}
+
+		public String getFileExtension()
+		{
+			return this.fileExtension;
+		}
+	};
+
+	/**
+	 * The screen dimensions used when none are given: only the structure of the recordings is checked, not where the mouse goes.
+	 */
+	private static final Dimension UNBOUNDED_SCREEN_DIMENSIONS = new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE);
+
+	/**
+	 * The directory whose recordings are processed, including its sub-directories.
+	 */
+	private final Path inputDirectory;
+
+	/**
+	 * The encoding recordings are converted to, or null if they're only validated.
+	 */
+	private final TargetFormat targetFormat;
+
+	/**
+	 * The directory converted recordings are written to, keeping their path relative to the input directory.
+	 */
+	private final Path outputDirectory;
+
+	/**
+	 * The number of recordings that are processed at the same time.
+	 */
+	private final int threadCount;
+
+	/**
+	 * The dimensions the mouse coordinates of the recordings must be inside of.
+	 */
+	private final Dimension screenDimensions;
+
+	/**
+	 * The maximum number of problems printed for each invalid recording.
+	 */
+	private final int maxReportedProblems;
+
+	/**
+	 * Constructor that accepts the options of a batch run.
+	 * @param inputDirectory The directory whose recordings are processed, including its sub-directories.
+	 * @param targetFormat The encoding recordings are converted to, or null if they're only validated.
+	 * @param outputDirectory The directory converted recordings are written to, or null to write them next to the originals.
+	 * @param threadCount The number of recordings that are processed at the same time.
+	 * @param screenDimensions The dimensions the mouse coordinates must be inside of, or null to not check them.
+	 * @param maxReportedProblems The maximum number of problems printed for each invalid recording.
+	 * @throws IllegalArgumentException Throws if the input directory is null or isn't a directory, if the thread count isn't positive or if the maximum is negative.
+	 */
+	public RecordingBatchTool(String inputDirectory, TargetFormat targetFormat, String outputDirectory, int threadCount, Dimension screenDimensions, int maxReportedProblems) throws IllegalArgumentException
+	{
+		if (inputDirectory == null || !Files.isDirectory(Paths.get(inputDirectory)))
+			throw new IllegalArgumentException("Input directory must be an existing directory.");
+
+		if (threadCount <= 0)
+			throw new IllegalArgumentException("Thread count must be greater than zero.");
+
+		if (maxReportedProblems < 0)
+			throw new IllegalArgumentException("Maximum reported problems cannot be negative.");
+
+		this.inputDirectory = Paths.get(inputDirectory).toAbsolutePath().normalize();
+		this.targetFormat = targetFormat;
+		this.outputDirectory = outputDirectory == null ? this.inputDirectory : Paths.get(outputDirectory).toAbsolutePath().normalize();
+		this.threadCount = threadCount;
+		this.screenDimensions = screenDimensions == null ? UNBOUNDED_SCREEN_DIMENSIONS : screenDimensions;
+		this.maxReportedProblems = maxReportedProblems;
+	}
+
+	/**
+	 * Runs the batch tool with the command-line arguments and exits with status 0 if every recording passed, 1 if any failed and 2 for invalid arguments.
+	 * @param args The command-line arguments.
+	 */
+	public static void main(String[] args)
+	{
+		// Make sure nothing tries to open a display.
+		System.setProperty("java.awt.headless", "true");
+
+		final RecordingBatchTool batchTool;
+
+		try
+		{
+			batchTool = createFromArguments(args);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			System.err.println(ex.getMessage());
+			System.err.println("Usage: RecordingBatchTool <directory> [--convert=text|binary|compressed] [--output=<directory>] [--threads=N] [--screen=WIDTHxHEIGHT] [--max-problems=N]");
+			System.exit(2);
+			return;
+		}
+
+		try
+		{
+			System.exit(batchTool.run(System.out) == 0 ? 0 : 1);
+		}
+		catch (IOException | InterruptedException ex)
+		{
+			System.err.println("Batch run stopped because ==> " + ex.getMessage());
+			System.exit(1);
+		}
+	}
+
+	/**
+	 * Creates a batch tool from command-line arguments.
+	 * @param args The command-line arguments.
+	 * @return Returns the batch tool with the options of the arguments.
+	 * @throws IllegalArgumentException Throws if the directory is missing or an option is unknown or invalid.
+	 */
+	static RecordingBatchTool createFromArguments(String[] args) throws IllegalArgumentException
+	{
+		String inputDirectory = null;
+		TargetFormat targetFormat = null;
+		String outputDirectory = null;
+		int threadCount = Runtime.getRuntime().availableProcessors();
+		Dimension screenDimensions = null;
+		int maxReportedProblems = RecordingValidationReport.DEFAULT_MAX_REPORTED_PROBLEMS;
+
+		for (String argument : args)
+		{
+			try
+			{
+				if (argument.startsWith("--convert="))
+					targetFormat = parseTargetFormat(argument.substring("--convert=".length()));
+				else if (argument.startsWith("--output="))
+					outputDirectory = argument.substring("--output=".length());
+				else if (argument.startsWith("--threads="))
+					threadCount = Integer.parseInt(argument.substring("--threads=".length()));
+				else if (argument.startsWith("--screen="))
+					screenDimensions = parseScreenDimensions(argument.substring("--screen=".length()));
+				else if (argument.startsWith("--max-problems="))
+					maxReportedProblems = Integer.parseInt(argument.substring("--max-problems=".length()));
+				else if (!argument.startsWith("--") && inputDirectory == null)
+					inputDirectory = argument;
+				else
+					throw new IllegalArgumentException("Unknown argument: " + argument);
+			}
+			catch (NumberFormatException ex)
+			{
+				throw new IllegalArgumentException("Invalid number in argument: " + argument);
+			}
+		}
+
+		if (inputDirectory == null)
+			throw new IllegalArgumentException("No directory was given.");
+
+		return new RecordingBatchTool(inputDirectory, targetFormat, outputDirectory, threadCount, screenDimensions, maxReportedProblems);
+	}
+
+	/**
+	 * Processes every recording in the input directory tree and prints the result and timing of each file followed by the totals and throughput.
+	 * @param output The stream the results are printed to.
+	 * @return Returns the number of recordings that failed to import, convert or validate.
+	 * @throws IOException Throws if the directory tree can't be walked.
+	 * @throws InterruptedException Throws if the thread is interrupted while waiting for the recordings to be processed.
+	 */
+	public int run(PrintStream output) throws IOException, InterruptedException
+	{
+		final List<Path> recordingFiles = findRecordingFiles(inputDirectory);
+		final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+		final CompletionService<FileResult> completionService = new ExecutorCompletionService<FileResult>(executor);
+		final long batchStartTime = System.nanoTime();
+
+		int failedCount = 0;
+		long totalBytes = 0;
+		long totalActions = 0;
+
+		try
+		{
+			for (final Path recordingFile : recordingFiles)
+			{
+				completionService.submit(new Callable<FileResult>()
+				{
+					@Override
+					public FileResult call()
+					{
+						return processFile(recordingFile);
+					}
+				});
+			}
+
+			// Print the files as they finish rather than in the order they were found.
+			for (int fileNum = 0; fileNum < recordingFiles.size(); fileNum++)
+			{
+				final FileResult result;
+
+				try
+				{
+					result = completionService.take().get();
+				}
+				catch (ExecutionException ex)
+				{
+					throw new IllegalStateException("Processing a recording failed unexpectedly because ==> " + ex.getCause().getMessage(), ex.getCause());
+				}
+
+				printFileResult(output, result);
+
+				if (result.failure != null)
+					failedCount++;
+
+				totalBytes += result.fileSize;
+				totalActions += result.actionCount;
+			}
+		}
+		finally
+		{
+			executor.shutdownNow();
+		}
+
+		final double elapsedSeconds = Math.max(System.nanoTime() - batchStartTime, 1) / 1e9;
+
+		output.println(String.format("%1$d file(s), %2$d failed, %3$d action(s) in %4$.2f s (%5$.1f files/s, %6$.0f actions/s, %7$.2f MB/s) on %8$d thread(s).",
+										recordingFiles.size(), failedCount, totalActions, elapsedSeconds,
+										recordingFiles.size() / elapsedSeconds, totalActions / elapsedSeconds, totalBytes / elapsedSeconds / (1024 * 1024), threadCount));
+
+		return failedCount;
+	}
+
+	/**
+	 * Finds every recording file (*.txt, *.mrec, *.mrecz) in the directory tree, sorted by path.
+	 * @param directory The directory to search, including its sub-directories.
+	 * @return Returns the paths of the recording files.
+	 * @throws IOException Throws if the directory tree can't be walked.
+	 */
+	static List<Path> findRecordingFiles(Path directory) throws IOException
+	{
+		final ArrayList<Path> recordingFiles = new ArrayList<Path>();
+
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>()
+		{
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attributes)
+			{
+				if (attributes.isRegularFile() && isRecordingFileName(file.getFileName().toString()))
+					recordingFiles.add(file);
+
+				return FileVisitResult.CONTINUE;
+			}
+		});
+
+		Collections.sort(recordingFiles);
+
+		return recordingFiles;
+	}
+
+	/**
+	 * Imports, validates and optionally converts a single recording. Problems are returned in the result rather than thrown, so one bad file doesn't stop the batch.
+	 * @param recordingFile The recording to process.
+	 * @return Returns the timings and outcome of processing the recording.
+	 */
+	private FileResult processFile(Path recordingFile)
+	{
+		final FileResult result = new FileResult(recordingFile);
+		long stepStartTime = System.nanoTime();
+
+		try
+		{
+			result.fileSize = Files.size(recordingFile);
+
+			// Validate first so that a broken recording reports all of its problems instead of the first one the import runs into.
+			final RecordingValidationReport validationReport = DataIOHandlerUtils.validateRecordingFile(recordingFile.toString(), screenDimensions, maxReportedProblems);
+			result.validateNanoseconds = System.nanoTime() - stepStartTime;
+
+			if (!validationReport.isValid())
+			{
+				result.failure = validationReport.toString();
+				return result;
+			}
+
+			stepStartTime = System.nanoTime();
+
+			// Coordinates are kept as they were recorded so a conversion never moves them.
+			final RecordingImportContext importContext = new RecordingImportContext(null, CoordinatePolicy.Clamp);
+			final RecordingData recording = DataIOHandlerUtils.importRecordingFromFile(recordingFile.toString(), importContext);
+			result.actionCount = recording.getInputActions().size();
+			result.importNanoseconds = System.nanoTime() - stepStartTime;
+
+			if (targetFormat != null)
+			{
+				stepStartTime = System.nanoTime();
+				result.convertedFile = convertRecording(recordingFile, recording, importContext.getSourceDimensions());
+				result.convertNanoseconds = System.nanoTime() - stepStartTime;
+			}
+		}
+		catch (IllegalArgumentException | IOException | DataFormatException ex)
+		{
+			result.failure = ex.getMessage();
+		}
+		catch (RuntimeException ex)
+		{
+			// Don't let one unexpected problem stop the rest of the batch.
+			result.failure = "Unexpected error ==> " + ex;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Writes the recording in the target encoding and reads it back to make sure nothing was lost.
+	 * @param recordingFile The recording that was imported.
+	 * @param recording The imported contents of the recording.
+	 * @param sourceDimensions The dimensions of the screen the recording was made on, which are carried over to the converted recording. May be null if they aren't known.
+	 * @return Returns the path of the converted recording.
+	 * @throws IllegalArgumentException Throws if the recording contains actions that can't be written.
+	 * @throws IOException Throws if the converted recording can't be written or read.
+	 * @throws DataFormatException Throws if the converted recording doesn't read back the same number of actions.
+	 */
+	private Path convertRecording(Path recordingFile, RecordingData recording, Dimension sourceDimensions) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final String fileName = recordingFile.getFileName().toString();
+		final String convertedFileName = fileName.substring(0, fileName.lastIndexOf('.')) + targetFormat.getFileExtension();
+		final Path convertedFile = outputDirectory.resolve(inputDirectory.relativize(recordingFile)).resolveSibling(convertedFileName);
+
+		Files.createDirectories(convertedFile.getParent());
+
+		switch (targetFormat)
+		{
+			case Binary:
+				BinaryRecordingIOUtils.exportRecordingToBinaryFile(recording.getInputActions(), recording.getClickZoneDetails(), convertedFile.toString(), sourceDimensions);
+				break;
+			case Compressed:
+				CompressedRecordingIOUtils.exportRecordingToCompressedFile(recording.getInputActions(), recording.getClickZoneDetails(), convertedFile.toString(), 
+																		   CompressedRecordingIOUtils.DEFAULT_ACTIONS_PER_BLOCK, sourceDimensions);
+				break;
+			default:
+				DataIOHandlerUtils.exportRecordingToTextFile(recording.getInputActions(), recording.getClickZoneDetails(), convertedFile.toString(), sourceDimensions);
+				break;
+		}
+
+		final int convertedActionCount = DataIOHandlerUtils.importRecordingFromFile(convertedFile.toString(), new RecordingImportContext(null, CoordinatePolicy.Clamp)).getInputActions().size();
+
+		if (convertedActionCount != recording.getInputActions().size())
+			throw new DataFormatException("Converted recording has " + convertedActionCount + " actions instead of " + recording.getInputActions().size() + ".");
+
+		return convertedFile;
+	}
+
+	/**
+	 * Prints the outcome and timings of a processed recording.
+	 * @param output The stream the result is printed to.
+	 * @param result The result of processing the recording.
+	 */
+	private void printFileResult(PrintStream output, FileResult result)
+	{
+		final Path relativePath = inputDirectory.relativize(result.recordingFile);
+
+		if (result.failure != null)
+		{
+			output.println("FAIL " + relativePath + ": " + result.failure);
+			return;
+		}
+
+		output.println(String.format("OK   %1$s: %2$d action(s), validate %3$.1f ms, import %4$.1f ms%5$s",
+										relativePath, result.actionCount, result.validateNanoseconds / 1e6, result.importNanoseconds / 1e6,
+										result.convertedFile == null ? "" : String.format(", convert %1$.1f ms -> %2$s", result.convertNanoseconds / 1e6, result.convertedFile)));
+	}
+
+	/**
+	 * Determines whether the file name has the extension of a recording.
+	 * @param fileName The name of the file.
+	 * @return Returns true if the file is a text, binary or compressed recording by name; otherwise false.
+	 */
+	private static boolean isRecordingFileName(String fileName)
+	{
+		for (TargetFormat format : TargetFormat.values())
+		{
+			if (fileName.endsWith(format.getFileExtension()))
+				return true;
+		}
+
+		return false;
+	}
+
+	/**
+	 * Parses the name of a target format, ignoring case.
+	 * @param formatName The name of the format: text, binary or compressed.
+	 * @return Returns the target format.
+	 * @throws IllegalArgumentException Throws if the name isn't a supported format.
+	 */
+	private static TargetFormat parseTargetFormat(String formatName) throws IllegalArgumentException
+	{
+		for (TargetFormat format : TargetFormat.values())
+		{
+			if (format.name().equalsIgnoreCase(formatName))
+				return format;
+		}
+
+		throw new IllegalArgumentException("Unsupported conversion format: " + formatName);
+	}
+
+	/**
+	 * Parses screen dimensions written as WIDTHxHEIGHT.
+	 * @param dimensionsText The dimensions text, such as 1920x1080.
+	 * @return Returns the screen dimensions.
+	 * @throws IllegalArgumentException Throws if the text isn't two positive numbers separated by an x.
+	 */
+	private static Dimension parseScreenDimensions(String dimensionsText) throws IllegalArgumentException
+	{
+		final String[] splitDimensions = dimensionsText.toLowerCase().split("x");
+
+		if (splitDimensions.length != 2)
+			throw new IllegalArgumentException("Screen dimensions must be written as WIDTHxHEIGHT: " + dimensionsText);
+
+		final int width = Integer.parseInt(splitDimensions[0]);
+		final int height = Integer.parseInt(splitDimensions[1]);
+
+		if (width <= 0 || height <= 0)
+			throw new IllegalArgumentException("Screen dimensions must be positive: " + dimensionsText);
+
+		return new Dimension(width, height);
+	}
+
+	/**
+	 * The outcome and timings of processing a single recording.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class FileResult
+	{
+		private final Path recordingFile;
+		private long fileSize;
+		private int actionCount;
+		private long importNanoseconds;
+		private long validateNanoseconds;
+		private long convertNanoseconds;
+		private Path convertedFile;
+
+		/**
+		 * The reason the recording failed, or null if it passed.
+		 */
+		private String failure;
+
+		private FileResult(Path recordingFile)
+		{
+			this.recordingFile = recordingFile;
+		}
+	}
+}
@@ -0,0 +1,257 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.util.zip.DataFormatException;
+
+/**
+ * Cursor over a single ':' separated line of a text recording. Reads the ID and the numeric fields straight from the characters
+ * of the line without splitting it, so a single instance can be reused for every line of a file.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+final class ActionLineTokenizer
+{
+	/**
+	 * The character that separates the fields of a line.
+	 */
+	private static final char FIELD_SEPARATOR = ':';
+
+	/**
+	 * The line currently being read.
+	 */
+	private CharSequence line;
+
+	/**
+	 * The index of the next character to read.
+	 */
+	private int position;
+
+	/**
+	 * The number of fields (including the ID) that have been read from the line.
+	 */
+	private int fieldsRead;
+
+	/**
+	 * Points the tokenizer at the start of a new line.
+	 * @param line The line to read.
+	 * @return Returns this tokenizer.
+	 * @throws IllegalArgumentException Throws if the line is null.
+	 */
+	ActionLineTokenizer reset(CharSequence line) throws IllegalArgumentException
+	{
+		if (line == null)
+		{
+			throw new IllegalArgumentException("Line cannot be null.");
+		}
+
+		this.line = line;
+		this.position = 0;
+		this.fieldsRead = 0;
+
+		return this;
+	}
+
+	/**
+	 * Determines whether the ID of the line is the given tag, ignoring case. The position of the tokenizer is not changed.
+	 * @param tag The tag to compare against the line ID.
+	 * @return Returns true if the line starts with the tag followed by a field separator or the end of the line; otherwise false.
+	 */
+	boolean hasTag(String tag)
+	{
+		final int tagLength = tag.length();
+
+		if (line.length() < tagLength || (line.length() > tagLength && line.charAt(tagLength) != FIELD_SEPARATOR))
+			return false;
+
+		for (int index = 0; index < tagLength; index++)
+		{
+			if (Character.toUpperCase(line.charAt(index)) != tag.charAt(index))
+				return false;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Moves the tokenizer past the ID of the line.
+	 */
+	void skipTag()
+	{
+		skipField();
+	}
+
+	/**
+	 * Returns the ID of the line. Only meant for building diagnostics, as it creates a new string.
+	 * @return Returns the text of the line up to the first field separator.
+	 */
+	String getTag()
+	{
+		int tagEnd = 0;
+
+		while (tagEnd < line.length() && line.charAt(tagEnd) != FIELD_SEPARATOR)
+			tagEnd++;
+
+		return line.subSequence(0, tagEnd).toString();
+	}
+
+	/**
+	 * Counts the fields (including the ID) of the line. Trailing empty fields aren't counted.
+	 * @return Returns the number of fields in the line.
+	 */
+	int getFieldCount()
+	{
+		int lineEnd = line.length();
+
+		// Ignore trailing separators.
+		while (lineEnd > 0 && line.charAt(lineEnd - 1) == FIELD_SEPARATOR)
+			lineEnd--;
+
+		if (lineEnd == 0)
+			return 0;
+
+		int fieldCount = 1;
+
+		for (int index = 0; index < lineEnd; index++)
+		{
+			if (line.charAt(index) == FIELD_SEPARATOR)
+				fieldCount++;
+		}
+
+		return fieldCount;
+	}
+
+	/**
+	 * Reads the next field as an integer.
+	 * @return Returns the integer value of the field.
+	 * @throws DataFormatException Throws if there are no more fields, or if the field isn't a valid integer.
+	 */
+	int nextInt() throws DataFormatException
+	{
+		final int fieldStart = position;
+		final long value = nextLong();
+
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE)
+		{
+			throw invalidField(fieldStart, fieldsRead);
+		}
+
+		return (int) value;
+	}
+
+	/**
+	 * Reads the next field as a long.
+	 * @return Returns the long value of the field.
+	 * @throws DataFormatException Throws if there are no more fields, or if the field isn't a valid long.
+	 */
+	long nextLong() throws DataFormatException
+	{
+		final int fieldStart = position;
+		final int lineLength = line.length();
+
+		if (fieldStart >= lineLength && (fieldStart == 0 || line.charAt(fieldStart - 1) != FIELD_SEPARATOR))
+		{
+			throw new DataFormatException("Line doesn't contain field " + (fieldsRead + 1) + ".");
+		}
+
+		boolean negative = false;
+
+		if (position < lineLength && (line.charAt(position) == '-' || line.charAt(position) == '+'))
+		{
+			negative = line.charAt(position) == '-';
+			position++;
+		}
+
+		// Accumulate negatively so Long.MIN_VALUE can be represented, the same way Long.parseLong does.
+		final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+		final long multiplyLimit = limit / 10;
+		final int digitsStart = position;
+		long value = 0;
+
+		while (position < lineLength && line.charAt(position) != FIELD_SEPARATOR)
+		{
+			final int digit = line.charAt(position) - '0';
+
+			if (digit < 0 || digit > 9 || value < multiplyLimit)
+			{
+				throw invalidField(fieldStart, fieldsRead + 1);
+			}
+
+			value *= 10;
+
+			if (value < limit + digit)
+			{
+				throw invalidField(fieldStart, fieldsRead + 1);
+			}
+
+			value -= digit;
+			position++;
+		}
+
+		if (position == digitsStart)
+		{
+			throw invalidField(fieldStart, fieldsRead + 1);
+		}
+
+		// Step over the separator.
+		if (position < lineLength)
+			position++;
+
+		fieldsRead++;
+
+		return negative ? value : -value;
+	}
+
+	/**
+	 * Reads the last field of the line as a long. Trailing empty fields are ignored.
+	 * @return Returns the long value of the last field.
+	 * @throws DataFormatException Throws if the line only has an ID, or if the last field isn't a valid long.
+	 */
+	long lastLong() throws DataFormatException
+	{
+		final int fieldCount = getFieldCount();
+
+		if (fieldCount < 2)
+		{
+			throw new DataFormatException("Line doesn't contain field 2.");
+		}
+
+		// Move to the start of the last field.
+		position = 0;
+		fieldsRead = 0;
+
+		while (fieldsRead < fieldCount - 1)
+			skipField();
+
+		return nextLong();
+	}
+
+	/**
+	 * Moves the tokenizer past the current field.
+	 */
+	private void skipField()
+	{
+		while (position < line.length() && line.charAt(position) != FIELD_SEPARATOR)
+			position++;
+
+		// Step over the separator.
+		if (position < line.length())
+			position++;
+
+		fieldsRead++;
+	}
+
+	/**
+	 * Creates the exception that describes an invalid numeric field.
+	 * @param fieldStart The index of the first character of the field.
+	 * @param fieldNumber The number of the field within the line (the ID is field 1).
+	 * @return Returns the exception describing the field.
+	 */
+	private DataFormatException invalidField(int fieldStart, int fieldNumber)
+	{
+		int fieldEnd = fieldStart;
+
+		while (fieldEnd < line.length() && line.charAt(fieldEnd) != FIELD_SEPARATOR)
+			fieldEnd++;
+
+		return new DataFormatException("Field " + fieldNumber + " is not a valid number: \"" + line.subSequence(fieldStart, fieldEnd) + "\"");
+	}
+}
@@ -0,0 +1,399 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.monitor.Pixel;
+import com.github.stevewhit.mouserecorder.monitor.PixelColor;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.AbstractKeyboardInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.AbstractMouseButtonAction;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButton;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
+
+/**
+ * Encodes and decodes single recording entries for the binary recording formats.
+ * <p>
+ * Every action is written as a one-byte tag, the zig-zag varint difference between its timestamp and the previous action's timestamp,
+ * and then the varint fields of the action itself. Mouse wheel amounts are zig-zag encoded since they can be negative. Click zones are
+ * written as four varints (x, y, width, height).
+ * </p>
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+final class BinaryRecordingCodec
+{
+	/**
+	 * Tag that marks the end of the action entries.
+	 */
+	static final int TAG_END = 0;
+
+	/**
+	 * Tags for each of the supported input actions.
+	 */
+	static final int TAG_MOUSE_MOVE = 1;
+	static final int TAG_MOUSE_PRESS = 2;
+	static final int TAG_MOUSE_RELEASE = 3;
+	static final int TAG_KEY_PRESS = 4;
+	static final int TAG_KEY_RELEASE = 5;
+	static final int TAG_MOUSE_WHEEL = 6;
+
+	/**
+	 * Header flag that marks that the dimensions of the screen the recording was made on follow the flags.
+	 */
+	static final int FLAG_SOURCE_DIMENSIONS = 0x01;
+
+	/**
+	 * The maximum number of bytes a varint encoded long can take up.
+	 */
+	private static final int MAX_VARLONG_BYTES = 10;
+
+	/**
+	 * Private constructor to utilize this class as static.
+	 */
+	private BinaryRecordingCodec() {}
+
+	/**
+	 * Writes the action to the output as a tagged entry.
+	 * @param output The output the entry is written to.
+	 * @param action The action to write.
+	 * @param previousTimeStamp The timestamp of the previously written action, or 0 if this is the first action.
+	 * @throws IllegalArgumentException Throws if the action is null, invalid or not a supported action type.
+	 * @throws IOException Throws if there is an issue writing to the output.
+	 */
+	static void writeAction(DataOutput output, AbstractInputAction action, long previousTimeStamp) throws IllegalArgumentException, IOException
+	{
+		if (action == null || !action.isValidAction())
+		{
+			throw new IllegalArgumentException("Cannot write a null or invalid action.");
+		}
+
+		final int tag = getActionTag(action);
+
+		output.writeByte(tag);
+		writeVarLong(output, encodeZigZag(action.getTimeStamp() - previousTimeStamp));
+
+		switch (tag)
+		{
+			case TAG_MOUSE_MOVE:
+				writeCoordinate(output, ((MouseMove) action).getLocation());
+				break;
+			case TAG_MOUSE_PRESS:
+			case TAG_MOUSE_RELEASE:
+				final AbstractMouseButtonAction buttonAction = (AbstractMouseButtonAction) action;
+				output.writeByte(getMouseButtonNumber(buttonAction.getMouseButton()));
+				writeCoordinate(output, buttonAction.getLocation());
+				writeVarLong(output, buttonAction.getPixelColor().getRGBValue());
+				break;
+			case TAG_MOUSE_WHEEL:
+				writeCoordinate(output, ((MouseWheelScroll) action).getLocation());
+				writeVarLong(output, encodeZigZag(((MouseWheelScroll) action).getWheelAmount()));
+				break;
+			default:
+				writeVarLong(output, ((AbstractKeyboardInputAction) action).getKeyValueInt());
+				break;
+		}
+	}
+
+	/**
+	 * Reads the body of a tagged action entry from the input. The tag itself must already be read.
+	 * @param input The input the entry is read from.
+	 * @param tag The tag that was read for this entry.
+	 * @param previousTimeStamp The timestamp of the previously read action, or 0 if this is the first action.
+	 * @param importContext The context that fits the coordinates of mouse actions onto the target screen.
+	 * @return Returns the decoded action.
+	 * @throws DataFormatException Throws if the entry contains an unsupported tag or invalid values, or if its coordinate is rejected by the import context.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	static AbstractInputAction readAction(DataInput input, int tag, long previousTimeStamp, RecordingImportContext importContext) throws DataFormatException, IOException
+	{
+		final long timeStamp = previousTimeStamp + decodeZigZag(readVarLong(input));
+
+		try
+		{
+			switch (tag)
+			{
+				case TAG_MOUSE_MOVE:
+					return new MouseMove(readCoordinate(input, importContext), timeStamp);
+				case TAG_MOUSE_PRESS:
+				case TAG_MOUSE_RELEASE:
+					final MouseButton button = getMouseButton(input.readUnsignedByte());
+					final PixelCoordinate2D location = readCoordinate(input, importContext);
+					final PixelColor color = new PixelColor(readVarInt(input));
+
+					if (tag == TAG_MOUSE_PRESS)
+						return new MouseButtonPress(button, new Pixel(color, location), timeStamp);
+					else
+						return new MouseButtonRelease(button, new Pixel(color, location), timeStamp);
+				case TAG_KEY_PRESS:
+					return new KeyboardKeyPress(readVarInt(input), timeStamp);
+				case TAG_KEY_RELEASE:
+					return new KeyboardKeyRelease(readVarInt(input), timeStamp);
+				case TAG_MOUSE_WHEEL:
+					final PixelCoordinate2D wheelLocation = readCoordinate(input, importContext);
+					return new MouseWheelScroll(wheelLocation, (int) decodeZigZag(readVarLong(input)), timeStamp);
+				default:
+					throw new DataFormatException("Found unsupported action tag: " + tag);
+			}
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new DataFormatException("Could not create input action because ==> " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the click zone as four varints.
+	 * @param output The output the click zone is written to.
+	 * @param clickZone The click zone to write.
+	 * @throws IOException Throws if there is an issue writing to the output.
+	 */
+	static void writeClickZone(DataOutput output, ClickZoneDetails clickZone) throws IOException
+	{
+		writeVarLong(output, clickZone.getWindowLocation().x);
+		writeVarLong(output, clickZone.getWindowLocation().y);
+		writeVarLong(output, clickZone.getWindowDimensions().width);
+		writeVarLong(output, clickZone.getWindowDimensions().height);
+	}
+
+	/**
+	 * Reads a click zone that was written with {@link #writeClickZone(DataOutput, ClickZoneDetails)}.
+	 * @param input The input the click zone is read from.
+	 * @param importContext The context that fits the click zone onto the target screen.
+	 * @return Returns the decoded click zone.
+	 * @throws DataFormatException Throws if the click zone values are invalid or the click zone is rejected by the import context.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	static ClickZoneDetails readClickZone(DataInput input, RecordingImportContext importContext) throws DataFormatException, IOException
+	{
+		try
+		{
+			return importContext.fitClickZone(readVarInt(input), readVarInt(input), readVarInt(input), readVarInt(input));
+		}
+		catch (DataFormatException ex)
+		{
+			throw new DataFormatException("Cancelled conversion of click zone details data because ==> " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the header flags followed by the dimensions of the screen the recording was made on, if they are known.
+	 * @param output The output the flags are written to.
+	 * @param sourceDimensions The dimensions of the screen the recording was made on. May be null if they aren't known.
+	 * @throws IOException Throws if there is an issue writing to the output.
+	 */
+	static void writeFlagsAndSourceDimensions(DataOutput output, Dimension sourceDimensions) throws IOException
+	{
+		output.writeByte(sourceDimensions == null ? 0 : FLAG_SOURCE_DIMENSIONS);
+
+		if (sourceDimensions != null)
+		{
+			writeVarLong(output, sourceDimensions.width);
+			writeVarLong(output, sourceDimensions.height);
+		}
+	}
+
+	/**
+	 * Reads the header flags and the source dimensions written with {@link #writeFlagsAndSourceDimensions(DataOutput, Dimension)}.
+	 * @param input The input positioned at the header flags.
+	 * @return Returns the dimensions of the screen the recording was made on; null if the recording doesn't store them.
+	 * @throws DataFormatException Throws if unknown flags are set or the dimensions aren't positive.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	static Dimension readFlagsAndSourceDimensions(DataInput input) throws DataFormatException, IOException
+	{
+		final int flags = input.readUnsignedByte();
+
+		if ((flags & ~FLAG_SOURCE_DIMENSIONS) != 0)
+		{
+			throw new DataFormatException("Recording header contains unsupported flags: " + flags);
+		}
+
+		if ((flags & FLAG_SOURCE_DIMENSIONS) == 0)
+			return null;
+
+		final int width = readVarInt(input);
+		final int height = readVarInt(input);
+
+		if (width <= 0 || height <= 0)
+		{
+			throw new DataFormatException("Recording header contains invalid screen dimensions: " + width + "x" + height);
+		}
+
+		return new Dimension(width, height);
+	}
+
+	/**
+	 * Returns the tag that identifies the type of the action.
+	 * @param action The action to identify.
+	 * @return Returns the tag for the action.
+	 * @throws IllegalArgumentException Throws if the action type isn't supported.
+	 */
+	static int getActionTag(AbstractInputAction action) throws IllegalArgumentException
+	{
+		if (action instanceof MouseMove)
+			return TAG_MOUSE_MOVE;
+		else if (action instanceof MouseButtonPress)
+			return TAG_MOUSE_PRESS;
+		else if (action instanceof MouseButtonRelease)
+			return TAG_MOUSE_RELEASE;
+		else if (action instanceof KeyboardKeyPress)
+			return TAG_KEY_PRESS;
+		else if (action instanceof KeyboardKeyRelease)
+			return TAG_KEY_RELEASE;
+		else if (action instanceof MouseWheelScroll)
+			return TAG_MOUSE_WHEEL;
+		else
+			throw new IllegalArgumentException("Found action type that is not supported.");
+	}
+
+	/**
+	 * Returns the recording file number for the mouse button. These match the numbers used by the text recording format.
+	 * @param mouseButton The mouse button.
+	 * @return Returns the recording file number of the mouse button.
+	 */
+	static int getMouseButtonNumber(MouseButton mouseButton)
+	{
+		switch (mouseButton)
+		{
+			case Left:
+				return 1;
+			case Right:
+				return 2;
+			default:
+				return 3;
+		}
+	}
+
+	/**
+	 * Returns the mouse button for a recording file button number.
+	 * @param mouseButtonNumber The recording file number of the mouse button.
+	 * @return Returns the mouse button.
+	 * @throws DataFormatException Throws if the number doesn't represent a supported button.
+	 */
+	static MouseButton getMouseButton(int mouseButtonNumber) throws DataFormatException
+	{
+		switch (mouseButtonNumber)
+		{
+			case 1:
+				return MouseButton.Left;
+			case 2:
+				return MouseButton.Right;
+			case 3:
+				return MouseButton.ScrollWheel;
+			default:
+				throw new DataFormatException("Found an unsupported mouse button: " + mouseButtonNumber);
+		}
+	}
+
+	/**
+	 * Writes an unsigned varint: seven bits per byte, least significant group first, with the high bit set on every byte but the last.
+	 * @param output The output the value is written to.
+	 * @param value The value to write, interpreted as unsigned.
+	 * @throws IOException Throws if there is an issue writing to the output.
+	 */
+	static void writeVarLong(DataOutput output, long value) throws IOException
+	{
+		while ((value & ~0x7FL) != 0)
+		{
+			output.writeByte((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+
+		output.writeByte((int) value);
+	}
+
+	/**
+	 * Reads an unsigned varint written with {@link #writeVarLong(DataOutput, long)}.
+	 * @param input The input the value is read from.
+	 * @return Returns the decoded value.
+	 * @throws DataFormatException Throws if the varint is longer than a long allows.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	static long readVarLong(DataInput input) throws DataFormatException, IOException
+	{
+		long value = 0;
+
+		for (int byteNum = 0; byteNum < MAX_VARLONG_BYTES; byteNum++)
+		{
+			final int nextByte = input.readUnsignedByte();
+			value |= (long) (nextByte & 0x7F) << (7 * byteNum);
+
+			if ((nextByte & 0x80) == 0)
+				return value;
+		}
+
+		throw new DataFormatException("Found a malformed varint value.");
+	}
+
+	/**
+	 * Reads an unsigned varint that must fit into a non-negative int.
+	 * @param input The input the value is read from.
+	 * @return Returns the decoded value.
+	 * @throws DataFormatException Throws if the value doesn't fit into a non-negative int.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	static int readVarInt(DataInput input) throws DataFormatException, IOException
+	{
+		final long value = readVarLong(input);
+
+		if (value < 0 || value > Integer.MAX_VALUE)
+			throw new DataFormatException("Found a value that is out of range: " + value);
+
+		return (int) value;
+	}
+
+	/**
+	 * Maps signed values onto unsigned values so that small negative differences stay small when varint encoded.
+	 * @param value The signed value.
+	 * @return Returns the zig-zag encoded value.
+	 */
+	static long encodeZigZag(long value)
+	{
+		return (value << 1) ^ (value >> 63);
+	}
+
+	/**
+	 * Reverses {@link #encodeZigZag(long)}.
+	 * @param value The zig-zag encoded value.
+	 * @return Returns the signed value.
+	 */
+	static long decodeZigZag(long value)
+	{
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	/**
+	 * Writes the x and y values of the coordinate as varints.
+	 * @param output The output the coordinate is written to.
+	 * @param coordinate The coordinate to write.
+	 * @throws IOException Throws if there is an issue writing to the output.
+	 */
+	private static void writeCoordinate(DataOutput output, PixelCoordinate2D coordinate) throws IOException
+	{
+		writeVarLong(output, coordinate.getX());
+		writeVarLong(output, coordinate.getY());
+	}
+
+	/**
+	 * Reads a coordinate written with {@link #writeCoordinate(DataOutput, PixelCoordinate2D)} and fits it onto the target screen.
+	 * @param input The input the coordinate is read from.
+	 * @param importContext The context that fits the coordinate onto the target screen.
+	 * @return Returns the decoded coordinate.
+	 * @throws DataFormatException Throws if the coordinate values are out of range or rejected by the import context.
+	 * @throws IOException Throws if there is an issue reading from the input or it ends unexpectedly.
+	 */
+	private static PixelCoordinate2D readCoordinate(DataInput input, RecordingImportContext importContext) throws DataFormatException, IOException
+	{
+		return importContext.fitCoordinate(readVarInt(input), readVarInt(input));
+	}
+}
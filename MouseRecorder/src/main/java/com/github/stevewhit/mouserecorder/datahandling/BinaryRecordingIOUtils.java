@@ -0,0 +1,374 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Utility class designed for import and export of recordings in the compact binary recording format.
+ * <pre>
+ * Layout: 'MREC' | version (1 byte) | flags (1 byte) | [source width (varint) | source height (varint)] | click zone count (varint) | click zones | action entries | end tag (0)
+ * </pre>
+ * The source dimensions are only stored if the source dimensions flag is set. Version 1 files never set any flags.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class BinaryRecordingIOUtils
+{
+	/**
+	 * The bytes every binary recording file starts with.
+	 */
+	static final byte[] MAGIC_BYTES = new byte[]{'M', 'R', 'E', 'C'};
+
+	/**
+	 * The current version of the binary recording format. Version 2 added the source dimensions to the header.
+	 */
+	static final int FORMAT_VERSION = 2;
+
+	/**
+	 * The file extension used for binary recording files.
+	 */
+	public static final String BINARY_FILE_EXTENSION = ".mrec";
+
+	/**
+	 * The size of the buffers used when reading and writing binary recording files.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Private constructor to utilize this class as static.
+	 */
+	private BinaryRecordingIOUtils() {}
+
+	/**
+	 * Exports the actions and click zones to the desired save location in the binary recording format. The dimensions of the current screen are stored as the source dimensions.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.mrec)
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToBinaryFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation) throws IllegalArgumentException, IOException
+	{
+		exportRecordingToBinaryFile(inputActions, clickZones, saveLocation, RecordingImportContext.getCurrentScreenDimensions());
+	}
+
+	/**
+	 * Exports the actions and click zones to the desired save location in the binary recording format. The recording is written to a
+	 * temporary file next to the save location that only replaces it once it's complete, so a failed export leaves the old file untouched.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.mrec)
+	 * @param sourceDimensions The dimensions of the screen the recording was made on. May be null if they aren't known.
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToBinaryFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		if (inputActions == null || inputActions.isEmpty())
+		{
+			// Throw this so they know it isn't just going to create a blank file.
+			throw new IllegalArgumentException("Nothing to export in input actions.");
+		}
+
+		if (saveLocation == null || saveLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("Save location cannot be null or empty.");
+		}
+
+		final File saveFile = new File(saveLocation).getAbsoluteFile();
+		File temporaryFile = null;
+		boolean saved = false;
+
+		DataOutputStream dataOutput = null;
+
+		try
+		{
+			temporaryFile = File.createTempFile(saveFile.getName() + ".", ".tmp", saveFile.getParentFile());
+
+			final FileOutputStream fileOutput = new FileOutputStream(temporaryFile);
+			dataOutput = new DataOutputStream(new BufferedOutputStream(fileOutput, BUFFER_SIZE));
+
+			// Header
+			dataOutput.write(MAGIC_BYTES);
+			dataOutput.writeByte(FORMAT_VERSION);
+			BinaryRecordingCodec.writeFlagsAndSourceDimensions(dataOutput, sourceDimensions);
+
+			// Click zone block
+			BinaryRecordingCodec.writeVarLong(dataOutput, clickZones == null ? 0 : clickZones.size());
+
+			if (clickZones != null)
+			{
+				for (ClickZoneDetails clickZone : clickZones)
+				{
+					BinaryRecordingCodec.writeClickZone(dataOutput, clickZone);
+				}
+			}
+
+			// Action entries
+			long previousTimeStamp = 0;
+
+			for (AbstractInputAction action : inputActions)
+			{
+				BinaryRecordingCodec.writeAction(dataOutput, action, previousTimeStamp);
+				previousTimeStamp = action.getTimeStamp();
+			}
+
+			dataOutput.writeByte(BinaryRecordingCodec.TAG_END);
+			dataOutput.flush();
+			fileOutput.getChannel().force(false);
+
+			dataOutput.close();
+			dataOutput = null;
+
+			TextRecordingWriter.replaceFile(temporaryFile, saveFile);
+			saved = true;
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Could not write to desired save location because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			// Clean up
+			try
+			{
+				if (dataOutput != null)
+					dataOutput.close();
+			}
+			finally
+			{
+				if (!saved && temporaryFile != null)
+					temporaryFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Imports the actions and click zones of a binary recording file, clamping their coordinates to the current screen.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the decoded actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a binary recording or contains invalid data.
+	 */
+	public static RecordingData importRecordingFromBinaryFile(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		return importRecordingFromBinaryFile(fileLocation, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Imports the actions and click zones of a binary recording file.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @return Returns the decoded actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the import context is null.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a binary recording or contains invalid data.
+	 */
+	public static RecordingData importRecordingFromBinaryFile(String fileLocation, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final RecordingData importedRecording = new RecordingData();
+
+		streamRecordingFromBinaryFile(fileLocation, importedRecording, importContext);
+
+		return importedRecording;
+	}
+
+	/**
+	 * Reads a binary recording file in a single pass and hands each click zone and action to the listener as soon as it is decoded. 
+	 * The coordinates are clamped to the current screen.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param listener The listener that receives the click zones and actions in file order.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the listener is null.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a binary recording, contains invalid data or doesn't contain any actions.
+	 */
+	public static void streamRecordingFromBinaryFile(String fileLocation, RecordingDataListener listener) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		streamRecordingFromBinaryFile(fileLocation, listener, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Reads a binary recording file in a single pass and hands each click zone and action to the listener as soon as it is decoded.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param listener The listener that receives the click zones and actions in file order.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the listener or import context is null.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a binary recording, contains invalid data or doesn't contain any actions.
+	 */
+	public static void streamRecordingFromBinaryFile(String fileLocation, RecordingDataListener listener, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+		}
+
+		if (listener == null)
+		{
+			throw new IllegalArgumentException("Recording data listener cannot be null.");
+		}
+
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+
+		DataInputStream dataInput = null;
+
+		try
+		{
+			dataInput = new DataInputStream(new BufferedInputStream(new FileInputStream(fileLocation), BUFFER_SIZE));
+
+			for (ClickZoneDetails clickZone : readHeaderAndClickZones(dataInput, importContext))
+			{
+				listener.clickZoneRead(clickZone);
+			}
+
+			long previousTimeStamp = 0;
+			long actionCount = 0;
+			int tag;
+
+			while ((tag = dataInput.readUnsignedByte()) != BinaryRecordingCodec.TAG_END)
+			{
+				final AbstractInputAction action = BinaryRecordingCodec.readAction(dataInput, tag, previousTimeStamp, importContext);
+
+				listener.inputActionRead(action);
+				previousTimeStamp = action.getTimeStamp();
+				actionCount++;
+			}
+
+			if (actionCount == 0)
+			{
+				throw new DataFormatException("Binary recording doesn't contain any input actions.");
+			}
+		}
+		catch (EOFException ex)
+		{
+			throw new DataFormatException("Binary recording ended unexpectedly.");
+		}
+		finally
+		{
+			// Clean up
+			if (dataInput != null)
+				dataInput.close();
+		}
+	}
+
+	/**
+	 * Checks the first bytes of the file to determine whether it is a binary recording file.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns true if the file starts with the binary recording magic bytes; otherwise false.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 */
+	public static boolean isBinaryRecordingFile(String fileLocation) throws IllegalArgumentException, IOException
+	{
+		return fileStartsWith(fileLocation, MAGIC_BYTES);
+	}
+
+	/**
+	 * Checks whether the file starts with the given bytes.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param magicBytes The bytes the file is expected to start with.
+	 * @return Returns true if the file starts with the bytes; otherwise false.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 */
+	static boolean fileStartsWith(String fileLocation, byte[] magicBytes) throws IllegalArgumentException, IOException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+		}
+
+		FileInputStream fileInput = null;
+
+		try
+		{
+			fileInput = new FileInputStream(fileLocation);
+
+			final byte[] leadingBytes = new byte[magicBytes.length];
+			int bytesRead = 0;
+			int readCount;
+
+			while (bytesRead < leadingBytes.length && (readCount = fileInput.read(leadingBytes, bytesRead, leadingBytes.length - bytesRead)) != -1)
+			{
+				bytesRead += readCount;
+			}
+
+			return bytesRead == leadingBytes.length && Arrays.equals(leadingBytes, magicBytes);
+		}
+		finally
+		{
+			// Clean up
+			if (fileInput != null)
+				fileInput.close();
+		}
+	}
+
+	/**
+	 * Reads and verifies the header of a binary recording, stores its source dimensions in the import context and returns the click zones stored in it.
+	 * @param dataInput The input positioned at the start of the file.
+	 * @param importContext The context that fits the click zones onto the target screen.
+	 * @return Returns the click zones stored in the header.
+	 * @throws DataFormatException Throws if the header is invalid or the version isn't supported.
+	 * @throws IOException Throws if there's an issue reading from the input.
+	 */
+	static ArrayList<ClickZoneDetails> readHeaderAndClickZones(DataInputStream dataInput, RecordingImportContext importContext) throws DataFormatException, IOException
+	{
+		importContext.setSourceDimensions(readHeader(dataInput));
+
+		final int clickZoneCount = BinaryRecordingCodec.readVarInt(dataInput);
+		final ArrayList<ClickZoneDetails> clickZones = new ArrayList<ClickZoneDetails>(Math.min(clickZoneCount, 1024));
+
+		for (int zoneNum = 0; zoneNum < clickZoneCount; zoneNum++)
+		{
+			clickZones.add(BinaryRecordingCodec.readClickZone(dataInput, importContext));
+		}
+
+		return clickZones;
+	}
+
+	/**
+	 * Reads and verifies the magic bytes, version and flags of a binary recording.
+	 * @param dataInput The input positioned at the start of the file.
+	 * @return Returns the dimensions of the screen the recording was made on; null if the recording doesn't store them.
+	 * @throws DataFormatException Throws if the header is invalid or the version isn't supported.
+	 * @throws IOException Throws if there's an issue reading from the input.
+	 */
+	static Dimension readHeader(DataInputStream dataInput) throws DataFormatException, IOException
+	{
+		final byte[] leadingBytes = new byte[MAGIC_BYTES.length];
+		dataInput.readFully(leadingBytes);
+
+		if (!Arrays.equals(leadingBytes, MAGIC_BYTES))
+		{
+			throw new DataFormatException("File is not a binary recording.");
+		}
+
+		final int version = dataInput.readUnsignedByte();
+
+		if (version < 1 || version > FORMAT_VERSION)
+		{
+			throw new DataFormatException("Binary recording version is not supported: " + version);
+		}
+
+		return BinaryRecordingCodec.readFlagsAndSourceDimensions(dataInput);
+	}
+}
@@ -0,0 +1,62 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads bytes from a buffer. Nothing is read ahead, so the position of the buffer always points at the next unread byte.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+final class ByteBufferInputStream extends InputStream
+{
+	/**
+	 * The buffer the bytes are read from.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * Constructor that accepts the buffer to read from, starting at its current position.
+	 * @param buffer The buffer the bytes are read from.
+	 */
+	ByteBufferInputStream(ByteBuffer buffer)
+	{
+		this.buffer = buffer;
+	}
+
+	/**
+	 * Returns the index of the next byte that will be read.
+	 * @return Returns the position of the underlying buffer.
+	 */
+	int getPosition()
+	{
+		return buffer.position();
+	}
+
+	@Override
+	public int read()
+	{
+		return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+	}
+
+	@Override
+	public int read(byte[] bytes, int offset, int length)
+	{
+		if (length == 0)
+			return 0;
+
+		if (!buffer.hasRemaining())
+			return -1;
+
+		final int bytesRead = Math.min(length, buffer.remaining());
+		buffer.get(bytes, offset, bytesRead);
+
+		return bytesRead;
+	}
+
+	@Override
+	public int available()
+	{
+		return buffer.remaining();
+	}
+}
@@ -0,0 +1,95 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A reusable view of a single line of a buffered text recording as characters. Recordings only contain ASCII, so each byte is one character.
+ * Only absolute reads are used, so the same buffer can be shared by views on different threads.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+final class ByteBufferLineSequence implements CharSequence
+{
+	/**
+	 * The contents the lines are read from.
+	 */
+	private final ByteBuffer contents;
+
+	/**
+	 * The index of the first byte of the line.
+	 */
+	private int lineStart;
+
+	/**
+	 * The number of bytes in the line.
+	 */
+	private int lineLength;
+
+	/**
+	 * Constructor that accepts the contents the lines are read from.
+	 * @param contents The contents the lines are read from.
+	 */
+	ByteBufferLineSequence(ByteBuffer contents)
+	{
+		this.contents = contents;
+	}
+
+	/**
+	 * Points this view at the line that starts at the given index. A trailing '\r' is not part of the line.
+	 * @param lineStart The index of the first byte of the line.
+	 * @param contentsEnd The index after the last byte the line may extend to.
+	 * @return Returns the index of the first byte of the following line.
+	 */
+	int setLine(int lineStart, int contentsEnd)
+	{
+		int lineEnd = lineStart;
+
+		while (lineEnd < contentsEnd && contents.get(lineEnd) != '\n')
+			lineEnd++;
+
+		final int nextLineStart = lineEnd + 1;
+
+		// Treat "\r\n" the same as "\n".
+		if (lineEnd > lineStart && contents.get(lineEnd - 1) == '\r')
+			lineEnd--;
+
+		this.lineStart = lineStart;
+		this.lineLength = lineEnd - lineStart;
+
+		return nextLineStart;
+	}
+
+	@Override
+	public int length()
+	{
+		return lineLength;
+	}
+
+	@Override
+	public char charAt(int index)
+	{
+		if (index < 0 || index >= lineLength)
+			throw new IndexOutOfBoundsException("Index is outside of the line: " + index);
+
+		return (char) (contents.get(lineStart + index) & 0xFF);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end)
+	{
+		return toString().substring(start, end);
+	}
+
+	@Override
+	public String toString()
+	{
+		final char[] lineCharacters = new char[lineLength];
+
+		for (int index = 0; index < lineLength; index++)
+		{
+			lineCharacters[index] = charAt(index);
+		}
+
+		return new String(lineCharacters);
+	}
+}
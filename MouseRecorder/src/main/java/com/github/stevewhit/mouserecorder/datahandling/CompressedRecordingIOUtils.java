@@ -0,0 +1,683 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Utility class designed for import and export of recordings in the block-compressed recording format. The actions are split into blocks
+ * that are each compressed on their own, and a block index at the end of the file stores where each block starts, its first time stamp and
+ * its action count. Blocks are decompressed in parallel on import, and an import that starts part-way through the recording only
+ * decompresses the blocks from the start time on.
+ * <pre>
+ * Layout: 'MRCZ' | version (1 byte) | flags (1 byte) | [source width (varint) | source height (varint)] | click zone count (varint) | click zones | compressed blocks | block index | index offset (8 bytes)
+ * Block index: block count (varint) | per block: offset (varlong), compressed length (varint), uncompressed length (varint), first time stamp (varlong), action count (varint)
+ * </pre>
+ * Each block holds its actions in the binary recording encoding, starting over from a previous time stamp of zero so it can be decoded on its own.
+ * The flags and source dimensions are the same as in the binary recording format.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class CompressedRecordingIOUtils
+{
+	/**
+	 * The bytes every compressed recording file starts with.
+	 */
+	static final byte[] MAGIC_BYTES = new byte[]{'M', 'R', 'C', 'Z'};
+
+	/**
+	 * The current version of the compressed recording format. Version 2 added the source dimensions to the header.
+	 */
+	static final int FORMAT_VERSION = 2;
+
+	/**
+	 * The file extension used for compressed recording files.
+	 */
+	public static final String COMPRESSED_FILE_EXTENSION = ".mrecz";
+
+	/**
+	 * The default number of actions stored in a single block.
+	 */
+	public static final int DEFAULT_ACTIONS_PER_BLOCK = 4096;
+
+	/**
+	 * The number of bytes used by the index offset at the end of the file.
+	 */
+	private static final int TRAILER_SIZE = 8;
+
+	/**
+	 * The size of the buffers used when writing compressed recording files.
+	 */
+	private static final int BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * Private constructor to utilize this class as static.
+	 */
+	private CompressedRecordingIOUtils() {}
+
+	/**
+	 * Exports the actions and click zones to the desired save location in the compressed recording format, using the default block size. 
+	 * The dimensions of the current screen are stored as the source dimensions.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.mrecz)
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToCompressedFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation) throws IllegalArgumentException, IOException
+	{
+		exportRecordingToCompressedFile(inputActions, clickZones, saveLocation, DEFAULT_ACTIONS_PER_BLOCK);
+	}
+
+	/**
+	 * Exports the actions and click zones to the desired save location in the compressed recording format. The dimensions of the current screen are stored as the source dimensions.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.mrecz)
+	 * @param actionsPerBlock The number of actions stored in each block. Smaller blocks allow finer seeking; larger blocks compress better.
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, if the save location is null or empty,
+	 * or if the number of actions per block isn't positive.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToCompressedFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation, int actionsPerBlock) throws IllegalArgumentException, IOException
+	{
+		exportRecordingToCompressedFile(inputActions, clickZones, saveLocation, actionsPerBlock, RecordingImportContext.getCurrentScreenDimensions());
+	}
+
+	/**
+	 * Exports the actions and click zones to the desired save location in the compressed recording format. The recording is written to a
+	 * temporary file next to the save location that only replaces it once it's complete, so a failed export leaves the old file untouched.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.mrecz)
+	 * @param actionsPerBlock The number of actions stored in each block. Smaller blocks allow finer seeking; larger blocks compress better.
+	 * @param sourceDimensions The dimensions of the screen the recording was made on. May be null if they aren't known.
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, if the save location is null or empty,
+	 * or if the number of actions per block isn't positive.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToCompressedFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation, int actionsPerBlock, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		if (inputActions == null || inputActions.isEmpty())
+		{
+			// Throw this so they know it isn't just going to create a blank file.
+			throw new IllegalArgumentException("Nothing to export in input actions.");
+		}
+
+		if (saveLocation == null || saveLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("Save location cannot be null or empty.");
+		}
+
+		if (actionsPerBlock <= 0)
+		{
+			throw new IllegalArgumentException("Actions per block must be greater than zero.");
+		}
+
+		final File saveFile = new File(saveLocation).getAbsoluteFile();
+		File temporaryFile = null;
+		boolean saved = false;
+
+		DataOutputStream dataOutput = null;
+		final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+		try
+		{
+			temporaryFile = File.createTempFile(saveFile.getName() + ".", ".tmp", saveFile.getParentFile());
+
+			final FileOutputStream fileOutput = new FileOutputStream(temporaryFile);
+			dataOutput = new DataOutputStream(new BufferedOutputStream(fileOutput, BUFFER_SIZE));
+
+			// Header
+			dataOutput.write(MAGIC_BYTES);
+			dataOutput.writeByte(FORMAT_VERSION);
+			BinaryRecordingCodec.writeFlagsAndSourceDimensions(dataOutput, sourceDimensions);
+
+			// Click zone block
+			BinaryRecordingCodec.writeVarLong(dataOutput, clickZones == null ? 0 : clickZones.size());
+
+			if (clickZones != null)
+			{
+				for (ClickZoneDetails clickZone : clickZones)
+				{
+					BinaryRecordingCodec.writeClickZone(dataOutput, clickZone);
+				}
+			}
+
+			// Compressed blocks
+			final ByteArrayOutputStream blockBytes = new ByteArrayOutputStream();
+			final DataOutputStream blockOutput = new DataOutputStream(blockBytes);
+			final ArrayList<BlockIndexEntry> blockIndex = new ArrayList<BlockIndexEntry>();
+			final Iterator<AbstractInputAction> actionsIterator = inputActions.iterator();
+
+			long blockOffset = dataOutput.size();
+
+			while (actionsIterator.hasNext())
+			{
+				final BlockIndexEntry block = new BlockIndexEntry();
+				long previousTimeStamp = 0;
+
+				blockBytes.reset();
+
+				while (block.actionCount < actionsPerBlock && actionsIterator.hasNext())
+				{
+					final AbstractInputAction action = actionsIterator.next();
+
+					if (block.actionCount == 0)
+						block.firstTimeStamp = action.getTimeStamp();
+
+					BinaryRecordingCodec.writeAction(blockOutput, action, previousTimeStamp);
+					previousTimeStamp = action.getTimeStamp();
+					block.actionCount++;
+				}
+
+				final byte[] compressedBlock = deflateBlock(deflater, blockBytes.toByteArray());
+
+				block.offset = blockOffset;
+				block.compressedLength = compressedBlock.length;
+				block.uncompressedLength = blockBytes.size();
+
+				dataOutput.write(compressedBlock);
+				blockIndex.add(block);
+				blockOffset += compressedBlock.length;
+			}
+
+			// Block index
+			BinaryRecordingCodec.writeVarLong(dataOutput, blockIndex.size());
+
+			for (BlockIndexEntry block : blockIndex)
+			{
+				BinaryRecordingCodec.writeVarLong(dataOutput, block.offset);
+				BinaryRecordingCodec.writeVarLong(dataOutput, block.compressedLength);
+				BinaryRecordingCodec.writeVarLong(dataOutput, block.uncompressedLength);
+				BinaryRecordingCodec.writeVarLong(dataOutput, block.firstTimeStamp);
+				BinaryRecordingCodec.writeVarLong(dataOutput, block.actionCount);
+			}
+
+			dataOutput.writeLong(blockOffset);
+			dataOutput.flush();
+			fileOutput.getChannel().force(false);
+
+			dataOutput.close();
+			dataOutput = null;
+
+			TextRecordingWriter.replaceFile(temporaryFile, saveFile);
+			saved = true;
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Could not write to desired save location because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			// Clean up
+			deflater.end();
+
+			try
+			{
+				if (dataOutput != null)
+					dataOutput.close();
+			}
+			finally
+			{
+				if (!saved && temporaryFile != null)
+					temporaryFile.delete();
+			}
+		}
+	}
+
+	/**
+	 * Imports the actions and click zones of a compressed recording file, decompressing its blocks in parallel. The coordinates are clamped to the current screen.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the decoded actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a compressed recording or contains invalid data.
+	 */
+	public static RecordingData importRecordingFromCompressedFile(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		return importRecordingFromCompressedFile(fileLocation, 0);
+	}
+
+	/**
+	 * Imports the click zones and the actions at or after the given playback time of a compressed recording file, clamping their coordinates to the current screen.
+	 * See {@link #importRecordingFromCompressedFile(String, long, RecordingImportContext)}.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) of the first action to import.
+	 * @return Returns the click zones of the recording and the actions from the start time on.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the start time is negative.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a compressed recording or contains invalid data.
+	 */
+	public static RecordingData importRecordingFromCompressedFile(String fileLocation, long startPlaybackTime) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		return importRecordingFromCompressedFile(fileLocation, startPlaybackTime, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Imports the click zones and the actions at or after the given playback time of a compressed recording file. The blocks that end before
+	 * the start time are skipped without being read, and the remaining blocks are decompressed in parallel.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) of the first action to import.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @return Returns the click zones of the recording and the actions from the start time on.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the start time is negative or if the import context is null.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the file isn't a compressed recording or contains invalid data.
+	 */
+	public static RecordingData importRecordingFromCompressedFile(String fileLocation, long startPlaybackTime, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+		}
+
+		if (startPlaybackTime < 0)
+		{
+			throw new IllegalArgumentException("Start playback time cannot be negative.");
+		}
+
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+
+		final RecordingData importedRecording = new RecordingData();
+		RandomAccessFile file = null;
+
+		try
+		{
+			file = new RandomAccessFile(fileLocation, "r");
+
+			for (ClickZoneDetails clickZone : readHeaderAndClickZones(file, importContext))
+			{
+				importedRecording.clickZoneRead(clickZone);
+			}
+
+			final BlockIndexEntry[] blockIndex = readBlockIndex(file);
+			final long recordingStartTime = blockIndex[0].firstTimeStamp;
+
+			// Start at the last block that begins at or before the start time.
+			int firstBlock = 0;
+
+			while (firstBlock + 1 < blockIndex.length && blockIndex[firstBlock + 1].firstTimeStamp - recordingStartTime <= startPlaybackTime)
+				firstBlock++;
+
+			// Read the compressed blocks from the first block on in one go.
+			final long blocksStart = blockIndex[firstBlock].offset;
+			final BlockIndexEntry lastBlock = blockIndex[blockIndex.length - 1];
+			final long blocksLength = lastBlock.offset + lastBlock.compressedLength - blocksStart;
+
+			if (blocksLength > Integer.MAX_VALUE)
+			{
+				throw new IOException("Compressed blocks are too large to be read at once.");
+			}
+
+			final byte[] compressedBlocks = new byte[(int) blocksLength];
+
+			file.seek(blocksStart);
+			file.readFully(compressedBlocks);
+
+			final List<InflateBlockTask> blockTasks = new ArrayList<InflateBlockTask>(blockIndex.length - firstBlock);
+
+			for (int blockNum = firstBlock; blockNum < blockIndex.length; blockNum++)
+			{
+				blockTasks.add(new InflateBlockTask(compressedBlocks, (int) (blockIndex[blockNum].offset - blocksStart), blockIndex[blockNum], recordingStartTime, startPlaybackTime, importContext));
+			}
+
+			ForkJoinTask.invokeAll(blockTasks);
+
+			// Stitch the blocks back together in file order.
+			for (int taskNum = 0; taskNum < blockTasks.size(); taskNum++)
+			{
+				final InflateBlockTask blockTask = blockTasks.get(taskNum);
+
+				if (blockTask.errorMessage != null)
+				{
+					throw new DataFormatException("Cancelled data import in block " + (firstBlock + taskNum + 1) + " because ==> " + blockTask.errorMessage);
+				}
+
+				for (AbstractInputAction inputAction : blockTask.inputActions)
+				{
+					importedRecording.inputActionRead(inputAction);
+				}
+			}
+		}
+		catch (EOFException ex)
+		{
+			throw new DataFormatException("Compressed recording ended unexpectedly.");
+		}
+		finally
+		{
+			// Clean up
+			if (file != null)
+				file.close();
+		}
+
+		return importedRecording;
+	}
+
+	/**
+	 * Checks the first bytes of the file to determine whether it is a compressed recording file.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns true if the file starts with the compressed recording magic bytes; otherwise false.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 */
+	public static boolean isCompressedRecordingFile(String fileLocation) throws IllegalArgumentException, IOException
+	{
+		return BinaryRecordingIOUtils.fileStartsWith(fileLocation, MAGIC_BYTES);
+	}
+
+	/**
+	 * Reads and verifies the header of a compressed recording, stores its source dimensions in the import context and returns the click zones stored in it.
+	 * @param file The file positioned at its start.
+	 * @param importContext The context that fits the click zones onto the target screen.
+	 * @return Returns the click zones stored in the header.
+	 * @throws DataFormatException Throws if the header is invalid or the version isn't supported.
+	 * @throws IOException Throws if there's an issue reading from the file.
+	 */
+	private static ArrayList<ClickZoneDetails> readHeaderAndClickZones(RandomAccessFile file, RecordingImportContext importContext) throws DataFormatException, IOException
+	{
+		final byte[] leadingBytes = new byte[MAGIC_BYTES.length];
+		file.readFully(leadingBytes);
+
+		if (!Arrays.equals(leadingBytes, MAGIC_BYTES))
+		{
+			throw new DataFormatException("File is not a compressed recording.");
+		}
+
+		final int version = file.readUnsignedByte();
+
+		if (version < 1 || version > FORMAT_VERSION)
+		{
+			throw new DataFormatException("Compressed recording version is not supported: " + version);
+		}
+
+		importContext.setSourceDimensions(BinaryRecordingCodec.readFlagsAndSourceDimensions(file));
+
+		final int clickZoneCount = BinaryRecordingCodec.readVarInt(file);
+		final ArrayList<ClickZoneDetails> clickZones = new ArrayList<ClickZoneDetails>(Math.min(clickZoneCount, 1024));
+
+		for (int zoneNum = 0; zoneNum < clickZoneCount; zoneNum++)
+		{
+			clickZones.add(BinaryRecordingCodec.readClickZone(file, importContext));
+		}
+
+		return clickZones;
+	}
+
+	/**
+	 * Reads the block index at the end of a compressed recording.
+	 * @param file The compressed recording.
+	 * @return Returns the entries of the block index in file order.
+	 * @throws DataFormatException Throws if the index is invalid or there aren't any blocks.
+	 * @throws IOException Throws if there's an issue reading from the file.
+	 */
+	private static BlockIndexEntry[] readBlockIndex(RandomAccessFile file) throws DataFormatException, IOException
+	{
+		final long headerEnd = file.getFilePointer();
+		final long trailerStart = file.length() - TRAILER_SIZE;
+
+		if (trailerStart < headerEnd)
+		{
+			throw new DataFormatException("Compressed recording ended unexpectedly.");
+		}
+
+		file.seek(trailerStart);
+		final long indexOffset = file.readLong();
+
+		if (indexOffset < headerEnd || indexOffset > trailerStart)
+		{
+			throw new DataFormatException("Compressed recording has an invalid block index offset: " + indexOffset);
+		}
+
+		final byte[] indexBytes = new byte[(int) (trailerStart - indexOffset)];
+
+		file.seek(indexOffset);
+		file.readFully(indexBytes);
+
+		final DataInputStream indexInput = new DataInputStream(new ByteArrayInputStream(indexBytes));
+		final int blockCount = BinaryRecordingCodec.readVarInt(indexInput);
+
+		if (blockCount == 0)
+		{
+			throw new DataFormatException("Compressed recording doesn't contain any input actions.");
+		}
+
+		final BlockIndexEntry[] blockIndex = new BlockIndexEntry[Math.min(blockCount, indexBytes.length)];
+		long expectedOffset = headerEnd;
+
+		for (int blockNum = 0; blockNum < blockCount; blockNum++)
+		{
+			if (blockNum >= blockIndex.length)
+			{
+				throw new DataFormatException("Compressed recording has an invalid block count: " + blockCount);
+			}
+
+			final BlockIndexEntry block = new BlockIndexEntry();
+
+			block.offset = BinaryRecordingCodec.readVarLong(indexInput);
+			block.compressedLength = BinaryRecordingCodec.readVarInt(indexInput);
+			block.uncompressedLength = BinaryRecordingCodec.readVarInt(indexInput);
+			block.firstTimeStamp = BinaryRecordingCodec.readVarLong(indexInput);
+			block.actionCount = BinaryRecordingCodec.readVarInt(indexInput);
+
+			// Blocks are stored back to back between the header and the index.
+			if (block.offset != expectedOffset || block.offset + block.compressedLength > indexOffset)
+			{
+				throw new DataFormatException("Compressed recording has an invalid entry for block " + (blockNum + 1) + ".");
+			}
+
+			blockIndex[blockNum] = block;
+			expectedOffset = block.offset + block.compressedLength;
+		}
+
+		return blockIndex;
+	}
+
+	/**
+	 * Compresses the contents of a single block.
+	 * @param deflater The deflater used to compress the block. It is reset before use.
+	 * @param blockBytes The uncompressed contents of the block.
+	 * @return Returns the compressed contents of the block.
+	 */
+	private static byte[] deflateBlock(Deflater deflater, byte[] blockBytes)
+	{
+		final ByteArrayOutputStream compressedBytes = new ByteArrayOutputStream(blockBytes.length / 4 + 64);
+		final byte[] buffer = new byte[8 * 1024];
+
+		deflater.reset();
+		deflater.setInput(blockBytes);
+		deflater.finish();
+
+		while (!deflater.finished())
+		{
+			compressedBytes.write(buffer, 0, deflater.deflate(buffer));
+		}
+
+		return compressedBytes.toByteArray();
+	}
+
+	/**
+	 * Where a single block is stored and what it contains.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class BlockIndexEntry
+	{
+		/**
+		 * The position of the compressed block in the file.
+		 */
+		private long offset;
+
+		/**
+		 * The number of bytes of the compressed block.
+		 */
+		private int compressedLength;
+
+		/**
+		 * The number of bytes of the block once decompressed.
+		 */
+		private int uncompressedLength;
+
+		/**
+		 * The time stamp of the first action of the block.
+		 */
+		private long firstTimeStamp;
+
+		/**
+		 * The number of actions in the block.
+		 */
+		private int actionCount;
+	}
+
+	/**
+	 * Decompresses and decodes the actions of a single block. Rather than throwing, the error is recorded so that
+	 * the blocks before it are still reported in order.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class InflateBlockTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The compressed blocks that were read from the file. Shared between tasks and only read.
+		 */
+		private final byte[] compressedBlocks;
+
+		/**
+		 * The index of the first byte of this block in the compressed blocks.
+		 */
+		private final int blockStart;
+
+		/**
+		 * The index entry of this block.
+		 */
+		private final BlockIndexEntry block;
+
+		/**
+		 * The time stamp of the first action of the recording.
+		 */
+		private final long recordingStartTime;
+
+		/**
+		 * The playback time of the first action to keep; earlier actions are decoded but dropped.
+		 */
+		private final long startPlaybackTime;
+
+		/**
+		 * The context that fits the coordinates of the actions onto the target screen. Its source dimensions are set before the tasks start.
+		 */
+		private final RecordingImportContext importContext;
+
+		/**
+		 * The input actions decoded from the block.
+		 */
+		private final ArrayList<AbstractInputAction> inputActions;
+
+		/**
+		 * Describes why the block couldn't be decoded; null if it was valid.
+		 */
+		private String errorMessage;
+
+		/**
+		 * Constructor that accepts the block to decode.
+		 * @param compressedBlocks The compressed blocks that were read from the file.
+		 * @param blockStart The index of the first byte of this block in the compressed blocks.
+		 * @param block The index entry of this block.
+		 * @param recordingStartTime The time stamp of the first action of the recording.
+		 * @param startPlaybackTime The playback time (in nanoseconds from the first action) of the first action to keep.
+		 * @param importContext The context that fits the coordinates of the actions onto the target screen.
+		 */
+		private InflateBlockTask(byte[] compressedBlocks, int blockStart, BlockIndexEntry block, long recordingStartTime, long startPlaybackTime, RecordingImportContext importContext)
+		{
+			this.compressedBlocks = compressedBlocks;
+			this.blockStart = blockStart;
+			this.block = block;
+			this.recordingStartTime = recordingStartTime;
+			this.startPlaybackTime = startPlaybackTime;
+			this.importContext = importContext;
+			this.inputActions = new ArrayList<AbstractInputAction>(block.actionCount);
+		}
+
+		/**
+		 * Decompresses the block and decodes each of its actions.
+		 */
+		@Override
+		protected void compute()
+		{
+			final Inflater inflater = new Inflater();
+
+			try
+			{
+				final byte[] blockBytes = new byte[block.uncompressedLength];
+
+				inflater.setInput(compressedBlocks, blockStart, block.compressedLength);
+
+				int bytesInflated = 0;
+
+				while (bytesInflated < blockBytes.length && !inflater.finished())
+				{
+					final int inflatedCount = inflater.inflate(blockBytes, bytesInflated, blockBytes.length - bytesInflated);
+
+					if (inflatedCount == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+						break;
+
+					bytesInflated += inflatedCount;
+				}
+
+				if (bytesInflated != blockBytes.length || !inflater.finished())
+				{
+					throw new DataFormatException("Block doesn't decompress to its stored length.");
+				}
+
+				final DataInputStream blockInput = new DataInputStream(new ByteArrayInputStream(blockBytes));
+				long previousTimeStamp = 0;
+
+				for (int actionNum = 0; actionNum < block.actionCount; actionNum++)
+				{
+					final AbstractInputAction action = BinaryRecordingCodec.readAction(blockInput, blockInput.readUnsignedByte(), previousTimeStamp, importContext);
+
+					if (action.getTimeStamp() - recordingStartTime >= startPlaybackTime)
+						inputActions.add(action);
+
+					previousTimeStamp = action.getTimeStamp();
+				}
+			}
+			catch (EOFException ex)
+			{
+				errorMessage = "Block ended unexpectedly.";
+			}
+			catch (DataFormatException | IOException | IllegalArgumentException ex)
+			{
+				errorMessage = ex.getMessage();
+			}
+			finally
+			{
+				inflater.end();
+			}
+		}
+	}
+}
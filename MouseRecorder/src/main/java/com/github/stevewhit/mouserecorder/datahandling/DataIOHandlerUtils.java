@@ -1,23 +1,24 @@
 package com.github.stevewhit.mouserecorder.datahandling;
 
+import java.awt.Dimension;
 import java.io.BufferedReader;
+import java.io.Closeable;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileReader;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Queue;
 import java.util.zip.DataFormatException;
 import javax.activation.UnsupportedDataTypeException;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
 import com.github.stevewhit.mouserecorder.monitor.Pixel;
 import com.github.stevewhit.mouserecorder.monitor.PixelColor;
 import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
-import com.github.stevewhit.mouserecorder.monitor.ScreenUtils;
 import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
-import com.github.stevewhit.mouserecorder.ui.LoadedRecording;
 import com.github.stevewhit.mouserecorder.ui.PlaybackOptions;
 import com.github.stevewhit.mouserecorder.ui.PlaybackOptions.TimeQuantifier;
 import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
@@ -30,6 +31,7 @@ import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButton;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
 
 /**
  * Utility class designed for import and export of user input action data.
@@ -38,6 +40,11 @@ import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
  */
 public class DataIOHandlerUtils
 {
+	/**
+	 * The size (in bytes) from which text recordings are imported by parsing chunks of the file in parallel.
+	 */
+	public static final long PARALLEL_IMPORT_THRESHOLD_BYTES = 8 * 1024 * 1024;
+	
 	/**
 	 * Private constructor to utilize this class as static.
 	 */
@@ -45,6 +52,7 @@ public class DataIOHandlerUtils
 	
 	/**
 	 * Export the given list to the desired save location. It utilizes the toString() method on each object to write it to the location.
+	 * The list is written to a temporary file first, which then replaces the save location, so a failed export never leaves a truncated file behind.
 	 * @param exportableData A List of objects that utilize the toString() method to be exported.
 	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
 	 * @throws IllegalArgumentException Throws if the exportable data is null or empty, or if the save location is null or empty.
@@ -58,43 +66,151 @@ public class DataIOHandlerUtils
 			throw new IllegalArgumentException("Nothing to export in exportable data.");
 		}
 		
-		if (saveLocation == null || saveLocation.isEmpty())
+		exportRecordingLinesToFile(null, exportableData, saveLocation, null);
+	}
+	
+	/**
+	 * Exports the click zone lines followed by the action lines to the desired save location. The dimensions of the current screen are stored as the source dimensions.
+	 * See {@link #exportRecordingLinesToFile(Iterable, Iterable, String, Dimension)}.
+	 * @param clickZoneLines The formatted click zone lines (CZONEE). May be null if the recording doesn't have any.
+	 * @param actionLines The formatted action lines in the order they were recorded.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @throws IllegalArgumentException Throws if the action lines are null or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingLinesToFile(Iterable<? extends CharSequence> clickZoneLines, Iterable<? extends CharSequence> actionLines, String saveLocation) throws IllegalArgumentException, IOException
+	{
+		exportRecordingLinesToFile(clickZoneLines, actionLines, saveLocation, RecordingImportContext.getCurrentScreenDimensions());
+	}
+	
+	/**
+	 * Exports the click zone lines followed by the action lines to the desired save location, streaming them straight to the file without 
+	 * building a combined list first. The lines are written to a temporary file, which then atomically replaces the save location.
+	 * @param clickZoneLines The formatted click zone lines (CZONEE). May be null if the recording doesn't have any.
+	 * @param actionLines The formatted action lines in the order they were recorded.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @param sourceDimensions The dimensions of the screen the recording was made on, written as the first line. May be null if they aren't known.
+	 * @throws IllegalArgumentException Throws if the action lines are null or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingLinesToFile(Iterable<? extends CharSequence> clickZoneLines, Iterable<? extends CharSequence> actionLines, String saveLocation, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		if (actionLines == null)
 		{
-			throw new IllegalArgumentException("Save location cannot be null or empty.");
+			throw new IllegalArgumentException("Action lines cannot be null.");
 		}
 		
-		File file = null;
-		FileOutputStream os = null;
-		PrintWriter pWriter = null;
+		final TextRecordingWriter recordingWriter = new TextRecordingWriter(saveLocation);
+		Iterator<? extends CharSequence> actionLineIterator = null;
 		
 		try
 		{
-			file = new File(saveLocation);
-			os = new FileOutputStream(file);
-			pWriter = new PrintWriter(os);
+			if (sourceDimensions != null)
+			{
+				recordingWriter.writeSourceDimensions(sourceDimensions);
+			}
+			
+			if (clickZoneLines != null)
+			{
+				for (CharSequence line : clickZoneLines)
+				{
+					recordingWriter.writeLine(line);
+				}
+			}
+			
+			actionLineIterator = actionLines.iterator();
 			
-			// Write the contents of the list as a string.
-			for (String listItem : exportableData)
+			while (actionLineIterator.hasNext())
 			{
-				pWriter.write(listItem.toString() + "\n");
+				recordingWriter.writeLine(actionLineIterator.next());
 			}
+			
+			recordingWriter.commit();
 		}
 		catch (IOException ex)
 		{
 			throw new IOException("Could not write to desired save location because ==> " + ex.getMessage());
 		}
-		finally 
+		finally
 		{
-			// Clean up
-			if (pWriter != null)
-			{			
-				pWriter.flush();
-				pWriter.close();
+			try
+			{
+				// Release the file that a journal's lines are read from, even if the export stopped partway through.
+				if (actionLineIterator instanceof Closeable)
+					((Closeable) actionLineIterator).close();
+			}
+			finally
+			{
+				// Clean up; deletes the temporary file if the export didn't complete.
+				recordingWriter.close();
+			}
+		}
+	}
+	
+	/**
+	 * Exports the actions and click zones to the desired save location in the text recording format. The dimensions of the current screen are stored as the source dimensions.
+	 * See {@link #exportRecordingToTextFile(Collection, List, String, Dimension)}.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToTextFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation) throws IllegalArgumentException, IOException
+	{
+		exportRecordingToTextFile(inputActions, clickZones, saveLocation, RecordingImportContext.getCurrentScreenDimensions());
+	}
+	
+	/**
+	 * Exports the actions and click zones to the desired save location in the text recording format. Each action is formatted straight into 
+	 * the write buffer, so no strings are created for it. The recording is written to a temporary file, which then atomically replaces the save location.
+	 * @param inputActions The user input actions in the order they were recorded.
+	 * @param clickZones The click zones of the recording. May be null if the recording doesn't have any.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @param sourceDimensions The dimensions of the screen the recording was made on, written as the first line. May be null if they aren't known.
+	 * @throws IllegalArgumentException Throws if the input actions are null or empty or contain unsupported actions, or if the save location is null or empty.
+	 * @throws IOException Throws if there is an issue writing to the desired save location.
+	 */
+	public static void exportRecordingToTextFile(Collection<AbstractInputAction> inputActions, List<ClickZoneDetails> clickZones, String saveLocation, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		if (inputActions == null || inputActions.isEmpty())
+		{
+			// Throw this so they know it isn't just going to create a blank file.
+			throw new IllegalArgumentException("Nothing to export in input actions.");
+		}
+		
+		final TextRecordingWriter recordingWriter = new TextRecordingWriter(saveLocation);
+		
+		try
+		{
+			if (sourceDimensions != null)
+			{
+				recordingWriter.writeSourceDimensions(sourceDimensions);
 			}
-			if (os != null)
-				os.close();
 			
-			file = null;
+			if (clickZones != null)
+			{
+				for (ClickZoneDetails clickZone : clickZones)
+				{
+					recordingWriter.writeClickZone(clickZone);
+				}
+			}
+			
+			for (AbstractInputAction action : inputActions)
+			{
+				recordingWriter.writeAction(action);
+			}
+			
+			recordingWriter.commit();
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Could not write to desired save location because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			// Clean up; deletes the temporary file if the export didn't complete.
+			recordingWriter.close();
 		}
 	}
 	
@@ -210,7 +326,7 @@ public class DataIOHandlerUtils
 			{
 				String[] splitLine = stringData.split(":");
 			
-				if (!splitLine[0].toUpperCase().equals("CZONEE"))
+				if (!splitLine[0].toUpperCase().equals("CZONEE") && !splitLine[0].toUpperCase().equals("SCREEN"))
 					extractedInputActionData.add(stringData);
 			}		
 			catch (IndexOutOfBoundsException | NullPointerException ex)
@@ -223,34 +339,72 @@ public class DataIOHandlerUtils
 	}
 	
 	/**
-	 * Converts a list of string action data into a queue of abstract input actions.
+	 * Converts a list of string action data into a queue of abstract input actions, clamping their coordinates to the current screen.
 	 * @param stringActionData A list of action data with string representations.
 	 * @return Returns the same list but represented as abstract input actions.
 	 * @throws IllegalArgumentException Throws if the string action data is null or empty.
 	 * @throws DataFormatException Throws if the data in the string action data doesn't conform to the pre-existing input action structures.
 	 */
 	public static Queue<AbstractInputAction> convertToActionData(LinkedList<String> stringActionData) throws IllegalArgumentException, DataFormatException
+	{
+		return convertToActionData(stringActionData, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Converts a list of string action data into a queue of abstract input actions. If the first line holds the source dimensions (SCREEN), they are stored in the import context.
+	 * @param stringActionData A list of action data with string representations.
+	 * @param importContext The context that fits the coordinates of the actions onto the target screen.
+	 * @return Returns the same list but represented as abstract input actions.
+	 * @throws IllegalArgumentException Throws if the string action data is null or empty, or if the import context is null.
+	 * @throws DataFormatException Throws if the data in the string action data doesn't conform to the pre-existing input action structures.
+	 */
+	public static Queue<AbstractInputAction> convertToActionData(LinkedList<String> stringActionData, RecordingImportContext importContext) throws IllegalArgumentException, DataFormatException
 	{
 		if (stringActionData == null || stringActionData.isEmpty())
 		{
 			throw new IllegalArgumentException("String action data cannot be null or empty.");
 		}
 		
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+		
 		// A queue of processed abstract input actions based on the file data that was read in.
 		Queue<AbstractInputAction> processedActionData = new LinkedList<AbstractInputAction>();
 		
+		// One tokenizer is reused for every line.
+		final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+		
+		// The position of the current line, tracked as we go rather than searched for.
+		int lineIndex = 0;
+		
 		// Iterate the file data and convert each line into appropriate abstractuserinputactions.
-		for (Iterator<String> fileDataIterator = stringActionData.listIterator(); fileDataIterator.hasNext();)
+		for (Iterator<String> fileDataIterator = stringActionData.listIterator(); fileDataIterator.hasNext(); lineIndex++)
 		{
 			String line = fileDataIterator.next();
 			
 			try
 			{
-				processedActionData.add(createInputActionByParsing(line));
+				if (line == null || line.isEmpty())
+				{
+					throw new IllegalArgumentException("Input action details cannot be null or empty.");
+				}
+				
+				tokenizer.reset(line);
+				
+				if (tokenizer.hasTag("SCREEN"))
+				{
+					importContext.setSourceDimensions(readSourceDimensionsLine(tokenizer, lineIndex + 1));
+				}
+				else
+				{
+					processedActionData.add(createInputActionFromTokenizer(tokenizer, importContext));
+				}
 			}
-			catch (UnsupportedDataTypeException | DataFormatException | IllegalArgumentException ex) 
+			catch (DataFormatException | IllegalArgumentException ex) 
 			{
-				throw new DataFormatException("Cancelled data import on line " + stringActionData.indexOf(line) + " because ==> "+ ex.getMessage());
+				throw new DataFormatException("Cancelled data import on line " + lineIndex + " because ==> "+ ex.getMessage());
 			}
 		}
 		
@@ -258,17 +412,33 @@ public class DataIOHandlerUtils
 	}
 	
 	/**
-	 * Converts a list of string data (detailing a click zone) into a list of clickzonedetails.
+	 * Converts a list of string data (detailing a click zone) into a list of clickzonedetails, clamping them to the current screen.
 	 * @param stringDetailsData A list of click zone details data with string representations.
 	 * @return Returns the same list but represented as click zone details objects.
 	 * @throws IllegalArgumentException Throws if the string action data is null or empty.
 	 * @throws DataFormatException Throws if the data in the string action data doesn't conform to the pre-existing ClickZoneDetails structure.
 	 */
 	public static ArrayList<ClickZoneDetails> convertToClickZoneDetailsData(ArrayList<String> stringDetailsData) throws IllegalArgumentException, DataFormatException
+	{
+		return convertToClickZoneDetailsData(stringDetailsData, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Converts a list of string data (detailing a click zone) into a list of clickzonedetails.
+	 * @param stringDetailsData A list of click zone details data with string representations.
+	 * @param importContext The context that fits the click zones onto the target screen.
+	 * @return Returns the same list but represented as click zone details objects.
+	 * @throws IllegalArgumentException Throws if the string action data is null or empty, or if the import context is null.
+	 * @throws DataFormatException Throws if the data in the string action data doesn't conform to the pre-existing ClickZoneDetails structure.
+	 */
+	public static ArrayList<ClickZoneDetails> convertToClickZoneDetailsData(ArrayList<String> stringDetailsData, RecordingImportContext importContext) throws IllegalArgumentException, DataFormatException
 	{
 		if (stringDetailsData == null)
 			throw new IllegalArgumentException("String details data cannot be null or empty.");
 		
+		if (importContext == null)
+			throw new IllegalArgumentException("Import context cannot be null.");
+		
 		// A list of processed click zone details based on the file data that was read in.
 		ArrayList<ClickZoneDetails> processedDetailsData = new ArrayList<>();
 		
@@ -279,23 +449,9 @@ public class DataIOHandlerUtils
 			
 			try
 			{
-				String[] splitLine = line.split(":");
-				
-				if (splitLine != null && splitLine[0] != null && splitLine[0].equals("CZONEE"))
-				{
-					int xLoc = Integer.valueOf(splitLine[1]);
-					int yLoc = Integer.valueOf(splitLine[2]);
-					int width = Integer.valueOf(splitLine[3]);
-					int height = Integer.valueOf(splitLine[4]);
-					
-					processedDetailsData.add(new ClickZoneDetails(xLoc, yLoc, width, height));
-				}
-				else
-				{
-					throw new UnsupportedDataTypeException("Details data contains unsupported click-zone detail types.");
-				}
+				processedDetailsData.add(createClickZoneDetailsByParsing(line, importContext));
 			}
-			catch(UnsupportedDataTypeException | IndexOutOfBoundsException ex)
+			catch(UnsupportedDataTypeException | DataFormatException ex)
 			{
 				throw new DataFormatException("Cancelled conversion of click zone details data because ==> " + ex.getMessage());
 			}
@@ -319,7 +475,8 @@ public class DataIOHandlerUtils
 				if (!splitLine[0].equals("PLAYBACKITEM"))
 					throw new UnsupportedDataTypeException("Found invalid dataline in file: " + splitLine);
 				
-				if (splitLine.length != 11)
+				// Lines exported before the coordinate policy was added don't have it and keep the default.
+				if (splitLine.length != 11 && splitLine.length != 12)
 					throw new DataFormatException("Data line doesn't contain the proper amount of entries: " + splitLine);
 				
 				final PlaybackOptions generatedOptions = new PlaybackOptions(splitLine[1]);
@@ -336,10 +493,13 @@ public class DataIOHandlerUtils
 				
 				if (!splitLine[10].equals("_"))
 				{
+					// The failover script is only loaded if playback actually fails (see PlaybackOptions.getAdditionalScriptIfFails).
 					generatedOptions.runAdditionalScriptIfFailsFileLocation = splitLine[10];
-					generatedOptions.loadedAdditionalScriptIfFails = new LoadedRecording(splitLine[10]);
 				}
 				
+				if (splitLine.length > 11)
+					generatedOptions.setCoordinatePolicy(CoordinatePolicy.valueOf(splitLine[11]));
+				
 				importedPlaybackOptionsList.add(generatedOptions);
 			}		
 			catch (IndexOutOfBoundsException ex)
@@ -365,11 +525,7 @@ public class DataIOHandlerUtils
 	 */
 	public static Queue<AbstractInputAction> importActionDataFromFile(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
 	{
-		// Import data from the file and extract only the input action string data.
-		ArrayList<String> importedInputActionData = extractInputActionStringData(importStringDataFromFile(fileLocation));
-				
-		// Convert string data into action data and return.
-		return convertToActionData(new LinkedList<String>(importedInputActionData));
+		return importRecordingFromFile(fileLocation).getInputActions();
 	}
 	
 	/**
@@ -382,344 +538,675 @@ public class DataIOHandlerUtils
 	 */
 	public static ArrayList<ClickZoneDetails> importClickZoneDataFromFile(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
 	{
-		// Import data from the file and extract only the click zone window information.
-		return convertToClickZoneDetailsData(extractClickZoneStringData(importStringDataFromFile(fileLocation)));
+		final RecordingData importedRecording = new RecordingData();
+		
+		// Input action lines are skipped rather than parsed.
+		streamRecordingFromFile(fileLocation, importedRecording, true, RecordingImportContext.forCurrentScreen());
+		
+		return importedRecording.getClickZoneDetails();
 	}
 	
 	/**
-	 * Creates a user input action by parsing the supplied string for relevant information.
-	 * @param inputActionDetails A string detailing what kind of input action to create. All information is expected to be split by the ':' character.
-	 * @return Returns the input action equivelant of the input action details string.
-	 * @throws IllegalArgumentException Throws if the input action details string is null or empty. 
-	 * @throws DataFormatException Throws if there is any kind of problem parsing necessary information to create the input action.
-	 * @throws UnsupportedDataTypeException Throws if an unsupported action ID is identified in the string.
+	 * Imports the input actions and click zones of a recording file in one read, clamping their coordinates to the current screen. 
+	 * See {@link #importRecordingFromFile(String, RecordingImportContext)}.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the input actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the file doesn't contain any input actions.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the data in the file doesn't conform to the pre-existing data structures.
 	 */
-	protected static AbstractInputAction createInputActionByParsing(String inputActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	public static RecordingData importRecordingFromFile(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
 	{
-		if (inputActionDetails == null || inputActionDetails.isEmpty())
+		return importRecordingFromFile(fileLocation, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Imports the input actions and click zones of a recording file in one read. The format of the file (text, binary or compressed) is detected automatically.
+	 * Text recordings of at least {@link #PARALLEL_IMPORT_THRESHOLD_BYTES} are split into chunks that are parsed in parallel.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen. The source dimensions of the recording are stored in it.
+	 * @return Returns the input actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the import context is null or if the file doesn't contain any input actions.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the data in the file doesn't conform to the pre-existing data structures.
+	 */
+	public static RecordingData importRecordingFromFile(String fileLocation, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (importContext == null)
 		{
-			throw new IllegalArgumentException("Input action details cannot be null or empty.");
+			throw new IllegalArgumentException("Import context cannot be null.");
 		}
 		
-		try
-		{
-			String[] splitLine = inputActionDetails.split(":");
+		final RecordingData importedRecording;
 		
-			switch (splitLine[0].toUpperCase())
-			{
-				case "MPRESS":
-					return createMouseInputActionByParsing(inputActionDetails);
-				case "MRELEA":
-					return createMouseInputActionByParsing(inputActionDetails);
-				case "MMOVED":
-					return createMouseInputActionByParsing(inputActionDetails);
-				case "KPRESS":
-					return createKeyboardInputActionByParsing(inputActionDetails);
-				case "KRELEA":
-					return createKeyboardInputActionByParsing(inputActionDetails);
-				default:
-					throw new UnsupportedDataTypeException("Action ID doesn't represent the supported input action ids: " + splitLine[0]);
-			}
-		}		
-		catch (IndexOutOfBoundsException ex)
+		// Compressed recordings decompress their blocks on multiple threads.
+		if (CompressedRecordingIOUtils.isCompressedRecordingFile(fileLocation))
 		{
-			throw new DataFormatException("Could not access necessary information when parsing to create a valid input action.");
+			importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(fileLocation, 0, importContext);
 		}
-		catch(UnsupportedDataTypeException | IllegalArgumentException | DataFormatException ex)
+		// Large text recordings are parsed in chunks on multiple threads.
+		else if (!BinaryRecordingIOUtils.isBinaryRecordingFile(fileLocation) && isParallelImportSize(new File(fileLocation).length()))
 		{
-			throw new DataFormatException("Could not create input action because ==> " + ex.getMessage());
+			importedRecording = ParallelRecordingImporter.importRecordingFromTextFile(fileLocation, ParallelRecordingImporter.DEFAULT_CHUNK_SIZE, importContext);
 		}
+		else
+		{
+			importedRecording = new RecordingData();
+			streamRecordingFromFile(fileLocation, importedRecording, false, importContext);
+		}
+		
+		if (importedRecording.getInputActions().isEmpty())
+		{
+			throw new IllegalArgumentException("File doesn't contain any input actions.");
+		}
+		
+		return importedRecording;
 	}
 	
 	/**
-	 * Creates and returns a keyboard input action depending on the details provided in the string. 
-	 * @param keyboardInputActionDetails The string of details representing a keyboard input action.
-	 * @return Returns Returns the equivelant keyboard input action that represents the string provided.
-	 * @throws IllegalArgumentException Throws if the keyboard input details string is null or empty. 
-	 * @throws DataFormatException Throws if String doesn't have the required fields to be a keyboard input action. 
-	 * @throws UnsupportedDataTypeException Throws if the id portion of the details string doesn't match the supported keyboard input actions.
+	 * Determines whether a text recording of the given size should be parsed in parallel.
+	 * @param fileSize The size of the file in bytes.
+	 * @return Returns true if the file is large enough to benefit from a parallel import and small enough to be mapped into memory; otherwise false.
 	 */
-	private static AbstractKeyboardInputAction createKeyboardInputActionByParsing(String keyboardInputActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	private static boolean isParallelImportSize(long fileSize)
 	{
-		if (keyboardInputActionDetails == null || keyboardInputActionDetails.isEmpty())
+		return fileSize >= PARALLEL_IMPORT_THRESHOLD_BYTES && fileSize <= Integer.MAX_VALUE;
+	}
+	
+	/**
+	 * Reads a recording file line by line and hands each click zone and input action to the listener as soon as it is parsed, clamping their coordinates to the current screen.
+	 * See {@link #streamRecordingFromFile(String, RecordingDataListener, RecordingImportContext)}.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param listener The listener that receives the click zones and input actions in file order.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the listener is null or if the file is empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if a line in the file doesn't conform to the pre-existing data structures.
+	 */
+	public static void streamRecordingFromFile(String fileLocation, RecordingDataListener listener) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		streamRecordingFromFile(fileLocation, listener, false, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Reads a recording file line by line and hands each click zone and input action to the listener as soon as it is parsed. 
+	 * No copy of the file contents is kept, so memory use only depends on what the listener holds on to. The format of the file (text, binary or compressed) is detected automatically.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param listener The listener that receives the click zones and input actions in file order.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen. The source dimensions of the recording are stored in it.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the listener or import context is null or if the file is empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if a line in the file doesn't conform to the pre-existing data structures.
+	 */
+	public static void streamRecordingFromFile(String fileLocation, RecordingDataListener listener, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		streamRecordingFromFile(fileLocation, listener, false, importContext);
+	}
+	
+	/**
+	 * Reads a recording file line by line and hands each click zone and (optionally) input action to the listener as soon as it is parsed.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param listener The listener that receives the click zones and input actions in file order.
+	 * @param skipInputActions Whether input action lines of a text recording should be skipped without being parsed.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the listener or import context is null or if the file is empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if a line in the file doesn't conform to the pre-existing data structures.
+	 */
+	private static void streamRecordingFromFile(String fileLocation, RecordingDataListener listener, boolean skipInputActions, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
 		{
-			throw new IllegalArgumentException("Key input action details cannot be null or empty.");
+			throw new IllegalArgumentException("File location cannot be null or empty.");
 		}
 		
-		try
+		if (listener == null)
+		{
+			throw new IllegalArgumentException("Recording data listener cannot be null.");
+		}
+		
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+		
+		// Binary recordings are decoded by their own reader.
+		if (BinaryRecordingIOUtils.isBinaryRecordingFile(fileLocation))
 		{
-			String[] splitLine = keyboardInputActionDetails.split(":");
+			BinaryRecordingIOUtils.streamRecordingFromBinaryFile(fileLocation, listener, importContext);
+			return;
+		}
 		
-			if (splitLine[0].toUpperCase().equals("KPRESS") || splitLine[0].toUpperCase().equals("KRELEA"))
+		// Compressed recordings are decompressed block by block, so they're decoded before being handed to the listener.
+		if (CompressedRecordingIOUtils.isCompressedRecordingFile(fileLocation))
+		{
+			final RecordingData importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(fileLocation, 0, importContext);
+			
+			for (ClickZoneDetails clickZone : importedRecording.getClickZoneDetails())
+			{
+				listener.clickZoneRead(clickZone);
+			}
+			
+			if (!skipInputActions)
+			{
+				for (AbstractInputAction inputAction : importedRecording.getInputActions())
+				{
+					listener.inputActionRead(inputAction);
+				}
+			}
+			
+			return;
+		}
+		
+		BufferedReader bReader = null;
+		
+		try
+		{
+			bReader = new BufferedReader(new FileReader(fileLocation));
+			
+			String lineRead = null;
+			int lineNumber = 0;
+			
+			// One tokenizer is reused for every line of the file.
+			final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+			
+			// Parse each line as it is read.
+			while ((lineRead = bReader.readLine()) != null)
 			{
-				return createKeyboardActionByParsing(keyboardInputActionDetails);
+				lineNumber++;
+				
+				try
+				{
+					tokenizer.reset(lineRead);
+					
+					if (tokenizer.hasTag("CZONEE"))
+					{
+						listener.clickZoneRead(createClickZoneDetailsFromTokenizer(tokenizer, importContext));
+					}
+					else if (tokenizer.hasTag("SCREEN"))
+					{
+						importContext.setSourceDimensions(readSourceDimensionsLine(tokenizer, lineNumber));
+					}
+					else if (!skipInputActions)
+					{
+						listener.inputActionRead(createInputActionFromTokenizer(tokenizer, importContext));
+					}
+				}
+				catch (UnsupportedDataTypeException | DataFormatException | IllegalArgumentException ex)
+				{
+					throw new DataFormatException("Cancelled data import on line " + lineNumber + " because ==> " + ex.getMessage());
+				}
 			}
-			else 
+			
+			if (lineNumber == 0)
 			{
-				throw new UnsupportedDataTypeException("Action ID doesn't represent the supported keyboard input action ids: " + splitLine[0]);
+				throw new IllegalArgumentException("Imported string data is null or empty.");
 			}
-		}		
-		catch (IndexOutOfBoundsException ex)
+		}
+		catch (IOException ex)
 		{
-			throw new DataFormatException("Keyboard input details string doesn't have any details to parse.");
+			throw new IOException("Had trouble reading or accessing contents of the file.");
 		}
-		catch(UnsupportedDataTypeException | IllegalArgumentException | DataFormatException ex)
+		finally 
 		{
-			throw new UnsupportedDataTypeException("Could not create Keyboard input action because ==> " + ex.getMessage());
+			// Clean up
+			if (bReader != null)
+			{
+				bReader.close();
+				bReader = null;
+			}
 		}
-	}	
-
+	}
+	
+	/**
+	 * Validates a recording file against the current screen dimensions. Without a screen (batch tools run headless) only the structure of
+	 * the recording and the coordinates of recordings that store their source dimensions are checked. See {@link #validateRecordingFile(String, Dimension, int)}.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns a report of the problems found in the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 */
+	public static RecordingValidationReport validateRecordingFile(String fileLocation) throws IllegalArgumentException, IOException
+	{
+		final Dimension screenDimensions = RecordingImportContext.getCurrentScreenDimensions();
+		
+		return validateRecordingFile(fileLocation, screenDimensions == null ? new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE) : screenDimensions, RecordingValidationReport.DEFAULT_MAX_REPORTED_PROBLEMS);
+	}
+	
 	/**
-	 * Creates and returns a keyboard action depending on the details provided in the string. 
-	 * @param keyActionDetails The string of details representing a keyboard key input action.
-	 * @return Returns Returns the equivelant key input action that represents the string provided.
-	 * @throws IllegalArgumentException Throws if the key input details string is null or empty. 
-	 * @throws DataFormatException Throws if String doesn't have the required fields to be a key input action. 
-	 * @throws UnsupportedDataTypeException Throws if the id portion of the details string doesn't match the supported key input actions.
+	 * Validates a whole recording file in one pass without stopping at the first problem. Every malformed line, unknown tag and mouse
+	 * coordinate outside of the screen dimensions is added to the report along with its line number. Binary and compressed recordings can't be 
+	 * read past an invalid action, so decoding stops at their first decoding problem. Recordings that store the dimensions of the screen they were 
+	 * made on are checked against those instead, since their coordinates can be scaled onto any screen when imported.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param screenDimensions The dimensions the mouse coordinates must be inside of if the recording doesn't store its source dimensions.
+	 * @param maxReportedProblems The maximum number of problems kept in the report. Further problems are only counted.
+	 * @return Returns a report of the problems found in the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the screen dimensions are null or if the maximum is negative.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
 	 */
-	private static AbstractKeyboardInputAction createKeyboardActionByParsing(String keyActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	public static RecordingValidationReport validateRecordingFile(String fileLocation, final Dimension screenDimensions, int maxReportedProblems) throws IllegalArgumentException, IOException
 	{
-		if (keyActionDetails == null || keyActionDetails.isEmpty())
+		if (fileLocation == null || fileLocation.isEmpty())
 		{
-			throw new IllegalArgumentException("Key action details cannot be null or empty.");
+			throw new IllegalArgumentException("File location cannot be null or empty.");
 		}
 		
-		try
+		if (screenDimensions == null)
 		{
-			String[] splitLine = keyActionDetails.split(":");
+			throw new IllegalArgumentException("Screen dimensions cannot be null.");
+		}
 		
-			// If the split line doesn't contain the necessary number of items don't bother trying to parse it.
-			if (splitLine.length != 3)
-			{
-				throw new DataFormatException("Key action details don't contain the proper number of details.");
-			}
+		final RecordingValidationReport report = new RecordingValidationReport(maxReportedProblems);
+		
+		if (BinaryRecordingIOUtils.isBinaryRecordingFile(fileLocation) || CompressedRecordingIOUtils.isCompressedRecordingFile(fileLocation))
+		{
+			validateDecodedRecording(fileLocation, screenDimensions, report);
+			return report;
+		}
+		
+		BufferedReader bReader = null;
+		int lineNumber = 0;
+		int inputActionCount = 0;
+		
+		try
+		{
+			bReader = new BufferedReader(new FileReader(fileLocation));
 			
-			// If the ID isn't a valid key input action ID
-			if (!splitLine[0].toUpperCase().equals("KPRESS") && !splitLine[0].toUpperCase().equals("KRELEA"))
-			{
-				throw new UnsupportedDataTypeException("String ID doesn't represent a supported key action: " + splitLine[0]);
-			}
+			String lineRead = null;
+			final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
 			
-			// Parsing necessary information.
-			int key = Integer.valueOf(splitLine[1]);
-			long timeNS = Long.valueOf(splitLine[2]);
-				
-			if (splitLine[0].toUpperCase().equals("KPRESS"))
-			{
-				return new KeyboardKeyPress(key, timeNS);
-			}
-			else if (splitLine[0].toUpperCase().equals("KRELEA"))
+			// Coordinates are read as they were recorded; only negative ones are reported as invalid.
+			final RecordingImportContext recordedContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Reject);
+			Dimension coordinateBounds = screenDimensions;
+			
+			// Check each line as it is read, carrying on after a bad line.
+			while ((lineRead = bReader.readLine()) != null)
 			{
-				return new KeyboardKeyRelease(key, timeNS);
+				lineNumber++;
+				
+				try
+				{
+					tokenizer.reset(lineRead);
+					
+					if (tokenizer.hasTag("CZONEE"))
+					{
+						createClickZoneDetailsFromTokenizer(tokenizer, recordedContext);
+						continue;
+					}
+					
+					if (tokenizer.hasTag("SCREEN"))
+					{
+						coordinateBounds = readSourceDimensionsLine(tokenizer, lineNumber);
+						continue;
+					}
+					
+					final AbstractInputAction inputAction = createInputActionFromTokenizer(tokenizer, recordedContext);
+					final PixelCoordinate2D mouseLocation = inputAction instanceof AbstractMouseInputAction ? ((AbstractMouseInputAction) inputAction).getLocation() : null;
+					
+					inputActionCount++;
+					
+					if (mouseLocation != null && !mouseLocation.isInsideScreenDimensions(coordinateBounds))
+					{
+						report.addProblem("Line " + lineNumber, "Coordinate " + mouseLocation + " is outside of the screen dimensions (" + coordinateBounds.width + "x" + coordinateBounds.height + ").");
+					}
+				}
+				catch (UnsupportedDataTypeException | DataFormatException | IllegalArgumentException ex)
+				{
+					report.addProblem("Line " + lineNumber, ex.getMessage());
+				}
 			}
-			else 
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Had trouble reading or accessing contents of the file.");
+		}
+		finally 
+		{
+			// Clean up
+			if (bReader != null)
+				bReader.close();
+		}
+		
+		if (inputActionCount == 0 && report.isValid())
+		{
+			report.addProblem("Recording", "File doesn't contain any input actions.");
+		}
+		
+		report.setCheckedCount(lineNumber);
+		
+		return report;
+	}
+	
+	/**
+	 * Validates a binary or compressed recording by decoding it and checking the mouse coordinates of each action.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param screenDimensions The dimensions the mouse coordinates must be inside of.
+	 * @param report The report that the problems are added to.
+	 * @throws IOException Throws if there's an issue reading information from the file.
+	 */
+	private static void validateDecodedRecording(String fileLocation, final Dimension screenDimensions, final RecordingValidationReport report) throws IOException
+	{
+		final int[] actionCount = new int[1];
+		
+		// Coordinates are decoded as they were recorded so they can be checked here.
+		final RecordingImportContext recordedContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Reject);
+		
+		try
+		{
+			streamRecordingFromFile(fileLocation, new RecordingDataListener()
 			{
-				throw new UnsupportedDataTypeException("String ID doesn't represent a supported key action: " + splitLine[0]);
-			}
-		}		
-		catch (IndexOutOfBoundsException | DataFormatException ex)
+				@Override
+				public void inputActionRead(AbstractInputAction inputAction)
+				{
+					actionCount[0]++;
+					
+					final Dimension coordinateBounds = recordedContext.getSourceDimensions() != null ? recordedContext.getSourceDimensions() : screenDimensions;
+					
+					if (inputAction instanceof AbstractMouseInputAction && !((AbstractMouseInputAction) inputAction).getLocation().isInsideScreenDimensions(coordinateBounds))
+					{
+						report.addProblem("Action " + actionCount[0], "Coordinate " + ((AbstractMouseInputAction) inputAction).getLocation() + " is outside of the screen dimensions (" + coordinateBounds.width + "x" + coordinateBounds.height + ").");
+					}
+				}
+				
+				@Override
+				public void clickZoneRead(ClickZoneDetails clickZone)
+				{
+					// Click zones are checked while they're decoded.
+				}
+			}, false, recordedContext);
+		}
+		catch (DataFormatException | IllegalArgumentException ex)
 		{
-			throw new DataFormatException("String doesn't have the required fields to be a mouse moved action.");
+			report.addProblem("Action " + (actionCount[0] + 1), ex.getMessage());
 		}
-		catch(UnsupportedDataTypeException | IllegalArgumentException ex)
+		
+		report.setCheckedCount(actionCount[0]);
+	}
+	
+	/**
+	 * Reads the dimensions of the screen the recording was made on from a SCREEN line.
+	 * @param tokenizer The tokenizer positioned at the start of a line whose ID is the screen dimensions ID.
+	 * @param lineNumber The number of the line in the recording, starting at 1.
+	 * @return Returns the dimensions stored in the line.
+	 * @throws DataFormatException Throws if the line isn't the first line of the recording, doesn't have the required fields or holds dimensions that aren't positive.
+	 */
+	static Dimension readSourceDimensionsLine(ActionLineTokenizer tokenizer, int lineNumber) throws DataFormatException
+	{
+		if (lineNumber != 1)
 		{
-			throw new UnsupportedDataTypeException("Could not create Mouse moved action because ==> " + ex.getMessage());
+			throw new DataFormatException("The screen dimensions must be on the first line of the recording.");
 		}
+		
+		if (tokenizer.getFieldCount() != 3)
+		{
+			throw new DataFormatException("String doesn't have the required fields to be the screen dimensions.");
+		}
+		
+		tokenizer.skipTag();
+		
+		final int width = tokenizer.nextInt();
+		final int height = tokenizer.nextInt();
+		
+		if (width <= 0 || height <= 0)
+		{
+			throw new DataFormatException("Screen dimensions must be greater than zero: " + width + "x" + height);
+		}
+		
+		return new Dimension(width, height);
 	}
 	
 	/**
-	 * Creates and returns a mouse input action depending on the details provided in the string. 
-	 * @param mouseInputActionDetails The string of details representing a mouse input action.
-	 * @return Returns Returns the equivelant mouse input action that represents the string provided.
-	 * @throws IllegalArgumentException Throws if the mouse input details string is null or empty. 
-	 * @throws DataFormatException Throws if String doesn't have the required fields to be a mouse input action. 
-	 * @throws UnsupportedDataTypeException Throws if the id portion of the details string doesn't match the supported mouse input actions.
+	 * Creates a click zone by parsing the supplied string for relevant information.
+	 * @param clickZoneDetails A string detailing the click zone. All information is expected to be split by the ':' character.
+	 * @param importContext The context that fits the click zone onto the target screen.
+	 * @return Returns the click zone equivelant of the click zone details string.
+	 * @throws UnsupportedDataTypeException Throws if the ID of the string isn't the click zone ID.
+	 * @throws DataFormatException Throws if the string doesn't have the required fields to be a click zone.
 	 */
-	private static AbstractMouseInputAction createMouseInputActionByParsing(String mouseInputActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	private static ClickZoneDetails createClickZoneDetailsByParsing(String clickZoneDetails, RecordingImportContext importContext) throws UnsupportedDataTypeException, DataFormatException
 	{
-		if (mouseInputActionDetails == null || mouseInputActionDetails.isEmpty())
+		return createClickZoneDetailsFromTokenizer(new ActionLineTokenizer().reset(clickZoneDetails), importContext);
+	}
+	
+	/**
+	 * Creates a click zone by reading the relevant information from the line the tokenizer points at.
+	 * @param tokenizer The tokenizer positioned at the start of a line detailing the click zone.
+	 * @param importContext The context that fits the click zone onto the target screen.
+	 * @return Returns the click zone equivelant of the line.
+	 * @throws UnsupportedDataTypeException Throws if the ID of the line isn't the click zone ID.
+	 * @throws DataFormatException Throws if the line doesn't have the required fields to be a click zone, or if the import context rejects it.
+	 */
+	static ClickZoneDetails createClickZoneDetailsFromTokenizer(ActionLineTokenizer tokenizer, RecordingImportContext importContext) throws UnsupportedDataTypeException, DataFormatException
+	{
+		if (!tokenizer.hasTag("CZONEE"))
 		{
-			throw new IllegalArgumentException("Mouse input action details cannot be null or empty.");
+			throw new UnsupportedDataTypeException("Details data contains unsupported click-zone detail types.");
 		}
 		
-		try
+		tokenizer.skipTag();
+		
+		int xLoc = tokenizer.nextInt();
+		int yLoc = tokenizer.nextInt();
+		int width = tokenizer.nextInt();
+		int height = tokenizer.nextInt();
+		
+		return importContext.fitClickZone(xLoc, yLoc, width, height);
+	}
+	
+	/**
+	 * Creates a user input action by parsing the supplied string for relevant information.
+	 * @param inputActionDetails A string detailing what kind of input action to create. All information is expected to be split by the ':' character.
+	 * @param importContext The context that fits the coordinates of mouse actions onto the target screen. The same context is passed for every line of a recording.
+	 * @return Returns the input action equivelant of the input action details string.
+	 * @throws IllegalArgumentException Throws if the input action details string is null or empty, or if the import context is null.
+	 * @throws DataFormatException Throws if there is any kind of problem parsing necessary information to create the input action.
+	 * @throws UnsupportedDataTypeException Throws if an unsupported action ID is identified in the string.
+	 */
+	protected static AbstractInputAction createInputActionByParsing(String inputActionDetails, RecordingImportContext importContext) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	{
+		if (inputActionDetails == null || inputActionDetails.isEmpty())
 		{
-			String[] splitLine = mouseInputActionDetails.split(":");
+			throw new IllegalArgumentException("Input action details cannot be null or empty.");
+		}
+		
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
 		
-			if (splitLine[0].toUpperCase().equals("MPRESS"))
+		return createInputActionFromTokenizer(new ActionLineTokenizer().reset(inputActionDetails), importContext);
+	}
+	
+	/**
+	 * Creates a user input action by reading the relevant information from the line the tokenizer points at.
+	 * The line is read in a single pass without splitting it into separate strings.
+	 * @param tokenizer The tokenizer positioned at the start of a line detailing the input action.
+	 * @param importContext The context that fits the coordinates of mouse actions onto the target screen.
+	 * @return Returns the input action equivelant of the line.
+	 * @throws DataFormatException Throws if there is any kind of problem parsing necessary information to create the input action, or if the action ID isn't supported.
+	 */
+	static AbstractInputAction createInputActionFromTokenizer(ActionLineTokenizer tokenizer, RecordingImportContext importContext) throws DataFormatException
+	{
+		try
+		{
+			if (tokenizer.hasTag("MMOVED"))
 			{
-				return createMouseButtonActionByParsing(mouseInputActionDetails);
+				return createMouseMovedActionByParsing(tokenizer, importContext);
 			}
-			else if (splitLine[0].toUpperCase().equals("MRELEA"))
+			else if (tokenizer.hasTag("MPRESS") || tokenizer.hasTag("MRELEA"))
 			{
-				return createMouseButtonActionByParsing(mouseInputActionDetails);
+				return createMouseButtonActionByParsing(tokenizer, importContext);
 			}
-			else if (splitLine[0].toUpperCase().equals("MMOVED"))
+			else if (tokenizer.hasTag("KPRESS") || tokenizer.hasTag("KRELEA"))
 			{
-				return createMouseMovedActionByParsing(mouseInputActionDetails);
+				return createKeyboardActionByParsing(tokenizer);
 			}
-			else 
+			else if (tokenizer.hasTag("MWHEEL"))
 			{
-				throw new UnsupportedDataTypeException("Action ID doesn't represent the supported mouse input action ids: " + splitLine[0]);
+				return createMouseWheelActionByParsing(tokenizer, importContext);
+			}
+			else
+			{
+				throw new UnsupportedDataTypeException("Action ID doesn't represent the supported input action ids: " + tokenizer.getTag());
 			}
-		}		
-		catch (IndexOutOfBoundsException ex)
-		{
-			throw new DataFormatException("Mouse input details string doesn't have any details to parse.");
 		}
 		catch(UnsupportedDataTypeException | IllegalArgumentException | DataFormatException ex)
 		{
-			throw new UnsupportedDataTypeException("Could not create Mouse input action because ==> " + ex.getMessage());
+			throw new DataFormatException("Could not create input action because ==> " + ex.getMessage());
 		}
 	}
 	
 	/**
-	 * Creates and returns a mouse moved action depending on the details provided in the string. 
-	 * @param mouseMovedActionDetails The string of details representing a mouse moved action.
-	 * @return Returns the equivelant mouse moved action that represents the string provided.
-	 * @throws IllegalArgumentException Throws if the mouse moved details string is null or empty. 
-	 * @throws DataFormatException Throws if String doesn't have the required fields to be a mouse moved action. 
-	 * @throws UnsupportedDataTypeException Throws if the id portion of the details string doesn't match the supported mouse moved actions.
+	 * Creates and returns a keyboard action by reading the details from the line the tokenizer points at.
+	 * @param tokenizer The tokenizer positioned at the start of a line whose ID is a key action ID.
+	 * @return Returns the equivelant key input action that represents the line.
+	 * @throws DataFormatException Throws if the line doesn't have the required fields to be a key input action.
 	 */
-	private static AbstractMouseInputAction createMouseMovedActionByParsing(String mouseMovedActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	private static AbstractKeyboardInputAction createKeyboardActionByParsing(ActionLineTokenizer tokenizer) throws DataFormatException
 	{
-		if (mouseMovedActionDetails == null || mouseMovedActionDetails.isEmpty())
-		{
-			throw new IllegalArgumentException("Mouse moved action details cannot be null or empty.");
-		}
-		
 		try
 		{
-			String[] splitLine = mouseMovedActionDetails.split(":");
-		
-			// If the split line doesn't contain the necessary number of items don't bother trying to parse it.
-			if (splitLine.length != 4)
+			// If the line doesn't contain the necessary number of items don't bother trying to parse it.
+			if (tokenizer.getFieldCount() != 3)
 			{
-				throw new DataFormatException("Mouse moved action details don't contain the proper number of details.");
+				throw new DataFormatException("String doesn't have the required fields to be a key action.");
 			}
 			
-			// If the ID isn't a valid mouse button ID
-			if (!splitLine[0].toUpperCase().equals("MMOVED"))
-			{
-				throw new UnsupportedDataTypeException("String ID doesn't represent a supported mouse moved action: " + splitLine[0]);
-			}
+			final boolean isKeyPress = tokenizer.hasTag("KPRESS");
+			tokenizer.skipTag();
 			
 			// Parsing necessary information.
-			// Limit x and y coords from [0:screenWidth]
-			int xCoord = Integer.valueOf(splitLine[1]);
-			xCoord = (int) (xCoord < 0 ? 0 : 
-							xCoord > ScreenUtils.getScreenDimensions().getWidth() ? ScreenUtils.getScreenDimensions().getWidth() : 
-							xCoord);
-			
-			int yCoord = Integer.valueOf(splitLine[2]);
-			yCoord = (int) (yCoord < 0 ? 0 : 
-							yCoord > ScreenUtils.getScreenDimensions().getWidth() ? ScreenUtils.getScreenDimensions().getWidth() : 
-							yCoord);
+			int key = tokenizer.nextInt();
+			long timeNS = tokenizer.nextLong();
 			
-			long timeNS = Long.valueOf(splitLine[3]);
-						
-			return new MouseMove(new PixelCoordinate2D(xCoord, yCoord), timeNS);
-			
-		}		
-		catch (IndexOutOfBoundsException | DataFormatException ex)
-		{
-			throw new DataFormatException("String doesn't have the required fields to be a mouse moved action.");
+			return isKeyPress ? new KeyboardKeyPress(key, timeNS) : new KeyboardKeyRelease(key, timeNS);
 		}
-		catch(UnsupportedDataTypeException | IllegalArgumentException ex)
+		catch (DataFormatException | IllegalArgumentException ex)
 		{
-			throw new UnsupportedDataTypeException("Could not create Mouse moved action because ==> " + ex.getMessage());
+			throw new DataFormatException("Could not create Keyboard input action because ==> " + ex.getMessage());
 		}
 	}
 	
 	/**
-	 * Creates and returns a mouse button action depending on the details provided in the string. 
-	 * @param mouseInputActionDetails The string of details representing a mouse button action.
-	 * @return Returns the equivelant mouse button action that represents the string provided.
-	 * @throws IllegalArgumentException Throws if the mouse button details string is null or empty. 
-	 * @throws DataFormatException Throws if String doesn't have the required fields to be a mouse button action. 
-	 * @throws UnsupportedDataTypeException Throws if the id portion of the details string doesn't match the supported button actions.
+	 * Creates and returns a mouse moved action by reading the details from the line the tokenizer points at.
+	 * @param tokenizer The tokenizer positioned at the start of a line whose ID is the mouse moved ID.
+	 * @param importContext The context that fits the coordinate onto the target screen.
+	 * @return Returns the equivelant mouse moved action that represents the line.
+	 * @throws DataFormatException Throws if the line doesn't have the required fields to be a mouse moved action, or if the import context rejects its coordinate.
 	 */
-	private static AbstractMouseButtonAction createMouseButtonActionByParsing(String mouseButtonActionDetails) throws IllegalArgumentException, DataFormatException, UnsupportedDataTypeException
+	private static AbstractMouseInputAction createMouseMovedActionByParsing(ActionLineTokenizer tokenizer, RecordingImportContext importContext) throws DataFormatException
 	{
-		if (mouseButtonActionDetails == null || mouseButtonActionDetails.isEmpty())
-		{
-			throw new IllegalArgumentException("Mouse button action details cannot be null or empty.");
-		}
-		
 		try
 		{
-			String[] splitLine = mouseButtonActionDetails.split(":");
-		
-			// If the split line doesn't contain the necessary number of items don't bother trying to parse it.
-			if (splitLine.length != 6)
+			// If the line doesn't contain the necessary number of items don't bother trying to parse it.
+			if (tokenizer.getFieldCount() != 4)
 			{
-				throw new DataFormatException("Mouse button action details don't contain the proper number of details.");
+				throw new DataFormatException("String doesn't have the required fields to be a mouse moved action.");
 			}
 			
-			// If the ID isn't a valid mouse button ID
-			if (!splitLine[0].toUpperCase().equals("MPRESS") && !splitLine[0].toUpperCase().equals("MRELEA"))
-			{
-				throw new UnsupportedDataTypeException("String ID doesn't represent a supported mouse button action: " + splitLine[0]);
-			}
+			tokenizer.skipTag();
 			
 			// Parsing necessary information.
-			MouseButton buttonPressed = determineMouseButton(splitLine[1]);
-			int xCoord = Integer.valueOf(splitLine[2]);
-			int yCoord = Integer.valueOf(splitLine[3]);
-			int rgbVal = Integer.valueOf(splitLine[4]);
-			long timeNS = Long.valueOf(splitLine[5]);
+			int xCoord = tokenizer.nextInt();
+			int yCoord = tokenizer.nextInt();
+			long timeNS = tokenizer.nextLong();
 			
-			// Button Press
-			if (splitLine[0].toUpperCase().equals("MPRESS"))
-			{
-				return new MouseButtonPress(buttonPressed, new Pixel(new PixelColor(rgbVal), new PixelCoordinate2D(xCoord, yCoord)), timeNS);
-			}
-			// Button Release
-			else if (splitLine[0].toUpperCase().equals("MRELEA"))
-			{
-				return new MouseButtonRelease(buttonPressed, new Pixel(new PixelColor(rgbVal), new PixelCoordinate2D(xCoord, yCoord)), timeNS);
-			}
-			else 
+			return new MouseMove(importContext.fitCoordinate(xCoord, yCoord), timeNS);
+		}
+		catch (DataFormatException | IllegalArgumentException ex)
+		{
+			throw new DataFormatException("Could not create Mouse moved action because ==> " + ex.getMessage());
+		}
+	}
+	
+	/**
+	 * Creates and returns a mouse wheel action by reading the details from the line the tokenizer points at.
+	 * @param tokenizer The tokenizer positioned at the start of a line whose ID is the mouse wheel ID.
+	 * @param importContext The context that fits the coordinate onto the target screen.
+	 * @return Returns the equivelant mouse wheel action that represents the line.
+	 * @throws DataFormatException Throws if the line doesn't have the required fields to be a mouse wheel action, or if the import context rejects its coordinate.
+	 */
+	private static AbstractMouseInputAction createMouseWheelActionByParsing(ActionLineTokenizer tokenizer, RecordingImportContext importContext) throws DataFormatException
+	{
+		try
+		{
+			// If the line doesn't contain the necessary number of items don't bother trying to parse it.
+			if (tokenizer.getFieldCount() != 5)
 			{
-				throw new UnsupportedDataTypeException("String ID doesn't represent the supported mouse button actions: " + splitLine[0]);
+				throw new DataFormatException("String doesn't have the required fields to be a mouse wheel action.");
 			}
 			
-		}		
-		catch (IndexOutOfBoundsException | DataFormatException ex)
-		{
-			throw new DataFormatException("String doesn't have the required fields to be a mouse button action.");
+			tokenizer.skipTag();
+			
+			// Parsing necessary information.
+			int xCoord = tokenizer.nextInt();
+			int yCoord = tokenizer.nextInt();
+			int wheelAmount = tokenizer.nextInt();
+			long timeNS = tokenizer.nextLong();
+			
+			return new MouseWheelScroll(importContext.fitCoordinate(xCoord, yCoord), wheelAmount, timeNS);
 		}
-		catch(UnsupportedDataTypeException | IllegalArgumentException ex)
+		catch (DataFormatException | IllegalArgumentException ex)
 		{
-			throw new UnsupportedDataTypeException("Could not create Mouse button action because ==> " + ex.getMessage());
+			throw new DataFormatException("Could not create Mouse wheel action because ==> " + ex.getMessage());
 		}
 	}
 	
 	/**
-	 * Determines which mouse button the string represents and returns it as a MouseButton object.
-	 * @param mouseButtonString The string that represents the mouse button/
-	 * @return Returns the MouseButton object represented by this string.
-	 * @throws UnsupportedDataTypeException Throws if this button isn't supported yet.
-	 * @throws IllegalArgumentException Throws if the mouse button string is null.
+	 * Creates and returns a mouse button action by reading the details from the line the tokenizer points at.
+	 * @param tokenizer The tokenizer positioned at the start of a line whose ID is a mouse button action ID.
+	 * @param importContext The context that fits the coordinate onto the target screen.
+	 * @return Returns the equivelant mouse button action that represents the line.
+	 * @throws DataFormatException Throws if the line doesn't have the required fields to be a mouse button action, contains an unsupported button or if the import context rejects its coordinate.
 	 */
-	private static MouseButton determineMouseButton(String mouseButtonString) throws UnsupportedDataTypeException, IllegalArgumentException
+	private static AbstractMouseButtonAction createMouseButtonActionByParsing(ActionLineTokenizer tokenizer, RecordingImportContext importContext) throws DataFormatException
 	{
-		if (mouseButtonString == null)
+		try
 		{
-			throw new IllegalArgumentException("Mousebutton string cannot be null.");
+			// If the line doesn't contain the necessary number of items don't bother trying to parse it.
+			if (tokenizer.getFieldCount() != 6)
+			{
+				throw new DataFormatException("String doesn't have the required fields to be a mouse button action.");
+			}
+			
+			final boolean isButtonPress = tokenizer.hasTag("MPRESS");
+			tokenizer.skipTag();
+			
+			// Parsing necessary information.
+			MouseButton buttonPressed = determineMouseButton(tokenizer.nextInt());
+			int xCoord = tokenizer.nextInt();
+			int yCoord = tokenizer.nextInt();
+			int rgbVal = tokenizer.nextInt();
+			long timeNS = tokenizer.nextLong();
+			
+			final Pixel pixel = new Pixel(new PixelColor(rgbVal), importContext.fitCoordinate(xCoord, yCoord));
+			
+			return isButtonPress ? new MouseButtonPress(buttonPressed, pixel, timeNS) : new MouseButtonRelease(buttonPressed, pixel, timeNS);
 		}
-		
-		MouseButton mouseButton = 	mouseButtonString.equals("1") ? MouseButton.Left : 
-									mouseButtonString.equals("2") ? MouseButton.Right : 
-									mouseButtonString.equals("3") ? MouseButton.ScrollWheel : 
-									null;
-
-		if (mouseButton == null) 
+		catch (DataFormatException | UnsupportedDataTypeException | IllegalArgumentException ex)
 		{
-			throw new UnsupportedDataTypeException("String contains an unsupported mouse button: " + mouseButtonString);
+			throw new DataFormatException("Could not create Mouse button action because ==> " + ex.getMessage());
 		}
-		
-		return mouseButton;
 	}
 	
-}
\ No newline at end of file
+	/**
+	 * Determines which mouse button the number represents and returns it as a MouseButton object.
+	 * @param mouseButtonNumber The number that represents the mouse button.
+	 * @return Returns the MouseButton object represented by this number.
+	 * @throws UnsupportedDataTypeException Throws if this button isn't supported yet.
+	 */
+	private static MouseButton determineMouseButton(int mouseButtonNumber) throws UnsupportedDataTypeException
+	{
+		switch (mouseButtonNumber)
+		{
+			case 1:
+				return MouseButton.Left;
+			case 2:
+				return MouseButton.Right;
+			case 3:
+				return MouseButton.ScrollWheel;
+			default:
+				throw new UnsupportedDataTypeException("String contains an unsupported mouse button: " + mouseButtonNumber);
+		}
+	}
+}
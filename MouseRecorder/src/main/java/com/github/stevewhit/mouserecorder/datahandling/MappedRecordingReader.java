@@ -0,0 +1,816 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import javax.activation.UnsupportedDataTypeException;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Reads the actions of a recording file (text or binary) straight from a memory-mapped copy of the file, decoding them only as they are requested.
+ * A sparse index from playback time to byte position lets reading start at any point of the recording without decoding what comes before it.
+ * The index is saved next to the recording in a sidecar file (*.idx) so it only has to be built once. The index keeps the click zones as they were
+ * recorded, so they are fitted onto the target screen each time the reader is created.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class MappedRecordingReader
+{
+	/**
+	 * The extension that is appended to the recording file location to get the location of its index file.
+	 */
+	public static final String INDEX_FILE_EXTENSION = ".idx";
+
+	/**
+	 * The default amount of playback time (in nanoseconds) between two index entries.
+	 */
+	static final long DEFAULT_INDEX_INTERVAL_NANOSECONDS = 1000L * 1000 * 1000;
+
+	/**
+	 * The bytes every index file starts with.
+	 */
+	private static final byte[] INDEX_MAGIC_BYTES = new byte[]{'M', 'R', 'I', 'X'};
+
+	/**
+	 * The current version of the index file format.
+	 */
+	private static final int INDEX_FORMAT_VERSION = 1;
+
+	/**
+	 * The mapped contents of the recording file.
+	 */
+	private final ByteBuffer recordingContents;
+
+	/**
+	 * Whether the recording is in the binary recording format.
+	 */
+	private final boolean binaryRecording;
+
+	/**
+	 * The context that fits the coordinates of the decoded actions onto the target screen.
+	 */
+	private final RecordingImportContext importContext;
+
+	/**
+	 * The click zones of the recording.
+	 */
+	private ArrayList<ClickZoneDetails> clickZoneDetails = new ArrayList<ClickZoneDetails>();
+
+	/**
+	 * The time stamp of the first action of the recording.
+	 */
+	private long firstTimeStamp;
+
+	/**
+	 * The playback time (in nanoseconds) of the last action of the recording.
+	 */
+	private long playbackLength;
+
+	/**
+	 * The amount of playback time (in nanoseconds) between two index entries.
+	 */
+	private final long indexIntervalNanoseconds;
+
+	/**
+	 * The number of entries in the index.
+	 */
+	private int indexSize;
+
+	/**
+	 * The playback time (in nanoseconds) of the action each index entry points at.
+	 */
+	private long[] indexPlaybackTimes = new long[16];
+
+	/**
+	 * The byte position of the action each index entry points at.
+	 */
+	private int[] indexBytePositions = new int[16];
+
+	/**
+	 * The time stamp of the action before the one each index entry points at. Binary recordings store time stamps relative to the previous action.
+	 */
+	private long[] indexPreviousTimeStamps = new long[16];
+
+	/**
+	 * Whether the index was loaded from or saved to the index file, so the next reader of the recording can skip building it.
+	 */
+	private boolean indexFileCurrent;
+
+	/**
+	 * Constructor that maps the recording and loads its index from the index file, building and saving the index if the file is missing or out of date.
+	 * The coordinates of the recording are clamped to the current screen.
+	 * @param fileLocation The system path where the recording is stored.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the recording contains invalid data or doesn't contain any actions.
+	 */
+	public MappedRecordingReader(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		this(fileLocation, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Constructor that maps the recording and loads its index from the index file, building and saving the index if the file is missing or out of date.
+	 * @param fileLocation The system path where the recording is stored.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen. It is used by every cursor of the reader.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the import context is null.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the recording contains invalid data or doesn't contain any actions.
+	 */
+	public MappedRecordingReader(String fileLocation, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		this(fileLocation, importContext, true, DEFAULT_INDEX_INTERVAL_NANOSECONDS);
+	}
+
+	/**
+	 * Constructor that maps the recording and builds its index, clamping the coordinates of the recording to the current screen.
+	 * @param fileLocation The system path where the recording is stored.
+	 * @param useIndexFile Whether the index should be loaded from and saved to the index file next to the recording.
+	 * @param indexIntervalNanoseconds The amount of playback time (in nanoseconds) between two index entries.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the index interval isn't positive.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the recording is compressed, contains invalid data or doesn't contain any actions.
+	 */
+	MappedRecordingReader(String fileLocation, boolean useIndexFile, long indexIntervalNanoseconds) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		this(fileLocation, RecordingImportContext.forCurrentScreen(), useIndexFile, indexIntervalNanoseconds);
+	}
+
+	/**
+	 * Constructor that maps the recording and builds its index.
+	 * @param fileLocation The system path where the recording is stored.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @param useIndexFile Whether the index should be loaded from and saved to the index file next to the recording.
+	 * @param indexIntervalNanoseconds The amount of playback time (in nanoseconds) between two index entries.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the import context is null or if the index interval isn't positive.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the recording is compressed, contains invalid data or doesn't contain any actions.
+	 */
+	MappedRecordingReader(String fileLocation, RecordingImportContext importContext, boolean useIndexFile, long indexIntervalNanoseconds) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+		}
+
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+
+		if (indexIntervalNanoseconds <= 0)
+		{
+			throw new IllegalArgumentException("Index interval must be greater than zero.");
+		}
+
+		this.importContext = importContext;
+		this.indexIntervalNanoseconds = indexIntervalNanoseconds;
+		this.recordingContents = mapFile(fileLocation);
+		this.binaryRecording = startsWith(recordingContents, BinaryRecordingIOUtils.MAGIC_BYTES);
+
+		// Compressed blocks have to be inflated, so they can't be decoded straight from the mapping.
+		if (startsWith(recordingContents, CompressedRecordingIOUtils.MAGIC_BYTES))
+		{
+			throw new DataFormatException("Compressed recordings cannot be read in place.");
+		}
+
+		readSourceDimensions();
+
+		final File recordingFile = new File(fileLocation);
+		final File indexFile = new File(fileLocation + INDEX_FILE_EXTENSION);
+
+		indexFileCurrent = useIndexFile && loadIndexFile(indexFile, recordingFile);
+
+		if (!indexFileCurrent)
+		{
+			if (binaryRecording)
+				buildBinaryIndex();
+			else
+				buildTextIndex();
+
+			if (indexSize == 0)
+			{
+				throw new DataFormatException("Recording doesn't contain any input actions.");
+			}
+
+			if (useIndexFile)
+				indexFileCurrent = saveIndexFile(indexFile, recordingFile);
+		}
+
+		clickZoneDetails = importContext.fitClickZones(clickZoneDetails);
+	}
+
+	/**
+	 * Returns the click zones of the recording.
+	 * @return Returns the click zones of the recording.
+	 */
+	public ArrayList<ClickZoneDetails> getClickZoneDetails()
+	{
+		return clickZoneDetails;
+	}
+
+	/**
+	 * Returns the playback time of the last action of the recording.
+	 * @return Returns the time (in nanoseconds) from the first to the last action of the recording.
+	 */
+	public long getPlaybackLength()
+	{
+		return playbackLength;
+	}
+
+	/**
+	 * Returns the number of entries in the time index.
+	 * @return Returns the number of entries in the time index.
+	 */
+	int getIndexSize()
+	{
+		return indexSize;
+	}
+
+	/**
+	 * Returns whether the index was loaded from or saved to the index file next to the recording.
+	 * @return Returns true if the index file holds the index of the recording; false if it's disabled or couldn't be saved.
+	 */
+	public boolean isIndexFileCurrent()
+	{
+		return indexFileCurrent;
+	}
+
+	/**
+	 * Opens a cursor that reads the actions of the recording starting with the first action at or after the given playback time.
+	 * Only the actions between the closest index entry and the start time are decoded to get there.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) to start reading at.
+	 * @return Returns a cursor positioned at the first action at or after the start time.
+	 * @throws IllegalArgumentException Throws if the start time is negative.
+	 * @throws DataFormatException Throws if the recording contains invalid data.
+	 */
+	public ActionCursor openCursor(long startPlaybackTime) throws IllegalArgumentException, DataFormatException
+	{
+		if (startPlaybackTime < 0)
+		{
+			throw new IllegalArgumentException("Start playback time cannot be negative.");
+		}
+
+		// Find the last index entry at or before the start time.
+		int entryNum = Arrays.binarySearch(indexPlaybackTimes, 0, indexSize, startPlaybackTime);
+
+		if (entryNum < 0)
+			entryNum = Math.max(0, -entryNum - 2);
+
+		final ActionCursor cursor = new ActionCursor(indexBytePositions[entryNum], indexPreviousTimeStamps[entryNum]);
+		cursor.skipTo(startPlaybackTime);
+
+		return cursor;
+	}
+
+	/**
+	 * Reads the actions of a mapped recording one at a time. Each cursor has its own position, so several can be open at once.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	public class ActionCursor
+	{
+		/**
+		 * The cursor's own view of the recording contents.
+		 */
+		private final ByteBuffer contents;
+
+		/**
+		 * Reads binary actions from the contents.
+		 */
+		private final DataInputStream binaryInput;
+
+		/**
+		 * Reads the fields of text lines.
+		 */
+		private final ActionLineTokenizer tokenizer;
+
+		/**
+		 * The current text line.
+		 */
+		private final ByteBufferLineSequence line;
+
+		/**
+		 * The time stamp of the last action that was decoded.
+		 */
+		private long previousTimeStamp;
+
+		/**
+		 * The next action to return; null if it hasn't been decoded yet.
+		 */
+		private AbstractInputAction nextAction;
+
+		/**
+		 * Whether the end of the recording was reached.
+		 */
+		private boolean endReached;
+
+		/**
+		 * Constructor that positions the cursor at an action.
+		 * @param bytePosition The byte position of the action.
+		 * @param previousTimeStamp The time stamp of the action before it.
+		 */
+		private ActionCursor(int bytePosition, long previousTimeStamp)
+		{
+			this.contents = recordingContents.duplicate();
+			this.contents.position(bytePosition);
+			this.previousTimeStamp = previousTimeStamp;
+
+			this.binaryInput = binaryRecording ? new DataInputStream(new ByteBufferInputStream(contents)) : null;
+			this.tokenizer = binaryRecording ? null : new ActionLineTokenizer();
+			this.line = binaryRecording ? null : new ByteBufferLineSequence(contents);
+		}
+
+		/**
+		 * Determines whether there are more actions to read.
+		 * @return Returns true if there is at least one more action; otherwise false.
+		 * @throws DataFormatException Throws if the next action contains invalid data.
+		 */
+		public boolean hasNext() throws DataFormatException
+		{
+			if (nextAction == null && !endReached)
+				nextAction = decodeNextAction();
+
+			return nextAction != null;
+		}
+
+		/**
+		 * Returns the next action of the recording.
+		 * @return Returns the next action of the recording.
+		 * @throws DataFormatException Throws if the next action contains invalid data.
+		 * @throws IllegalStateException Throws if there are no more actions.
+		 */
+		public AbstractInputAction next() throws DataFormatException, IllegalStateException
+		{
+			if (!hasNext())
+			{
+				throw new IllegalStateException("There are no more actions in the recording.");
+			}
+
+			final AbstractInputAction action = nextAction;
+			nextAction = null;
+
+			return action;
+		}
+
+		/**
+		 * Skips the actions that come before the given playback time.
+		 * @param startPlaybackTime The playback time (in nanoseconds from the first action) of the first action to keep.
+		 * @throws DataFormatException Throws if the recording contains invalid data.
+		 */
+		private void skipTo(long startPlaybackTime) throws DataFormatException
+		{
+			while (hasNext() && nextAction.getTimeStamp() - firstTimeStamp < startPlaybackTime)
+			{
+				nextAction = null;
+			}
+		}
+
+		/**
+		 * Decodes the action at the position of the cursor.
+		 * @return Returns the decoded action; null if the end of the recording was reached.
+		 * @throws DataFormatException Throws if the action contains invalid data.
+		 */
+		private AbstractInputAction decodeNextAction() throws DataFormatException
+		{
+			final AbstractInputAction action = binaryRecording ? decodeNextBinaryAction() : decodeNextTextAction();
+
+			if (action == null)
+				endReached = true;
+			else
+				previousTimeStamp = action.getTimeStamp();
+
+			return action;
+		}
+
+		/**
+		 * Decodes the binary action at the position of the cursor.
+		 * @return Returns the decoded action; null if the end of the recording was reached.
+		 * @throws DataFormatException Throws if the action contains invalid data.
+		 */
+		private AbstractInputAction decodeNextBinaryAction() throws DataFormatException
+		{
+			try
+			{
+				final int tag = binaryInput.readUnsignedByte();
+
+				return tag == BinaryRecordingCodec.TAG_END ? null : BinaryRecordingCodec.readAction(binaryInput, tag, previousTimeStamp, importContext);
+			}
+			catch (EOFException ex)
+			{
+				throw new DataFormatException("Binary recording ended unexpectedly.");
+			}
+			catch (IOException ex)
+			{
+				throw new DataFormatException("Could not read binary action because ==> " + ex.getMessage());
+			}
+		}
+
+		/**
+		 * Decodes the next text action line at or after the position of the cursor. Click zone and source dimensions lines are skipped.
+		 * @return Returns the decoded action; null if the end of the recording was reached.
+		 * @throws DataFormatException Throws if the line contains invalid data.
+		 */
+		private AbstractInputAction decodeNextTextAction() throws DataFormatException
+		{
+			while (contents.position() < contents.limit())
+			{
+				final int lineStart = contents.position();
+				contents.position(Math.min(line.setLine(lineStart, contents.limit()), contents.limit()));
+
+				tokenizer.reset(line);
+
+				if (!tokenizer.hasTag("CZONEE") && !tokenizer.hasTag("SCREEN"))
+					return DataIOHandlerUtils.createInputActionFromTokenizer(tokenizer, importContext);
+			}
+
+			return null;
+		}
+	}
+
+	/**
+	 * Reads the dimensions of the screen the recording was made on and stores them in the import context.
+	 * @throws DataFormatException Throws if the header or source dimensions line of the recording is invalid.
+	 * @throws IOException Throws if there's an issue reading the mapped contents.
+	 */
+	private void readSourceDimensions() throws DataFormatException, IOException
+	{
+		if (binaryRecording)
+		{
+			try
+			{
+				importContext.setSourceDimensions(BinaryRecordingIOUtils.readHeader(new DataInputStream(new ByteBufferInputStream(recordingContents.duplicate()))));
+			}
+			catch (EOFException ex)
+			{
+				throw new DataFormatException("Binary recording ended unexpectedly.");
+			}
+
+			return;
+		}
+
+		final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+		final ByteBufferLineSequence line = new ByteBufferLineSequence(recordingContents);
+
+		line.setLine(0, recordingContents.limit());
+
+		if (tokenizer.reset(line).hasTag("SCREEN"))
+		{
+			try
+			{
+				importContext.setSourceDimensions(DataIOHandlerUtils.readSourceDimensionsLine(tokenizer, 1));
+			}
+			catch (DataFormatException ex)
+			{
+				throw new DataFormatException("Cancelled data import on line 1 because ==> " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Scans a binary recording once, reading its click zones as they were recorded and indexing its actions.
+	 * @throws DataFormatException Throws if the recording contains invalid data.
+	 * @throws IOException Throws if there's an issue reading the mapped contents.
+	 */
+	private void buildBinaryIndex() throws DataFormatException, IOException
+	{
+		final ByteBuffer contents = recordingContents.duplicate();
+		final ByteBufferInputStream contentsInput = new ByteBufferInputStream(contents);
+		final DataInputStream binaryInput = new DataInputStream(contentsInput);
+		final RecordingImportContext recordedContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Clamp);
+
+		try
+		{
+			clickZoneDetails = BinaryRecordingIOUtils.readHeaderAndClickZones(binaryInput, recordedContext);
+
+			long previousTimeStamp = 0;
+			int actionStart = contentsInput.getPosition();
+			int tag;
+
+			while ((tag = binaryInput.readUnsignedByte()) != BinaryRecordingCodec.TAG_END)
+			{
+				final long timeStamp = BinaryRecordingCodec.readAction(binaryInput, tag, previousTimeStamp, recordedContext).getTimeStamp();
+
+				indexAction(timeStamp, actionStart, previousTimeStamp);
+
+				previousTimeStamp = timeStamp;
+				actionStart = contentsInput.getPosition();
+			}
+		}
+		catch (EOFException ex)
+		{
+			throw new DataFormatException("Binary recording ended unexpectedly.");
+		}
+	}
+
+	/**
+	 * Scans a text recording once, reading its click zones as they were recorded and indexing its actions. Only the time stamp of each action line is parsed.
+	 * @throws DataFormatException Throws if a line contains invalid data.
+	 */
+	private void buildTextIndex() throws DataFormatException
+	{
+		final RecordingImportContext recordedContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Clamp);
+		final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+		final ByteBufferLineSequence line = new ByteBufferLineSequence(recordingContents);
+		final int contentsEnd = recordingContents.limit();
+
+		long previousTimeStamp = 0;
+		int lineNumber = 0;
+		int lineStart = 0;
+
+		while (lineStart < contentsEnd)
+		{
+			final int nextLineStart = line.setLine(lineStart, contentsEnd);
+			lineNumber++;
+
+			try
+			{
+				tokenizer.reset(line);
+
+				if (tokenizer.hasTag("CZONEE"))
+				{
+					clickZoneDetails.add(DataIOHandlerUtils.createClickZoneDetailsFromTokenizer(tokenizer, recordedContext));
+				}
+				else if (tokenizer.hasTag("SCREEN"))
+				{
+					// Read when the reader was created; this only checks that it is on the first line.
+					DataIOHandlerUtils.readSourceDimensionsLine(tokenizer, lineNumber);
+				}
+				else
+				{
+					final long timeStamp = tokenizer.lastLong();
+
+					indexAction(timeStamp, lineStart, previousTimeStamp);
+					previousTimeStamp = timeStamp;
+				}
+			}
+			catch (UnsupportedDataTypeException | DataFormatException ex)
+			{
+				throw new DataFormatException("Cancelled data import on line " + lineNumber + " because ==> " + ex.getMessage());
+			}
+
+			lineStart = nextLineStart;
+		}
+	}
+
+	/**
+	 * Adds an index entry for the action if it is at least one index interval after the previous entry.
+	 * @param timeStamp The time stamp of the action.
+	 * @param bytePosition The byte position of the action.
+	 * @param previousTimeStamp The time stamp of the action before it.
+	 */
+	private void indexAction(long timeStamp, int bytePosition, long previousTimeStamp)
+	{
+		if (indexSize == 0)
+			firstTimeStamp = timeStamp;
+
+		final long playbackTime = timeStamp - firstTimeStamp;
+		playbackLength = Math.max(playbackLength, playbackTime);
+
+		if (indexSize > 0 && playbackTime < indexPlaybackTimes[indexSize - 1] + indexIntervalNanoseconds)
+			return;
+
+		if (indexSize == indexPlaybackTimes.length)
+		{
+			indexPlaybackTimes = Arrays.copyOf(indexPlaybackTimes, indexSize * 2);
+			indexBytePositions = Arrays.copyOf(indexBytePositions, indexSize * 2);
+			indexPreviousTimeStamps = Arrays.copyOf(indexPreviousTimeStamps, indexSize * 2);
+		}
+
+		indexPlaybackTimes[indexSize] = playbackTime;
+		indexBytePositions[indexSize] = bytePosition;
+		indexPreviousTimeStamps[indexSize] = previousTimeStamp;
+		indexSize++;
+	}
+
+	/**
+	 * Loads the index from the index file if it was built for the current version of the recording with the same index interval.
+	 * @param indexFile The index file.
+	 * @param recordingFile The recording file.
+	 * @return Returns true if the index was loaded; otherwise false.
+	 */
+	private boolean loadIndexFile(File indexFile, File recordingFile)
+	{
+		if (!indexFile.isFile())
+			return false;
+
+		DataInputStream indexInput = null;
+
+		try
+		{
+			indexInput = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)));
+
+			final byte[] leadingBytes = new byte[INDEX_MAGIC_BYTES.length];
+			indexInput.readFully(leadingBytes);
+
+			// Ignore index files that are from a different version or are out of date.
+			if (!Arrays.equals(leadingBytes, INDEX_MAGIC_BYTES) ||
+				indexInput.readUnsignedByte() != INDEX_FORMAT_VERSION ||
+				indexInput.readLong() != recordingFile.length() ||
+				indexInput.readLong() != recordingFile.lastModified() ||
+				indexInput.readLong() != indexIntervalNanoseconds)
+				return false;
+
+			final long loadedFirstTimeStamp = indexInput.readLong();
+			final long loadedPlaybackLength = indexInput.readLong();
+
+			final int clickZoneCount = indexInput.readInt();
+			final ArrayList<ClickZoneDetails> loadedClickZones = new ArrayList<ClickZoneDetails>();
+
+			for (int zoneNum = 0; zoneNum < clickZoneCount; zoneNum++)
+			{
+				loadedClickZones.add(new ClickZoneDetails(indexInput.readInt(), indexInput.readInt(), indexInput.readInt(), indexInput.readInt()));
+			}
+
+			final int loadedIndexSize = indexInput.readInt();
+
+			if (loadedIndexSize <= 0)
+				return false;
+
+			final long[] loadedPlaybackTimes = new long[loadedIndexSize];
+			final int[] loadedBytePositions = new int[loadedIndexSize];
+			final long[] loadedPreviousTimeStamps = new long[loadedIndexSize];
+
+			for (int entryNum = 0; entryNum < loadedIndexSize; entryNum++)
+			{
+				loadedPlaybackTimes[entryNum] = indexInput.readLong();
+				loadedBytePositions[entryNum] = indexInput.readInt();
+				loadedPreviousTimeStamps[entryNum] = indexInput.readLong();
+
+				if (loadedBytePositions[entryNum] < 0 || loadedBytePositions[entryNum] >= recordingContents.limit())
+					return false;
+			}
+
+			firstTimeStamp = loadedFirstTimeStamp;
+			playbackLength = loadedPlaybackLength;
+			clickZoneDetails = loadedClickZones;
+			indexSize = loadedIndexSize;
+			indexPlaybackTimes = loadedPlaybackTimes;
+			indexBytePositions = loadedBytePositions;
+			indexPreviousTimeStamps = loadedPreviousTimeStamps;
+
+			return true;
+		}
+		catch (IOException | IllegalArgumentException ex)
+		{
+			// A damaged index file is rebuilt.
+			return false;
+		}
+		finally
+		{
+			// Clean up
+			if (indexInput != null)
+			{
+				try
+				{
+					indexInput.close();
+				}
+				catch (IOException ex)
+				{
+					// Nothing left to read.
+				}
+			}
+		}
+	}
+
+	/**
+	 * Saves the index to the index file. The index is only a cache, so a failure to save it doesn't fail the reader; the partial index file is removed.
+	 * @param indexFile The index file.
+	 * @param recordingFile The recording file.
+	 * @return Returns true if the index file was saved; otherwise false.
+	 */
+	private boolean saveIndexFile(File indexFile, File recordingFile)
+	{
+		DataOutputStream indexOutput = null;
+		boolean saved = false;
+
+		try
+		{
+			indexOutput = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile)));
+
+			indexOutput.write(INDEX_MAGIC_BYTES);
+			indexOutput.writeByte(INDEX_FORMAT_VERSION);
+			indexOutput.writeLong(recordingFile.length());
+			indexOutput.writeLong(recordingFile.lastModified());
+			indexOutput.writeLong(indexIntervalNanoseconds);
+			indexOutput.writeLong(firstTimeStamp);
+			indexOutput.writeLong(playbackLength);
+
+			indexOutput.writeInt(clickZoneDetails.size());
+
+			for (ClickZoneDetails clickZone : clickZoneDetails)
+			{
+				indexOutput.writeInt(clickZone.getWindowLocation().x);
+				indexOutput.writeInt(clickZone.getWindowLocation().y);
+				indexOutput.writeInt(clickZone.getWindowDimensions().width);
+				indexOutput.writeInt(clickZone.getWindowDimensions().height);
+			}
+
+			indexOutput.writeInt(indexSize);
+
+			for (int entryNum = 0; entryNum < indexSize; entryNum++)
+			{
+				indexOutput.writeLong(indexPlaybackTimes[entryNum]);
+				indexOutput.writeInt(indexBytePositions[entryNum]);
+				indexOutput.writeLong(indexPreviousTimeStamps[entryNum]);
+			}
+
+			indexOutput.close();
+			indexOutput = null;
+			saved = true;
+		}
+		catch (IOException ex)
+		{
+			// The index is rebuilt by the next reader instead.
+		}
+		finally
+		{
+			// Clean up
+			if (indexOutput != null)
+			{
+				try
+				{
+					indexOutput.close();
+				}
+				catch (IOException ex)
+				{
+					// The partial file is removed below.
+				}
+			}
+
+			if (!saved)
+				indexFile.delete();
+		}
+
+		return saved;
+	}
+
+	/**
+	 * Maps the file into memory as read-only.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the mapped contents of the file.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading it.
+	 */
+	private static ByteBuffer mapFile(String fileLocation) throws IOException
+	{
+		RandomAccessFile file = null;
+
+		try
+		{
+			file = new RandomAccessFile(fileLocation, "r");
+			final FileChannel fileChannel = file.getChannel();
+
+			if (fileChannel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException("File is too large to be mapped.");
+			}
+
+			// The mapping stays valid after the channel is closed.
+			return fileChannel.map(MapMode.READ_ONLY, 0, fileChannel.size());
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Had trouble reading or accessing contents of the file because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			// Clean up
+			if (file != null)
+				file.close();
+		}
+	}
+
+	/**
+	 * Determines whether the contents start with the given bytes.
+	 * @param contents The contents to check.
+	 * @param leadingBytes The bytes to look for.
+	 * @return Returns true if the contents start with the bytes; otherwise false.
+	 */
+	private static boolean startsWith(ByteBuffer contents, byte[] leadingBytes)
+	{
+		if (contents.limit() < leadingBytes.length)
+			return false;
+
+		for (int index = 0; index < leadingBytes.length; index++)
+		{
+			if (contents.get(index) != leadingBytes[index])
+				return false;
+		}
+
+		return true;
+	}
+}
@@ -0,0 +1,319 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.zip.DataFormatException;
+import javax.activation.UnsupportedDataTypeException;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Imports large text recordings by splitting the file into chunks at line boundaries and parsing the chunks on the common fork-join pool.
+ * The parsed chunks are stitched back together in file order, so the result is the same as a sequential import.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+final class ParallelRecordingImporter
+{
+	/**
+	 * The default number of bytes parsed by a single task.
+	 */
+	static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+	/**
+	 * Private constructor to utilize this class as static.
+	 */
+	private ParallelRecordingImporter() {}
+
+	/**
+	 * Imports the input actions and click zones of a text recording file by parsing chunks of the file in parallel, clamping their coordinates to the current screen.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param chunkSize The number of bytes each task should parse. Chunks are extended to the end of their last line.
+	 * @return Returns the input actions and click zones of the recording in file order.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the chunk size isn't positive.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if a line in the file doesn't conform to the pre-existing data structures.
+	 */
+	static RecordingData importRecordingFromTextFile(String fileLocation, int chunkSize) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		return importRecordingFromTextFile(fileLocation, chunkSize, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Imports the input actions and click zones of a text recording file by parsing chunks of the file in parallel. The source dimensions line
+	 * is read before the chunks are split, so every task fits its coordinates the same way.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param chunkSize The number of bytes each task should parse. Chunks are extended to the end of their last line.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @return Returns the input actions and click zones of the recording in file order.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the chunk size isn't positive or if the import context is null.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if a line in the file doesn't conform to the pre-existing data structures.
+	 */
+	static RecordingData importRecordingFromTextFile(String fileLocation, int chunkSize, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+		}
+
+		if (chunkSize <= 0)
+		{
+			throw new IllegalArgumentException("Chunk size must be greater than zero.");
+		}
+
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Import context cannot be null.");
+		}
+
+		final ByteBuffer fileContents = mapFile(fileLocation);
+		final int contentsStart = readSourceDimensions(fileContents, importContext);
+		final List<ParseChunkTask> chunkTasks = createChunkTasks(fileContents, contentsStart, chunkSize, importContext);
+
+		ForkJoinTask.invokeAll(chunkTasks);
+
+		// Stitch the chunks back together in file order.
+		final RecordingData importedRecording = new RecordingData();
+		int linesBeforeChunk = contentsStart == 0 ? 0 : 1;
+
+		for (ParseChunkTask chunkTask : chunkTasks)
+		{
+			if (chunkTask.errorMessage != null)
+			{
+				throw new DataFormatException("Cancelled data import on line " + (linesBeforeChunk + chunkTask.errorLineNumber) + " because ==> " + chunkTask.errorMessage);
+			}
+
+			for (ClickZoneDetails clickZone : chunkTask.clickZones)
+			{
+				importedRecording.clickZoneRead(clickZone);
+			}
+
+			for (AbstractInputAction inputAction : chunkTask.inputActions)
+			{
+				importedRecording.inputActionRead(inputAction);
+			}
+
+			linesBeforeChunk += chunkTask.lineCount;
+		}
+
+		return importedRecording;
+	}
+
+	/**
+	 * Maps the file into memory as read-only.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the mapped contents of the file.
+	 * @throws IOException Throws if the file doesn't exist, is too large to map or if there's an issue reading it.
+	 */
+	private static ByteBuffer mapFile(String fileLocation) throws IOException
+	{
+		RandomAccessFile file = null;
+
+		try
+		{
+			file = new RandomAccessFile(fileLocation, "r");
+			final FileChannel fileChannel = file.getChannel();
+
+			if (fileChannel.size() > Integer.MAX_VALUE)
+			{
+				throw new IOException("File is too large to be imported in parallel.");
+			}
+
+			// The mapping stays valid after the channel is closed.
+			return fileChannel.map(MapMode.READ_ONLY, 0, fileChannel.size());
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Had trouble reading or accessing contents of the file because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			// Clean up
+			if (file != null)
+				file.close();
+		}
+	}
+
+	/**
+	 * Reads the source dimensions from the first line of the file if it holds them, and stores them in the import context.
+	 * @param fileContents The contents of the file.
+	 * @param importContext The context the source dimensions are stored in.
+	 * @return Returns the index of the first byte after the source dimensions line, or 0 if the file doesn't start with one.
+	 * @throws DataFormatException Throws if the source dimensions line is invalid.
+	 */
+	private static int readSourceDimensions(ByteBuffer fileContents, RecordingImportContext importContext) throws DataFormatException
+	{
+		final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+		final ByteBufferLineSequence line = new ByteBufferLineSequence(fileContents);
+		final int nextLineStart = line.setLine(0, fileContents.limit());
+
+		if (!tokenizer.reset(line).hasTag("SCREEN"))
+			return 0;
+
+		try
+		{
+			importContext.setSourceDimensions(DataIOHandlerUtils.readSourceDimensionsLine(tokenizer, 1));
+		}
+		catch (DataFormatException ex)
+		{
+			throw new DataFormatException("Cancelled data import on line 1 because ==> " + ex.getMessage());
+		}
+
+		return Math.min(nextLineStart, fileContents.limit());
+	}
+
+	/**
+	 * Splits the contents into chunks of roughly the chunk size, each ending at the end of a line, and creates a parse task for each.
+	 * @param fileContents The contents of the file.
+	 * @param contentsStart The index of the first byte to parse.
+	 * @param chunkSize The number of bytes each task should parse.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
+	 * @return Returns the parse tasks in file order.
+	 */
+	private static List<ParseChunkTask> createChunkTasks(ByteBuffer fileContents, int contentsStart, int chunkSize, RecordingImportContext importContext)
+	{
+		final int contentsLength = fileContents.limit();
+		final List<ParseChunkTask> chunkTasks = new ArrayList<ParseChunkTask>(contentsLength / chunkSize + 1);
+
+		int chunkStart = contentsStart;
+
+		while (chunkStart < contentsLength)
+		{
+			int chunkEnd = (int) Math.min((long) chunkStart + chunkSize, contentsLength);
+
+			// Extend the chunk to the end of its last line.
+			while (chunkEnd < contentsLength && fileContents.get(chunkEnd - 1) != '\n')
+				chunkEnd++;
+
+			chunkTasks.add(new ParseChunkTask(fileContents, chunkStart, chunkEnd, importContext));
+			chunkStart = chunkEnd;
+		}
+
+		return chunkTasks;
+	}
+
+	/**
+	 * Parses the lines of a single chunk of the file. Rather than throwing, the first invalid line of the chunk is recorded so that
+	 * its line number can be made global once the line counts of the earlier chunks are known.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class ParseChunkTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+
+		/**
+		 * The contents of the whole file. Only absolute reads are used, so it can be shared between tasks.
+		 */
+		private final ByteBuffer fileContents;
+
+		/**
+		 * The index of the first byte of the chunk.
+		 */
+		private final int chunkStart;
+
+		/**
+		 * The index after the last byte of the chunk.
+		 */
+		private final int chunkEnd;
+
+		/**
+		 * The context that fits the coordinates onto the target screen. It is only read by the tasks.
+		 */
+		private final RecordingImportContext importContext;
+
+		/**
+		 * The input actions parsed from the chunk.
+		 */
+		private final ArrayList<AbstractInputAction> inputActions = new ArrayList<AbstractInputAction>();
+
+		/**
+		 * The click zones parsed from the chunk.
+		 */
+		private final ArrayList<ClickZoneDetails> clickZones = new ArrayList<ClickZoneDetails>();
+
+		/**
+		 * The number of lines in the chunk.
+		 */
+		private int lineCount;
+
+		/**
+		 * The line number within the chunk of the first invalid line.
+		 */
+		private int errorLineNumber;
+
+		/**
+		 * Describes why the first invalid line couldn't be parsed; null if every line was valid.
+		 */
+		private String errorMessage;
+
+		/**
+		 * Constructor that accepts the chunk of the file to parse.
+		 * @param fileContents The contents of the whole file.
+		 * @param chunkStart The index of the first byte of the chunk.
+		 * @param chunkEnd The index after the last byte of the chunk.
+		 * @param importContext The context that fits the coordinates onto the target screen.
+		 */
+		private ParseChunkTask(ByteBuffer fileContents, int chunkStart, int chunkEnd, RecordingImportContext importContext)
+		{
+			this.fileContents = fileContents;
+			this.chunkStart = chunkStart;
+			this.chunkEnd = chunkEnd;
+			this.importContext = importContext;
+		}
+
+		/**
+		 * Parses each line of the chunk until the end of the chunk or the first invalid line.
+		 */
+		@Override
+		protected void compute()
+		{
+			final ActionLineTokenizer tokenizer = new ActionLineTokenizer();
+			final ByteBufferLineSequence line = new ByteBufferLineSequence(fileContents);
+
+			int lineStart = chunkStart;
+
+			while (lineStart < chunkEnd)
+			{
+				final int nextLineStart = line.setLine(lineStart, chunkEnd);
+
+				lineCount++;
+
+				try
+				{
+					tokenizer.reset(line);
+
+					if (tokenizer.hasTag("CZONEE"))
+					{
+						clickZones.add(DataIOHandlerUtils.createClickZoneDetailsFromTokenizer(tokenizer, importContext));
+					}
+					else if (tokenizer.hasTag("SCREEN"))
+					{
+						// The first line was read before the chunks were split, so this one is out of place.
+						throw new DataFormatException("The screen dimensions must be on the first line of the recording.");
+					}
+					else
+					{
+						inputActions.add(DataIOHandlerUtils.createInputActionFromTokenizer(tokenizer, importContext));
+					}
+				}
+				catch (UnsupportedDataTypeException | DataFormatException | IllegalArgumentException ex)
+				{
+					errorLineNumber = lineCount;
+					errorMessage = ex.getMessage();
+					return;
+				}
+
+				lineStart = nextLineStart;
+			}
+		}
+	}
+}
@@ -0,0 +1,348 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * A cache of decoded recordings so that a file that is loaded more than once (a failover script used by several queue items, for example)
+ * is only decoded once. Entries are keyed by the canonical path of the file and are only used while the size and last-modified time of
+ * the file are unchanged and the recording is loaded for the same screen with the same coordinate policy. The least recently used entries are evicted once the estimated heap size of the cache grows past its limit.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingCache
+{
+	/**
+	 * The default maximum estimated heap size (in bytes) of the decoded recordings that are kept.
+	 */
+	public static final long DEFAULT_MAX_ESTIMATED_BYTES = 64L * 1024 * 1024;
+
+	/**
+	 * The estimated heap size (in bytes) of a decoded input action, including its location, color and list node.
+	 */
+	static final int ESTIMATED_BYTES_PER_ACTION = 128;
+
+	/**
+	 * The estimated heap size (in bytes) of a decoded click zone.
+	 */
+	static final int ESTIMATED_BYTES_PER_CLICK_ZONE = 96;
+
+	/**
+	 * The cache that is shared by the whole application.
+	 */
+	private static final RecordingCache sharedCache = new RecordingCache(DEFAULT_MAX_ESTIMATED_BYTES);
+
+	/**
+	 * The cached recordings by canonical file path, from least to most recently used.
+	 */
+	private final LinkedHashMap<String, CachedRecording> cachedRecordings = new LinkedHashMap<String, CachedRecording>(16, 0.75f, true);
+
+	/**
+	 * The maximum estimated heap size (in bytes) of the decoded recordings that are kept.
+	 */
+	private final long maxEstimatedBytes;
+
+	/**
+	 * The estimated heap size (in bytes) of the decoded recordings that are kept.
+	 */
+	private long estimatedBytes;
+
+	/**
+	 * The number of loads that were served from the cache.
+	 */
+	private long hitCount;
+
+	/**
+	 * The number of loads that had to decode the file.
+	 */
+	private long missCount;
+
+	/**
+	 * The number of recordings that were evicted to stay under the size limit.
+	 */
+	private long evictionCount;
+
+	/**
+	 * Constructor that accepts the maximum estimated heap size of the cache.
+	 * @param maxEstimatedBytes The maximum estimated heap size (in bytes) of the decoded recordings that are kept.
+	 * @throws IllegalArgumentException Throws if the maximum is negative.
+	 */
+	public RecordingCache(long maxEstimatedBytes) throws IllegalArgumentException
+	{
+		if (maxEstimatedBytes < 0)
+			throw new IllegalArgumentException("Maximum estimated bytes cannot be negative.");
+
+		this.maxEstimatedBytes = maxEstimatedBytes;
+	}
+
+	/**
+	 * Returns the cache that is shared by the whole application.
+	 * @return Returns the shared recording cache.
+	 */
+	public static RecordingCache getSharedCache()
+	{
+		return sharedCache;
+	}
+
+	/**
+	 * Returns the decoded recording of a file with its coordinates clamped to the current screen. See {@link #getRecording(String, RecordingImportContext)}.
+	 * @param fileLocation The system path where the file is stored.
+	 * @return Returns the input actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, or if the file doesn't contain any input actions.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the data in the file doesn't conform to the pre-existing data structures.
+	 */
+	public RecordingData getRecording(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		return getRecording(fileLocation, RecordingImportContext.forCurrentScreen());
+	}
+
+	/**
+	 * Returns the decoded recording of a file, decoding it only if it isn't cached, if the file has changed since it was cached or if it was
+	 * cached for another target screen or coordinate policy. The returned recording has its own action queue and click zone list, so changing
+	 * them doesn't change the cached copy.
+	 * @param fileLocation The system path where the file is stored.
+	 * @param importContext A new context that fits the coordinates of the recording onto the target screen. It's only used if the file has to be decoded.
+	 * @return Returns the input actions and click zones of the recording.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty, if the import context is null or if the file doesn't contain any input actions.
+	 * @throws IOException Throws if the file doesn't exist or if there's an issue reading information from the file.
+	 * @throws DataFormatException Throws if the data in the file doesn't conform to the pre-existing data structures.
+	 */
+	public RecordingData getRecording(String fileLocation, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+
+		if (importContext == null)
+			throw new IllegalArgumentException("Import context cannot be null.");
+
+		final File recordingFile = new File(fileLocation);
+		final String canonicalPath = recordingFile.getCanonicalPath();
+		final long fileSize = recordingFile.length();
+		final long lastModified = recordingFile.lastModified();
+
+		synchronized (this)
+		{
+			final CachedRecording cachedRecording = cachedRecordings.get(canonicalPath);
+
+			if (cachedRecording != null && cachedRecording.matches(fileSize, lastModified, importContext))
+			{
+				hitCount++;
+				return cachedRecording.copyRecording();
+			}
+
+			if (cachedRecording != null)
+				removeRecording(canonicalPath);
+
+			missCount++;
+		}
+
+		// Decode outside of the lock so that other recordings can still be served in the meantime.
+		final CachedRecording decodedRecording = new CachedRecording(DataIOHandlerUtils.importRecordingFromFile(fileLocation, importContext), fileSize, lastModified, importContext);
+
+		synchronized (this)
+		{
+			if (decodedRecording.estimatedBytes <= maxEstimatedBytes)
+			{
+				removeRecording(canonicalPath);
+
+				cachedRecordings.put(canonicalPath, decodedRecording);
+				estimatedBytes += decodedRecording.estimatedBytes;
+
+				evictLeastRecentlyUsed();
+			}
+		}
+
+		return decodedRecording.copyRecording();
+	}
+
+	/**
+	 * Removes the cached recording of a file, if there is one.
+	 * @param fileLocation The system path where the file is stored.
+	 * @throws IllegalArgumentException Throws if the file location is null or empty.
+	 * @throws IOException Throws if the canonical path of the file can't be determined.
+	 */
+	public synchronized void invalidate(String fileLocation) throws IllegalArgumentException, IOException
+	{
+		if (fileLocation == null || fileLocation.isEmpty())
+			throw new IllegalArgumentException("File location cannot be null or empty.");
+
+		removeRecording(new File(fileLocation).getCanonicalPath());
+	}
+
+	/**
+	 * Removes every cached recording. The hit and miss counters are kept.
+	 */
+	public synchronized void clear()
+	{
+		cachedRecordings.clear();
+		estimatedBytes = 0;
+	}
+
+	/**
+	 * Returns the number of recordings that are cached.
+	 * @return Returns the number of recordings that are cached.
+	 */
+	public synchronized int size()
+	{
+		return cachedRecordings.size();
+	}
+
+	/**
+	 * Returns the estimated heap size of the decoded recordings that are kept.
+	 * @return Returns the estimated heap size (in bytes) of the decoded recordings that are kept.
+	 */
+	public synchronized long getEstimatedBytes()
+	{
+		return estimatedBytes;
+	}
+
+	/**
+	 * Returns the number of loads that were served from the cache.
+	 * @return Returns the number of loads that were served from the cache.
+	 */
+	public synchronized long getHitCount()
+	{
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of loads that had to decode the file.
+	 * @return Returns the number of loads that had to decode the file.
+	 */
+	public synchronized long getMissCount()
+	{
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of recordings that were evicted to stay under the size limit.
+	 * @return Returns the number of recordings that were evicted to stay under the size limit.
+	 */
+	public synchronized long getEvictionCount()
+	{
+		return evictionCount;
+	}
+
+	/**
+	 * Removes the cached recording of the canonical path, if there is one.
+	 * @param canonicalPath The canonical path of the recording file.
+	 */
+	private void removeRecording(String canonicalPath)
+	{
+		final CachedRecording removedRecording = cachedRecordings.remove(canonicalPath);
+
+		if (removedRecording != null)
+			estimatedBytes -= removedRecording.estimatedBytes;
+	}
+
+	/**
+	 * Evicts the least recently used recordings until the estimated heap size is back under the limit.
+	 */
+	private void evictLeastRecentlyUsed()
+	{
+		final Iterator<Map.Entry<String, CachedRecording>> eldestRecordings = cachedRecordings.entrySet().iterator();
+
+		while (estimatedBytes > maxEstimatedBytes && eldestRecordings.hasNext())
+		{
+			estimatedBytes -= eldestRecordings.next().getValue().estimatedBytes;
+			eldestRecordings.remove();
+			evictionCount++;
+		}
+	}
+
+	/**
+	 * A decoded recording along with the file details it was decoded from. The decoded lists are never handed out, only copies of them.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class CachedRecording
+	{
+		/**
+		 * The decoded input actions in the order they were recorded.
+		 */
+		private final ArrayList<AbstractInputAction> inputActions;
+
+		/**
+		 * The decoded click zones.
+		 */
+		private final ArrayList<ClickZoneDetails> clickZoneDetails;
+
+		/**
+		 * The size (in bytes) of the file when it was decoded.
+		 */
+		private final long fileSize;
+
+		/**
+		 * The last-modified time of the file when it was decoded.
+		 */
+		private final long lastModified;
+
+		/**
+		 * The dimensions of the screen the recording was decoded for; null if there wasn't a target screen.
+		 */
+		private final Dimension targetDimensions;
+
+		/**
+		 * How the coordinates of the recording were fitted onto the target screen.
+		 */
+		private final CoordinatePolicy coordinatePolicy;
+
+		/**
+		 * The estimated heap size (in bytes) of the decoded recording.
+		 */
+		private final long estimatedBytes;
+
+		/**
+		 * Constructor that accepts the decoded recording and the file details it was decoded from.
+		 * @param recording The decoded recording.
+		 * @param fileSize The size (in bytes) of the file when it was decoded.
+		 * @param lastModified The last-modified time of the file when it was decoded.
+		 * @param importContext The context the recording was decoded with.
+		 */
+		private CachedRecording(RecordingData recording, long fileSize, long lastModified, RecordingImportContext importContext)
+		{
+			this.inputActions = new ArrayList<AbstractInputAction>(recording.getInputActions());
+			this.clickZoneDetails = new ArrayList<ClickZoneDetails>(recording.getClickZoneDetails());
+			this.fileSize = fileSize;
+			this.lastModified = lastModified;
+			this.targetDimensions = importContext.getTargetDimensions();
+			this.coordinatePolicy = importContext.getCoordinatePolicy();
+			this.estimatedBytes = (long) inputActions.size() * ESTIMATED_BYTES_PER_ACTION + (long) clickZoneDetails.size() * ESTIMATED_BYTES_PER_CLICK_ZONE;
+		}
+
+		/**
+		 * Determines whether the file still has the details it had when it was decoded and whether it's loaded for the same screen with the same policy.
+		 * @param fileSize The current size (in bytes) of the file.
+		 * @param lastModified The current last-modified time of the file.
+		 * @param importContext The context the recording is loaded with.
+		 * @return Returns true if the size, last-modified time, target screen and coordinate policy are unchanged; otherwise false.
+		 */
+		private boolean matches(long fileSize, long lastModified, RecordingImportContext importContext)
+		{
+			final Dimension loadedTargetDimensions = importContext.getTargetDimensions();
+
+			return this.fileSize == fileSize && this.lastModified == lastModified && this.coordinatePolicy == importContext.getCoordinatePolicy()
+					&& (targetDimensions == null ? loadedTargetDimensions == null : targetDimensions.equals(loadedTargetDimensions));
+		}
+
+		/**
+		 * Copies the decoded recording so that the caller can change it without changing the cached copy. The actions themselves are immutable and are shared.
+		 * @return Returns a copy of the decoded recording.
+		 */
+		private RecordingData copyRecording()
+		{
+			return new RecordingData(new LinkedList<AbstractInputAction>(inputActions), new ArrayList<ClickZoneDetails>(clickZoneDetails));
+		}
+	}
+}
@@ -0,0 +1,89 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.Queue;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Represents the decoded contents of a recording file: the user input actions and the click zones that go with them.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingData implements RecordingDataListener
+{
+	/**
+	 * The queue of user input actions in the order they were recorded.
+	 */
+	private Queue<AbstractInputAction> inputActions;
+
+	/**
+	 * The click zones that were saved with the recording.
+	 */
+	private ArrayList<ClickZoneDetails> clickZoneDetails;
+
+	/**
+	 * Constructor that accepts the input actions and click zones of a recording.
+	 * @param inputActions The queue of user input actions in the order they were recorded.
+	 * @param clickZoneDetails The click zones that were saved with the recording.
+	 * @throws IllegalArgumentException Throws if either of the lists are null.
+	 */
+	public RecordingData(Queue<AbstractInputAction> inputActions, ArrayList<ClickZoneDetails> clickZoneDetails) throws IllegalArgumentException
+	{
+		if (inputActions == null)
+			throw new IllegalArgumentException("Input actions cannot be null.");
+
+		if (clickZoneDetails == null)
+			throw new IllegalArgumentException("Click zone details cannot be null.");
+
+		this.inputActions = inputActions;
+		this.clickZoneDetails = clickZoneDetails;
+	}
+
+	/**
+	 * Constructor for an empty recording that actions and click zones can be added to.
+	 */
+	public RecordingData()
+	{
+		this(new LinkedList<AbstractInputAction>(), new ArrayList<ClickZoneDetails>());
+	}
+
+	/**
+	 * Returns the user input actions of this recording.
+	 * @return Returns the user input actions of this recording in the order they were recorded.
+	 */
+	public Queue<AbstractInputAction> getInputActions()
+	{
+		return this.inputActions;
+	}
+
+	/**
+	 * Returns the click zones of this recording.
+	 * @return Returns the click zones of this recording.
+	 */
+	public ArrayList<ClickZoneDetails> getClickZoneDetails()
+	{
+		return this.clickZoneDetails;
+	}
+
+	/**
+	 * Adds the input action to the end of this recording.
+	 * @param inputAction The input action that was read.
+	 */
+	@Override
+	public void inputActionRead(AbstractInputAction inputAction)
+	{
+		this.inputActions.add(inputAction);
+	}
+
+	/**
+	 * Adds the click zone to this recording.
+	 * @param clickZone The click zone that was read.
+	 */
+	@Override
+	public void clickZoneRead(ClickZoneDetails clickZone)
+	{
+		this.clickZoneDetails.add(clickZone);
+	}
+}
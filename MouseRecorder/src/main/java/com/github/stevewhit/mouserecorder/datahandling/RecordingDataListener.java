@@ -0,0 +1,24 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+/**
+ * Receives the contents of a recording file as it is read, one entry at a time, in the order they appear in the file.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public interface RecordingDataListener
+{
+	/**
+	 * Called for each user input action that is read from the recording.
+	 * @param inputAction The input action that was read.
+	 */
+	public void inputActionRead(AbstractInputAction inputAction);
+
+	/**
+	 * Called for each click zone that is read from the recording.
+	 * @param clickZone The click zone that was read.
+	 */
+	public void clickZoneRead(ClickZoneDetails clickZone);
+}
@@ -0,0 +1,293 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.monitor.ScreenUtils;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+
+/**
+ * The screen a recording is being imported for and how the coordinates of the recording are fitted onto it. The screen dimensions are read
+ * once when the context is created, so no screen lookups are needed while the lines of a recording are parsed. A context belongs to a single
+ * import, because the resolution the recording was made at is stored in it once the header of the recording is read.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingImportContext
+{
+	/**
+	 * How coordinates that don't fit the target screen are handled.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	public enum CoordinatePolicy
+	{
+		/**
+		 * Coordinates outside of the target screen are moved to its closest edge.
+		 */
+		Clamp,
+
+		/**
+		 * Coordinates are scaled from the resolution the recording was made at to the target screen, then clamped.
+		 * Recordings without a recorded resolution are only clamped.
+		 */
+		Scale,
+
+		/**
+		 * Coordinates outside of the target screen cancel the import.
+		 */
+		Reject
+	}
+
+	/**
+	 * The dimensions of the screen the recording is imported for; null if there isn't a screen to fit the coordinates to.
+	 */
+	private final Dimension targetDimensions;
+
+	/**
+	 * How coordinates are fitted onto the target screen.
+	 */
+	private final CoordinatePolicy coordinatePolicy;
+
+	/**
+	 * The dimensions of the screen the recording was made on; null if the recording doesn't store them.
+	 */
+	private Dimension sourceDimensions;
+
+	/**
+	 * The factors the x and y coordinates are multiplied by. Both are 1 unless the coordinates are scaled.
+	 */
+	private double xScale = 1;
+	private double yScale = 1;
+
+	/**
+	 * Constructor that accepts the screen the recording is imported for.
+	 * @param targetDimensions The dimensions of the screen the recording is imported for. May be null if there isn't a screen, in which case only negative coordinates are handled.
+	 * @param coordinatePolicy How coordinates are fitted onto the target screen.
+	 * @throws IllegalArgumentException Throws if the coordinate policy is null or if the target dimensions aren't positive.
+	 */
+	public RecordingImportContext(Dimension targetDimensions, CoordinatePolicy coordinatePolicy) throws IllegalArgumentException
+	{
+		if (coordinatePolicy == null)
+		{
+			throw new IllegalArgumentException("Coordinate policy cannot be null.");
+		}
+
+		if (targetDimensions != null && (targetDimensions.width <= 0 || targetDimensions.height <= 0))
+		{
+			throw new IllegalArgumentException("Target dimensions must be greater than zero.");
+		}
+
+		this.targetDimensions = targetDimensions == null ? null : new Dimension(targetDimensions);
+		this.coordinatePolicy = coordinatePolicy;
+	}
+
+	/**
+	 * Creates a context for the current screen that clamps coordinates to it.
+	 * @return Returns a new context for the current screen.
+	 */
+	public static RecordingImportContext forCurrentScreen()
+	{
+		return forCurrentScreen(CoordinatePolicy.Clamp);
+	}
+
+	/**
+	 * Creates a context for the current screen.
+	 * @param coordinatePolicy How coordinates are fitted onto the current screen.
+	 * @return Returns a new context for the current screen.
+	 * @throws IllegalArgumentException Throws if the coordinate policy is null.
+	 */
+	public static RecordingImportContext forCurrentScreen(CoordinatePolicy coordinatePolicy) throws IllegalArgumentException
+	{
+		return new RecordingImportContext(getCurrentScreenDimensions(), coordinatePolicy);
+	}
+
+	/**
+	 * Returns the dimensions of the current screen.
+	 * @return Returns the dimensions of the current screen; null if there isn't a screen (batch tools run headless).
+	 */
+	public static Dimension getCurrentScreenDimensions()
+	{
+		return GraphicsEnvironment.isHeadless() ? null : ScreenUtils.getScreenDimensions();
+	}
+
+	/**
+	 * Returns the dimensions of the screen the recording is imported for.
+	 * @return Returns the target dimensions; null if there isn't a target screen.
+	 */
+	public Dimension getTargetDimensions()
+	{
+		return targetDimensions == null ? null : new Dimension(targetDimensions);
+	}
+
+	/**
+	 * Returns how coordinates are fitted onto the target screen.
+	 * @return Returns the coordinate policy.
+	 */
+	public CoordinatePolicy getCoordinatePolicy()
+	{
+		return coordinatePolicy;
+	}
+
+	/**
+	 * Returns the dimensions of the screen the recording was made on, as read from the header of the recording.
+	 * @return Returns the source dimensions; null if the recording doesn't store them or its header hasn't been read yet.
+	 */
+	public Dimension getSourceDimensions()
+	{
+		return sourceDimensions == null ? null : new Dimension(sourceDimensions);
+	}
+
+	/**
+	 * Stores the dimensions of the screen the recording was made on. Must be called before any coordinates are fitted.
+	 * @param sourceDimensions The source dimensions read from the header of the recording; null if it doesn't store them.
+	 * @throws IllegalArgumentException Throws if the source dimensions aren't positive.
+	 */
+	void setSourceDimensions(Dimension sourceDimensions) throws IllegalArgumentException
+	{
+		if (sourceDimensions != null && (sourceDimensions.width <= 0 || sourceDimensions.height <= 0))
+		{
+			throw new IllegalArgumentException("Source dimensions must be greater than zero.");
+		}
+
+		this.sourceDimensions = sourceDimensions == null ? null : new Dimension(sourceDimensions);
+
+		final boolean scaled = coordinatePolicy == CoordinatePolicy.Scale && sourceDimensions != null && targetDimensions != null;
+
+		this.xScale = scaled ? (double) targetDimensions.width / sourceDimensions.width : 1;
+		this.yScale = scaled ? (double) targetDimensions.height / sourceDimensions.height : 1;
+	}
+
+	/**
+	 * Fits a recorded coordinate onto the target screen.
+	 * @param xCoord The recorded x coordinate.
+	 * @param yCoord The recorded y coordinate.
+	 * @return Returns the coordinate on the target screen.
+	 * @throws DataFormatException Throws if the policy rejects coordinates outside of the target screen and the coordinate is outside of it.
+	 */
+	PixelCoordinate2D fitCoordinate(int xCoord, int yCoord) throws DataFormatException
+	{
+		if (coordinatePolicy == CoordinatePolicy.Reject && !isInsideTarget(xCoord, yCoord))
+		{
+			throw new DataFormatException("Coordinate (" + xCoord + ", " + yCoord + ") is outside of the target screen" + describeTarget() + ".");
+		}
+
+		return new PixelCoordinate2D(fitX(xCoord), fitY(yCoord));
+	}
+
+	/**
+	 * Fits a recorded click zone onto the target screen. The zone is moved inside the screen and shrunk if it still doesn't fit.
+	 * @param xLoc The recorded x coordinate of the zone.
+	 * @param yLoc The recorded y coordinate of the zone.
+	 * @param width The recorded width of the zone.
+	 * @param height The recorded height of the zone.
+	 * @return Returns the click zone on the target screen.
+	 * @throws DataFormatException Throws if the size of the zone isn't positive, or if the policy rejects zones that don't fit the target screen and the zone doesn't fit.
+	 */
+	ClickZoneDetails fitClickZone(int xLoc, int yLoc, int width, int height) throws DataFormatException
+	{
+		try
+		{
+			if (width <= 0 || height <= 0)
+			{
+				throw new IllegalArgumentException("Invalid width or height supplied.");
+			}
+
+			if (coordinatePolicy == CoordinatePolicy.Reject && (!isInsideTarget(xLoc, yLoc) || !isInsideTarget(xLoc + width - 1, yLoc + height - 1)))
+			{
+				throw new DataFormatException("Click zone at (" + xLoc + ", " + yLoc + ") doesn't fit on the target screen" + describeTarget() + ".");
+			}
+
+			final int fittedX = fitX(xLoc);
+			final int fittedY = fitY(yLoc);
+
+			int fittedWidth = Math.max(1, (int) Math.round(width * xScale));
+			int fittedHeight = Math.max(1, (int) Math.round(height * yScale));
+
+			if (targetDimensions != null)
+			{
+				fittedWidth = Math.min(fittedWidth, targetDimensions.width - fittedX);
+				fittedHeight = Math.min(fittedHeight, targetDimensions.height - fittedY);
+			}
+
+			return new ClickZoneDetails(fittedX, fittedY, fittedWidth, fittedHeight);
+		}
+		catch (IllegalArgumentException ex)
+		{
+			throw new DataFormatException("Cannot create the click zone because ==> " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Fits each of the recorded click zones onto the target screen.
+	 * @param clickZones The recorded click zones.
+	 * @return Returns a new list holding the click zones on the target screen.
+	 * @throws DataFormatException Throws if a click zone can't be fitted onto the target screen.
+	 */
+	ArrayList<ClickZoneDetails> fitClickZones(List<ClickZoneDetails> clickZones) throws DataFormatException
+	{
+		final ArrayList<ClickZoneDetails> fittedClickZones = new ArrayList<ClickZoneDetails>(clickZones.size());
+
+		for (ClickZoneDetails clickZone : clickZones)
+		{
+			fittedClickZones.add(fitClickZone(clickZone.getWindowLocation().x, clickZone.getWindowLocation().y,
+											  clickZone.getWindowDimensions().width, clickZone.getWindowDimensions().height));
+		}
+
+		return fittedClickZones;
+	}
+
+	/**
+	 * Scales and clamps an x coordinate to the width of the target screen.
+	 * @param xCoord The recorded x coordinate.
+	 * @return Returns the x coordinate on the target screen.
+	 */
+	private int fitX(int xCoord)
+	{
+		return clamp(xScale == 1 ? xCoord : (int) Math.round(xCoord * xScale), targetDimensions == null ? Integer.MAX_VALUE : targetDimensions.width - 1);
+	}
+
+	/**
+	 * Scales and clamps a y coordinate to the height of the target screen.
+	 * @param yCoord The recorded y coordinate.
+	 * @return Returns the y coordinate on the target screen.
+	 */
+	private int fitY(int yCoord)
+	{
+		return clamp(yScale == 1 ? yCoord : (int) Math.round(yCoord * yScale), targetDimensions == null ? Integer.MAX_VALUE : targetDimensions.height - 1);
+	}
+
+	/**
+	 * Limits the value to [0:maxValue].
+	 * @param value The value to limit.
+	 * @param maxValue The largest allowed value.
+	 * @return Returns the limited value.
+	 */
+	private static int clamp(int value, int maxValue)
+	{
+		return value < 0 ? 0 : value > maxValue ? maxValue : value;
+	}
+
+	/**
+	 * Determines whether the coordinate is on the target screen. Any non-negative coordinate is on the screen if there isn't a target screen.
+	 * @param xCoord The x coordinate.
+	 * @param yCoord The y coordinate.
+	 * @return Returns true if the coordinate is on the target screen; otherwise false.
+	 */
+	private boolean isInsideTarget(int xCoord, int yCoord)
+	{
+		return xCoord >= 0 && yCoord >= 0 && (targetDimensions == null || (xCoord < targetDimensions.width && yCoord < targetDimensions.height));
+	}
+
+	/**
+	 * Describes the target screen for error messages.
+	 * @return Returns the dimensions of the target screen in brackets, or an empty string if there isn't a target screen.
+	 */
+	private String describeTarget()
+	{
+		return targetDimensions == null ? "" : " (" + targetDimensions.width + "x" + targetDimensions.height + ")";
+	}
+}
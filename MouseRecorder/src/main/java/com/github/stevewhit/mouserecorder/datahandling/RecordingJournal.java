@@ -0,0 +1,701 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An append-only log of recorded action lines that is backed by a journal file instead of the heap. Appended lines are handed to a
+ * background flusher that writes them to the journal in batches and periodically syncs the journal to the disk. A write that fails
+ * is kept and thrown by the next append, flush or close.
+ * The journal uses the text recording format, so an interrupted journal can be recovered into a normal recording with {@link #recoverJournal(String, String)}.
+ * A new journal starts with the SCREEN line of the screen the recording is made on, so a recovered recording keeps its source dimensions.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingJournal implements Iterable<String>, Closeable
+{
+	/**
+	 * The default amount of time (in milliseconds) between two flushes of the added lines to the journal.
+	 */
+	public static final long DEFAULT_FLUSH_INTERVAL_MILLISECONDS = 100;
+
+	/**
+	 * The default amount of time (in milliseconds) between two syncs of the journal to the disk.
+	 */
+	public static final long DEFAULT_SYNC_INTERVAL_MILLISECONDS = 1000;
+
+	/**
+	 * The file the lines are appended to.
+	 */
+	private final File journalFile;
+
+	/**
+	 * The channel used to append lines to the journal.
+	 */
+	private final FileChannel journalChannel;
+
+	/**
+	 * The position the lines added to this journal start at. Lines before this position were added by an earlier journal or are the SCREEN line.
+	 */
+	private final long startPosition;
+
+	/**
+	 * The amount of time (in milliseconds) between two syncs of the journal to the disk.
+	 */
+	private final long syncIntervalMilliseconds;
+
+	/**
+	 * Guards the lines that haven't been flushed yet.
+	 */
+	private final Object pendingLinesLock = new Object();
+
+	/**
+	 * The lines that have been added but haven't been flushed to the journal yet.
+	 */
+	private ArrayList<String> pendingLines = new ArrayList<String>();
+
+	/**
+	 * The number of lines that have been added to this journal.
+	 */
+	private volatile int lineCount;
+
+	/**
+	 * Whether the journal has been closed.
+	 */
+	private volatile boolean closed;
+
+	/**
+	 * The time (in milliseconds) of the last sync of the journal to the disk.
+	 */
+	private long lastSyncTime;
+
+	/**
+	 * The first error that occurred while flushing the journal; null if there wasn't one.
+	 */
+	private volatile IOException flushException;
+
+	/**
+	 * Constructor that opens the journal at the given location, appending to it if it already exists.
+	 * @param journalLocation The system path of the journal file.
+	 * @throws IllegalArgumentException Throws if the journal location is null or empty.
+	 * @throws IOException Throws if the journal cannot be opened.
+	 */
+	public RecordingJournal(String journalLocation) throws IllegalArgumentException, IOException
+	{
+		this(journalLocation, null);
+	}
+
+	/**
+	 * Constructor that opens the journal at the given location, appending to it if it already exists.
+	 * @param journalLocation The system path of the journal file.
+	 * @param sourceDimensions The dimensions of the screen the recording is made on, written as the first line of a new journal. May be null if they aren't known.
+	 * @throws IllegalArgumentException Throws if the journal location is null or empty, or if the dimensions aren't positive.
+	 * @throws IOException Throws if the journal cannot be opened.
+	 */
+	public RecordingJournal(String journalLocation, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		this(journalLocation, sourceDimensions, DEFAULT_FLUSH_INTERVAL_MILLISECONDS, DEFAULT_SYNC_INTERVAL_MILLISECONDS);
+	}
+
+	/**
+	 * Constructor that opens the journal at the given location, appending to it if it already exists.
+	 * @param journalLocation The system path of the journal file.
+	 * @param flushIntervalMilliseconds The amount of time (in milliseconds) between two flushes of the added lines to the journal.
+	 * @param syncIntervalMilliseconds The amount of time (in milliseconds) between two syncs of the journal to the disk.
+	 * @throws IllegalArgumentException Throws if the journal location is null or empty, or if either interval isn't positive.
+	 * @throws IOException Throws if the journal cannot be opened.
+	 */
+	public RecordingJournal(String journalLocation, long flushIntervalMilliseconds, long syncIntervalMilliseconds) throws IllegalArgumentException, IOException
+	{
+		this(journalLocation, null, flushIntervalMilliseconds, syncIntervalMilliseconds);
+	}
+
+	/**
+	 * Constructor that opens the journal at the given location, appending to it if it already exists. The SCREEN line is only written
+	 * when the journal is new; a journal that is appended to keeps the dimensions it was started with.
+	 * @param journalLocation The system path of the journal file.
+	 * @param sourceDimensions The dimensions of the screen the recording is made on, written as the first line of a new journal. May be null if they aren't known.
+	 * @param flushIntervalMilliseconds The amount of time (in milliseconds) between two flushes of the added lines to the journal.
+	 * @param syncIntervalMilliseconds The amount of time (in milliseconds) between two syncs of the journal to the disk.
+	 * @throws IllegalArgumentException Throws if the journal location is null or empty, if the dimensions aren't positive or if either interval isn't positive.
+	 * @throws IOException Throws if the journal cannot be opened.
+	 */
+	public RecordingJournal(String journalLocation, Dimension sourceDimensions, final long flushIntervalMilliseconds, long syncIntervalMilliseconds) throws IllegalArgumentException, IOException
+	{
+		if (journalLocation == null || journalLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("Journal location cannot be null or empty.");
+		}
+
+		if (flushIntervalMilliseconds <= 0 || syncIntervalMilliseconds <= 0)
+		{
+			throw new IllegalArgumentException("Flush and sync intervals must be greater than zero.");
+		}
+
+		if (sourceDimensions != null && (sourceDimensions.width <= 0 || sourceDimensions.height <= 0))
+		{
+			throw new IllegalArgumentException("Source dimensions must be greater than zero.");
+		}
+
+		this.journalFile = new File(journalLocation);
+		this.syncIntervalMilliseconds = syncIntervalMilliseconds;
+
+		RandomAccessFile journal = null;
+
+		try
+		{
+			journal = new RandomAccessFile(journalFile, "rw");
+			journalChannel = journal.getChannel();
+
+			final long completeLength = completeLinesLength(journalChannel);
+
+			// Drop a line that was only partially written before the journal was interrupted.
+			journalChannel.truncate(completeLength);
+			journalChannel.position(completeLength);
+
+			if (completeLength == 0 && sourceDimensions != null)
+			{
+				final ArrayList<String> screenLine = new ArrayList<String>(1);
+				screenLine.add("SCREEN:" + sourceDimensions.width + ":" + sourceDimensions.height);
+
+				writeLines(screenLine);
+			}
+
+			// The SCREEN line isn't one of the added lines, so the iterator starts after it.
+			startPosition = journalChannel.position();
+		}
+		catch (IOException ex)
+		{
+			// Release the journal file so it can still be recovered or deleted.
+			if (journal != null)
+				closeQuietly(journal);
+
+			throw new IOException("Could not open the recording journal because ==> " + ex.getMessage());
+		}
+
+		lastSyncTime = System.currentTimeMillis();
+
+		final Thread flusherThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (!closed)
+				{
+					try
+					{
+						// Wait on the lock instead of being interrupted, since interrupting a write closes the journal channel.
+						synchronized (pendingLinesLock)
+						{
+							if (!closed)
+								pendingLinesLock.wait(flushIntervalMilliseconds);
+						}
+
+						flush();
+					}
+					catch (InterruptedException ex)
+					{
+						return;
+					}
+					catch (IOException ex)
+					{
+						// The failure is kept in the flush exception and thrown by the next append or close.
+						return;
+					}
+				}
+			}
+		}, "RecordingJournalFlusher");
+
+		flusherThread.setDaemon(true);
+		flusherThread.start();
+	}
+
+	/**
+	 * Appends a recorded action line to the journal. The line is written to the journal by the next flush.
+	 * @param line The recorded action line.
+	 * @throws IllegalArgumentException Throws if the line is null or contains a line break.
+	 * @throws IllegalStateException Throws if the journal is closed.
+	 * @throws IOException Throws if an earlier flush couldn't write to the journal; the line isn't appended.
+	 */
+	public void append(String line) throws IllegalArgumentException, IllegalStateException, IOException
+	{
+		if (line == null || line.indexOf('\n') != -1 || line.indexOf('\r') != -1)
+		{
+			throw new IllegalArgumentException("Journal line cannot be null or contain line breaks.");
+		}
+
+		if (flushException != null)
+			throw flushException;
+
+		synchronized (pendingLinesLock)
+		{
+			if (closed)
+			{
+				throw new IllegalStateException("Cannot append to the recording journal because it's closed.");
+			}
+
+			pendingLines.add(line);
+			lineCount++;
+		}
+	}
+
+	/**
+	 * Returns the number of lines that have been appended to this journal.
+	 * @return Returns the number of lines that have been appended to this journal.
+	 */
+	public int size()
+	{
+		return lineCount;
+	}
+
+	/**
+	 * Flushes the added lines and returns an iterator that reads them back from the journal in the order they were added.
+	 * Only the lines added to this journal are returned, not the lines that were already in the file when it was opened.
+	 * The iterator is {@link Closeable}; it releases the journal file once every line has been read, and must be closed by a caller that stops earlier.
+	 * @return Returns an iterator over the lines that were added to this journal.
+	 * @throws IllegalStateException Throws if the journal cannot be flushed or read.
+	 */
+	@Override
+	public Iterator<String> iterator() throws IllegalStateException
+	{
+		final long endPosition;
+
+		try
+		{
+			synchronized (this)
+			{
+				flush();
+				endPosition = journalChannel.isOpen() ? journalChannel.size() : journalFile.length();
+			}
+		}
+		catch (IOException ex)
+		{
+			throw new IllegalStateException(ex.getMessage());
+		}
+
+		return new JournalLineIterator(endPosition);
+	}
+
+	/**
+	 * Writes the added lines to the journal, syncing it to the disk if the sync interval has passed since the last sync.
+	 * @throws IOException Throws if the lines cannot be written to the journal.
+	 */
+	public synchronized void flush() throws IOException
+	{
+		if (flushException != null)
+			throw flushException;
+
+		final ArrayList<String> linesToFlush;
+
+		synchronized (pendingLinesLock)
+		{
+			linesToFlush = pendingLines;
+			pendingLines = new ArrayList<String>();
+		}
+
+		if (!journalChannel.isOpen())
+			return;
+
+		try
+		{
+			if (!linesToFlush.isEmpty())
+				writeLines(linesToFlush);
+
+			if (System.currentTimeMillis() - lastSyncTime >= syncIntervalMilliseconds)
+				sync();
+		}
+		catch (IOException ex)
+		{
+			flushException = new IOException("Could not write to the recording journal because ==> " + ex.getMessage());
+			throw flushException;
+		}
+	}
+
+	/**
+	 * Flushes the remaining lines, syncs the journal to the disk and stops the background flusher. The journal file is kept.
+	 * @throws IOException Throws if the remaining lines cannot be written to the journal, or if an earlier flush couldn't write to it.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		synchronized (pendingLinesLock)
+		{
+			closed = true;
+			pendingLinesLock.notifyAll();
+		}
+
+		try
+		{
+			synchronized (this)
+			{
+				flush();
+
+				if (journalChannel.isOpen())
+					sync();
+			}
+		}
+		finally
+		{
+			journalChannel.close();
+		}
+	}
+
+	/**
+	 * Closes the journal and deletes its file. Used once the recording has been saved somewhere else.
+	 * @throws IOException Throws if the journal file cannot be deleted.
+	 */
+	public void delete() throws IOException
+	{
+		try
+		{
+			close();
+		}
+		catch (IOException ex)
+		{
+			// The journal is being thrown away, so lines that couldn't be written don't matter.
+		}
+
+		if (journalFile.exists() && !journalFile.delete())
+		{
+			throw new IOException("Could not delete the recording journal: " + journalFile.getPath());
+		}
+	}
+
+	/**
+	 * Determines whether a journal was left behind at the given location, meaning that a recording session was interrupted.
+	 * @param journalLocation The system path of the journal file.
+	 * @return Returns true if a non-empty journal exists at the location; otherwise false.
+	 */
+	public static boolean journalExists(String journalLocation)
+	{
+		if (journalLocation == null || journalLocation.isEmpty())
+			return false;
+
+		final File journalFile = new File(journalLocation);
+
+		return journalFile.isFile() && journalFile.length() > 0;
+	}
+
+	/**
+	 * Recovers an interrupted journal into a normal text recording. A line that was only partially written is dropped,
+	 * and the journal is moved to the recording location.
+	 * @param journalLocation The system path of the journal file.
+	 * @param recordingLocation The system path the recovered recording is saved to.
+	 * @return Returns true if a recording was recovered; false if there was no journal or it didn't contain any complete lines.
+	 * @throws IllegalArgumentException Throws if either location is null or empty.
+	 * @throws IOException Throws if the journal cannot be read or moved.
+	 */
+	public static boolean recoverJournal(String journalLocation, String recordingLocation) throws IllegalArgumentException, IOException
+	{
+		if (journalLocation == null || journalLocation.isEmpty() || recordingLocation == null || recordingLocation.isEmpty())
+		{
+			throw new IllegalArgumentException("Journal and recording locations cannot be null or empty.");
+		}
+
+		final File journalFile = new File(journalLocation);
+
+		if (!journalFile.isFile())
+			return false;
+
+		long recoveredLength = 0;
+		RandomAccessFile journal = null;
+
+		try
+		{
+			journal = new RandomAccessFile(journalFile, "rw");
+			recoveredLength = completeLinesLength(journal.getChannel());
+			journal.getChannel().truncate(recoveredLength);
+		}
+		catch (IOException ex)
+		{
+			throw new IOException("Could not recover the recording journal because ==> " + ex.getMessage());
+		}
+		finally
+		{
+			if (journal != null)
+				journal.close();
+		}
+
+		if (recoveredLength == 0)
+		{
+			journalFile.delete();
+			return false;
+		}
+
+		try
+		{
+			Files.move(journalFile.toPath(), new File(recordingLocation).toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			Files.move(journalFile.toPath(), new File(recordingLocation).toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		return true;
+	}
+
+	/**
+	 * Appends the lines to the journal.
+	 * @param lines The lines to append.
+	 * @throws IOException Throws if the lines cannot be written.
+	 */
+	private void writeLines(ArrayList<String> lines) throws IOException
+	{
+		int byteCount = 0;
+
+		for (String line : lines)
+		{
+			byteCount += line.length() + 1;
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(byteCount);
+
+		for (String line : lines)
+		{
+			buffer.put(line.getBytes(StandardCharsets.US_ASCII));
+			buffer.put((byte) '\n');
+		}
+
+		buffer.flip();
+
+		while (buffer.hasRemaining())
+		{
+			journalChannel.write(buffer);
+		}
+	}
+
+	/**
+	 * Forces the written lines to the disk.
+	 * @throws IOException Throws if the journal cannot be synced.
+	 */
+	private void sync() throws IOException
+	{
+		journalChannel.force(false);
+		lastSyncTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Determines the length of the journal up to and including its last line break.
+	 * @param channel The channel of the journal.
+	 * @return Returns the number of bytes of the journal that belong to complete lines.
+	 * @throws IOException Throws if the journal cannot be read.
+	 */
+	private static long completeLinesLength(FileChannel channel) throws IOException
+	{
+		final ByteBuffer buffer = ByteBuffer.allocate(4096);
+		long blockEnd = channel.size();
+
+		// Scan backwards for the last line break.
+		while (blockEnd > 0)
+		{
+			final long blockStart = Math.max(0, blockEnd - buffer.capacity());
+
+			buffer.clear();
+			buffer.limit((int) (blockEnd - blockStart));
+
+			while (buffer.hasRemaining())
+			{
+				if (channel.read(buffer, blockStart + buffer.position()) == -1)
+					break;
+			}
+
+			for (int index = buffer.position() - 1; index >= 0; index--)
+			{
+				if (buffer.get(index) == '\n')
+					return blockStart + index + 1;
+			}
+
+			blockEnd = blockStart;
+		}
+
+		return 0;
+	}
+
+	/**
+	 * Closes a file without reporting an issue closing it, since a more important issue is already being reported.
+	 * @param file The file to close.
+	 */
+	private static void closeQuietly(Closeable file)
+	{
+		try
+		{
+			file.close();
+		}
+		catch (IOException ex)
+		{
+			// The issue that caused the file to be closed is reported instead.
+		}
+	}
+
+	/**
+	 * Reads the lines that were added to this journal back from the journal file. The file is released once every line has been
+	 * read, when reading fails or when the iterator is closed.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private class JournalLineIterator implements Iterator<String>, Closeable
+	{
+		/**
+		 * The reader of the journal file; null once every line has been read.
+		 */
+		private BufferedReader reader;
+
+		/**
+		 * The line that will be returned next; null if it hasn't been read yet.
+		 */
+		private String nextLine;
+
+		/**
+		 * Constructor that accepts the position the lines of this journal end at.
+		 * @param endPosition The length of the journal when the iterator was created.
+		 * @throws IllegalStateException Throws if the journal cannot be opened.
+		 */
+		private JournalLineIterator(long endPosition) throws IllegalStateException
+		{
+			if (endPosition <= startPosition)
+				return;
+
+			RandomAccessFile journal = null;
+
+			try
+			{
+				journal = new RandomAccessFile(journalFile, "r");
+
+				final FileChannel channel = journal.getChannel();
+				channel.position(startPosition);
+
+				// Lines added after the iterator was created are not returned.
+				reader = new BufferedReader(new InputStreamReader(new BoundedInputStream(Channels.newInputStream(channel), endPosition - startPosition), StandardCharsets.US_ASCII));
+			}
+			catch (IOException ex)
+			{
+				if (journal != null)
+					closeQuietly(journal);
+
+				throw new IllegalStateException("Could not read the recording journal because ==> " + ex.getMessage());
+			}
+		}
+
+		@Override
+		public boolean hasNext() throws IllegalStateException
+		{
+			if (nextLine != null)
+				return true;
+
+			if (reader == null)
+				return false;
+
+			try
+			{
+				nextLine = reader.readLine();
+
+				if (nextLine == null)
+					close();
+			}
+			catch (IOException ex)
+			{
+				closeQuietly(this);
+				throw new IllegalStateException("Could not read the recording journal because ==> " + ex.getMessage());
+			}
+
+			return nextLine != null;
+		}
+
+		@Override
+		public String next() throws NoSuchElementException, IllegalStateException
+		{
+			if (!hasNext())
+				throw new NoSuchElementException("There are no more lines in the recording journal.");
+
+			final String line = nextLine;
+			nextLine = null;
+
+			return line;
+		}
+
+		/**
+		 * Releases the journal file. No more lines are returned once the iterator is closed. Does nothing if it's already closed.
+		 * @throws IOException Throws if there is an issue closing the journal file.
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			if (reader == null)
+				return;
+
+			final BufferedReader openReader = reader;
+			reader = null;
+
+			openReader.close();
+		}
+	}
+
+	/**
+	 * Reads at most a given number of bytes from another stream.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class BoundedInputStream extends FilterInputStream
+	{
+		/**
+		 * The number of bytes that can still be read.
+		 */
+		private long remainingBytes;
+
+		/**
+		 * Constructor that accepts the stream to read from and the number of bytes that can be read from it.
+		 * @param inputStream The stream to read from.
+		 * @param byteCount The number of bytes that can be read.
+		 */
+		private BoundedInputStream(InputStream inputStream, long byteCount)
+		{
+			super(inputStream);
+			this.remainingBytes = byteCount;
+		}
+
+		@Override
+		public int read() throws IOException
+		{
+			if (remainingBytes <= 0)
+				return -1;
+
+			final int value = super.read();
+
+			if (value != -1)
+				remainingBytes--;
+
+			return value;
+		}
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException
+		{
+			if (remainingBytes <= 0)
+				return -1;
+
+			final int bytesRead = super.read(bytes, offset, (int) Math.min(length, remainingBytes));
+
+			if (bytesRead > 0)
+				remainingBytes -= bytesRead;
+
+			return bytesRead;
+		}
+	}
+}
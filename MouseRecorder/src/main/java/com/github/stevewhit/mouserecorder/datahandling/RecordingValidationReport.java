@@ -0,0 +1,144 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The problems found while validating a recording. Every problem is counted, but only the first few are kept
+ * so that a badly broken file doesn't produce an unbounded report.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class RecordingValidationReport
+{
+	/**
+	 * The default maximum number of problems that are kept in a report.
+	 */
+	public static final int DEFAULT_MAX_REPORTED_PROBLEMS = 20;
+
+	/**
+	 * The maximum number of problems that are kept in this report.
+	 */
+	private final int maxReportedProblems;
+
+	/**
+	 * The descriptions of the kept problems in the order they were found.
+	 */
+	private final ArrayList<String> reportedProblems = new ArrayList<String>();
+
+	/**
+	 * The number of problems that were found, including the ones that weren't kept.
+	 */
+	private int problemCount;
+
+	/**
+	 * The number of lines (text recordings) or actions (binary recordings) that were checked.
+	 */
+	private int checkedCount;
+
+	/**
+	 * Constructor that accepts the maximum number of problems to keep.
+	 * @param maxReportedProblems The maximum number of problems that are kept in this report.
+	 * @throws IllegalArgumentException Throws if the maximum is negative.
+	 */
+	public RecordingValidationReport(int maxReportedProblems) throws IllegalArgumentException
+	{
+		if (maxReportedProblems < 0)
+		{
+			throw new IllegalArgumentException("Maximum reported problems cannot be negative.");
+		}
+
+		this.maxReportedProblems = maxReportedProblems;
+	}
+
+	/**
+	 * Adds a problem to the report. The problem is only kept if the report isn't full yet.
+	 * @param location Where the problem was found, such as "Line 12".
+	 * @param description The description of the problem.
+	 */
+	void addProblem(String location, String description)
+	{
+		problemCount++;
+
+		if (reportedProblems.size() < maxReportedProblems)
+			reportedProblems.add(location + ": " + description);
+	}
+
+	/**
+	 * Sets the number of lines or actions that were checked.
+	 * @param checkedCount The number of lines (text recordings) or actions (binary recordings) that were checked.
+	 */
+	void setCheckedCount(int checkedCount)
+	{
+		this.checkedCount = checkedCount;
+	}
+
+	/**
+	 * Determines whether the recording is valid.
+	 * @return Returns true if no problems were found; otherwise false.
+	 */
+	public boolean isValid()
+	{
+		return problemCount == 0;
+	}
+
+	/**
+	 * Returns the number of problems that were found, including the ones that weren't kept.
+	 * @return Returns the number of problems that were found.
+	 */
+	public int getProblemCount()
+	{
+		return problemCount;
+	}
+
+	/**
+	 * Returns the descriptions of the kept problems in the order they were found.
+	 * @return Returns an unmodifiable list of the kept problems.
+	 */
+	public List<String> getReportedProblems()
+	{
+		return Collections.unmodifiableList(reportedProblems);
+	}
+
+	/**
+	 * Determines whether problems were left out because the report was full.
+	 * @return Returns true if more problems were found than were kept; otherwise false.
+	 */
+	public boolean isTruncated()
+	{
+		return problemCount > reportedProblems.size();
+	}
+
+	/**
+	 * Returns the number of lines or actions that were checked.
+	 * @return Returns the number of lines (text recordings) or actions (binary recordings) that were checked.
+	 */
+	public int getCheckedCount()
+	{
+		return checkedCount;
+	}
+
+	/**
+	 * Describes the report with one kept problem per line.
+	 */
+	@Override
+	public String toString()
+	{
+		if (isValid())
+			return "Recording is valid.";
+
+		final StringBuilder description = new StringBuilder();
+		description.append("Recording contains ").append(problemCount).append(problemCount == 1 ? " problem:" : " problems:");
+
+		for (String problem : reportedProblems)
+		{
+			description.append('\n').append(problem);
+		}
+
+		if (isTruncated())
+			description.append("\n... and ").append(problemCount - reportedProblems.size()).append(" more.");
+
+		return description.toString();
+	}
+}
@@ -0,0 +1,416 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.AbstractKeyboardInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.AbstractMouseButtonAction;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
+
+/**
+ * Writes a recording in the text recording format one line at a time through a reusable buffer, so that the recording never has to be
+ * copied into a list of strings first. Actions and click zones are formatted straight into the buffer.
+ * <p>
+ * Everything is written to a temporary file next to the save location, which only replaces the save location when {@link #commit()} is called.
+ * A failed or abandoned export therefore never leaves a truncated recording behind.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class TextRecordingWriter implements Closeable
+{
+	/**
+	 * The default size (in bytes) of the buffer that lines are collected in before they're written.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+	/**
+	 * The longest number that is written: a negative long with all 19 digits.
+	 */
+	private static final int MAX_NUMBER_LENGTH = 20;
+
+	/* The tags that start each line of the text recording format. */
+	private static final byte[] SOURCE_DIMENSIONS_TAG = new byte[]{'S', 'C', 'R', 'E', 'E', 'N'};
+	private static final byte[] CLICK_ZONE_TAG = new byte[]{'C', 'Z', 'O', 'N', 'E', 'E'};
+	private static final byte[] MOUSE_MOVE_TAG = new byte[]{'M', 'M', 'O', 'V', 'E', 'D'};
+	private static final byte[] MOUSE_PRESS_TAG = new byte[]{'M', 'P', 'R', 'E', 'S', 'S'};
+	private static final byte[] MOUSE_RELEASE_TAG = new byte[]{'M', 'R', 'E', 'L', 'E', 'A'};
+	private static final byte[] KEY_PRESS_TAG = new byte[]{'K', 'P', 'R', 'E', 'S', 'S'};
+	private static final byte[] KEY_RELEASE_TAG = new byte[]{'K', 'R', 'E', 'L', 'E', 'A'};
+	private static final byte[] MOUSE_WHEEL_TAG = new byte[]{'M', 'W', 'H', 'E', 'E', 'L'};
+
+	/**
+	 * The location the recording replaces when it's committed.
+	 */
+	private final File saveFile;
+
+	/**
+	 * The temporary file the recording is written to until it's committed.
+	 */
+	private final File temporaryFile;
+
+	/**
+	 * The channel of the temporary file.
+	 */
+	private final FileChannel channel;
+
+	/**
+	 * The buffer that lines are collected in before they're written to the channel.
+	 */
+	private final ByteBuffer buffer;
+
+	/**
+	 * The encoder for lines that are written as text. It uses the platform charset, which is what recordings are read with.
+	 */
+	private final CharsetEncoder encoder;
+
+	/**
+	 * Whether the recording was moved to the save location.
+	 */
+	private boolean committed;
+
+	/**
+	 * Whether the channel was closed.
+	 */
+	private boolean closed;
+
+	/**
+	 * Constructor that creates the temporary file for the save location, using the default buffer size.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @throws IllegalArgumentException Throws if the save location is null or empty.
+	 * @throws IOException Throws if the temporary file can't be created.
+	 */
+	public TextRecordingWriter(String saveLocation) throws IllegalArgumentException, IOException
+	{
+		this(saveLocation, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor that creates the temporary file for the save location.
+	 * @param saveLocation The desired filesystem save path with the file extension added (*.txt)
+	 * @param bufferSize The size (in bytes) of the buffer that lines are collected in before they're written.
+	 * @throws IllegalArgumentException Throws if the save location is null or empty, or if the buffer can't hold the longest formatted action.
+	 * @throws IOException Throws if the temporary file can't be created.
+	 */
+	public TextRecordingWriter(String saveLocation, int bufferSize) throws IllegalArgumentException, IOException
+	{
+		if (saveLocation == null || saveLocation.isEmpty())
+			throw new IllegalArgumentException("Save location cannot be null or empty.");
+
+		if (bufferSize < 8 * MAX_NUMBER_LENGTH)
+			throw new IllegalArgumentException("Buffer size must be at least " + (8 * MAX_NUMBER_LENGTH) + " bytes.");
+
+		this.saveFile = new File(saveLocation).getAbsoluteFile();
+		this.temporaryFile = File.createTempFile(saveFile.getName() + ".", ".tmp", saveFile.getParentFile());
+
+		FileChannel openedChannel = null;
+
+		try
+		{
+			openedChannel = new RandomAccessFile(temporaryFile, "rw").getChannel();
+		}
+		finally
+		{
+			if (openedChannel == null)
+				temporaryFile.delete();
+		}
+
+		this.channel = openedChannel;
+		this.buffer = ByteBuffer.allocateDirect(bufferSize);
+		this.encoder = Charset.defaultCharset().newEncoder()
+							  .onMalformedInput(CodingErrorAction.REPLACE)
+							  .onUnmappableCharacter(CodingErrorAction.REPLACE);
+	}
+
+	/**
+	 * Writes a line of text followed by a line break.
+	 * @param line The line to write. It should not contain line breaks itself.
+	 * @throws IllegalArgumentException Throws if the line is null.
+	 * @throws IOException Throws if the writer is closed or if there is an issue writing to the temporary file.
+	 */
+	public void writeLine(CharSequence line) throws IllegalArgumentException, IOException
+	{
+		if (line == null)
+			throw new IllegalArgumentException("Cannot write a null line.");
+
+		ensureOpen();
+
+		final CharBuffer lineChars = CharBuffer.wrap(line);
+
+		encoder.reset();
+
+		while (true)
+		{
+			final CoderResult result = encoder.encode(lineChars, buffer, true);
+
+			if (result.isOverflow())
+				drainBuffer();
+			else if (result.isError())
+				result.throwException();
+			else
+				break;
+		}
+
+		while (encoder.flush(buffer).isOverflow())
+		{
+			drainBuffer();
+		}
+
+		ensureRemaining(1);
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes the dimensions of the screen the recording was made on as a SCREEN line. It must be the first line of the recording.
+	 * @param sourceDimensions The dimensions of the screen the recording was made on.
+	 * @throws IllegalArgumentException Throws if the dimensions are null or not positive.
+	 * @throws IOException Throws if the writer is closed or if there is an issue writing to the temporary file.
+	 */
+	public void writeSourceDimensions(Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		if (sourceDimensions == null || sourceDimensions.width <= 0 || sourceDimensions.height <= 0)
+			throw new IllegalArgumentException("Source dimensions cannot be null and must be greater than zero.");
+
+		ensureOpen();
+		ensureRemaining(SOURCE_DIMENSIONS_TAG.length + 2 * (MAX_NUMBER_LENGTH + 1) + 1);
+
+		buffer.put(SOURCE_DIMENSIONS_TAG);
+		putField(sourceDimensions.width);
+		putField(sourceDimensions.height);
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes a click zone as a CZONEE line.
+	 * @param clickZone The click zone to write.
+	 * @throws IllegalArgumentException Throws if the click zone is null.
+	 * @throws IOException Throws if the writer is closed or if there is an issue writing to the temporary file.
+	 */
+	public void writeClickZone(ClickZoneDetails clickZone) throws IllegalArgumentException, IOException
+	{
+		if (clickZone == null)
+			throw new IllegalArgumentException("Cannot write a null click zone.");
+
+		ensureOpen();
+		ensureRemaining(CLICK_ZONE_TAG.length + 4 * (MAX_NUMBER_LENGTH + 1) + 1);
+
+		buffer.put(CLICK_ZONE_TAG);
+		putField(clickZone.getWindowLocation().x);
+		putField(clickZone.getWindowLocation().y);
+		putField(clickZone.getWindowDimensions().width);
+		putField(clickZone.getWindowDimensions().height);
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes an action as a line in the same format the input trackers record it in.
+	 * @param action The action to write.
+	 * @throws IllegalArgumentException Throws if the action is null, invalid or of a type that can't be saved.
+	 * @throws IOException Throws if the writer is closed or if there is an issue writing to the temporary file.
+	 */
+	public void writeAction(AbstractInputAction action) throws IllegalArgumentException, IOException
+	{
+		if (action == null || !action.isValidAction())
+			throw new IllegalArgumentException("Cannot write a null or invalid action.");
+
+		ensureOpen();
+
+		// The tag is validated first so that an unsupported action doesn't leave part of a line behind.
+		final int actionTag = BinaryRecordingCodec.getActionTag(action);
+
+		ensureRemaining(MOUSE_PRESS_TAG.length + 5 * (MAX_NUMBER_LENGTH + 1) + 1);
+
+		switch (actionTag)
+		{
+			case BinaryRecordingCodec.TAG_MOUSE_MOVE:
+				buffer.put(MOUSE_MOVE_TAG);
+				putField(((MouseMove) action).getLocation().getX());
+				putField(((MouseMove) action).getLocation().getY());
+				break;
+			case BinaryRecordingCodec.TAG_MOUSE_PRESS:
+			case BinaryRecordingCodec.TAG_MOUSE_RELEASE:
+				final AbstractMouseButtonAction buttonAction = (AbstractMouseButtonAction) action;
+				buffer.put(actionTag == BinaryRecordingCodec.TAG_MOUSE_PRESS ? MOUSE_PRESS_TAG : MOUSE_RELEASE_TAG);
+				putField(BinaryRecordingCodec.getMouseButtonNumber(buttonAction.getMouseButton()));
+				putField(buttonAction.getLocation().getX());
+				putField(buttonAction.getLocation().getY());
+				putField(buttonAction.getPixelColor().getRGBValue());
+				break;
+			case BinaryRecordingCodec.TAG_MOUSE_WHEEL:
+				final MouseWheelScroll wheelAction = (MouseWheelScroll) action;
+				buffer.put(MOUSE_WHEEL_TAG);
+				putField(wheelAction.getLocation().getX());
+				putField(wheelAction.getLocation().getY());
+				putField(wheelAction.getWheelAmount());
+				break;
+			default:
+				buffer.put(actionTag == BinaryRecordingCodec.TAG_KEY_PRESS ? KEY_PRESS_TAG : KEY_RELEASE_TAG);
+				putField(((AbstractKeyboardInputAction) action).getKeyValueInt());
+				break;
+		}
+
+		putField(action.getTimeStamp());
+		buffer.put((byte) '\n');
+	}
+
+	/**
+	 * Writes the remaining buffered lines, forces them to the storage device and moves the temporary file over the save location.
+	 * The move is atomic where the file system supports it, so the save location either holds the old or the complete new recording.
+	 * @throws IOException Throws if the writer is closed or if there is an issue writing or moving the temporary file.
+	 */
+	public void commit() throws IOException
+	{
+		ensureOpen();
+
+		try
+		{
+			drainBuffer();
+			channel.force(false);
+
+			closed = true;
+			channel.close();
+
+			replaceFile(temporaryFile, saveFile);
+			committed = true;
+		}
+		finally
+		{
+			// Clean up the temporary file if anything went wrong.
+			if (!committed)
+				close();
+		}
+	}
+
+	/**
+	 * Closes the writer. If the recording wasn't committed, the temporary file is deleted and the save location is left untouched.
+	 * @throws IOException Throws if there is an issue closing the temporary file.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		try
+		{
+			if (!closed)
+			{
+				closed = true;
+				channel.close();
+			}
+		}
+		finally
+		{
+			if (!committed)
+				temporaryFile.delete();
+		}
+	}
+
+	/**
+	 * Moves the source file over the target file, atomically if the file system supports it.
+	 * @param sourceFile The file to move.
+	 * @param targetFile The file to replace.
+	 * @throws IOException Throws if the file can't be moved.
+	 */
+	static void replaceFile(File sourceFile, File targetFile) throws IOException
+	{
+		try
+		{
+			Files.move(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+		catch (AtomicMoveNotSupportedException ex)
+		{
+			Files.move(sourceFile.toPath(), targetFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * Throws if the writer is already closed.
+	 * @throws IOException Throws if the writer is closed.
+	 */
+	private void ensureOpen() throws IOException
+	{
+		if (closed)
+			throw new IOException("Cannot write to a closed recording writer.");
+	}
+
+	/**
+	 * Makes sure the buffer has room for the number of bytes, writing out what's buffered if it doesn't.
+	 * @param byteCount The number of bytes that are about to be put in the buffer.
+	 * @throws IOException Throws if there is an issue writing to the temporary file.
+	 */
+	private void ensureRemaining(int byteCount) throws IOException
+	{
+		if (buffer.remaining() < byteCount)
+			drainBuffer();
+	}
+
+	/**
+	 * Writes everything in the buffer to the channel and clears it for reuse.
+	 * @throws IOException Throws if there is an issue writing to the temporary file.
+	 */
+	private void drainBuffer() throws IOException
+	{
+		buffer.flip();
+
+		while (buffer.hasRemaining())
+		{
+			channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+
+	/**
+	 * Puts a field separator followed by the decimal digits of the value in the buffer. The buffer must have room for them.
+	 * @param value The value to put.
+	 */
+	private void putField(long value)
+	{
+		buffer.put((byte) ':');
+
+		if (value == Long.MIN_VALUE)
+		{
+			for (char digit : Long.toString(value).toCharArray())
+			{
+				buffer.put((byte) digit);
+			}
+
+			return;
+		}
+
+		if (value < 0)
+		{
+			buffer.put((byte) '-');
+			value = -value;
+		}
+
+		// Put the digits from least to most significant, then reverse them in place.
+		final int firstDigitPosition = buffer.position();
+
+		do
+		{
+			buffer.put((byte) ('0' + value % 10));
+			value /= 10;
+		}
+		while (value != 0);
+
+		for (int low = firstDigitPosition, high = buffer.position() - 1; low < high; low++, high--)
+		{
+			final byte lowDigit = buffer.get(low);
+			buffer.put(low, buffer.get(high));
+			buffer.put(high, lowDigit);
+		}
+	}
+}
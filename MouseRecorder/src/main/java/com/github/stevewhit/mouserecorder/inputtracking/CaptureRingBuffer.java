@@ -0,0 +1,208 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A fixed-size ring buffer that hands captured events from the native hook thread to the recorder without locks. Exactly one thread may
+ * offer events (the thread that dispatches the native events) and exactly one thread may drain them. Each event is stored as packed
+ * primitives in slots that are allocated once, so offering an event doesn't allocate. When the buffer is full, offered events are dropped
+ * and counted instead of blocking the hook thread.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class CaptureRingBuffer
+{
+	/**
+	 * The default number of events the buffer holds; enough for over a minute of a 1000Hz mouse without draining.
+	 */
+	public static final int DEFAULT_CAPACITY = 1 << 16;
+
+	/**
+	 * The slots that hold the events that haven't been drained yet, one array per event field.
+	 */
+	private final CapturedEventType[] types;
+	private final int[] xCoords;
+	private final int[] yCoords;
+	private final int[] codes;
+	private final int[] colors;
+	private final long[] timeStamps;
+
+	/**
+	 * The mask that turns a sequence number into a slot index (capacity - 1).
+	 */
+	private final int indexMask;
+
+	/**
+	 * The sequence number of the next event that is offered. Only written by the producer.
+	 */
+	private final AtomicLong writeSequence = new AtomicLong();
+
+	/**
+	 * The sequence number of the next event that is drained. Only written by the consumer.
+	 */
+	private final AtomicLong readSequence = new AtomicLong();
+
+	/**
+	 * The last read sequence seen by the producer, so that it only reads the consumer's counter when the buffer looks full.
+	 */
+	private long cachedReadSequence;
+
+	/**
+	 * The number of events that were dropped because the buffer was full. Only written by the producer.
+	 */
+	private volatile long droppedCount;
+
+	/**
+	 * Constructor that accepts the number of events the buffer holds.
+	 * @param capacity The number of events the buffer holds. Must be a power of two.
+	 * @throws IllegalArgumentException Throws if the capacity isn't a positive power of two.
+	 */
+	public CaptureRingBuffer(int capacity) throws IllegalArgumentException
+	{
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+		{
+			throw new IllegalArgumentException("Capacity must be a positive power of two.");
+		}
+
+		this.types = new CapturedEventType[capacity];
+		this.xCoords = new int[capacity];
+		this.yCoords = new int[capacity];
+		this.codes = new int[capacity];
+		this.colors = new int[capacity];
+		this.timeStamps = new long[capacity];
+		this.indexMask = capacity - 1;
+	}
+
+	/**
+	 * Adds an event to the buffer. Must only be called by the producer thread.
+	 * @param type The type of the event.
+	 * @param xCoord The x coordinate of the mouse; 0 for key events.
+	 * @param yCoord The y coordinate of the mouse; 0 for key events.
+	 * @param code The mouse button number or the KeyEvent key value; 0 for mouse moves.
+	 * @param color The RGB color under the mouse, or {@link CapturedEventType#INVALID_COLOR}; 0 for events without a color.
+	 * @param timeStamp The time (in nanoseconds) the event was captured.
+	 * @return Returns true if the event was added; false if the buffer was full and the event was dropped.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	public boolean offer(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		final long sequence = writeSequence.get();
+
+		if (sequence - cachedReadSequence >= types.length)
+		{
+			cachedReadSequence = readSequence.get();
+
+			if (sequence - cachedReadSequence >= types.length)
+			{
+				droppedCount++;
+				return false;
+			}
+		}
+
+		final int slotIndex = (int) sequence & indexMask;
+
+		types[slotIndex] = type;
+		xCoords[slotIndex] = xCoord;
+		yCoords[slotIndex] = yCoord;
+		codes[slotIndex] = code;
+		colors[slotIndex] = color;
+		timeStamps[slotIndex] = timeStamp;
+
+		// Publish the slot to the consumer.
+		writeSequence.lazySet(sequence + 1);
+
+		return true;
+	}
+
+	/**
+	 * Determines whether the next offered event is guaranteed to be added. Must only be called by the producer thread.
+	 * @return Returns true if the buffer isn't full; otherwise false.
+	 */
+	public boolean hasRemainingCapacity()
+	{
+		final long sequence = writeSequence.get();
+
+		if (sequence - cachedReadSequence < types.length)
+			return true;
+
+		cachedReadSequence = readSequence.get();
+
+		return sequence - cachedReadSequence < types.length;
+	}
+
+	/**
+	 * Moves every event that is in the buffer to the destination, in the order they were offered. Must only be called by the consumer thread.
+	 * @param destination The sink the events are added to.
+	 * @return Returns the number of events that were moved.
+	 * @throws IllegalArgumentException Throws if the destination is null.
+	 */
+	public int drainTo(CapturedEventSink destination) throws IllegalArgumentException
+	{
+		return drainTo(destination, Integer.MAX_VALUE);
+	}
+
+	/**
+	 * Moves up to the given number of events from the buffer to the destination, in the order they were offered. Must only be called by the consumer thread.
+	 * @param destination The sink the events are added to.
+	 * @param maxEvents The largest number of events to move.
+	 * @return Returns the number of events that were moved.
+	 * @throws IllegalArgumentException Throws if the destination is null or if the max number of events is negative.
+	 */
+	public int drainTo(CapturedEventSink destination, int maxEvents) throws IllegalArgumentException
+	{
+		if (destination == null || maxEvents < 0)
+		{
+			throw new IllegalArgumentException("Destination cannot be null and the max number of events cannot be negative.");
+		}
+
+		final long sequence = readSequence.get();
+		final int drainCount = (int) Math.min(writeSequence.get() - sequence, maxEvents);
+
+		for (int eventNum = 0; eventNum < drainCount; eventNum++)
+		{
+			final int slotIndex = (int) (sequence + eventNum) & indexMask;
+
+			destination.addEvent(types[slotIndex], xCoords[slotIndex], yCoords[slotIndex], codes[slotIndex], colors[slotIndex], timeStamps[slotIndex]);
+		}
+
+		// Hand the drained slots back to the producer.
+		readSequence.lazySet(sequence + drainCount);
+
+		return drainCount;
+	}
+
+	/**
+	 * Returns the number of events that are waiting to be drained.
+	 * @return Returns the number of events in the buffer.
+	 */
+	public int size()
+	{
+		// Read the consumer's counter first so the result can't be negative.
+		final long sequence = readSequence.get();
+
+		return (int) (writeSequence.get() - sequence);
+	}
+
+	/**
+	 * Returns the number of events the buffer holds.
+	 * @return Returns the capacity of the buffer.
+	 */
+	public int getCapacity()
+	{
+		return types.length;
+	}
+
+	/**
+	 * Returns the number of events that were dropped because the buffer was full.
+	 * @return Returns the number of dropped events since the buffer was created.
+	 */
+	public long getDroppedCount()
+	{
+		return droppedCount;
+	}
+}
@@ -0,0 +1,192 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts what the trackers capture so it can be seen whether capturing keeps up: the events of each type and how many of them arrived
+ * in the last second, the time spent inside the native callbacks, the key events that were skipped and the events that were dropped
+ * because the capture buffer was full. The trackers update it from the hook thread and the recorder's drain thread counts the dropped
+ * events; any thread can read it.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class CaptureStatistics
+{
+	/**
+	 * The number of nanoseconds in a second.
+	 */
+	private static final long NANOSECONDS_PER_SECOND = 1000000000L;
+
+	/**
+	 * The total number of events of each type, indexed by the type's ordinal.
+	 */
+	private final AtomicLongArray eventCounts = new AtomicLongArray(CapturedEventType.values().length);
+
+	/**
+	 * For each type: the second the latest events arrived in, the number of events in that second and in the second before it.
+	 */
+	private final AtomicLongArray currentSeconds = new AtomicLongArray(CapturedEventType.values().length);
+	private final AtomicLongArray currentSecondCounts = new AtomicLongArray(CapturedEventType.values().length);
+	private final AtomicLongArray previousSecondCounts = new AtomicLongArray(CapturedEventType.values().length);
+
+	/**
+	 * The time spent inside the mouse and key callbacks.
+	 */
+	private final LatencyHistogram mouseCallbackLatency = new LatencyHistogram();
+	private final LatencyHistogram keyCallbackLatency = new LatencyHistogram();
+
+	/**
+	 * The number of key events that were skipped because the key isn't supported.
+	 */
+	private final AtomicLong skippedKeyCount = new AtomicLong();
+
+	/**
+	 * The number of events that were dropped because the capture buffer was full.
+	 */
+	private final AtomicLong droppedEventCount = new AtomicLong();
+
+	/**
+	 * Counts a captured event and the time spent inside the callback that captured it. Only called from the hook thread.
+	 * @param type The type of the event.
+	 * @param timeCaptured The time (in nanoseconds) the callback started.
+	 * @param timeFinished The time (in nanoseconds) the callback finished.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	public void recordEvent(CapturedEventType type, long timeCaptured, long timeFinished) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		final int typeIndex = type.ordinal();
+		final long second = timeCaptured / NANOSECONDS_PER_SECOND;
+		final long currentSecond = currentSeconds.get(typeIndex);
+
+		if (second != currentSecond)
+		{
+			previousSecondCounts.set(typeIndex, second == currentSecond + 1 ? currentSecondCounts.get(typeIndex) : 0);
+			currentSecondCounts.set(typeIndex, 0);
+			currentSeconds.set(typeIndex, second);
+		}
+
+		currentSecondCounts.incrementAndGet(typeIndex);
+		eventCounts.incrementAndGet(typeIndex);
+
+		(type.isMouseEvent() ? mouseCallbackLatency : keyCallbackLatency).record(timeFinished - timeCaptured);
+	}
+
+	/**
+	 * Counts a key event that was skipped because the key isn't supported.
+	 */
+	public void recordSkippedKey()
+	{
+		skippedKeyCount.incrementAndGet();
+	}
+
+	/**
+	 * Counts events that were dropped because the capture buffer was full.
+	 * @param count The number of dropped events.
+	 * @throws IllegalArgumentException Throws if the count is negative.
+	 */
+	public void recordDroppedEvents(long count) throws IllegalArgumentException
+	{
+		if (count < 0)
+		{
+			throw new IllegalArgumentException("Dropped event count cannot be negative.");
+		}
+
+		droppedEventCount.addAndGet(count);
+	}
+
+	/**
+	 * Returns the total number of events of a type.
+	 * @param type The type of the events.
+	 * @return Returns the number of events captured since the statistics were created.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	public long getEventCount(CapturedEventType type) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		return eventCounts.get(type.ordinal());
+	}
+
+	/**
+	 * Returns the number of events of a type that arrived in the last full second.
+	 * @param type The type of the events.
+	 * @return Returns the number of events per second.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	public long getEventsPerSecond(CapturedEventType type) throws IllegalArgumentException
+	{
+		return getEventsPerSecond(type, System.nanoTime());
+	}
+
+	/**
+	 * Returns the number of events of a type that arrived in the full second before the given time.
+	 * @param type The type of the events.
+	 * @param now The time (in nanoseconds) to measure from.
+	 * @return Returns the number of events per second.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	protected long getEventsPerSecond(CapturedEventType type, long now) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		final int typeIndex = type.ordinal();
+		final long second = now / NANOSECONDS_PER_SECOND;
+		final long currentSecond = currentSeconds.get(typeIndex);
+
+		if (second == currentSecond)
+			return previousSecondCounts.get(typeIndex);
+
+		if (second == currentSecond + 1)
+			return currentSecondCounts.get(typeIndex);
+
+		return 0;
+	}
+
+	/**
+	 * Returns the time spent inside the mouse callbacks.
+	 * @return Returns the mouse callback latency histogram.
+	 */
+	public LatencyHistogram getMouseCallbackLatency()
+	{
+		return mouseCallbackLatency;
+	}
+
+	/**
+	 * Returns the time spent inside the key callbacks.
+	 * @return Returns the key callback latency histogram.
+	 */
+	public LatencyHistogram getKeyCallbackLatency()
+	{
+		return keyCallbackLatency;
+	}
+
+	/**
+	 * Returns the number of key events that were skipped because the key isn't supported.
+	 * @return Returns the number of skipped key events since the statistics were created.
+	 */
+	public long getSkippedKeyCount()
+	{
+		return skippedKeyCount.get();
+	}
+
+	/**
+	 * Returns the number of events that were dropped because the capture buffer was full.
+	 * @return Returns the number of dropped events since the statistics were created.
+	 */
+	public long getDroppedEventCount()
+	{
+		return droppedEventCount.get();
+	}
+}
@@ -0,0 +1,204 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+
+/**
+ * An append-only log of captured events that stores each event as packed primitives in fixed-size chunks, so that no object is kept per event.
+ * The log is also a read-only view of the events' recording lines; the lines are only built while the log is iterated, which is when the recording is saved.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class CapturedEventLog implements CapturedEventSink, RecordedActionLines
+{
+	/**
+	 * The number of events stored in each chunk.
+	 */
+	private static final int CHUNK_SIZE = 4096;
+
+	/**
+	 * The chunks that hold the events, in the order they were added.
+	 */
+	private final ArrayList<EventChunk> eventChunks = new ArrayList<EventChunk>();
+
+	/**
+	 * The number of events in the log.
+	 */
+	private int eventCount;
+
+	/**
+	 * Default constructor.
+	 */
+	public CapturedEventLog() {}
+
+	/**
+	 * Adds a captured event to the end of the log.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	@Override
+	public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		final int chunkIndex = eventCount % CHUNK_SIZE;
+
+		if (chunkIndex == 0)
+			eventChunks.add(new EventChunk());
+
+		final EventChunk chunk = eventChunks.get(eventChunks.size() - 1);
+
+		chunk.types[chunkIndex] = type;
+		chunk.xCoords[chunkIndex] = xCoord;
+		chunk.yCoords[chunkIndex] = yCoord;
+		chunk.codes[chunkIndex] = code;
+		chunk.colors[chunkIndex] = color;
+		chunk.timeStamps[chunkIndex] = timeStamp;
+
+		eventCount++;
+	}
+
+	/**
+	 * Returns the type of the event at the given position.
+	 * @param eventIndex The position of the event in the log.
+	 * @return Returns the type of the event.
+	 * @throws IndexOutOfBoundsException Throws if there isn't an event at the position.
+	 */
+	public CapturedEventType getType(int eventIndex) throws IndexOutOfBoundsException
+	{
+		return getChunk(eventIndex).types[eventIndex % CHUNK_SIZE];
+	}
+
+	/**
+	 * Returns the time (in nanoseconds) that the event at the given position was captured.
+	 * @param eventIndex The position of the event in the log.
+	 * @return Returns the time stamp of the event.
+	 * @throws IndexOutOfBoundsException Throws if there isn't an event at the position.
+	 */
+	public long getTimeStamp(int eventIndex) throws IndexOutOfBoundsException
+	{
+		return getChunk(eventIndex).timeStamps[eventIndex % CHUNK_SIZE];
+	}
+
+	/**
+	 * Appends the recording line of the event at the given position, without a line break.
+	 * @param eventIndex The position of the event in the log.
+	 * @param builder The builder the line is appended to.
+	 * @return Returns the builder.
+	 * @throws IndexOutOfBoundsException Throws if there isn't an event at the position.
+	 */
+	public StringBuilder appendLine(int eventIndex, StringBuilder builder) throws IndexOutOfBoundsException
+	{
+		final EventChunk chunk = getChunk(eventIndex);
+		final int chunkIndex = eventIndex % CHUNK_SIZE;
+
+		return chunk.types[chunkIndex].appendLine(builder, chunk.xCoords[chunkIndex], chunk.yCoords[chunkIndex], chunk.codes[chunkIndex],
+												  chunk.colors[chunkIndex], chunk.timeStamps[chunkIndex]);
+	}
+
+	/**
+	 * Builds a new list holding the recording line of each event, in the order they were added. The list is a copy, so changing it
+	 * doesn't change the log.
+	 * @return Returns a list of the recording lines.
+	 */
+	public LinkedList<String> copyLines()
+	{
+		final LinkedList<String> lines = new LinkedList<String>();
+
+		for (String line : this)
+		{
+			lines.add(line);
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Returns the number of events in the log.
+	 * @return Returns the number of events in the log.
+	 */
+	@Override
+	public int size()
+	{
+		return eventCount;
+	}
+
+	/**
+	 * Returns an iterator that builds the recording line of each event in the order they were added.
+	 * @return Returns an iterator over the recording lines.
+	 */
+	@Override
+	public Iterator<String> iterator()
+	{
+		return new Iterator<String>()
+		{
+			/**
+			 * The position of the next event.
+			 */
+			private int nextEventIndex;
+
+			/**
+			 * The builder reused for each line.
+			 */
+			private final StringBuilder lineBuilder = new StringBuilder(64);
+
+			@Override
+			public boolean hasNext()
+			{
+				return nextEventIndex < eventCount;
+			}
+
+			@Override
+			public String next() throws NoSuchElementException
+			{
+				if (!hasNext())
+					throw new NoSuchElementException("There are no more events in the captured event log.");
+
+				lineBuilder.setLength(0);
+
+				return appendLine(nextEventIndex++, lineBuilder).toString();
+			}
+
+			@Override
+			public void remove() throws UnsupportedOperationException
+			{
+				throw new UnsupportedOperationException("Events cannot be removed from the captured event log.");
+			}
+		};
+	}
+
+	/**
+	 * Returns the chunk that holds the event at the given position.
+	 * @param eventIndex The position of the event in the log.
+	 * @return Returns the chunk holding the event.
+	 * @throws IndexOutOfBoundsException Throws if there isn't an event at the position.
+	 */
+	private EventChunk getChunk(int eventIndex) throws IndexOutOfBoundsException
+	{
+		if (eventIndex < 0 || eventIndex >= eventCount)
+		{
+			throw new IndexOutOfBoundsException("There isn't an event at position " + eventIndex + ".");
+		}
+
+		return eventChunks.get(eventIndex / CHUNK_SIZE);
+	}
+
+	/**
+	 * A fixed-size block of events stored as parallel primitive arrays.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class EventChunk
+	{
+		private final CapturedEventType[] types = new CapturedEventType[CHUNK_SIZE];
+		private final int[] xCoords = new int[CHUNK_SIZE];
+		private final int[] yCoords = new int[CHUNK_SIZE];
+		private final int[] codes = new int[CHUNK_SIZE];
+		private final int[] colors = new int[CHUNK_SIZE];
+		private final long[] timeStamps = new long[CHUNK_SIZE];
+	}
+}
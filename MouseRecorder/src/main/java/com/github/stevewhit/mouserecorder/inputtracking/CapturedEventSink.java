@@ -0,0 +1,20 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * Receives captured user input events as packed primitives.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public interface CapturedEventSink
+{
+	/**
+	 * Adds a captured event.
+	 * @param type The type of the event.
+	 * @param xCoord The x coordinate of the mouse; 0 for key events.
+	 * @param yCoord The y coordinate of the mouse; 0 for key events.
+	 * @param code The mouse button number or the KeyEvent key value; 0 for mouse moves.
+	 * @param color The RGB color under the mouse, or {@link CapturedEventType#INVALID_COLOR}; 0 for events without a color.
+	 * @param timeStamp The time (in nanoseconds) the event was captured.
+	 */
+	public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp);
+}
@@ -0,0 +1,126 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * The kinds of user input events that are captured while recording, along with the recording line tag each one is written with.
+ * Events are kept as packed primitives while recording and are only turned into their text lines when the recording is read.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public enum CapturedEventType
+{
+	/**
+	 * A mouse button was pressed. Line format: MPRESS:button:x:y:color:time
+	 */
+	MousePress("MPRESS"),
+
+	/**
+	 * A mouse button was released. Line format: MRELEA:button:x:y:color:time
+	 */
+	MouseRelease("MRELEA"),
+
+	/**
+	 * The mouse was moved or dragged. Line format: MMOVED:x:y:time
+	 */
+	MouseMove("MMOVED"),
+
+	/**
+	 * A keyboard key was pressed. Line format: KPRESS:key:time
+	 */
+	KeyPress("KPRESS"),
+
+	/**
+	 * A keyboard key was released. Line format: KRELEA:key:time
+	 */
+	KeyRelease("KRELEA"),
+
+	/**
+	 * The mouse wheel was scrolled; the code is the number of notches, negative when scrolled up. Line format: MWHEEL:x:y:amount:time
+	 */
+	MouseWheel("MWHEEL");
+
+	/**
+	 * The color stored for mouse button events whose pixel color couldn't be sampled.
+	 */
+	public static final int INVALID_COLOR = -1;
+
+	/**
+	 * The color stored for mouse button events whose pixel color is still being sampled. It is replaced before the event is stored.
+	 */
+	public static final int PENDING_COLOR = -2;
+
+	/**
+	 * The tag that starts the recording line of this event type.
+	 */
+	private final String tag;
+
+	/**
+	 * Constructor that accepts the recording line tag of the event type.
+	 * @param tag The tag that starts the recording line.
+	 */
+	private CapturedEventType(String tag)
+	{
+		this.tag = tag;
+	}
+
+	/**
+	 * Returns the tag that starts the recording line of this event type.
+	 * @return Returns the recording line tag.
+	 */
+	public String getTag()
+	{
+		return tag;
+	}
+
+	/**
+	 * Determines whether events of this type carry a mouse location.
+	 * @return Returns true for mouse events; otherwise false.
+	 */
+	public boolean isMouseEvent()
+	{
+		return this == MousePress || this == MouseRelease || this == MouseMove || this == MouseWheel;
+	}
+
+	/**
+	 * Appends the recording line of an event of this type, without a line break.
+	 * @param builder The builder the line is appended to.
+	 * @param xCoord The x coordinate of the mouse; ignored for key events.
+	 * @param yCoord The y coordinate of the mouse; ignored for key events.
+	 * @param code The mouse button number, the KeyEvent key value or the number of wheel notches; ignored for mouse moves.
+	 * @param color The RGB color under the mouse, or {@link #INVALID_COLOR}; only used by mouse button events.
+	 * @param timeStamp The time (in nanoseconds) the event was captured.
+	 * @return Returns the builder.
+	 */
+	public StringBuilder appendLine(StringBuilder builder, int xCoord, int yCoord, int code, int color, long timeStamp)
+	{
+		builder.append(tag).append(':');
+
+		switch (this)
+		{
+			case MousePress:
+			case MouseRelease:
+				builder.append(code).append(':').append(xCoord).append(':').append(yCoord).append(':');
+
+				if (color == INVALID_COLOR)
+					builder.append("INVALIDCOLOR");
+				else
+					builder.append(color);
+
+				builder.append(':');
+				break;
+
+			case MouseMove:
+				builder.append(xCoord).append(':').append(yCoord).append(':');
+				break;
+
+			case MouseWheel:
+				builder.append(xCoord).append(':').append(yCoord).append(':').append(code).append(':');
+				break;
+
+			default:
+				builder.append(code).append(':');
+				break;
+		}
+
+		return builder.append(timeStamp);
+	}
+}
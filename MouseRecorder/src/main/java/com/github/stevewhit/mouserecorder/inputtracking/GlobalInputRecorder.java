@@ -1,53 +1,349 @@
 package com.github.stevewhit.mouserecorder.inputtracking;
 
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.logging.Level;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
 import java.util.logging.Logger;
 import javax.swing.JTextArea;
 import org.jnativehook.GlobalScreen;
-import org.jnativehook.NativeHookException;
-import org.jnativehook.SwingDispatchService;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.keyboard.NativeKeyListener;
+import org.jnativehook.mouse.NativeMouseEvent;
+import org.jnativehook.mouse.NativeMouseInputListener;
+import org.jnativehook.mouse.NativeMouseWheelEvent;
+import org.jnativehook.mouse.NativeMouseWheelListener;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingJournal;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
 
 public class GlobalInputRecorder
 {
 	/**
-	 * A queue of strings that represents the last action values that were captured during a recording session.
+	 * The logger that the recording issues are reported to; the same one the GUI uses.
 	 */
-	private Queue<String> lastRecordingValues;
+	private static final Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
 	
 	/**
-	 * The listeners used during the recording process. Remember to remove them as listeners from the global screen once completed.
+	 * The amount of time (in nanoseconds) the drain thread waits when there aren't any recorded actions to move.
 	 */
-	private GlobalMouseInputTracker globalMouseTracker;
-	private GlobalKeyTracker globalKeyTracker;
+	private static final long DRAIN_INTERVAL_NANOSECONDS = 5000000;
 	
-	public GlobalInputRecorder(){}
+	/**
+	 * A read-only view of the strings that represent the last action values that were captured during a recording session.
+	 */
+	private RecordedActionLines lastRecordingValues;
+	
+	/**
+	 * The listeners used during the recording process. They're replaced for every recording session and only get events through the capture gate.
+	 */
+	private volatile GlobalMouseInputTracker globalMouseTracker;
+	private volatile GlobalKeyTracker globalKeyTracker;
+	private volatile GlobalMouseWheelTracker globalMouseWheelTracker;
+	
+	/**
+	 * The dispatcher that owns the native hook and passes its events on to the capture gate.
+	 */
+	private final NativeHookDispatcher hookDispatcher;
+	
+	/**
+	 * The listener that is attached to the dispatcher while recording and passes the events on to the trackers while capturing.
+	 */
+	private final CaptureGate captureGate = new CaptureGate();
+	
+	/**
+	 * Whether the capture gate passes events on to the trackers. Closed while the recording is paused or stopped.
+	 */
+	private volatile boolean capturing;
+	
+	/**
+	 * The system path of the journal that recorded actions are written to; null if actions are only kept in memory.
+	 */
+	private String journalLocation;
+	
+	/**
+	 * The journal that the current recording session writes to; null if journaling isn't enabled or nothing is being recorded.
+	 */
+	private RecordingJournal recordingJournal;
+	
+	/**
+	 * The system path of the file that the next recording session is streamed to; null if the recorded actions are kept for a save.
+	 */
+	private String streamLocation;
+	
+	/**
+	 * The stream of the current or last streamed recording session; null if no session has been streamed.
+	 */
+	private volatile StreamingRecordingSink recordingStream;
+	
+	/**
+	 * The buffer that the trackers hand the recorded actions to. It's allocated once and reused by every recording session.
+	 */
+	private final CaptureRingBuffer recordedActionsBuffer;
+	
+	/**
+	 * The sampler that reads the screen color under recorded mouse button events. Its robot is created once and reused by every recording session.
+	 */
+	private final PixelSampler pixelSampler = new PixelSampler();
+	
+	/**
+	 * The statistics that the trackers count the captured events in.
+	 */
+	private final CaptureStatistics captureStatistics = new CaptureStatistics();
+	
+	/**
+	 * The clock that maps the native time of each captured event onto the time it's recorded with. Its calibration is kept across recording sessions.
+	 */
+	private final NativeEventClock nativeEventClock = new NativeEventClock();
+	
+	/**
+	 * The filters that thin out the recorded mouse moves, in the order they're applied.
+	 */
+	private MouseMoveFilter[] mouseMoveFilters = new MouseMoveFilter[0];
+	
+	/**
+	 * The stage that merges bursts of mouse wheel notches into single wheel actions before the mouse move filters.
+	 */
+	private final MouseWheelCoalescer mouseWheelCoalescer = new MouseWheelCoalescer(MouseWheelCoalescer.DEFAULT_WINDOW_NANOSECONDS);
+	
+	/**
+	 * The live log that shows the recorded actions in the optional text area; null if there's no text area or nothing is being recorded.
+	 */
+	private LiveEventLog liveEventLog;
+	
+	/**
+	 * The thread that moves the recorded actions from the buffer to the recorded actions queue; null if nothing is being recorded.
+	 */
+	private Thread drainThread;
+	
+	/**
+	 * Whether the drain thread should keep moving recorded actions.
+	 */
+	private volatile boolean draining;
+	
+	/**
+	 * The number of dropped actions of the capture buffer that have been counted in the capture statistics. Only used by the drain thread.
+	 */
+	private long reportedDroppedCount;
+	
+	/**
+	 * Default constructor.
+	 */
+	public GlobalInputRecorder()
+	{
+		this(CaptureRingBuffer.DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor that accepts the number of recorded actions that can wait to be moved to the recorded actions queue.
+	 * @param bufferCapacity The number of actions the capture buffer holds. Must be a power of two.
+	 * @throws IllegalArgumentException Throws if the capacity isn't a positive power of two.
+	 */
+	public GlobalInputRecorder(int bufferCapacity) throws IllegalArgumentException
+	{
+		this(bufferCapacity, NativeHookDispatcher.getSharedDispatcher());
+	}
+	
+	/**
+	 * Constructor that accepts the number of recorded actions that can wait to be moved to the recorded actions queue and the dispatcher
+	 * that the native events come from.
+	 * @param bufferCapacity The number of actions the capture buffer holds. Must be a power of two.
+	 * @param hookDispatcher The dispatcher that owns the native hook.
+	 * @throws IllegalArgumentException Throws if the capacity isn't a positive power of two or the dispatcher is null.
+	 */
+	public GlobalInputRecorder(int bufferCapacity, NativeHookDispatcher hookDispatcher) throws IllegalArgumentException
+	{
+		if (hookDispatcher == null)
+		{
+			throw new IllegalArgumentException("Hook dispatcher cannot be null.");
+		}
+		
+		this.recordedActionsBuffer = new CaptureRingBuffer(bufferCapacity);
+		this.hookDispatcher = hookDispatcher;
+	}
+	
+	/**
+	 * Enables or disables journaling. While journaling, the recorded actions are appended to the journal file by a background flusher
+	 * instead of being kept in memory, so an interrupted recording can be recovered with {@link RecordingJournal#recoverJournal(String, String)}.
+	 * The journal is kept across pauses until {@link #discardJournal()} is called.
+	 * @param journalLocation The system path of the journal file; null to keep the recorded actions in memory.
+	 */
+	public void setJournalLocation(String journalLocation)
+	{
+		this.journalLocation = journalLocation;
+	}
 	
 	/**
-	 * Returns the last action values that were captured during a recording session.
-	 * @return Returns a queue of strings representing mouse and keyboard actions that occurred.
+	 * Enables or disables streaming. While streaming, the recorded actions are written straight to the file by the drain thread through
+	 * a fixed-size buffer instead of being kept in memory or journaled, so memory use stays the same however long the recording runs.
+	 * The file is finished with {@link #finishRecordingStream(List)} once the recording has stopped; the last recording values stay empty.
+	 * @param streamLocation The system path of the file the recording is streamed to (*.txt); null to keep the recorded actions for a save.
 	 */
-	public Queue<String> getLastRecordingValues()
+	public void setStreamLocation(String streamLocation)
+	{
+		this.streamLocation = streamLocation;
+	}
+	
+	/**
+	 * Returns the system path of the file that recordings are streamed to.
+	 * @return Returns the stream location; null if streaming isn't enabled.
+	 */
+	public String getStreamLocation()
+	{
+		return streamLocation;
+	}
+	
+	/**
+	 * Returns the stream of the current or last streamed recording session, with its counters and any issue writing it.
+	 * @return Returns the recording stream; null if no session has been streamed.
+	 */
+	public StreamingRecordingSink getRecordingStream()
+	{
+		return recordingStream;
+	}
+	
+	/**
+	 * Deletes the journal once the recorded actions have been saved or thrown away.
+	 */
+	public void discardJournal()
+	{
+		closeRecordingJournal();
+		
+		if (journalLocation != null)
+		{
+			final File journalFile = new File(journalLocation);
+			
+			if (journalFile.exists() && !journalFile.delete())
+				logger.warning("Could not delete the recording journal: " + journalLocation);
+		}
+	}
+	
+	/**
+	 * Returns the last action values that were captured during a recording session. The values are only complete once the recording has been stopped.
+	 * @return Returns a read-only view of the strings representing mouse and keyboard actions that occurred; callers that need a queue copy it.
+	 */
+	public RecordedActionLines getLastRecordingValues()
 	{
 		return this.lastRecordingValues;
 	}
 	
+	/**
+	 * Returns the number of recorded actions that were dropped because the capture buffer was full, as counted in the capture statistics.
+	 * @return Returns the number of dropped actions since this recorder was created.
+	 */
+	public long getDroppedActionCount()
+	{
+		return captureStatistics.getDroppedEventCount();
+	}
+	
+	/**
+	 * Returns the statistics of the captured events: the events per second of each type, the time spent in the native callbacks, and the skipped and dropped events.
+	 * @return Returns the capture statistics since this recorder was created.
+	 */
+	public CaptureStatistics getCaptureStatistics()
+	{
+		return captureStatistics;
+	}
+	
+	/**
+	 * Returns the clock that maps the native time of each captured event onto the time it's recorded with, along with how much
+	 * dispatch delay it took out.
+	 * @return Returns the native event clock of this recorder.
+	 */
+	public NativeEventClock getNativeEventClock()
+	{
+		return nativeEventClock;
+	}
+	
+	/**
+	 * Returns the number of recorded actions that haven't been saved yet: the actions waiting in the capture buffer and the actions in the
+	 * last recording values.
+	 * @return Returns the number of unsaved actions.
+	 */
+	public int getUnsavedActionCount()
+	{
+		final RecordedActionLines recordingValues = lastRecordingValues;
+		
+		return recordedActionsBuffer.size() + (recordingValues == null ? 0 : recordingValues.size());
+	}
+	
+	/**
+	 * Returns the latencies from each recorded mouse button event to the moment the color under it was sampled.
+	 * @return Returns the pixel sample latency histogram.
+	 */
+	public LatencyHistogram getPixelSampleLatencyHistogram()
+	{
+		return pixelSampler.getLatencyHistogram();
+	}
+	
+	/**
+	 * Returns the number of mouse button events that were recorded with an invalid color because their pixel sample missed its deadline.
+	 * @return Returns the number of missed pixel samples since this recorder was created.
+	 */
+	public long getMissedPixelSampleCount()
+	{
+		return pixelSampler.getMissedCount();
+	}
+	
+	/**
+	 * Sets the filters that thin out the recorded mouse moves before they're added to the recorded actions queue. Mouse button and key
+	 * events are always kept. The filters are applied in the given order and take effect the next time recording starts.
+	 * @param filters The filters to apply; none to keep every recorded move.
+	 * @throws IllegalArgumentException Throws if any of the filters is null or is given more than once.
+	 */
+	public void setMouseMoveFilters(MouseMoveFilter... filters) throws IllegalArgumentException
+	{
+		if (filters == null)
+		{
+			throw new IllegalArgumentException("Mouse move filters cannot be null.");
+		}
+		
+		for (int filterNum = 0; filterNum < filters.length; filterNum++)
+		{
+			if (filters[filterNum] == null)
+			{
+				throw new IllegalArgumentException("Mouse move filters cannot be null.");
+			}
+			
+			for (int otherNum = 0; otherNum < filterNum; otherNum++)
+			{
+				if (filters[otherNum] == filters[filterNum])
+				{
+					throw new IllegalArgumentException("A mouse move filter cannot be applied more than once.");
+				}
+			}
+		}
+		
+		this.mouseMoveFilters = filters.clone();
+	}
+	
+	/**
+	 * Returns the filters that thin out the recorded mouse moves, so their counters can be read.
+	 * @return Returns an unmodifiable list of the filters in the order they're applied.
+	 */
+	public List<MouseMoveFilter> getMouseMoveFilters()
+	{
+		return Collections.unmodifiableList(Arrays.asList(mouseMoveFilters));
+	}
+	
 	/**
 	 * Re-initializes the last recording values so they aren't re-added to the recording list.
 	 */
 	public void resetLastRecordingValues()
 	{
-		lastRecordingValues = new LinkedList<String>();
+		lastRecordingValues = new CapturedEventLog();
 	}
 	
 	/**
 	 * Records user mouse and keyboard actions and stores each of them in a queue via a formatted string representation.
 	 * The default cancellation keys for this recording are ALT+R.
-	 * @return Returns a queue of formatted strings that represent the actions that took place during the recording.
+	 * @return Returns a read-only view of the formatted strings that represent the actions that took place during the recording.
 	 * @throws throws IllegalStateException Throws if we are unable to register the native hook to the global screen.
 	 */
-	public Queue<String> Record() throws IllegalStateException
+	public RecordedActionLines Record() throws IllegalStateException
 	{
 		return Record(new int[]{});
 	}
@@ -56,10 +352,10 @@ public class GlobalInputRecorder
 	 * Records user mouse and keyboard actions and stores each of them in a queue via a formatted string representation. Also, the actions
 	 * are also added to the optional text area if it isn't null. The default cancellation keys for this recording are ALT+R.
 	 * @param optionalOutputTextArea An optional textArea that will only be written to if it isn't null.
-	 * @return Returns a queue of formatted strings that represent the actions that took place during the recording.
+	 * @return Returns a read-only view of the formatted strings that represent the actions that took place during the recording.
 	 * @throws throws IllegalStateException Throws if we are unable to register the native hook to the global screen.
 	 */
-	public Queue<String> Record(JTextArea optionalOutputTextArea) throws IllegalStateException
+	public RecordedActionLines Record(JTextArea optionalOutputTextArea) throws IllegalStateException
 	{
 		return Record(optionalOutputTextArea, null);
 	}
@@ -67,10 +363,10 @@ public class GlobalInputRecorder
 	/**
 	 * Records user mouse and keyboard actions and stores each of them in a queue via a formatted string representation.
 	 * @param cancellationKeys The KeyEvent keyvalues of the keys (if pressed together) that force the recorder to stop recording user actions.
-	 * @return Returns a queue of formatted strings that represent the actions that took place during the recording.
+	 * @return Returns a read-only view of the formatted strings that represent the actions that took place during the recording.
 	 * @throws throws IllegalStateException Throws if we are unable to register the native hook to the global screen.
 	 */
-	public Queue<String> Record(int[] cancellationKeys) throws IllegalStateException
+	public RecordedActionLines Record(int[] cancellationKeys) throws IllegalStateException
 	{
 		return Record(null, cancellationKeys);
 	}
@@ -80,58 +376,105 @@ public class GlobalInputRecorder
 	 * are also added to the optional text area if it isn't null.
 	 * @param optionalOutputTextArea An optional textArea that will only be written to if it isn't null.
 	 * @param cancellationKeys The KeyEvent keyvalues of the keys (if pressed together) that force the recorder to stop recording user actions.
-	 * @return Returns a queue of formatted strings that represent the actions that took place during the recording.
-	 * @throws throws IllegalStateException Throws if we are unable to register the native hook to the global screen.
+	 * @return Returns a read-only view of the formatted strings that represent the actions that took place during the recording.
+	 * @throws throws IllegalStateException Throws if we are unable to register the native hook to the global screen or to open the stream.
 	 */
-	public Queue<String> Record(JTextArea optionalOutputTextArea, int[] cancellationKeys) throws IllegalStateException
+	public RecordedActionLines Record(JTextArea optionalOutputTextArea, int[] cancellationKeys) throws IllegalStateException
 	{
-		// Create logger for the GlobalScreen.
-		Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
+		// The hook is normally registered when the application starts; this only registers it if it isn't yet.
+		hookDispatcher.start();
 		
-		// Disable the parent handlers.
-		logger.setUseParentHandlers(false);
-		logger.setLevel(Level.ALL);
+		// Close the gate so the previous session's trackers don't get any more events.
+		capturing = false;
 		
-		try
+		// Finish the previous session before its queue is replaced.
+		stopDrainingRecordedActions();
+		stopLiveEventLog();
+		// A stream that wasn't finished after the previous session is finished without click zones.
+		finishRecordingStream(null);
+		
+		final RecordedActionLines recordedActionLines;
+		final CapturedEventSink recordedActionsSink;
+		
+		if (streamLocation != null)
 		{
-			// Register the native hook so we can begin recording
-			GlobalScreen.registerNativeHook();
+			// The actions go straight to the file, so the recorded values stay empty.
+			recordingStream = openRecordingStream();
+			recordedActionLines = new CapturedEventLog();
+			recordedActionsSink = recordingStream;
 		}
-		catch (NativeHookException ex)
+		else if (openRecordingJournal())
 		{
-			System.err.println("There was a problem registering the native hook.");
-			System.err.println(ex.getMessage());
-
-			throw new IllegalStateException("There was a problem registering the native hook. Cannot proceed to record.");
+			final JournalEventSink journalSink = new JournalEventSink(recordingJournal);
+			
+			recordedActionLines = journalSink;
+			recordedActionsSink = journalSink;
+		}
+		else
+		{
+			final CapturedEventLog eventLog = new CapturedEventLog();
+			
+			recordedActionLines = eventLog;
+			recordedActionsSink = eventLog;
 		}
 		
-		Queue<String> recordedActionsQueue = new LinkedList<String>(); 
+		pixelSampler.start();
+		startDrainingRecordedActions(recordedActionsSink);
 		
-		// Remove previous listeners so we don't have multiple recorders
-		GlobalScreen.removeNativeMouseListener(globalMouseTracker);
-		GlobalScreen.removeNativeMouseMotionListener(globalMouseTracker);
-		GlobalScreen.removeNativeKeyListener(globalKeyTracker);
+		// Show the recorded actions in the text area in batches, instead of touching it from the hook for every action.
+		if (optionalOutputTextArea != null)
+		{
+			liveEventLog = new LiveEventLog(optionalOutputTextArea);
+			liveEventLog.start();
+		}
 		
-		// Create and add the mouse input trackers
-		globalMouseTracker = new GlobalMouseInputTracker(recordedActionsQueue, optionalOutputTextArea);
-		GlobalScreen.addNativeMouseListener(globalMouseTracker);
-		GlobalScreen.addNativeMouseMotionListener(globalMouseTracker);
+		// Swap in the trackers of this session.
+		globalMouseTracker = new GlobalMouseInputTracker(recordedActionsBuffer, pixelSampler, captureStatistics, nativeEventClock, liveEventLog);
+		globalMouseWheelTracker = new GlobalMouseWheelTracker(recordedActionsBuffer, captureStatistics, nativeEventClock, liveEventLog);
+		globalKeyTracker = new GlobalKeyTracker(this, recordedActionsBuffer, liveEventLog, cancellationKeys);
 		
-		// Create and add the key trackers.
-		globalKeyTracker = new GlobalKeyTracker(this, recordedActionsQueue, optionalOutputTextArea, cancellationKeys);
-		GlobalScreen.addNativeKeyListener(globalKeyTracker);
+		// Save the recorded values for access later.
+		this.lastRecordingValues = recordedActionLines;
 		
-		/* Note: JNativeHook does *NOT* operate on the event dispatching thread.
-		 * Because Swing components must be accessed on the event dispatching
-		 * thread, you *MUST* wrap access to Swing components using the
-		 * SwingUtilities.invokeLater() or EventQueue.invokeLater() methods.
-		 */
-		GlobalScreen.setEventDispatcher(new SwingDispatchService());
+		// Attach the gate and open it; the hook is already running, so the first events of the session aren't lost.
+		hookDispatcher.addKeyListener(captureGate);
+		hookDispatcher.addMouseListener(captureGate);
+		hookDispatcher.addMouseWheelListener(captureGate);
+		capturing = true;
 		
-		// Save the recorded values for access later.
-		this.lastRecordingValues = recordedActionsQueue;
+		return recordedActionLines;
+	}
+	
+	/**
+	 * Pauses the recording by closing the capture gate. The recorded actions queue, the journal and the trackers are kept, so the
+	 * recording can be resumed without starting a new session.
+	 */
+	public void PauseRecording()
+	{
+		capturing = false;
+	}
+	
+	/**
+	 * Resumes a paused recording by opening the capture gate again.
+	 * @throws IllegalStateException Throws if nothing is being recorded.
+	 */
+	public void ResumeRecording() throws IllegalStateException
+	{
+		if (drainThread == null)
+		{
+			throw new IllegalStateException("Cannot resume because nothing is being recorded.");
+		}
 		
-		return recordedActionsQueue;
+		capturing = true;
+	}
+	
+	/**
+	 * Returns whether the recorder is passing the user's actions on to the trackers.
+	 * @return Returns true if recording and not paused; otherwise false.
+	 */
+	public boolean isCapturing()
+	{
+		return capturing;
 	}
 	
 	/**
@@ -139,9 +482,343 @@ public class GlobalInputRecorder
 	 */
 	public void StopRecording()
 	{
-		// Remove previous listeners so we don't have multiple recorders
-		GlobalScreen.removeNativeMouseListener(globalMouseTracker);
-		GlobalScreen.removeNativeMouseMotionListener(globalMouseTracker);
-		GlobalScreen.removeNativeKeyListener(globalKeyTracker);
+		// Close the gate and detach it so the trackers don't get any more events.
+		capturing = false;
+		hookDispatcher.removeKeyListener(captureGate);
+		hookDispatcher.removeMouseListener(captureGate);
+		hookDispatcher.removeMouseWheelListener(captureGate);
+		
+		// Move the actions that are still in the buffer before the queue is read or the journal is closed.
+		stopDrainingRecordedActions();
+		pixelSampler.stop();
+		stopLiveEventLog();
+		
+		// Write the remaining actions to the journal so they're safe while the recording is paused.
+		closeRecordingJournal();
+	}
+	
+	/**
+	 * Finishes the stream of the stopped recording session with its click zones, if there is one. Any issue is kept in the stream for
+	 * the caller to report. Must only be called once the recording has been stopped, after the drain thread wrote the last actions.
+	 * @param clickZones The click zones of the recording; null if there aren't any.
+	 */
+	public void finishRecordingStream(List<ClickZoneDetails> clickZones)
+	{
+		final StreamingRecordingSink currentStream = recordingStream;
+		
+		if (currentStream == null || currentStream.isFinished())
+			return;
+		
+		try
+		{
+			currentStream.finish(clickZones);
+		}
+		catch (IllegalArgumentException | IOException ex)
+		{
+			logger.warning("Could not finish the recording stream because ==> " + ex.getMessage());
+		}
+	}
+	
+	/**
+	 * Starts the thread that moves the recorded actions from the capture buffer to the recorded actions queue, so that the
+	 * hook thread never touches the queue or the journal. Mouse button events wait here for their sampled pixel color, bursts of
+	 * wheel notches are merged and the mouse moves pass through the mouse move filters.
+	 * @param recordedActionsQueueSink The sink that the recorded actions are moved to.
+	 */
+	private void startDrainingRecordedActions(CapturedEventSink recordedActionsQueueSink)
+	{
+		draining = true;
+		
+		for (int filterNum = mouseMoveFilters.length - 1; filterNum >= 0; filterNum--)
+		{
+			mouseMoveFilters[filterNum].connect(recordedActionsQueueSink);
+			recordedActionsQueueSink = mouseMoveFilters[filterNum];
+		}
+		
+		final CapturedEventSink filteredActionsSink = recordedActionsQueueSink;
+		mouseWheelCoalescer.connect(filteredActionsSink);
+		
+		final CapturedEventSink recordedActionsSink = new CapturedEventSink()
+		{
+			@Override
+			public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp)
+			{
+				mouseWheelCoalescer.addEvent(type, xCoord, yCoord, code, color == CapturedEventType.PENDING_COLOR ? pixelSampler.takeSampledColor() : color, timeStamp);
+			}
+		};
+		
+		drainThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (draining)
+				{
+					if (recordedActionsBuffer.drainTo(recordedActionsSink) == 0)
+						LockSupport.parkNanos(DRAIN_INTERVAL_NANOSECONDS);
+					
+					reportDroppedActions();
+				}
+				
+				// Move the actions that were captured before the recording stopped.
+				recordedActionsBuffer.drainTo(recordedActionsSink);
+				reportDroppedActions();
+				
+				// Pass on the wheel notches and moves that are held back so the recording ends where the mouse stopped.
+				mouseWheelCoalescer.flush();
+				
+				if (filteredActionsSink instanceof MouseMoveFilter)
+					((MouseMoveFilter) filteredActionsSink).flush();
+			}
+		}, "RecordedActionsDrainer");
+		
+		drainThread.setDaemon(true);
+		drainThread.start();
+	}
+	
+	/**
+	 * Shows the lines that are still waiting in the live log and stops updating the text area.
+	 */
+	private void stopLiveEventLog()
+	{
+		if (liveEventLog == null)
+			return;
+		
+		liveEventLog.stop();
+		liveEventLog = null;
+	}
+	
+	/**
+	 * Stops the drain thread and waits for it to move the remaining recorded actions. Once this returns, the recorded actions queue
+	 * is complete and can be read from any thread.
+	 */
+	private void stopDrainingRecordedActions()
+	{
+		if (drainThread == null)
+			return;
+		
+		draining = false;
+		LockSupport.unpark(drainThread);
+		
+		try
+		{
+			drainThread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+		
+		drainThread = null;
+	}
+	
+	/**
+	 * Counts the actions the capture buffer dropped since the last call in the capture statistics. Only called from the drain thread.
+	 */
+	private void reportDroppedActions()
+	{
+		final long droppedCount = recordedActionsBuffer.getDroppedCount();
+		
+		if (droppedCount > reportedDroppedCount)
+		{
+			captureStatistics.recordDroppedEvents(droppedCount - reportedDroppedCount);
+			reportedDroppedCount = droppedCount;
+		}
+	}
+	
+	/**
+	 * Opens the journal that the recorded actions are appended to, which starts with the dimensions of the current screen, if journaling is enabled.
+	 * If the journal cannot be opened, the actions are kept in memory instead.
+	 * @return Returns true if the journal was opened.
+	 */
+	private boolean openRecordingJournal()
+	{
+		closeRecordingJournal();
+		
+		if (journalLocation != null)
+		{
+			try
+			{
+				recordingJournal = new RecordingJournal(journalLocation, RecordingImportContext.getCurrentScreenDimensions());
+				return true;
+			}
+			catch (IllegalArgumentException | IOException ex)
+			{
+				logger.warning("Recording without a journal because ==> " + ex.getMessage());
+			}
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Opens the stream that the recording session writes to, starting with the dimensions of the current screen.
+	 * @return Returns the opened recording stream.
+	 * @throws IllegalStateException Throws if the stream cannot be opened.
+	 */
+	private StreamingRecordingSink openRecordingStream() throws IllegalStateException
+	{
+		try
+		{
+			return new StreamingRecordingSink(streamLocation, RecordingImportContext.getCurrentScreenDimensions());
+		}
+		catch (IllegalArgumentException | IOException ex)
+		{
+			throw new IllegalStateException("Cannot stream the recording to " + streamLocation + " because ==> " + ex.getMessage());
+		}
+	}
+	
+	/**
+	 * Flushes and closes the journal of the current recording session, if there is one.
+	 */
+	private void closeRecordingJournal()
+	{
+		if (recordingJournal == null)
+			return;
+		
+		try
+		{
+			recordingJournal.close();
+		}
+		catch (IOException ex)
+		{
+			logger.warning("Could not close the recording journal because ==> " + ex.getMessage());
+		}
+		
+		recordingJournal = null;
+	}
+	
+	/**
+	 * The only listener the recorder attaches to the hook dispatcher. It passes the events on to the trackers of the current session
+	 * while the recorder is capturing, so pausing and resuming only flip a flag and the trackers can be swapped without re-attaching.
+	 */
+	private class CaptureGate implements NativeKeyListener, NativeMouseInputListener, NativeMouseWheelListener
+	{
+		@Override
+		public void nativeKeyPressed(NativeKeyEvent e)
+		{
+			if (capturing)
+				globalKeyTracker.nativeKeyPressed(e);
+		}
+		
+		@Override
+		public void nativeKeyReleased(NativeKeyEvent e)
+		{
+			if (capturing)
+				globalKeyTracker.nativeKeyReleased(e);
+		}
+		
+		@Override
+		public void nativeKeyTyped(NativeKeyEvent e)
+		{
+			if (capturing)
+				globalKeyTracker.nativeKeyTyped(e);
+		}
+		
+		@Override
+		public void nativeMouseClicked(NativeMouseEvent e)
+		{
+			if (capturing)
+				globalMouseTracker.nativeMouseClicked(e);
+		}
+		
+		@Override
+		public void nativeMousePressed(NativeMouseEvent e)
+		{
+			if (capturing)
+				globalMouseTracker.nativeMousePressed(e);
+		}
+		
+		@Override
+		public void nativeMouseReleased(NativeMouseEvent e)
+		{
+			if (capturing)
+				globalMouseTracker.nativeMouseReleased(e);
+		}
+		
+		@Override
+		public void nativeMouseMoved(NativeMouseEvent e)
+		{
+			if (capturing)
+				globalMouseTracker.nativeMouseMoved(e);
+		}
+		
+		@Override
+		public void nativeMouseDragged(NativeMouseEvent e)
+		{
+			if (capturing)
+				globalMouseTracker.nativeMouseDragged(e);
+		}
+		
+		@Override
+		public void nativeMouseWheelMoved(NativeMouseWheelEvent e)
+		{
+			if (capturing)
+				globalMouseWheelTracker.nativeMouseWheelMoved(e);
+		}
+	}
+	
+	/**
+	 * Appends the recording line of each captured event to the journal, and is the read-only view of the lines journaled so far.
+	 * An event that cannot be appended is counted as dropped in the capture statistics; the first failure is also logged.
+	 */
+	private class JournalEventSink implements CapturedEventSink, RecordedActionLines
+	{
+		/**
+		 * The journal the lines are appended to.
+		 */
+		private final RecordingJournal journal;
+		
+		/**
+		 * The builder reused for each line.
+		 */
+		private final StringBuilder lineBuilder = new StringBuilder(64);
+		
+		/**
+		 * Whether a failure to append to the journal has already been logged.
+		 */
+		private boolean appendFailureReported;
+		
+		/**
+		 * Creates a sink that appends to the given journal.
+		 * @param journal The journal the lines are appended to.
+		 */
+		private JournalEventSink(RecordingJournal journal)
+		{
+			this.journal = journal;
+		}
+		
+		@Override
+		public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp)
+		{
+			lineBuilder.setLength(0);
+			
+			try
+			{
+				journal.append(type.appendLine(lineBuilder, xCoord, yCoord, code, color, timeStamp).toString());
+			}
+			catch (IllegalStateException | IOException ex)
+			{
+				captureStatistics.recordDroppedEvents(1);
+				
+				if (!appendFailureReported)
+				{
+					appendFailureReported = true;
+					logger.warning("Recorded actions are being dropped because ==> " + ex.getMessage());
+				}
+			}
+		}
+		
+		@Override
+		public int size()
+		{
+			return journal.size();
+		}
+		
+		@Override
+		public Iterator<String> iterator()
+		{
+			return journal.iterator();
+		}
 	}
 }
@@ -1,47 +1,27 @@
 package com.github.stevewhit.mouserecorder.inputtracking;
 
 import java.awt.event.KeyEvent;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Queue;
-import javax.swing.JTextArea;
+import java.util.Collections;
 import org.jnativehook.keyboard.NativeKeyEvent;
 import org.jnativehook.keyboard.NativeKeyListener;
 
 public class GlobalKeyTracker implements NativeKeyListener
 {
 	/**
-	 * Typical format for key press: keyNumber, time(in nanoseconds)
+	 * A reference to the buffer that hands the recorded actions to the recorder.
 	 */
-	private final static String KEY_PRESS_FORMAT_COMPACT = "KPRESS:%1$d:%2$s";
-	private final static String KEY_PRESS_FORMAT_READABLE = "\nKey Pressed: '%1$s'";
+	private CaptureRingBuffer actionsBuffer;
 	
 	/**
-	 * Typical format for key release: keyNumber, time(in nanoseconds)
+	 * The keys that are currently pressed and held, matched against the cancellation keys that if pressed at the same time, stop the recording.
 	 */
-	private final static String KEY_RELEASE_FORMAT_COMPACT = "KRELEA:%1$d:%2$s";
-	private final static String KEY_RELEASE_FORMAT_READABLE = "\nKey Released: '%1$s'";
+	private final KeyShortcutMatcher cancellationKeyMatcher = new KeyShortcutMatcher();
 	
 	/**
-	 * A reference to the queue that contains the input actions./
-	 */
-	private Queue<String> actionsQueue;
-	
-	/**
-	 * The cancellation keys that if pressed at the same time, stop the recording.
-	 */
-	private ArrayList<Integer> cancellationKeys;
-	
-	/**
-	 * The keys that are currently pressed and held. Used so that multiple of the same "key pressed" actions aren't created for a single keypress.
-	 */
-	private ArrayList<Integer> pressedKeys;
-	
-	/**
-	 * A reference to the text area that the recorded actions should be written to.
+	 * A reference to the live log that the recorded actions should be shown in.
 	 * This is an optional field and will only write to it if it isn't null.
 	 */
-	private JTextArea optionalOutputTextArea;
+	private LiveEventLog optionalLiveEventLog;
 	
 	/**
 	 * The recorder that owns this key tracker.
@@ -49,43 +29,41 @@ public class GlobalKeyTracker implements NativeKeyListener
 	private GlobalInputRecorder parentRecorder;
 	
 	/**
-	 * Constructor that accepts a reference to the actions queue that the generated mouse clicks are added to and an array of cancellation keys. 
+	 * Constructor that accepts a reference to the actions buffer that the generated mouse clicks are added to and an array of cancellation keys. 
 	 * The default cancellation keys are set to ALT+R
-	 * @param actionsQueueRef The queue of actions that clicks are added to.
+	 * @param actionsBuffer The buffer that the recorded actions are handed to the recorder through.
 	 * @param cancellationKeys An array of integer values which represent KeyEvent integers, used to cancel the recorder.
-	 * @throws IllegalArgumentException Throws if the queue is null.
+	 * @throws IllegalArgumentException Throws if the buffer is null.
 	 */
-	protected GlobalKeyTracker(GlobalInputRecorder parentRecorder, Queue<String> actionsQueue, int[] cancellationKeys) throws IllegalArgumentException
+	protected GlobalKeyTracker(GlobalInputRecorder parentRecorder, CaptureRingBuffer actionsBuffer, int[] cancellationKeys) throws IllegalArgumentException
 	{
-		this(parentRecorder, actionsQueue, null, cancellationKeys);
+		this(parentRecorder, actionsBuffer, null, cancellationKeys);
 	}
 	
 	/**
-	 * Constructor that accepts a reference to the actions queue that the generated mouse clicks are added to and an array of cancellation keys. 
+	 * Constructor that accepts a reference to the actions buffer that the generated mouse clicks are added to and an array of cancellation keys. 
 	 * The default cancellation keys are set to ALT+R
-	 * @param actionsQueueRef The queue of actions that clicks are added to.
-	 * @param optionalOutputTextArea An optional textArea that will only be written to if it isn't null.
+	 * @param actionsBuffer The buffer that the recorded actions are handed to the recorder through.
+	 * @param optionalLiveEventLog An optional live log that will only be written to if it isn't null.
 	 * @param cancellationKeys An array of integer values which represent KeyEvent integers, used to cancel the recorder.
-	 * @throws IllegalArgumentException Throws if the queue is null.
+	 * @throws IllegalArgumentException Throws if the buffer is null.
 	 */
-	protected GlobalKeyTracker(GlobalInputRecorder parentRecorder, Queue<String> actionsQueue, JTextArea optionalOutputTextArea, int[] cancellationKeys) throws IllegalArgumentException
+	protected GlobalKeyTracker(GlobalInputRecorder parentRecorder, CaptureRingBuffer actionsBuffer, LiveEventLog optionalLiveEventLog, int[] cancellationKeys) throws IllegalArgumentException
 	{
 		if (parentRecorder == null)
 		{
 			throw new IllegalArgumentException("Parent recorder cannot be null.");
 		}
 		
-		if (actionsQueue == null)
+		if (actionsBuffer == null)
 		{
 			parentRecorder.StopRecording();
-			throw new IllegalArgumentException("Actions queue cannot be null.");
+			throw new IllegalArgumentException("Actions buffer cannot be null.");
 		}
 		
 		this.parentRecorder = parentRecorder;
-		this.actionsQueue = actionsQueue;
-		this.optionalOutputTextArea = optionalOutputTextArea;
-		
-		pressedKeys = new ArrayList<Integer>();
+		this.actionsBuffer = actionsBuffer;
+		this.optionalLiveEventLog = optionalLiveEventLog;
 		
 		setCancellationKeys(cancellationKeys);
 	}
@@ -104,32 +82,35 @@ public class GlobalKeyTracker implements NativeKeyListener
 		if (key == -1)
 		{
 			System.out.println("Skipping unsupported key action: " + NativeKeyEvent.getKeyText(e.getKeyCode()));
+			parentRecorder.getCaptureStatistics().recordSkippedKey();
 			return;
 		}
 		
-		// Add key to the list of pressed keys if not.
-		pressedKeys.add(key);
+		final long timeStamp = parentRecorder.getNativeEventClock().toCapturedTime(e.getWhen(), timeCaptured);
+		
+		// Mark the key as pressed.
+		cancellationKeyMatcher.press(key);
 		
 		// If the key is one of the cancellation keys.
-		if (cancellationKeys.contains(key))
+		if (cancellationKeyMatcher.isCombinationKey(key))
 		{
 			// Check for the required cancellation sequence
-			if (areCancellationKeysPressed())
+			if (areCancellationKeysPressed(timeStamp))
 			{
 				parentRecorder.StopRecording();
 				return;
 			}
 		}
 		
-		final String actionToFormattedString = String.format(KEY_PRESS_FORMAT_COMPACT, key, timeCaptured);
-		
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
+		// Hand the event to the recorder; its text line is only built when the recording is saved.
+		actionsBuffer.offer(CapturedEventType.KeyPress, 0, 0, key, 0, timeStamp);
 		
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			optionalOutputTextArea.append(String.format(KEY_PRESS_FORMAT_READABLE, NativeKeyEvent.getKeyText(e.getKeyCode())));
+			optionalLiveEventLog.addEvent(CapturedEventType.KeyPress, 0, 0, e.getKeyCode());
 		}
+		
+		parentRecorder.getCaptureStatistics().recordEvent(CapturedEventType.KeyPress, timeCaptured, System.nanoTime());
 	}
 
 	/**
@@ -144,36 +125,31 @@ public class GlobalKeyTracker implements NativeKeyListener
 		if (key == -1)
 		{
 			System.out.println("Skipping unsupported key action: " + NativeKeyEvent.getKeyText(e.getKeyCode()));
+			parentRecorder.getCaptureStatistics().recordSkippedKey();
 			return;
 		}
 		
-		// Remove the key from the pressed-keys list
-		for (Iterator<Integer> iter = pressedKeys.listIterator(); iter.hasNext();)
-		{
-			Integer pressedKeyId = iter.next();
-			
-			if (pressedKeyId == key)
-			{
-				iter.remove();
-			}
-		}
+		// Mark the key as no longer pressed.
+		cancellationKeyMatcher.release(key);
 		
-		final String actionToFormattedString = String.format(KEY_RELEASE_FORMAT_COMPACT, key, timeCaptured);
-		
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
+		// Hand the event to the recorder.
+		actionsBuffer.offer(CapturedEventType.KeyRelease, 0, 0, key, 0, parentRecorder.getNativeEventClock().toCapturedTime(e.getWhen(), timeCaptured));
 
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			optionalOutputTextArea.append(String.format(KEY_RELEASE_FORMAT_READABLE, NativeKeyEvent.getKeyText(e.getKeyCode())));
+			optionalLiveEventLog.addEvent(CapturedEventType.KeyRelease, 0, 0, e.getKeyCode());
 		}
+		
+		parentRecorder.getCaptureStatistics().recordEvent(CapturedEventType.KeyRelease, timeCaptured, System.nanoTime());
 	}
 
 	/**
 	 * Allows the user to set their own hotkeys to stop the tracker from recording.
 	 * If the cancellation keys are null or empty, use the default ALT+R keys.
+	 * @param cancellationKeys An array of integer values which represent KeyEvent integers, used to cancel the recorder.
+	 * @throws IllegalArgumentException Throws if one of the keys isn't a supported key code.
 	 */
-	public void setCancellationKeys(int[] cancellationKeys)
+	public void setCancellationKeys(int[] cancellationKeys) throws IllegalArgumentException
 	{
 		// If null or empty, use the default ALT+R 
 		if (cancellationKeys == null || cancellationKeys.length == 0)
@@ -181,50 +157,28 @@ public class GlobalKeyTracker implements NativeKeyListener
 			cancellationKeys = new int[]{KeyEvent.VK_ALT, KeyEvent.VK_R};
 		}
 		
-		this.cancellationKeys = new ArrayList<Integer>();
-		
-		// Add each of the keys to the cancellation key map.
-		for(int key : cancellationKeys)
-		{
-			this.cancellationKeys.add(key);
-		}	
+		cancellationKeyMatcher.setCombinations(Collections.singletonList(cancellationKeys));
 	}
 	
 	/**
 	 * Checks each of the cancellation keys and determines if they are all pressed at the same time. 
+	 * @param releaseTime The recorded time of the key press that completed the cancellation keys, which the releases are recorded at
+	 * so they're on the same clock as the presses.
 	 * @return Returns true if they are all pressed at the same time; otherwise false.
 	 */
-	private boolean areCancellationKeysPressed()
+	private boolean areCancellationKeysPressed(long releaseTime)
 	{
-		boolean stopRecording = true;
-		
-		// Iterate the cancellation keys and determine if they are all pressed at the same time.
-		for(Iterator<Integer> cancellationKeysIterator = cancellationKeys.listIterator(); cancellationKeysIterator.hasNext();)
-		{
-			Integer cancelKey = cancellationKeysIterator.next();
-			
-			if (pressedKeys.contains(cancelKey))
-			{
-				stopRecording = stopRecording && true;
-			}
-			else
-			{
-				stopRecording = stopRecording && false;
-			}
-		}
+		// Determine if the cancellation keys are all pressed at the same time.
+		final boolean stopRecording = cancellationKeyMatcher.findPressedCombination() >= 0;
 		
 		// If the stop recording keys are pressed, release them 
 		// so they aren't still pressed when the user starts playback.
 		if (stopRecording)
 		{
-			for(Iterator<Integer> cancellationKeysIterator = cancellationKeys.listIterator(); cancellationKeysIterator.hasNext();)
+			for (int cancelKey : cancellationKeyMatcher.getCombination(0))
 			{
-				Integer cancelKey = cancellationKeysIterator.next();
-				
-				final String actionToFormattedString = String.format(KEY_RELEASE_FORMAT_COMPACT, cancelKey, System.nanoTime());
-				
-				// Add the formatted string to the queue.
-				actionsQueue.add(actionToFormattedString);
+				// Hand the release to the recorder.
+				actionsBuffer.offer(CapturedEventType.KeyRelease, 0, 0, cancelKey, 0, releaseTime);
 			}
 		}
 		
@@ -1,78 +1,69 @@
 package com.github.stevewhit.mouserecorder.inputtracking;
 
-import java.awt.Robot;
-import java.util.Queue;
-import javax.swing.JTextArea;
-import org.jnativehook.GlobalScreen;
-import org.jnativehook.NativeHookException;
 import org.jnativehook.mouse.NativeMouseEvent;
 import org.jnativehook.mouse.NativeMouseInputListener;
 
 public class GlobalMouseInputTracker implements NativeMouseInputListener
 {	
 	/**
-	 * Typical format for click press: ButtonNumber, xCoordinate, yCoordinate, rgbInt, time(in nanoseconds)
+	 * A reference to the buffer that hands the recorded actions to the recorder.
 	 */
-	private final static String MOUSE_PRESS_FORMAT_COMPACT = "MPRESS:%1$d:%2$d:%3$d:%4$s:%5$s";
-	private final static String MOUSE_PRESS_FORMAT_READABLE = "\nMouse Button %1$d Pressed @ (%2$d, %3$d)";
+	private CaptureRingBuffer actionsBuffer;
 	
 	/**
-	 * Typical format for click release: ButtonNumber, xCoordinate, yCoordinate, rgbInt, time(in nanoseconds)
+	 * The sampler that reads the screen color under mouse button events off the hook thread.
 	 */
-	private final static String MOUSE_RELEASE_FORMAT_COMPACT = "MRELEA:%1$d:%2$d:%3$d:%4$s:%5$s";
-	private final static String MOUSE_RELEASE_FORMAT_READABLE = "\nMouse Button %1$d Released @ (%2$d, %3$d)";
+	private PixelSampler pixelSampler;
 	
 	/**
-	 * Typical format for click move/drag: xCoordinate, yCoordinate, time(in nanoseconds)
+	 * The statistics that the captured events and the time spent in each callback are counted in.
 	 */
-	private final static String MOUSE_MOVE_FORMAT_COMPACT = "MMOVED:%1$d:%2$d:%3$s";
-	private final static String MOUSE_MOVE_FORMAT_READABLE = "\nMouse Moved: (%1$d, %2$d)";
+	private CaptureStatistics captureStatistics;
 	
 	/**
-	 * A reference to the queue that contains the input actions./
+	 * The clock that maps each event's native time onto the time it's recorded with.
 	 */
-	private Queue<String> actionsQueue;
+	private NativeEventClock nativeEventClock;
 	
 	/**
-	 * A reference to the text area that the recorded actions should be written to.
+	 * A reference to the live log that the recorded actions should be shown in.
 	 * This is an optional field and will only write to it if it isn't null.
 	 */
-	private JTextArea optionalOutputTextArea;
+	private LiveEventLog optionalLiveEventLog;
 	
 	/**
-	 * Constructor that accepts a reference to the actions queue that the generated mouse clicks are added to.
-	 * @param actionsQueueRef The queue of actions that clicks are added to.
-	 * @throws IllegalArgumentException Throws if the queue is null.
+	 * Constructor that accepts a reference to the actions buffer that the generated mouse clicks are added to.
+	 * @param actionsBuffer The buffer that the recorded actions are handed to the recorder through.
+	 * @param pixelSampler The sampler that reads the screen color under mouse button events.
+	 * @param captureStatistics The statistics that the captured events are counted in.
+	 * @throws IllegalArgumentException Throws if the buffer, the sampler or the statistics are null.
 	 */
-	protected GlobalMouseInputTracker(Queue<String> actionsQueue) throws IllegalArgumentException
+	protected GlobalMouseInputTracker(CaptureRingBuffer actionsBuffer, PixelSampler pixelSampler, CaptureStatistics captureStatistics) throws IllegalArgumentException
 	{
-		this(actionsQueue, null);
+		this(actionsBuffer, pixelSampler, captureStatistics, new NativeEventClock(), null);
 	}
 	
 	/**
-	 * Constructor that accepts a reference to the actions queue that the generated mouse clicks are added to.
-	 * @param actionsQueueRef The queue of actions that clicks are added to.
-	 * @param optionalOutputTextArea An optional textArea that will only be written to if it isn't null.
-	 * @throws IllegalArgumentException Throws if the queue is null.
+	 * Constructor that accepts a reference to the actions buffer that the generated mouse clicks are added to.
+	 * @param actionsBuffer The buffer that the recorded actions are handed to the recorder through.
+	 * @param pixelSampler The sampler that reads the screen color under mouse button events.
+	 * @param captureStatistics The statistics that the captured events are counted in.
+	 * @param nativeEventClock The clock that maps each event's native time onto the time it's recorded with.
+	 * @param optionalLiveEventLog An optional live log that will only be written to if it isn't null.
+	 * @throws IllegalArgumentException Throws if the buffer, the sampler, the statistics or the clock are null.
 	 */
-	protected GlobalMouseInputTracker(Queue<String> actionsQueue, JTextArea optionalOutputTextArea) throws IllegalArgumentException
+	protected GlobalMouseInputTracker(CaptureRingBuffer actionsBuffer, PixelSampler pixelSampler, CaptureStatistics captureStatistics, NativeEventClock nativeEventClock, LiveEventLog optionalLiveEventLog) throws IllegalArgumentException
 	{
-		if (actionsQueue == null)
+		if (actionsBuffer == null || pixelSampler == null || captureStatistics == null || nativeEventClock == null)
 		{
-			try
-			{
-				GlobalScreen.unregisterNativeHook();
-			}
-			catch (NativeHookException e1)
-			{
-				e1.printStackTrace();
-			}
-			
-			throw new IllegalArgumentException("Actions queue cannot be null.");
+			throw new IllegalArgumentException("Actions buffer, pixel sampler, capture statistics and native event clock cannot be null.");
 		}
 		
-		this.actionsQueue = actionsQueue;
-		this.optionalOutputTextArea = optionalOutputTextArea;
+		this.actionsBuffer = actionsBuffer;
+		this.pixelSampler = pixelSampler;
+		this.captureStatistics = captureStatistics;
+		this.nativeEventClock = nativeEventClock;
+		this.optionalLiveEventLog = optionalLiveEventLog;
 	}
 
 	/**
@@ -84,29 +75,17 @@ public class GlobalMouseInputTracker implements NativeMouseInputListener
 		final long timeCaptured = System.nanoTime();
 		final int xCoord = e.getX();
 		final int yCoord = e.getY();
-		String rgbColor = null;
 		final int buttonNum = e.getButton();
 		
-		try	
-		{
-			Robot screenRobot = new Robot();
-			rgbColor = String.valueOf(screenRobot.getPixelColor(xCoord, yCoord).getRGB() & 0x00FFFFFF);
-		}
-		catch (Exception ex) 
-		{	
-			rgbColor = "INVALIDCOLOR";
-		}
+		// Hand the event to the recorder; its text line is only built when the recording is saved.
+		actionsBuffer.offer(CapturedEventType.MousePress, xCoord, yCoord, buttonNum, requestPixelColor(xCoord, yCoord, timeCaptured), nativeEventClock.toCapturedTime(e.getWhen(), timeCaptured));
 		
-		final String actionToFormattedString = String.format(MOUSE_PRESS_FORMAT_COMPACT, buttonNum, xCoord, yCoord, rgbColor, timeCaptured);
-		
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
-		
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			
-			optionalOutputTextArea.append(String.format(MOUSE_PRESS_FORMAT_READABLE, buttonNum, xCoord, yCoord));
+			optionalLiveEventLog.addEvent(CapturedEventType.MousePress, xCoord, yCoord, buttonNum);
 		}
+		
+		captureStatistics.recordEvent(CapturedEventType.MousePress, timeCaptured, System.nanoTime());
 	}
 
 	/**
@@ -118,28 +97,17 @@ public class GlobalMouseInputTracker implements NativeMouseInputListener
 		final long timeCaptured = System.nanoTime();
 		final int xCoord = e.getX();
 		final int yCoord = e.getY();
-		String rgbColor = null;
 		final int buttonNum = e.getButton();
 		
-		try	
-		{
-			Robot screenRobot = new Robot();
-			rgbColor = String.valueOf(screenRobot.getPixelColor(xCoord, yCoord).getRGB() & 0x00FFFFFF);
-		}
-		catch (Exception ex) 
-		{	
-			rgbColor = "INVALIDCOLOR";
-		}
-		
-		final String actionToFormattedString = String.format(MOUSE_RELEASE_FORMAT_COMPACT, buttonNum, xCoord, yCoord, rgbColor, timeCaptured);
-		
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
+		// Hand the event to the recorder; its text line is only built when the recording is saved.
+		actionsBuffer.offer(CapturedEventType.MouseRelease, xCoord, yCoord, buttonNum, requestPixelColor(xCoord, yCoord, timeCaptured), nativeEventClock.toCapturedTime(e.getWhen(), timeCaptured));
 		
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			optionalOutputTextArea.append(String.format(MOUSE_RELEASE_FORMAT_READABLE, buttonNum, xCoord, yCoord));
+			optionalLiveEventLog.addEvent(CapturedEventType.MouseRelease, xCoord, yCoord, buttonNum);
 		}
+		
+		captureStatistics.recordEvent(CapturedEventType.MouseRelease, timeCaptured, System.nanoTime());
 	}
 
 	/**
@@ -152,15 +120,15 @@ public class GlobalMouseInputTracker implements NativeMouseInputListener
 		int xCoord = e.getX();
 		int yCoord = e.getY();
 		
-		String actionToFormattedString = String.format(MOUSE_MOVE_FORMAT_COMPACT, xCoord, yCoord, timeCaptured);
-		
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
+		// Hand the event to the recorder.
+		actionsBuffer.offer(CapturedEventType.MouseMove, xCoord, yCoord, 0, 0, nativeEventClock.toCapturedTime(e.getWhen(), timeCaptured));
 		
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			optionalOutputTextArea.append(String.format(MOUSE_MOVE_FORMAT_READABLE, xCoord, yCoord));
+			optionalLiveEventLog.addEvent(CapturedEventType.MouseMove, xCoord, yCoord, 0);
 		}
+		
+		captureStatistics.recordEvent(CapturedEventType.MouseMove, timeCaptured, System.nanoTime());
 	}
 
 	/**
@@ -173,15 +141,31 @@ public class GlobalMouseInputTracker implements NativeMouseInputListener
 		int xCoord = e.getX();
 		int yCoord = e.getY();
 		
-		String actionToFormattedString = String.format(MOUSE_MOVE_FORMAT_COMPACT, xCoord, yCoord, timeCaptured);
-
-		// Add the formatted string to the queue.
-		actionsQueue.add(actionToFormattedString);
+		// Hand the event to the recorder.
+		actionsBuffer.offer(CapturedEventType.MouseMove, xCoord, yCoord, 0, 0, nativeEventClock.toCapturedTime(e.getWhen(), timeCaptured));
 		
-		if (optionalOutputTextArea != null)
+		if (optionalLiveEventLog != null)
 		{
-			optionalOutputTextArea.append(String.format(MOUSE_MOVE_FORMAT_READABLE, xCoord, yCoord));
+			optionalLiveEventLog.addEvent(CapturedEventType.MouseMove, xCoord, yCoord, 0);
 		}
+		
+		captureStatistics.recordEvent(CapturedEventType.MouseMove, timeCaptured, System.nanoTime());
+	}
+	
+	/**
+	 * Asks the pixel sampler for the color under a mouse button event, so the hook thread doesn't wait for the screen.
+	 * A sample is only requested if the event is sure to be added to the buffer, since the recorder takes one sampled color per pending event.
+	 * @param xCoord The x coordinate of the event.
+	 * @param yCoord The y coordinate of the event.
+	 * @param timeCaptured The time (in nanoseconds) the event was captured.
+	 * @return Returns the pending color marker if a sample was requested; otherwise the invalid color marker.
+	 */
+	private int requestPixelColor(int xCoord, int yCoord, long timeCaptured)
+	{
+		if (actionsBuffer.hasRemainingCapacity() && pixelSampler.requestSample(xCoord, yCoord, timeCaptured))
+			return CapturedEventType.PENDING_COLOR;
+		
+		return CapturedEventType.INVALID_COLOR;
 	}
 	
 	@Override
@@ -5,11 +5,70 @@ import org.jnativehook.mouse.NativeMouseWheelListener;
 
 public class GlobalMouseWheelTracker implements NativeMouseWheelListener
 {
-
-	@Override
-	public void nativeMouseWheelMoved(NativeMouseWheelEvent arg0)
+	/**
+	 * A reference to the buffer that hands the recorded actions to the recorder.
+	 */
+	private CaptureRingBuffer actionsBuffer;
+	
+	/**
+	 * The statistics that the captured events and the time spent in each callback are counted in.
+	 */
+	private CaptureStatistics captureStatistics;
+	
+	/**
+	 * The clock that maps each event's native time onto the time it's recorded with.
+	 */
+	private NativeEventClock nativeEventClock;
+	
+	/**
+	 * A reference to the live log that the recorded actions should be shown in.
+	 * This is an optional field and will only write to it if it isn't null.
+	 */
+	private LiveEventLog optionalLiveEventLog;
+	
+	/**
+	 * Constructor that accepts a reference to the actions buffer that the wheel notches are added to.
+	 * @param actionsBuffer The buffer that the recorded actions are handed to the recorder through.
+	 * @param captureStatistics The statistics that the captured events are counted in.
+	 * @param nativeEventClock The clock that maps each event's native time onto the time it's recorded with.
+	 * @param optionalLiveEventLog An optional live log that will only be written to if it isn't null.
+	 * @throws IllegalArgumentException Throws if the buffer, the statistics or the clock are null.
+	 */
+	protected GlobalMouseWheelTracker(CaptureRingBuffer actionsBuffer, CaptureStatistics captureStatistics, NativeEventClock nativeEventClock, LiveEventLog optionalLiveEventLog) throws IllegalArgumentException
 	{
-		throw new UnsupportedOperationException("Not implemented yet.");
+		if (actionsBuffer == null || captureStatistics == null || nativeEventClock == null)
+		{
+			throw new IllegalArgumentException("Actions buffer, capture statistics and native event clock cannot be null.");
+		}
+		
+		this.actionsBuffer = actionsBuffer;
+		this.captureStatistics = captureStatistics;
+		this.nativeEventClock = nativeEventClock;
+		this.optionalLiveEventLog = optionalLiveEventLog;
 	}
 	
+	/**
+	 * Captures the number of notches and the mouse position when the mouse wheel is scrolled. Bursts of notches are merged by the recorder.
+	 */
+	@Override
+	public void nativeMouseWheelMoved(NativeMouseWheelEvent e)
+	{
+		final long timeCaptured = System.nanoTime();
+		final int xCoord = e.getX();
+		final int yCoord = e.getY();
+		final int wheelAmount = e.getWheelRotation();
+		
+		if (wheelAmount == 0)
+			return;
+		
+		// Hand the event to the recorder.
+		actionsBuffer.offer(CapturedEventType.MouseWheel, xCoord, yCoord, wheelAmount, 0, nativeEventClock.toCapturedTime(e.getWhen(), timeCaptured));
+		
+		if (optionalLiveEventLog != null)
+		{
+			optionalLiveEventLog.addEvent(CapturedEventType.MouseWheel, xCoord, yCoord, wheelAmount);
+		}
+		
+		captureStatistics.recordEvent(CapturedEventType.MouseWheel, timeCaptured, System.nanoTime());
+	}
 }
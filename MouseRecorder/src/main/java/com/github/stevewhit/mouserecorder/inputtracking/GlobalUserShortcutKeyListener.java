@@ -3,7 +3,6 @@ package com.github.stevewhit.mouserecorder.inputtracking;
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
 import java.util.ArrayList;
-import java.util.Iterator;
 import org.jnativehook.keyboard.NativeKeyEvent;
 import org.jnativehook.keyboard.NativeKeyListener;
 
@@ -16,14 +15,9 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 	protected PropertyChangeSupport propertyChangeSupport;
 	
 	/**
-	 * The key sequences that will fire update events if they are pressed at the same time.
+	 * The keys that are currently pressed and held, matched against the key sequences that will fire update events if they are pressed at the same time.
 	 */
-	private ArrayList<Integer[]> keySequencesThatFireEvents;
-	
-	/**
-	 * The keys that are currently pressed and held.
-	 */
-	private ArrayList<Integer> pressedKeys;
+	private KeyShortcutMatcher keySequenceMatcher;
 	
 	/**
 	 * Constructor that sets up a property change listener to watch for specific key sequences that are pressed.
@@ -43,21 +37,18 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 			propertyChangeSupport.addPropertyChangeListener(propertyListener);
 			
 			setKeySequencesThatFireEvents(keySequencesThatFireEvents);
-			
-			pressedKeys = new ArrayList<>();
 		}
 		catch(IllegalArgumentException ex)
 		{
 			propertyChangeSupport = null;
-			keySequencesThatFireEvents = null;
-			pressedKeys = null;
+			keySequenceMatcher = null;
 			
 			throw new IllegalArgumentException("Cannot create key listener because ==> " + ex.getMessage());
 		}
 	}
 	
 	/**
-	 * Verifies key sequences are valid and then updates the key sequences variable.
+	 * Verifies key sequences are valid and then compiles them into the key sequence matcher.
 	 * @param keySequencesThatFireEvents Key integer sequences that fire update events.
 	 * @throws IllegalArgumentException Throws if an invalid key combination or key is supplied.
 	 */
@@ -66,19 +57,30 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 		if (keySequencesThatFireEvents == null)
 			throw new IllegalArgumentException("Key sequences list cannot be null.");
 		
+		final ArrayList<int[]> keyCombinations = new ArrayList<>(keySequencesThatFireEvents.size());
+		
 		for (Integer[] keyCombo : keySequencesThatFireEvents)
 		{
 			if (keyCombo == null)
 				throw new IllegalArgumentException("Invalid key combination supplied.");
 			
-			for(Integer key : keyCombo)
+			final int[] keys = new int[keyCombo.length];
+			
+			for (int keyNum = 0; keyNum < keyCombo.length; keyNum++)
 			{
-				if (key == null)
+				if (keyCombo[keyNum] == null)
 					throw new IllegalArgumentException("Combo contains invalid key.");
+				
+				keys[keyNum] = keyCombo[keyNum];
 			}
+			
+			keyCombinations.add(keys);
 		}
 		
-		this.keySequencesThatFireEvents = keySequencesThatFireEvents;
+		final KeyShortcutMatcher matcher = keySequenceMatcher == null ? new KeyShortcutMatcher() : keySequenceMatcher;
+		matcher.setCombinations(keyCombinations);
+		
+		keySequenceMatcher = matcher;
 	}
 	
 	/**
@@ -99,10 +101,9 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 			return;
 		}
 		
-		// Don't add duplicate keys to the pressed keys list.
-		if (!pressedKeys.contains(key))
+		// Only check the key sequences when the key wasn't already held down.
+		if (keySequenceMatcher.press(key))
 		{
-			pressedKeys.add(key);
 			checkForPressedKeySequences();
 		}
 	}
@@ -121,15 +122,10 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 			return;
 		}
 		
-		// Remove the key from the pressed-keys list
-		for (Iterator<Integer> iter = pressedKeys.listIterator(); iter.hasNext();)
+		// Mark the key as no longer pressed.
+		if (keySequenceMatcher != null)
 		{
-			Integer pressedKeyId = iter.next();
-			
-			if (pressedKeyId == key)
-			{
-				iter.remove();
-			}
+			keySequenceMatcher.release(key);
 		}
 	}
 	
@@ -138,26 +134,11 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 	 */
 	private void checkForPressedKeySequences()
 	{
-		int comboCounter = 0;
+		final int comboIndex = keySequenceMatcher.findPressedCombination();
 		
-		// Check each key sequence to see if they are pressed.
-		for (Integer[] keyCombo : keySequencesThatFireEvents)
+		if (comboIndex >= 0)
 		{
-			boolean isKeyComboPressed = true;
-			
-			// Check each key combo to see if it is pressed.
-			for(Integer key : keyCombo)
-			{
-				isKeyComboPressed &= pressedKeys.contains(key);
-			}
-			
-			if (isKeyComboPressed)
-			{
-				propertyChangeSupport.firePropertyChange(null, null, comboCounter);
-				return;
-			}
-			
-			comboCounter++;
+			propertyChangeSupport.firePropertyChange(null, null, comboIndex);
 		}
 	}
 	
@@ -166,24 +147,8 @@ public class GlobalUserShortcutKeyListener implements NativeKeyListener
 	 */
 	private void checkForProperInitialization()
 	{
-		if (propertyChangeSupport == null || keySequencesThatFireEvents == null)
+		if (propertyChangeSupport == null || keySequenceMatcher == null)
 			throw new IllegalStateException("Key listener is not properly initialized.");
-
-		if (pressedKeys == null)
-			pressedKeys = new ArrayList<>();
-		
-		// Check the key sequences for initialization.
-		for (Integer[] keyCombo : keySequencesThatFireEvents)
-		{
-			if (keyCombo == null)
-				throw new IllegalStateException("Key sequences that fire events is not properly initialized.");
-			
-			for(Integer key : keyCombo)
-			{
-				if (key == null)
-					throw new IllegalStateException("Atleast one key sequence contains null key.");
-			}
-		}
 	}
 	
 	@Override
@@ -2,21 +2,56 @@ package com.github.stevewhit.mouserecorder.inputtracking;
 
 import java.beans.PropertyChangeListener;
 import java.util.ArrayList;
-import java.util.logging.Level;
 import java.util.logging.Logger;
-
+import javax.swing.SwingUtilities;
 import org.jnativehook.GlobalScreen;
-import org.jnativehook.NativeHookException;
-import org.jnativehook.SwingDispatchService;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.keyboard.NativeKeyListener;
 
 public class GlobalUserShortcutListener
 {
+	/**
+	 * The logger of the GlobalScreen, which the GUI also reports its issues to.
+	 */
+	private static final Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
+	
 	/**
 	 * The listener used to track user key input values.
 	 */
 	private GlobalUserShortcutKeyListener globalUserShortcutKeyListener;
 	
-	public GlobalUserShortcutListener() {}
+	/**
+	 * The listener attached to the dispatcher, which passes the key events on to the key listener on the event dispatching thread.
+	 */
+	private NativeKeyListener eventDispatchKeyListener;
+	
+	/**
+	 * The dispatcher that owns the native hook and passes its key events on to the key listener.
+	 */
+	private final NativeHookDispatcher hookDispatcher;
+	
+	/**
+	 * Default constructor that listens through the application's shared hook dispatcher.
+	 */
+	public GlobalUserShortcutListener()
+	{
+		this(NativeHookDispatcher.getSharedDispatcher());
+	}
+	
+	/**
+	 * Constructor that accepts the dispatcher that the key events come from.
+	 * @param hookDispatcher The dispatcher that owns the native hook.
+	 * @throws IllegalArgumentException Throws if the dispatcher is null.
+	 */
+	public GlobalUserShortcutListener(NativeHookDispatcher hookDispatcher) throws IllegalArgumentException
+	{
+		if (hookDispatcher == null)
+		{
+			throw new IllegalArgumentException("Hook dispatcher cannot be null.");
+		}
+		
+		this.hookDispatcher = hookDispatcher;
+	}
 	
 	/**
 	 * Starts listening to the user inputs and fires an event if one of the sequences is pressed.
@@ -27,39 +62,19 @@ public class GlobalUserShortcutListener
 	 */
 	public void StartListening(PropertyChangeListener propertyListener, ArrayList<Integer[]> keySequencesThatFireEvents) throws IllegalStateException, IllegalArgumentException
 	{
-		// Create logger for the GlobalScreen.
-		Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
+		// Register the native hook if it isn't already, so we can begin listening.
+		hookDispatcher.start();
 		
-		// Disable the parent handlers.
-		logger.setUseParentHandlers(false);
-		logger.setLevel(Level.ALL);
+		// Create the key listener before detaching the previous one, so bad arguments leave the previous listener running.
+		final GlobalUserShortcutKeyListener keyListener = new GlobalUserShortcutKeyListener(propertyListener, keySequencesThatFireEvents);
 		
-		try
-		{
-			// Register the native hook so we can begin listening
-			GlobalScreen.registerNativeHook();
-		}
-		catch (NativeHookException ex)
-		{
-			System.err.println("There was a problem registering the native hook.");
-			System.err.println(ex.getMessage());
-
-			throw new IllegalStateException("There was a problem registering the native hook. Cannot proceed to record.");
-		}
-		
-		// Remove previous listeners so we don't have multiple recorders.
-		GlobalScreen.removeNativeKeyListener(globalUserShortcutKeyListener);
+		// Swap out the previous listener so we don't have multiple listeners.
+		StopListening();
+		globalUserShortcutKeyListener = keyListener;
 		
-		// Create and add the key listener.
-		globalUserShortcutKeyListener = new GlobalUserShortcutKeyListener(propertyListener, keySequencesThatFireEvents);
-		GlobalScreen.addNativeKeyListener(globalUserShortcutKeyListener);
-		
-		/* Note: JNativeHook does *NOT* operate on the event dispatching thread.
-		 * Because Swing components must be accessed on the event dispatching
-		 * thread, you *MUST* wrap access to Swing components using the
-		 * SwingUtilities.invokeLater() or EventQueue.invokeLater() methods.
-		 */
-		GlobalScreen.setEventDispatcher(new SwingDispatchService());
+		// The hook dispatches on its own thread; the shortcuts fire property changes that update Swing components.
+		eventDispatchKeyListener = new EventDispatchKeyListener(globalUserShortcutKeyListener);
+		hookDispatcher.addKeyListener(eventDispatchKeyListener);
 	}
 	
 	/**
@@ -67,8 +82,78 @@ public class GlobalUserShortcutListener
 	 */
 	public void StopListening()
 	{
-		// Remove previous listeners so we don't have multiple recorders.
-		GlobalScreen.removeNativeKeyListener(globalUserShortcutKeyListener);
+		// Detach the key listener; the native hook keeps running for the other listeners.
+		if (eventDispatchKeyListener != null)
+		{
+			hookDispatcher.removeKeyListener(eventDispatchKeyListener);
+		}
+	}
+	
+	/**
+	 * Passes the native key events on to another key listener on the event dispatching thread, so that listener only runs on that thread.
+	 * A failure of the other listener is reported to the logger.
+	 */
+	private static class EventDispatchKeyListener implements NativeKeyListener
+	{
+		/**
+		 * The listener the key events are passed on to.
+		 */
+		private final NativeKeyListener keyListener;
+		
+		/**
+		 * Constructor that accepts the listener the key events are passed on to.
+		 * @param keyListener The listener the key events are passed on to.
+		 */
+		private EventDispatchKeyListener(NativeKeyListener keyListener)
+		{
+			this.keyListener = keyListener;
+		}
+		
+		@Override
+		public void nativeKeyPressed(final NativeKeyEvent e)
+		{
+			SwingUtilities.invokeLater(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						keyListener.nativeKeyPressed(e);
+					}
+					catch (RuntimeException ex)
+					{
+						logger.warning("The shortcut key listener failed: " + ex.getMessage());
+					}
+				}
+			});
+		}
+		
+		@Override
+		public void nativeKeyReleased(final NativeKeyEvent e)
+		{
+			SwingUtilities.invokeLater(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					try
+					{
+						keyListener.nativeKeyReleased(e);
+					}
+					catch (RuntimeException ex)
+					{
+						logger.warning("The shortcut key listener failed: " + ex.getMessage());
+					}
+				}
+			});
+		}
+		
+		@Override
+		public void nativeKeyTyped(NativeKeyEvent e)
+		{
+			// The shortcut key listener doesn't use typed keys.
+		}
 	}
 }
 
@@ -0,0 +1,269 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.List;
+
+/**
+ * Keeps track of the keys that are held down and matches them against shortcut combinations. The held keys are kept in a bit set
+ * over the KeyEvent key codes and each combination is compiled into the words of that bit set it needs, so checking every combination
+ * on a key press takes a few word ANDs instead of a search through lists of keys. Used by both the recorder's cancellation keys and
+ * the application's global shortcuts.
+ * <p>
+ * The held keys are only updated from the hook thread. The combinations may be replaced from any thread.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class KeyShortcutMatcher
+{
+	/**
+	 * The number of key codes that can be tracked. Key codes from 0 up to (but not including) this value are supported.
+	 */
+	public static final int KEY_CODE_LIMIT = 1024;
+
+	/**
+	 * The number of words in the bit set of held keys.
+	 */
+	private static final int WORD_COUNT = KEY_CODE_LIMIT / Long.SIZE;
+
+	/**
+	 * The keys that are currently held down, one bit per key code.
+	 */
+	private final long[] pressedKeyWords = new long[WORD_COUNT];
+
+	/**
+	 * The compiled shortcut combinations, in the order they were given.
+	 */
+	private volatile Combination[] combinations = new Combination[0];
+
+	/**
+	 * The keys that are part of any combination, one bit per key code.
+	 */
+	private volatile long[] combinationKeyWords = new long[WORD_COUNT];
+
+	/**
+	 * Replaces the shortcut combinations with the given ones, compiling each of them.
+	 * @param keyCombinations The combinations of KeyEvent key codes, in the order they're matched.
+	 * @throws IllegalArgumentException Throws if the list or a combination is null or empty, or a key code is out of range.
+	 */
+	public void setCombinations(List<int[]> keyCombinations) throws IllegalArgumentException
+	{
+		if (keyCombinations == null)
+		{
+			throw new IllegalArgumentException("Key combinations list cannot be null.");
+		}
+
+		final Combination[] compiledCombinations = new Combination[keyCombinations.size()];
+		final long[] keyWords = new long[WORD_COUNT];
+
+		for (int comboNum = 0; comboNum < compiledCombinations.length; comboNum++)
+		{
+			compiledCombinations[comboNum] = new Combination(keyCombinations.get(comboNum));
+
+			for (int key : compiledCombinations[comboNum].keys)
+			{
+				keyWords[key >>> 6] |= 1L << key;
+			}
+		}
+
+		combinationKeyWords = keyWords;
+		combinations = compiledCombinations;
+	}
+
+	/**
+	 * Returns the number of shortcut combinations.
+	 * @return Returns the number of combinations.
+	 */
+	public int getCombinationCount()
+	{
+		return combinations.length;
+	}
+
+	/**
+	 * Returns the keys of a shortcut combination.
+	 * @param comboIndex The index of the combination.
+	 * @return Returns a copy of the combination's key codes.
+	 * @throws IllegalArgumentException Throws if there is no combination at the index.
+	 */
+	public int[] getCombination(int comboIndex) throws IllegalArgumentException
+	{
+		final Combination[] currentCombinations = combinations;
+
+		if (comboIndex < 0 || comboIndex >= currentCombinations.length)
+		{
+			throw new IllegalArgumentException("No key combination at index " + comboIndex + ".");
+		}
+
+		return currentCombinations[comboIndex].keys.clone();
+	}
+
+	/**
+	 * Marks a key as held down. Keys outside of the supported range are ignored.
+	 * @param key The KeyEvent key code.
+	 * @return Returns true if the key wasn't already held down; otherwise false.
+	 */
+	public boolean press(int key)
+	{
+		if (!isSupportedKey(key))
+			return false;
+
+		final long keyBit = 1L << key;
+		final boolean wasPressed = (pressedKeyWords[key >>> 6] & keyBit) != 0;
+
+		pressedKeyWords[key >>> 6] |= keyBit;
+
+		return !wasPressed;
+	}
+
+	/**
+	 * Marks a key as no longer held down. Keys outside of the supported range are ignored.
+	 * @param key The KeyEvent key code.
+	 * @return Returns true if the key was held down; otherwise false.
+	 */
+	public boolean release(int key)
+	{
+		if (!isSupportedKey(key))
+			return false;
+
+		final long keyBit = 1L << key;
+		final boolean wasPressed = (pressedKeyWords[key >>> 6] & keyBit) != 0;
+
+		pressedKeyWords[key >>> 6] &= ~keyBit;
+
+		return wasPressed;
+	}
+
+	/**
+	 * Marks every key as no longer held down.
+	 */
+	public void releaseAll()
+	{
+		for (int wordNum = 0; wordNum < WORD_COUNT; wordNum++)
+		{
+			pressedKeyWords[wordNum] = 0;
+		}
+	}
+
+	/**
+	 * Returns whether a key is held down.
+	 * @param key The KeyEvent key code.
+	 * @return Returns true if the key is held down; otherwise false.
+	 */
+	public boolean isPressed(int key)
+	{
+		return isSupportedKey(key) && (pressedKeyWords[key >>> 6] & (1L << key)) != 0;
+	}
+
+	/**
+	 * Returns whether a key is part of any of the shortcut combinations.
+	 * @param key The KeyEvent key code.
+	 * @return Returns true if the key is in a combination; otherwise false.
+	 */
+	public boolean isCombinationKey(int key)
+	{
+		return isSupportedKey(key) && (combinationKeyWords[key >>> 6] & (1L << key)) != 0;
+	}
+
+	/**
+	 * Finds the first shortcut combination whose keys are all held down.
+	 * @return Returns the index of the combination, or -1 if none of them are held down.
+	 */
+	public int findPressedCombination()
+	{
+		final Combination[] currentCombinations = combinations;
+
+		for (int comboNum = 0; comboNum < currentCombinations.length; comboNum++)
+		{
+			if (currentCombinations[comboNum].isPressedIn(pressedKeyWords))
+				return comboNum;
+		}
+
+		return -1;
+	}
+
+	/**
+	 * Returns whether a key code can be tracked.
+	 * @param key The KeyEvent key code.
+	 * @return Returns true if the key code is in the supported range; otherwise false.
+	 */
+	private static boolean isSupportedKey(int key)
+	{
+		return key >= 0 && key < KEY_CODE_LIMIT;
+	}
+
+	/**
+	 * A shortcut combination compiled into the words of the held-keys bit set that it needs and the bits it needs in each of them.
+	 */
+	private static final class Combination
+	{
+		/**
+		 * The key codes of the combination, in the order they were given.
+		 */
+		private final int[] keys;
+
+		/**
+		 * The index of each word the combination needs and the bits it needs in that word.
+		 */
+		private final int[] wordIndexes;
+		private final long[] wordMasks;
+
+		/**
+		 * Compiles a combination of key codes.
+		 * @param keys The KeyEvent key codes of the combination.
+		 * @throws IllegalArgumentException Throws if the combination is null or empty, or a key code is out of range.
+		 */
+		private Combination(int[] keys) throws IllegalArgumentException
+		{
+			if (keys == null || keys.length == 0)
+			{
+				throw new IllegalArgumentException("Key combination cannot be null or empty.");
+			}
+
+			final long[] keyWords = new long[WORD_COUNT];
+			int usedWordCount = 0;
+
+			for (int key : keys)
+			{
+				if (!isSupportedKey(key))
+				{
+					throw new IllegalArgumentException("Key code " + key + " is out of range.");
+				}
+
+				if (keyWords[key >>> 6] == 0)
+					usedWordCount++;
+
+				keyWords[key >>> 6] |= 1L << key;
+			}
+
+			this.keys = keys.clone();
+			this.wordIndexes = new int[usedWordCount];
+			this.wordMasks = new long[usedWordCount];
+
+			int usedWordNum = 0;
+
+			for (int wordNum = 0; wordNum < WORD_COUNT; wordNum++)
+			{
+				if (keyWords[wordNum] != 0)
+				{
+					wordIndexes[usedWordNum] = wordNum;
+					wordMasks[usedWordNum] = keyWords[wordNum];
+					usedWordNum++;
+				}
+			}
+		}
+
+		/**
+		 * Returns whether all keys of the combination are held down.
+		 * @param pressedKeyWords The bit set of held keys.
+		 * @return Returns true if every key of the combination is held down; otherwise false.
+		 */
+		private boolean isPressedIn(long[] pressedKeyWords)
+		{
+			for (int usedWordNum = 0; usedWordNum < wordIndexes.length; usedWordNum++)
+			{
+				if ((pressedKeyWords[wordIndexes[usedWordNum]] & wordMasks[usedWordNum]) != wordMasks[usedWordNum])
+					return false;
+			}
+
+			return true;
+		}
+	}
+}
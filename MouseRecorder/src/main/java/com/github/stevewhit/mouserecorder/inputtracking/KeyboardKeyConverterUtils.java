@@ -5,146 +5,185 @@ import org.jnativehook.keyboard.NativeKeyEvent;
 
 public class KeyboardKeyConverterUtils
 {
+	/**
+	 * The supported native key keycodes and the Event key value each of them is converted to.
+	 */
+	private static final int[][] NATIVE_KEY_MAPPINGS = new int[][]
+	{
+		{NativeKeyEvent.VC_ESCAPE, KeyEvent.VK_ESCAPE},
+		
+		{NativeKeyEvent.VC_F1, KeyEvent.VK_F1},
+		{NativeKeyEvent.VC_F2, KeyEvent.VK_F2},
+		{NativeKeyEvent.VC_F3, KeyEvent.VK_F3},
+		{NativeKeyEvent.VC_F4, KeyEvent.VK_F4},
+		{NativeKeyEvent.VC_F5, KeyEvent.VK_F5},
+		{NativeKeyEvent.VC_F6, KeyEvent.VK_F6},
+		{NativeKeyEvent.VC_F7, KeyEvent.VK_F7},
+		{NativeKeyEvent.VC_F8, KeyEvent.VK_F8},
+		{NativeKeyEvent.VC_F9, KeyEvent.VK_F9},
+		{NativeKeyEvent.VC_F10, KeyEvent.VK_F10},
+		{NativeKeyEvent.VC_F11, KeyEvent.VK_F11},
+		{NativeKeyEvent.VC_F12, KeyEvent.VK_F12},
+		
+		{NativeKeyEvent.VC_BACKQUOTE, KeyEvent.VK_BACK_QUOTE},
+		
+		{NativeKeyEvent.VC_1, KeyEvent.VK_1},
+		{NativeKeyEvent.VC_2, KeyEvent.VK_2},
+		{NativeKeyEvent.VC_3, KeyEvent.VK_3},
+		{NativeKeyEvent.VC_4, KeyEvent.VK_4},
+		{NativeKeyEvent.VC_5, KeyEvent.VK_5},
+		{NativeKeyEvent.VC_6, KeyEvent.VK_6},
+		{NativeKeyEvent.VC_7, KeyEvent.VK_7},
+		{NativeKeyEvent.VC_8, KeyEvent.VK_8},
+		{NativeKeyEvent.VC_9, KeyEvent.VK_9},
+		{NativeKeyEvent.VC_0, KeyEvent.VK_0},
+		
+		{NativeKeyEvent.VC_ENTER, KeyEvent.VK_ENTER},
+		{NativeKeyEvent.VC_MINUS, KeyEvent.VK_MINUS},
+		{NativeKeyEvent.VC_EQUALS, KeyEvent.VK_EQUALS},
+		{NativeKeyEvent.VC_BACKSPACE, KeyEvent.VK_BACK_SPACE},
+		{NativeKeyEvent.VC_TAB, KeyEvent.VK_TAB},
+		{NativeKeyEvent.VC_CAPS_LOCK, KeyEvent.VK_CAPS_LOCK},
+		{NativeKeyEvent.VC_SHIFT_L, KeyEvent.VK_SHIFT},
+		{NativeKeyEvent.VC_SHIFT_R, KeyEvent.VK_SHIFT},
+		{NativeKeyEvent.VC_CONTROL_L, KeyEvent.VK_CONTROL},
+		{NativeKeyEvent.VC_CONTROL_R, KeyEvent.VK_CONTROL},
+		{NativeKeyEvent.VC_OPEN_BRACKET, KeyEvent.VK_OPEN_BRACKET},
+		{NativeKeyEvent.VC_CLOSE_BRACKET, KeyEvent.VK_CLOSE_BRACKET},
+		{NativeKeyEvent.VC_BACK_SLASH, KeyEvent.VK_BACK_SLASH},
+		{NativeKeyEvent.VC_SEMICOLON, KeyEvent.VK_SEMICOLON},
+		{NativeKeyEvent.VC_QUOTE, KeyEvent.VK_QUOTE},
+		{NativeKeyEvent.VC_SLASH, KeyEvent.VK_SLASH},
+		{NativeKeyEvent.VC_COMMA, KeyEvent.VK_COMMA},
+		{NativeKeyEvent.VC_PERIOD, KeyEvent.VK_PERIOD},
+		{NativeKeyEvent.VC_SPACE, KeyEvent.VK_SPACE},
+		{NativeKeyEvent.VC_ALT_L, KeyEvent.VK_ALT},
+		{NativeKeyEvent.VC_ALT_R, KeyEvent.VK_ALT},
+		{NativeKeyEvent.VC_PAGE_UP, KeyEvent.VK_PAGE_UP},
+		{NativeKeyEvent.VC_PAGE_DOWN, KeyEvent.VK_PAGE_DOWN},
+		{NativeKeyEvent.VC_PRINTSCREEN, KeyEvent.VK_PRINTSCREEN},
+		{NativeKeyEvent.VC_SCROLL_LOCK, KeyEvent.VK_SCROLL_LOCK},
+		{NativeKeyEvent.VC_PAUSE, KeyEvent.VK_PAUSE},
+		{NativeKeyEvent.VC_INSERT, KeyEvent.VK_INSERT},
+		{NativeKeyEvent.VC_DELETE, KeyEvent.VK_DELETE},
+		{NativeKeyEvent.VC_HOME, KeyEvent.VK_HOME},
+		{NativeKeyEvent.VC_END, KeyEvent.VK_END},
+		{NativeKeyEvent.VC_NUM_LOCK, KeyEvent.VK_NUM_LOCK},
+		{NativeKeyEvent.VC_UP, KeyEvent.VK_UP},
+		{NativeKeyEvent.VC_DOWN, KeyEvent.VK_DOWN},
+		{NativeKeyEvent.VC_LEFT, KeyEvent.VK_LEFT},
+		{NativeKeyEvent.VC_RIGHT, KeyEvent.VK_RIGHT},
+		
+		{NativeKeyEvent.VC_META_L, KeyEvent.VK_META},
+		{NativeKeyEvent.VC_META_R, KeyEvent.VK_META},
+		
+		{NativeKeyEvent.VC_KP_1, KeyEvent.VK_NUMPAD1},
+		{NativeKeyEvent.VC_KP_2, KeyEvent.VK_NUMPAD2},
+		{NativeKeyEvent.VC_KP_3, KeyEvent.VK_NUMPAD3},
+		{NativeKeyEvent.VC_KP_4, KeyEvent.VK_NUMPAD4},
+		{NativeKeyEvent.VC_KP_5, KeyEvent.VK_NUMPAD5},
+		{NativeKeyEvent.VC_KP_6, KeyEvent.VK_NUMPAD6},
+		{NativeKeyEvent.VC_KP_7, KeyEvent.VK_NUMPAD7},
+		{NativeKeyEvent.VC_KP_8, KeyEvent.VK_NUMPAD8},
+		{NativeKeyEvent.VC_KP_9, KeyEvent.VK_NUMPAD9},
+		{NativeKeyEvent.VC_KP_0, KeyEvent.VK_NUMPAD0},
+		{NativeKeyEvent.VC_KP_SEPARATOR, KeyEvent.VK_DECIMAL},
+		{NativeKeyEvent.VC_KP_DIVIDE, KeyEvent.VK_DIVIDE},
+		{NativeKeyEvent.VC_KP_MULTIPLY, KeyEvent.VK_MULTIPLY},
+		{NativeKeyEvent.VC_KP_SUBTRACT, KeyEvent.VK_SUBTRACT},
+		{NativeKeyEvent.VC_KP_ADD, KeyEvent.VK_ADD},
+		{NativeKeyEvent.VC_KP_ENTER, KeyEvent.VK_ENTER},
+		{NativeKeyEvent.VC_KP_EQUALS, KeyEvent.VK_EQUALS},
+		
+		{NativeKeyEvent.VC_A, KeyEvent.VK_A},
+		{NativeKeyEvent.VC_B, KeyEvent.VK_B},
+		{NativeKeyEvent.VC_C, KeyEvent.VK_C},
+		{NativeKeyEvent.VC_D, KeyEvent.VK_D},
+		{NativeKeyEvent.VC_E, KeyEvent.VK_E},
+		{NativeKeyEvent.VC_F, KeyEvent.VK_F},
+		{NativeKeyEvent.VC_G, KeyEvent.VK_G},
+		{NativeKeyEvent.VC_H, KeyEvent.VK_H},
+		{NativeKeyEvent.VC_I, KeyEvent.VK_I},
+		{NativeKeyEvent.VC_J, KeyEvent.VK_J},
+		{NativeKeyEvent.VC_K, KeyEvent.VK_K},
+		{NativeKeyEvent.VC_L, KeyEvent.VK_L},
+		{NativeKeyEvent.VC_M, KeyEvent.VK_M},
+		{NativeKeyEvent.VC_N, KeyEvent.VK_N},
+		{NativeKeyEvent.VC_O, KeyEvent.VK_O},
+		{NativeKeyEvent.VC_P, KeyEvent.VK_P},
+		{NativeKeyEvent.VC_Q, KeyEvent.VK_Q},
+		{NativeKeyEvent.VC_R, KeyEvent.VK_R},
+		{NativeKeyEvent.VC_S, KeyEvent.VK_S},
+		{NativeKeyEvent.VC_T, KeyEvent.VK_T},
+		{NativeKeyEvent.VC_U, KeyEvent.VK_U},
+		{NativeKeyEvent.VC_V, KeyEvent.VK_V},
+		{NativeKeyEvent.VC_W, KeyEvent.VK_W},
+		{NativeKeyEvent.VC_X, KeyEvent.VK_X},
+		{NativeKeyEvent.VC_Y, KeyEvent.VK_Y},
+		{NativeKeyEvent.VC_Z, KeyEvent.VK_Z},
+		
+	};
+	
+	/**
+	 * The Event key value of each native key keycode, indexed by the native keycode; -1 if the native key isn't supported.
+	 * Built once so that converting a key on the hook thread is a single array load.
+	 */
+	private static final int[] NATIVE_KEY_TO_EVENT_KEY = createNativeKeyTable(NATIVE_KEY_MAPPINGS);
+	
 	/**
 	 * Private constructor to keep this as a static utility class.
 	 */
 	private KeyboardKeyConverterUtils(){}
 	
+	/**
+	 * Returns the EventKey value of a native key event.
+	 * @param event The native key event.
+	 * @return Returns the Event key equivelant value of the native key keycode; otherwise it returns -1 if it can't find it.
+	 */
+	public static int nativeKeyToEventKey(NativeKeyEvent event)
+	{
+		return nativeKeyToEventKey(event.getKeyCode());
+	}
+	
 	/**
 	 * Returns the EventKey value of a native key keycode.
 	 * @param nativeKeyCode The native key keycode int.
 	 * @return Returns the Event key equivelant value of the native key keycode; otherwise it returns -1 if it can't find it.
 	 */
-	public static int nativeKeyToEventKey(NativeKeyEvent event)
+	public static int nativeKeyToEventKey(int nativeKeyCode)
 	{
-		switch(event.getKeyCode())
+		if (nativeKeyCode < 0 || nativeKeyCode >= NATIVE_KEY_TO_EVENT_KEY.length)
+			return -1;
+		
+		return NATIVE_KEY_TO_EVENT_KEY[nativeKeyCode];
+	}
+	
+	/**
+	 * Creates the lookup table of Event key values, indexed by native keycode, from the native key mappings.
+	 * @param nativeKeyMappings Pairs of native key keycodes and the Event key values they're converted to.
+	 * @return Returns the lookup table, just large enough to hold the highest native keycode.
+	 */
+	private static int[] createNativeKeyTable(int[][] nativeKeyMappings)
+	{
+		int highestNativeKeyCode = 0;
+		
+		for (int[] mapping : nativeKeyMappings)
 		{
-			case(NativeKeyEvent.VC_ESCAPE) : return KeyEvent.VK_ESCAPE;
-			
-			case(NativeKeyEvent.VC_F1) : return KeyEvent.VK_F1;
-			case(NativeKeyEvent.VC_F2) : return KeyEvent.VK_F2;
-			case(NativeKeyEvent.VC_F3) : return KeyEvent.VK_F3;
-			case(NativeKeyEvent.VC_F4) : return KeyEvent.VK_F4;
-			case(NativeKeyEvent.VC_F5) : return KeyEvent.VK_F5;
-			case(NativeKeyEvent.VC_F6) : return KeyEvent.VK_F6;
-			case(NativeKeyEvent.VC_F7) : return KeyEvent.VK_F7;
-			case(NativeKeyEvent.VC_F8) : return KeyEvent.VK_F8;
-			case(NativeKeyEvent.VC_F9) : return KeyEvent.VK_F9;
-			case(NativeKeyEvent.VC_F10) : return KeyEvent.VK_F10;
-			case(NativeKeyEvent.VC_F11) : return KeyEvent.VK_F11;
-			case(NativeKeyEvent.VC_F12) : return KeyEvent.VK_F12;
-			
-			case(NativeKeyEvent.VC_BACKQUOTE) : return KeyEvent.VK_BACK_QUOTE;
-			
-			case(NativeKeyEvent.VC_1) : return KeyEvent.VK_1;
-			case(NativeKeyEvent.VC_2) : return KeyEvent.VK_2;
-			case(NativeKeyEvent.VC_3) : return KeyEvent.VK_3;
-			case(NativeKeyEvent.VC_4) : return KeyEvent.VK_4;
-			case(NativeKeyEvent.VC_5) : return KeyEvent.VK_5;
-			case(NativeKeyEvent.VC_6) : return KeyEvent.VK_6;
-			case(NativeKeyEvent.VC_7) : return KeyEvent.VK_7;
-			case(NativeKeyEvent.VC_8) : return KeyEvent.VK_8;
-			case(NativeKeyEvent.VC_9) : return KeyEvent.VK_9;
-			case(NativeKeyEvent.VC_0) : return KeyEvent.VK_0;
-			
-			case(NativeKeyEvent.VC_ENTER) : return KeyEvent.VK_ENTER;
-			case(NativeKeyEvent.VC_MINUS) : return KeyEvent.VK_MINUS;
-			case(NativeKeyEvent.VC_EQUALS) : return KeyEvent.VK_EQUALS;
-			case(NativeKeyEvent.VC_BACKSPACE) : return KeyEvent.VK_BACK_SPACE;
-			case(NativeKeyEvent.VC_TAB) : return KeyEvent.VK_TAB;
-			case(NativeKeyEvent.VC_CAPS_LOCK) : return KeyEvent.VK_CAPS_LOCK;
-			case(NativeKeyEvent.VC_SHIFT_L) : return KeyEvent.VK_SHIFT;
-			case(NativeKeyEvent.VC_SHIFT_R) : return KeyEvent.VK_SHIFT;
-			case(NativeKeyEvent.VC_CONTROL_L) : return KeyEvent.VK_CONTROL;
-			case(NativeKeyEvent.VC_CONTROL_R) : return KeyEvent.VK_CONTROL;
-			case(NativeKeyEvent.VC_OPEN_BRACKET) : return KeyEvent.VK_OPEN_BRACKET;
-			case(NativeKeyEvent.VC_CLOSE_BRACKET) : return KeyEvent.VK_CLOSE_BRACKET;
-			case(NativeKeyEvent.VC_BACK_SLASH) : return KeyEvent.VK_BACK_SLASH;
-			case(NativeKeyEvent.VC_SEMICOLON) : return KeyEvent.VK_SEMICOLON;
-			case(NativeKeyEvent.VC_QUOTE) : return KeyEvent.VK_QUOTE;
-			case(NativeKeyEvent.VC_SLASH) : return KeyEvent.VK_SLASH;
-			case(NativeKeyEvent.VC_COMMA) : return KeyEvent.VK_COMMA;
-			case(NativeKeyEvent.VC_PERIOD) : return KeyEvent.VK_PERIOD;
-			case(NativeKeyEvent.VC_SPACE) : return KeyEvent.VK_SPACE;
-			case(NativeKeyEvent.VC_ALT_L) : return KeyEvent.VK_ALT;
-			case(NativeKeyEvent.VC_ALT_R) : return KeyEvent.VK_ALT;
-			case(NativeKeyEvent.VC_PAGE_UP) : return KeyEvent.VK_PAGE_UP;
-			case(NativeKeyEvent.VC_PAGE_DOWN) : return KeyEvent.VK_PAGE_DOWN;
-			case(NativeKeyEvent.VC_PRINTSCREEN) : return KeyEvent.VK_PRINTSCREEN;
-			case(NativeKeyEvent.VC_SCROLL_LOCK) : return KeyEvent.VK_SCROLL_LOCK;
-			case(NativeKeyEvent.VC_PAUSE) : return KeyEvent.VK_PAUSE;
-			case(NativeKeyEvent.VC_INSERT) : return KeyEvent.VK_INSERT;
-			case(NativeKeyEvent.VC_DELETE) : return KeyEvent.VK_DELETE;
-			case(NativeKeyEvent.VC_HOME) : return KeyEvent.VK_HOME;
-			case(NativeKeyEvent.VC_END) : return KeyEvent.VK_END;
-			case(NativeKeyEvent.VC_NUM_LOCK) : return KeyEvent.VK_NUM_LOCK;
-			case(NativeKeyEvent.VC_UP) : return KeyEvent.VK_UP;
-			case(NativeKeyEvent.VC_DOWN) : return KeyEvent.VK_DOWN;
-			case(NativeKeyEvent.VC_LEFT) : return KeyEvent.VK_LEFT;
-			case(NativeKeyEvent.VC_RIGHT) : return KeyEvent.VK_RIGHT;
-			
-			case(NativeKeyEvent.VC_META_L) : return KeyEvent.VK_META;
-			case(NativeKeyEvent.VC_META_R) : return KeyEvent.VK_META;
-			
-			case(NativeKeyEvent.VC_KP_1) : return KeyEvent.VK_0;
-			case(NativeKeyEvent.VC_KP_2) : return KeyEvent.VK_1;
-			case(NativeKeyEvent.VC_KP_3) : return KeyEvent.VK_2;
-			case(NativeKeyEvent.VC_KP_4) : return KeyEvent.VK_3;
-			case(NativeKeyEvent.VC_KP_5) : return KeyEvent.VK_4;
-			case(NativeKeyEvent.VC_KP_6) : return KeyEvent.VK_5;
-			case(NativeKeyEvent.VC_KP_7) : return KeyEvent.VK_6;
-			case(NativeKeyEvent.VC_KP_8) : return KeyEvent.VK_7;
-			case(NativeKeyEvent.VC_KP_9) : return KeyEvent.VK_8;
-			case(NativeKeyEvent.VC_KP_0) : return KeyEvent.VK_9;
-			case(NativeKeyEvent.VC_KP_DIVIDE) : return KeyEvent.VK_DIVIDE;
-			case(NativeKeyEvent.VC_KP_MULTIPLY) : return KeyEvent.VK_MULTIPLY;
-			case(NativeKeyEvent.VC_KP_SUBTRACT) : return KeyEvent.VK_SUBTRACT;
-			case(NativeKeyEvent.VC_KP_ADD) : return KeyEvent.VK_ADD;
-			case(NativeKeyEvent.VC_KP_ENTER) : return KeyEvent.VK_ENTER;
-			case(NativeKeyEvent.VC_KP_EQUALS) : return KeyEvent.VK_EQUALS;
-			
-			case(NativeKeyEvent.VC_A) : return KeyEvent.VK_A;
-			case(NativeKeyEvent.VC_B) : return KeyEvent.VK_B;
-			case(NativeKeyEvent.VC_C) : return KeyEvent.VK_C;
-			case(NativeKeyEvent.VC_D) : return KeyEvent.VK_D;
-			case(NativeKeyEvent.VC_E) : return KeyEvent.VK_E;
-			case(NativeKeyEvent.VC_F) : return KeyEvent.VK_F;
-			case(NativeKeyEvent.VC_G) : return KeyEvent.VK_G;
-			case(NativeKeyEvent.VC_H) : return KeyEvent.VK_H;
-			case(NativeKeyEvent.VC_I) : return KeyEvent.VK_I;
-			case(NativeKeyEvent.VC_J) : return KeyEvent.VK_J;
-			case(NativeKeyEvent.VC_K) : return KeyEvent.VK_K;
-			case(NativeKeyEvent.VC_L) : return KeyEvent.VK_L;
-			case(NativeKeyEvent.VC_M) : return KeyEvent.VK_M;
-			case(NativeKeyEvent.VC_N) : return KeyEvent.VK_N;
-			case(NativeKeyEvent.VC_O) : return KeyEvent.VK_O;
-			case(NativeKeyEvent.VC_P) : return KeyEvent.VK_P;
-			case(NativeKeyEvent.VC_Q) : return KeyEvent.VK_Q;
-			case(NativeKeyEvent.VC_R) : return KeyEvent.VK_R;
-			case(NativeKeyEvent.VC_S) : return KeyEvent.VK_S;
-			case(NativeKeyEvent.VC_T) : return KeyEvent.VK_T;
-			case(NativeKeyEvent.VC_U) : return KeyEvent.VK_U;
-			case(NativeKeyEvent.VC_V) : return KeyEvent.VK_V;
-			case(NativeKeyEvent.VC_W) : return KeyEvent.VK_W;
-			case(NativeKeyEvent.VC_X) : return KeyEvent.VK_X;
-			case(NativeKeyEvent.VC_Y) : return KeyEvent.VK_Y;
-			case(NativeKeyEvent.VC_Z) : return KeyEvent.VK_Z;
+			highestNativeKeyCode = Math.max(highestNativeKeyCode, mapping[0]);
 		}
 		
-		return -1;
+		final int[] nativeKeyTable = new int[highestNativeKeyCode + 1];
+		
+		for (int nativeKeyCode = 0; nativeKeyCode < nativeKeyTable.length; nativeKeyCode++)
+		{
+			nativeKeyTable[nativeKeyCode] = -1;
+		}
+		
+		for (int[] mapping : nativeKeyMappings)
+		{
+			nativeKeyTable[mapping[0]] = mapping[1];
+		}
+		
+		return nativeKeyTable;
 	}
 }
-
-
-
-
-
-
-
-
-
-
-
-
-
-
@@ -0,0 +1,173 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of latencies that groups each recorded latency into a power-of-two bucket of nanoseconds. Recording a latency
+ * doesn't allocate or lock, so it can be done from the native hook thread. Percentiles are reported as the upper bound of their bucket.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class LatencyHistogram
+{
+	/**
+	 * The number of buckets; bucket i holds latencies in [2^i, 2^(i+1)) nanoseconds, and bucket 0 also holds 0.
+	 */
+	private static final int BUCKET_COUNT = 64;
+
+	/**
+	 * The number of latencies recorded in each bucket.
+	 */
+	private final AtomicLongArray bucketCounts = new AtomicLongArray(BUCKET_COUNT);
+
+	/**
+	 * The number of recorded latencies.
+	 */
+	private final AtomicLong count = new AtomicLong();
+
+	/**
+	 * The sum of the recorded latencies (in nanoseconds).
+	 */
+	private final AtomicLong totalNanoseconds = new AtomicLong();
+
+	/**
+	 * The largest recorded latency (in nanoseconds).
+	 */
+	private final AtomicLong maxNanoseconds = new AtomicLong();
+
+	/**
+	 * Default constructor.
+	 */
+	public LatencyHistogram() {}
+
+	/**
+	 * Records a latency. Negative latencies are recorded as 0.
+	 * @param latencyNanoseconds The latency (in nanoseconds).
+	 */
+	public void record(long latencyNanoseconds)
+	{
+		final long latency = Math.max(0, latencyNanoseconds);
+
+		bucketCounts.incrementAndGet(bucketOf(latency));
+		totalNanoseconds.addAndGet(latency);
+		count.incrementAndGet();
+
+		long currentMax = maxNanoseconds.get();
+
+		while (latency > currentMax && !maxNanoseconds.compareAndSet(currentMax, latency))
+		{
+			currentMax = maxNanoseconds.get();
+		}
+	}
+
+	/**
+	 * Returns the number of recorded latencies.
+	 * @return Returns the number of recorded latencies.
+	 */
+	public long getCount()
+	{
+		return count.get();
+	}
+
+	/**
+	 * Returns the largest recorded latency.
+	 * @return Returns the largest latency (in nanoseconds); 0 if nothing has been recorded.
+	 */
+	public long getMaxNanoseconds()
+	{
+		return maxNanoseconds.get();
+	}
+
+	/**
+	 * Returns the average recorded latency.
+	 * @return Returns the average latency (in nanoseconds); 0 if nothing has been recorded.
+	 */
+	public long getMeanNanoseconds()
+	{
+		final long recordedCount = count.get();
+
+		return recordedCount == 0 ? 0 : totalNanoseconds.get() / recordedCount;
+	}
+
+	/**
+	 * Returns the latency that the given percentage of the recorded latencies are at or below, rounded up to the top of its bucket.
+	 * @param percentile The percentage, from 0 to 100.
+	 * @return Returns the upper bound (in nanoseconds) of the bucket holding the percentile, capped at the largest latency; 0 if nothing has been recorded.
+	 * @throws IllegalArgumentException Throws if the percentage isn't from 0 to 100.
+	 */
+	public long getPercentileNanoseconds(double percentile) throws IllegalArgumentException
+	{
+		if (percentile < 0 || percentile > 100)
+		{
+			throw new IllegalArgumentException("Percentile must be from 0 to 100.");
+		}
+
+		final long recordedCount = count.get();
+
+		if (recordedCount == 0)
+			return 0;
+
+		final long rank = Math.max(1, (long) Math.ceil(recordedCount * percentile / 100));
+		long seenCount = 0;
+
+		for (int bucket = 0; bucket < BUCKET_COUNT; bucket++)
+		{
+			seenCount += bucketCounts.get(bucket);
+
+			if (seenCount >= rank)
+				return Math.min(upperBoundOf(bucket), getMaxNanoseconds());
+		}
+
+		return getMaxNanoseconds();
+	}
+
+	/**
+	 * Returns the number of latencies recorded in a bucket.
+	 * @param bucket The bucket; bucket i holds latencies in [2^i, 2^(i+1)) nanoseconds.
+	 * @return Returns the number of latencies in the bucket.
+	 * @throws IllegalArgumentException Throws if the bucket doesn't exist.
+	 */
+	public long getBucketCount(int bucket) throws IllegalArgumentException
+	{
+		if (bucket < 0 || bucket >= BUCKET_COUNT)
+		{
+			throw new IllegalArgumentException("Bucket must be from 0 to " + (BUCKET_COUNT - 1) + ".");
+		}
+
+		return bucketCounts.get(bucket);
+	}
+
+	/**
+	 * Describes the histogram in microseconds.
+	 * <pre>
+	 * Example output ==> n=42 p50&lt;=16us p99&lt;=131us max=98us
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		return "n=" + getCount() + " p50<=" + getPercentileNanoseconds(50) / 1000 + "us p99<=" + getPercentileNanoseconds(99) / 1000
+				+ "us max=" + getMaxNanoseconds() / 1000 + "us";
+	}
+
+	/**
+	 * Returns the bucket a latency belongs to.
+	 * @param latencyNanoseconds The non-negative latency (in nanoseconds).
+	 * @return Returns the bucket of the latency.
+	 */
+	private static int bucketOf(long latencyNanoseconds)
+	{
+		return latencyNanoseconds == 0 ? 0 : 63 - Long.numberOfLeadingZeros(latencyNanoseconds);
+	}
+
+	/**
+	 * Returns the largest latency that belongs to a bucket.
+	 * @param bucket The bucket.
+	 * @return Returns the upper bound (in nanoseconds) of the bucket.
+	 */
+	private static long upperBoundOf(int bucket)
+	{
+		return bucket == BUCKET_COUNT - 1 ? Long.MAX_VALUE : (1L << (bucket + 1)) - 1;
+	}
+}
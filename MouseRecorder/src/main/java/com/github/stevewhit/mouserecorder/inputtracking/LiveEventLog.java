@@ -0,0 +1,308 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.logging.Logger;
+import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.text.BadLocationException;
+import org.jnativehook.GlobalScreen;
+import org.jnativehook.keyboard.NativeKeyEvent;
+
+/**
+ * Shows the recorded actions in a text area without touching it for every action. The trackers add events from the hook thread as
+ * primitives into a fixed ring, and a Swing timer formats them and appends them to the text area in one go, at a fixed rate on the
+ * event dispatch thread. The text area keeps a rolling number of lines; events that pile up faster than they can be shown are
+ * replaced by an "N events suppressed" line.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class LiveEventLog
+{
+	/**
+	 * The logger of the GlobalScreen, which the GUI also reports its issues to.
+	 */
+	private static final Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
+
+	/**
+	 * The default amount of time (in milliseconds) between two appends to the text area, which is 20 times a second.
+	 */
+	public static final int DEFAULT_FLUSH_INTERVAL_MILLISECONDS = 50;
+
+	/**
+	 * The default number of lines the text area keeps.
+	 */
+	public static final int DEFAULT_MAXIMUM_LINES = 500;
+
+	/**
+	 * The text area the lines are shown in.
+	 */
+	private final JTextArea outputTextArea;
+
+	/**
+	 * The number of lines the text area keeps.
+	 */
+	private final int maximumLines;
+
+	/**
+	 * The timer that appends the pending lines to the text area.
+	 */
+	private final Timer flushTimer;
+
+	/**
+	 * Guards the pending events.
+	 */
+	private final Object pendingEventsLock = new Object();
+
+	/**
+	 * The events waiting to be shown, kept as a ring of parallel arrays: the oldest one is at the start index. One line of the text
+	 * area is left for the suppressed summary. Guarded by the pending events lock.
+	 */
+	private final CapturedEventType[] pendingTypes;
+	private final int[] pendingXCoords;
+	private final int[] pendingYCoords;
+	private final int[] pendingCodes;
+	private int pendingStartIndex;
+	private int pendingCount;
+
+	/**
+	 * The number of events dropped from the pending events since they were last shown. Guarded by the pending events lock.
+	 */
+	private int pendingSuppressedCount;
+
+	/**
+	 * The events taken from the ring by the last flush. Only used on the event dispatch thread.
+	 */
+	private final CapturedEventType[] flushTypes;
+	private final int[] flushXCoords;
+	private final int[] flushYCoords;
+	private final int[] flushCodes;
+
+	/**
+	 * The total number of lines that were never shown.
+	 */
+	private volatile long suppressedCount;
+
+	/**
+	 * Constructor that accepts the text area the lines are shown in, using the default rate and number of lines.
+	 * @param outputTextArea The text area the lines are shown in.
+	 * @throws IllegalArgumentException Throws if the text area is null.
+	 */
+	public LiveEventLog(JTextArea outputTextArea) throws IllegalArgumentException
+	{
+		this(outputTextArea, DEFAULT_FLUSH_INTERVAL_MILLISECONDS, DEFAULT_MAXIMUM_LINES);
+	}
+
+	/**
+	 * Constructor that accepts the text area the lines are shown in, how often they're shown and how many lines are kept.
+	 * @param outputTextArea The text area the lines are shown in.
+	 * @param flushIntervalMilliseconds The amount of time (in milliseconds) between two appends to the text area.
+	 * @param maximumLines The number of lines the text area keeps.
+	 * @throws IllegalArgumentException Throws if the text area is null, or the interval or number of lines isn't positive.
+	 */
+	public LiveEventLog(JTextArea outputTextArea, int flushIntervalMilliseconds, int maximumLines) throws IllegalArgumentException
+	{
+		if (outputTextArea == null)
+		{
+			throw new IllegalArgumentException("Output text area cannot be null.");
+		}
+
+		if (flushIntervalMilliseconds <= 0 || maximumLines <= 0)
+		{
+			throw new IllegalArgumentException("Flush interval and maximum lines must be greater than zero.");
+		}
+
+		this.outputTextArea = outputTextArea;
+		this.maximumLines = maximumLines;
+
+		final int pendingCapacity = Math.max(1, maximumLines - 1);
+
+		pendingTypes = new CapturedEventType[pendingCapacity];
+		pendingXCoords = new int[pendingCapacity];
+		pendingYCoords = new int[pendingCapacity];
+		pendingCodes = new int[pendingCapacity];
+
+		flushTypes = new CapturedEventType[pendingCapacity];
+		flushXCoords = new int[pendingCapacity];
+		flushYCoords = new int[pendingCapacity];
+		flushCodes = new int[pendingCapacity];
+
+		flushTimer = new Timer(flushIntervalMilliseconds, new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				flush();
+			}
+		});
+		flushTimer.setCoalesce(true);
+	}
+
+	/**
+	 * Starts showing the added events in the text area.
+	 */
+	public void start()
+	{
+		flushTimer.start();
+	}
+
+	/**
+	 * Stops the timer and shows the events that are still waiting.
+	 */
+	public void stop()
+	{
+		flushTimer.stop();
+
+		if (SwingUtilities.isEventDispatchThread())
+		{
+			flush();
+		}
+		else
+		{
+			SwingUtilities.invokeLater(new Runnable()
+			{
+				@Override
+				public void run()
+				{
+					flush();
+				}
+			});
+		}
+	}
+
+	/**
+	 * Adds an event to be shown in the text area. Only the primitives are kept; the event's line is built by the next flush.
+	 * If more events are waiting than the text area keeps, the oldest waiting event is dropped; one line is left for the suppressed summary.
+	 * @param type The type of the event.
+	 * @param xCoord The x coordinate of the mouse; 0 for key events.
+	 * @param yCoord The y coordinate of the mouse; 0 for key events.
+	 * @param code The mouse button number, the native key code or the number of wheel notches; 0 for mouse moves.
+	 * @throws IllegalArgumentException Throws if the type is null.
+	 */
+	public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code) throws IllegalArgumentException
+	{
+		if (type == null)
+		{
+			throw new IllegalArgumentException("Event type cannot be null.");
+		}
+
+		synchronized (pendingEventsLock)
+		{
+			if (pendingCount == pendingTypes.length)
+			{
+				pendingStartIndex = (pendingStartIndex + 1) % pendingTypes.length;
+				pendingCount--;
+				pendingSuppressedCount++;
+				suppressedCount++;
+			}
+
+			final int eventIndex = (pendingStartIndex + pendingCount) % pendingTypes.length;
+
+			pendingTypes[eventIndex] = type;
+			pendingXCoords[eventIndex] = xCoord;
+			pendingYCoords[eventIndex] = yCoord;
+			pendingCodes[eventIndex] = code;
+			pendingCount++;
+		}
+	}
+
+	/**
+	 * Returns the total number of events that were dropped before they could be shown.
+	 * @return Returns the number of suppressed events.
+	 */
+	public long getSuppressedCount()
+	{
+		return suppressedCount;
+	}
+
+	/**
+	 * Formats the waiting events and appends their lines to the text area in one go, then removes the oldest lines beyond the maximum.
+	 * The events are only copied out while the hook thread is held off; they're formatted after. Must be called on the
+	 * event dispatch thread while the text area is showing.
+	 */
+	protected void flush()
+	{
+		final int flushCount;
+		final int flushSuppressedCount;
+
+		synchronized (pendingEventsLock)
+		{
+			if (pendingCount == 0 && pendingSuppressedCount == 0)
+				return;
+
+			for (int eventNum = 0; eventNum < pendingCount; eventNum++)
+			{
+				final int eventIndex = (pendingStartIndex + eventNum) % pendingTypes.length;
+
+				flushTypes[eventNum] = pendingTypes[eventIndex];
+				flushXCoords[eventNum] = pendingXCoords[eventIndex];
+				flushYCoords[eventNum] = pendingYCoords[eventIndex];
+				flushCodes[eventNum] = pendingCodes[eventIndex];
+			}
+
+			flushCount = pendingCount;
+			flushSuppressedCount = pendingSuppressedCount;
+
+			pendingStartIndex = 0;
+			pendingCount = 0;
+			pendingSuppressedCount = 0;
+		}
+
+		final StringBuilder text = new StringBuilder(flushCount * 32 + 32);
+
+		if (flushSuppressedCount > 0)
+			text.append('\n').append(flushSuppressedCount).append(" events suppressed");
+
+		for (int eventNum = 0; eventNum < flushCount; eventNum++)
+		{
+			appendEventLine(text.append('\n'), flushTypes[eventNum], flushXCoords[eventNum], flushYCoords[eventNum], flushCodes[eventNum]);
+		}
+
+		outputTextArea.append(text.toString());
+
+		final int excessLines = outputTextArea.getLineCount() - maximumLines;
+
+		if (excessLines > 0)
+		{
+			try
+			{
+				outputTextArea.replaceRange(null, 0, outputTextArea.getLineEndOffset(excessLines - 1));
+			}
+			catch (BadLocationException ex)
+			{
+				logger.warning("Could not trim the live event log because ==> " + ex.getMessage());
+			}
+		}
+	}
+
+	/**
+	 * Appends the line that describes an event.
+	 * @param builder The builder the line is appended to.
+	 * @param type The type of the event.
+	 * @param xCoord The x coordinate of the mouse; 0 for key events.
+	 * @param yCoord The y coordinate of the mouse; 0 for key events.
+	 * @param code The mouse button number, the native key code or the number of wheel notches; 0 for mouse moves.
+	 * @return Returns the builder.
+	 */
+	private static StringBuilder appendEventLine(StringBuilder builder, CapturedEventType type, int xCoord, int yCoord, int code)
+	{
+		switch (type)
+		{
+			case MousePress:
+				return builder.append("Mouse Button ").append(code).append(" Pressed @ (").append(xCoord).append(", ").append(yCoord).append(')');
+			case MouseRelease:
+				return builder.append("Mouse Button ").append(code).append(" Released @ (").append(xCoord).append(", ").append(yCoord).append(')');
+			case MouseMove:
+				return builder.append("Mouse Moved: (").append(xCoord).append(", ").append(yCoord).append(')');
+			case MouseWheel:
+				return builder.append("Mouse Wheel Scrolled: ").append(code).append(" @ (").append(xCoord).append(", ").append(yCoord).append(')');
+			case KeyPress:
+				return builder.append("Key Pressed: '").append(NativeKeyEvent.getKeyText(code)).append('\'');
+			case KeyRelease:
+				return builder.append("Key Released: '").append(NativeKeyEvent.getKeyText(code)).append('\'');
+			default:
+				return builder.append(type.getTag());
+		}
+	}
+}
@@ -0,0 +1,41 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * Drops mouse moves that are closer than a minimum number of pixels to the last move that was kept, which removes jitter around a spot.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class MinimumDistanceMoveFilter extends MouseMoveFilter
+{
+	/**
+	 * The square of the minimum distance (in pixels) between two kept moves.
+	 */
+	private final long minimumDistanceSquared;
+
+	/**
+	 * Constructor that accepts the minimum distance between two kept moves.
+	 * @param minimumDistance The minimum distance (in pixels) between two kept moves.
+	 * @throws IllegalArgumentException Throws if the distance isn't positive.
+	 */
+	public MinimumDistanceMoveFilter(int minimumDistance) throws IllegalArgumentException
+	{
+		if (minimumDistance <= 0)
+		{
+			throw new IllegalArgumentException("Minimum distance must be greater than zero.");
+		}
+
+		this.minimumDistanceSquared = (long) minimumDistance * minimumDistance;
+	}
+
+	@Override
+	protected void filterMove(int xCoord, int yCoord, long timeStamp)
+	{
+		final long xDistance = xCoord - getLastEmittedX();
+		final long yDistance = yCoord - getLastEmittedY();
+
+		if (!hasEmittedMove() || xDistance * xDistance + yDistance * yDistance >= minimumDistanceSquared)
+			emitMove(xCoord, yCoord, timeStamp);
+		else
+			holdMove(xCoord, yCoord, timeStamp);
+	}
+}
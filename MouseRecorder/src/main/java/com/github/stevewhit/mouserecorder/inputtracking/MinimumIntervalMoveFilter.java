@@ -0,0 +1,38 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * Drops mouse moves that come sooner than a minimum amount of time after the last move that was kept, which caps the rate of recorded moves.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class MinimumIntervalMoveFilter extends MouseMoveFilter
+{
+	/**
+	 * The minimum amount of time (in nanoseconds) between two kept moves.
+	 */
+	private final long minimumIntervalNanoseconds;
+
+	/**
+	 * Constructor that accepts the minimum amount of time between two kept moves.
+	 * @param minimumIntervalNanoseconds The minimum amount of time (in nanoseconds) between two kept moves.
+	 * @throws IllegalArgumentException Throws if the interval isn't positive.
+	 */
+	public MinimumIntervalMoveFilter(long minimumIntervalNanoseconds) throws IllegalArgumentException
+	{
+		if (minimumIntervalNanoseconds <= 0)
+		{
+			throw new IllegalArgumentException("Minimum interval must be greater than zero.");
+		}
+
+		this.minimumIntervalNanoseconds = minimumIntervalNanoseconds;
+	}
+
+	@Override
+	protected void filterMove(int xCoord, int yCoord, long timeStamp)
+	{
+		if (!hasEmittedMove() || timeStamp - getLastEmittedTime() >= minimumIntervalNanoseconds)
+			emitMove(xCoord, yCoord, timeStamp);
+		else
+			holdMove(xCoord, yCoord, timeStamp);
+	}
+}
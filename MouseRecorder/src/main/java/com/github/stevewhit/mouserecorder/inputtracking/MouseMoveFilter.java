@@ -0,0 +1,234 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * A stage of the capture path that thins out recorded mouse moves before they reach the recording. Every other event is passed on
+ * exactly as it was captured. A move that is held back is passed on before the next non-move event, so the mouse is always where the
+ * user left it when a button or key is pressed during playback.
+ * <p>
+ * Filters are chained by the recorder and are only used by its drain thread, one recording session at a time.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public abstract class MouseMoveFilter implements CapturedEventSink
+{
+	/**
+	 * The sink that the events that pass the filter are added to; null until the filter is connected.
+	 */
+	private CapturedEventSink downstream;
+
+	/**
+	 * The number of events that were added to and passed on by this filter.
+	 */
+	private volatile long eventsIn;
+	private volatile long eventsOut;
+
+	/**
+	 * The last mouse move that was passed on.
+	 */
+	private boolean hasEmittedMove;
+	private int lastEmittedX;
+	private int lastEmittedY;
+	private long lastEmittedTime;
+
+	/**
+	 * The latest mouse move that was held back; it's passed on if no other move replaces it before the next non-move event.
+	 */
+	private boolean hasHeldMove;
+	private int heldX;
+	private int heldY;
+	private long heldTime;
+
+	/**
+	 * Connects the filter to the sink the passed events are added to, and forgets the moves of the previous recording session.
+	 * @param downstream The sink the passed events are added to.
+	 * @throws IllegalArgumentException Throws if the sink is null.
+	 */
+	public void connect(CapturedEventSink downstream) throws IllegalArgumentException
+	{
+		if (downstream == null)
+		{
+			throw new IllegalArgumentException("Downstream sink cannot be null.");
+		}
+
+		this.downstream = downstream;
+
+		hasEmittedMove = false;
+		hasHeldMove = false;
+		reset();
+	}
+
+	/**
+	 * Filters mouse moves and passes every other event on, after any held back moves.
+	 * @throws IllegalStateException Throws if the filter hasn't been connected.
+	 */
+	@Override
+	public final void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp) throws IllegalStateException
+	{
+		if (downstream == null)
+		{
+			throw new IllegalStateException("The mouse move filter hasn't been connected.");
+		}
+
+		eventsIn++;
+
+		if (type == CapturedEventType.MouseMove)
+		{
+			filterMove(xCoord, yCoord, timeStamp);
+		}
+		else
+		{
+			flushMoves();
+			emitEvent(type, xCoord, yCoord, code, color, timeStamp);
+		}
+	}
+
+	/**
+	 * Passes on the moves this filter and the filters after it are holding back. Called when the recording session stops.
+	 */
+	public void flush()
+	{
+		flushMoves();
+
+		if (downstream instanceof MouseMoveFilter)
+			((MouseMoveFilter) downstream).flush();
+	}
+
+	/**
+	 * Returns the number of events that were added to this filter.
+	 * @return Returns the number of events in.
+	 */
+	public long getEventsIn()
+	{
+		return eventsIn;
+	}
+
+	/**
+	 * Returns the number of events that this filter passed on.
+	 * @return Returns the number of events out.
+	 */
+	public long getEventsOut()
+	{
+		return eventsOut;
+	}
+
+	/**
+	 * Returns the number of moves that this filter dropped, including the move it's still holding back until the next event.
+	 * @return Returns the number of events in minus the number of events out.
+	 */
+	public long getDroppedCount()
+	{
+		return eventsIn - eventsOut;
+	}
+
+	/**
+	 * Returns a compact description of the filter's counters.
+	 * <pre>
+	 * Example output ==> MinimumDistanceMoveFilter: 1200 in, 310 out
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + ": " + eventsIn + " in, " + eventsOut + " out";
+	}
+
+	/**
+	 * Decides what happens to a recorded mouse move: pass it on with {@link #emitMove(int, int, long)}, hold it back with
+	 * {@link #holdMove(int, int, long)}, or keep it to be passed on later.
+	 * @param xCoord The x coordinate of the move.
+	 * @param yCoord The y coordinate of the move.
+	 * @param timeStamp The time (in nanoseconds) of the move.
+	 */
+	protected abstract void filterMove(int xCoord, int yCoord, long timeStamp);
+
+	/**
+	 * Forgets the moves kept by the filter. Called when the filter is connected for a new recording session.
+	 */
+	protected void reset() {}
+
+	/**
+	 * Passes on the moves the filter is keeping. Called before each non-move event and when the recording session stops.
+	 * By default the held back move is passed on.
+	 */
+	protected void flushMoves()
+	{
+		if (hasHeldMove)
+			emitMove(heldX, heldY, heldTime);
+	}
+
+	/**
+	 * Passes a mouse move on, dropping the move that was held back before it.
+	 * @param xCoord The x coordinate of the move.
+	 * @param yCoord The y coordinate of the move.
+	 * @param timeStamp The time (in nanoseconds) of the move.
+	 */
+	protected final void emitMove(int xCoord, int yCoord, long timeStamp)
+	{
+		hasHeldMove = false;
+		hasEmittedMove = true;
+		lastEmittedX = xCoord;
+		lastEmittedY = yCoord;
+		lastEmittedTime = timeStamp;
+
+		emitEvent(CapturedEventType.MouseMove, xCoord, yCoord, 0, 0, timeStamp);
+	}
+
+	/**
+	 * Holds a mouse move back in place of the previously held move.
+	 * @param xCoord The x coordinate of the move.
+	 * @param yCoord The y coordinate of the move.
+	 * @param timeStamp The time (in nanoseconds) of the move.
+	 */
+	protected final void holdMove(int xCoord, int yCoord, long timeStamp)
+	{
+		hasHeldMove = true;
+		heldX = xCoord;
+		heldY = yCoord;
+		heldTime = timeStamp;
+	}
+
+	/**
+	 * Determines whether a move has been passed on in this recording session.
+	 * @return Returns true if a move has been passed on; otherwise false.
+	 */
+	protected final boolean hasEmittedMove()
+	{
+		return hasEmittedMove;
+	}
+
+	/**
+	 * Returns the x coordinate of the last move that was passed on.
+	 * @return Returns the last passed x coordinate.
+	 */
+	protected final int getLastEmittedX()
+	{
+		return lastEmittedX;
+	}
+
+	/**
+	 * Returns the y coordinate of the last move that was passed on.
+	 * @return Returns the last passed y coordinate.
+	 */
+	protected final int getLastEmittedY()
+	{
+		return lastEmittedY;
+	}
+
+	/**
+	 * Returns the time (in nanoseconds) of the last move that was passed on.
+	 * @return Returns the last passed time stamp.
+	 */
+	protected final long getLastEmittedTime()
+	{
+		return lastEmittedTime;
+	}
+
+	/**
+	 * Adds an event to the downstream sink.
+	 */
+	private void emitEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp)
+	{
+		eventsOut++;
+		downstream.addEvent(type, xCoord, yCoord, code, color, timeStamp);
+	}
+}
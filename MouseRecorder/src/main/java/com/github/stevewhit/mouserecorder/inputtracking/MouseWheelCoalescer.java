@@ -0,0 +1,161 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * A stage of the capture path that merges bursts of mouse wheel notches into a single wheel event with the summed amount, so fast
+ * scrolling doesn't flood the recording or the playback loop. Notches are merged while they scroll the same way and each one follows the
+ * previous one within the coalescing window. The merged event keeps the location and time of the first notch. Every other event ends the
+ * burst and is passed on after it, so the order of the recording is kept.
+ * <p>
+ * Only used by the recorder's drain thread, one recording session at a time.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class MouseWheelCoalescer implements CapturedEventSink
+{
+	/**
+	 * The default amount of time (in nanoseconds) between two notches of the same burst.
+	 */
+	public static final long DEFAULT_WINDOW_NANOSECONDS = 50000000L;
+
+	/**
+	 * The maximum amount of time (in nanoseconds) between two notches of the same burst.
+	 */
+	private final long windowNanoseconds;
+
+	/**
+	 * The sink that the events are passed on to; null until the coalescer is connected.
+	 */
+	private CapturedEventSink downstream;
+
+	/**
+	 * The number of events that were added to and passed on by this coalescer.
+	 */
+	private volatile long eventsIn;
+	private volatile long eventsOut;
+
+	/**
+	 * The burst of wheel notches that hasn't been passed on yet.
+	 */
+	private boolean hasPendingWheel;
+	private int pendingX;
+	private int pendingY;
+	private int pendingAmount;
+	private long pendingTime;
+	private long lastNotchTime;
+
+	/**
+	 * Constructor that accepts the maximum amount of time between two notches of the same burst.
+	 * @param windowNanoseconds The maximum amount of time (in nanoseconds) between two notches of the same burst.
+	 * @throws IllegalArgumentException Throws if the window is negative.
+	 */
+	public MouseWheelCoalescer(long windowNanoseconds) throws IllegalArgumentException
+	{
+		if (windowNanoseconds < 0)
+		{
+			throw new IllegalArgumentException("Coalescing window cannot be negative.");
+		}
+
+		this.windowNanoseconds = windowNanoseconds;
+	}
+
+	/**
+	 * Connects the coalescer to the sink the events are passed on to, and forgets the burst of the previous recording session.
+	 * @param downstream The sink the events are passed on to.
+	 * @throws IllegalArgumentException Throws if the sink is null.
+	 */
+	public void connect(CapturedEventSink downstream) throws IllegalArgumentException
+	{
+		if (downstream == null)
+		{
+			throw new IllegalArgumentException("Downstream sink cannot be null.");
+		}
+
+		this.downstream = downstream;
+		hasPendingWheel = false;
+	}
+
+	/**
+	 * Merges mouse wheel notches into bursts and passes every other event on, after the pending burst.
+	 * @throws IllegalStateException Throws if the coalescer hasn't been connected.
+	 */
+	@Override
+	public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp) throws IllegalStateException
+	{
+		if (downstream == null)
+		{
+			throw new IllegalStateException("The mouse wheel coalescer hasn't been connected.");
+		}
+
+		eventsIn++;
+
+		if (type == CapturedEventType.MouseWheel)
+		{
+			if (hasPendingWheel && (code < 0) == (pendingAmount < 0) && timeStamp - lastNotchTime <= windowNanoseconds)
+			{
+				pendingAmount += code;
+				lastNotchTime = timeStamp;
+				return;
+			}
+
+			flush();
+
+			hasPendingWheel = true;
+			pendingX = xCoord;
+			pendingY = yCoord;
+			pendingAmount = code;
+			pendingTime = timeStamp;
+			lastNotchTime = timeStamp;
+		}
+		else
+		{
+			flush();
+
+			eventsOut++;
+			downstream.addEvent(type, xCoord, yCoord, code, color, timeStamp);
+		}
+	}
+
+	/**
+	 * Passes on the pending burst of wheel notches. Called when the recording session stops.
+	 */
+	public void flush()
+	{
+		if (!hasPendingWheel)
+			return;
+
+		hasPendingWheel = false;
+
+		eventsOut++;
+		downstream.addEvent(CapturedEventType.MouseWheel, pendingX, pendingY, pendingAmount, 0, pendingTime);
+	}
+
+	/**
+	 * Returns the number of events that were added to this coalescer.
+	 * @return Returns the number of events in.
+	 */
+	public long getEventsIn()
+	{
+		return eventsIn;
+	}
+
+	/**
+	 * Returns the number of events that this coalescer passed on.
+	 * @return Returns the number of events out.
+	 */
+	public long getEventsOut()
+	{
+		return eventsOut;
+	}
+
+	/**
+	 * Returns a compact description of the coalescer's counters.
+	 * <pre>
+	 * Example output ==> MouseWheelCoalescer: 40 in, 12 out
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + ": " + eventsIn + " in, " + eventsOut + " out";
+	}
+}
@@ -0,0 +1,231 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * Maps the time the native hook stamped an event with onto the System.nanoTime() clock, so the recorded time of an event is when the
+ * user acted instead of when its callback ran. The callback runs after the hook's dispatch delay and any pause of the event dispatching
+ * thread, which would otherwise end up in the recorded waits and be replayed.
+ * <p>
+ * The native time is in milliseconds on a clock of its own, so the offset between the two clocks is calibrated from the events
+ * themselves. The delay is never negative, so the smallest difference between an event's callback time and its native time is the
+ * best estimate of the offset. The smallest difference of the current and the previous calibration window is used, so the offset
+ * follows drift between the clocks and old events are forgotten. Events whose native time is missing or too far behind the callback,
+ * such as after the native clock jumped, keep their callback time and restart the calibration.
+ * <p>
+ * Only updated from the hook thread. The counters and the dispatch delay can be read from any thread.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class NativeEventClock
+{
+	/**
+	 * The default length (in nanoseconds) of a calibration window.
+	 */
+	public static final long DEFAULT_WINDOW_NANOSECONDS = 10000000000L;
+
+	/**
+	 * The default longest delay (in nanoseconds) between an event's native time and its callback that is trusted.
+	 */
+	public static final long DEFAULT_MAXIMUM_DELAY_NANOSECONDS = 2000000000L;
+
+	/**
+	 * The number of nanoseconds in a millisecond.
+	 */
+	private static final long NANOSECONDS_PER_MILLISECOND = 1000000L;
+
+	/**
+	 * The length (in nanoseconds) of a calibration window.
+	 */
+	private final long windowNanoseconds;
+
+	/**
+	 * The longest delay (in nanoseconds) between an event's native time and its callback that is trusted.
+	 */
+	private final long maximumDelayNanoseconds;
+
+	/**
+	 * The time between each event's corrected time and its callback, which is the jitter that the correction takes out.
+	 */
+	private final LatencyHistogram dispatchDelay = new LatencyHistogram();
+
+	/**
+	 * Whether the corrected times are returned; if not, the callback times are returned and the correction is only measured.
+	 */
+	private volatile boolean correctionEnabled = true;
+
+	/**
+	 * The callback time the current calibration window started at, and the smallest offsets seen in it and in the previous window.
+	 */
+	private boolean calibrating;
+	private long windowStartTime;
+	private long currentWindowOffset;
+	private long previousWindowOffset;
+
+	/**
+	 * The last corrected time, so the corrected times never go backwards.
+	 */
+	private long lastCorrectedTime = Long.MIN_VALUE;
+
+	/**
+	 * The offset (in nanoseconds) from the native time to the System.nanoTime() clock that was last used.
+	 */
+	private volatile long offsetNanoseconds;
+
+	/**
+	 * The number of events that got a corrected time and the number that kept their callback time.
+	 */
+	private volatile long correctedCount;
+	private volatile long fallbackCount;
+
+	/**
+	 * Default constructor that uses the default calibration window and the default longest trusted delay.
+	 */
+	public NativeEventClock()
+	{
+		this(DEFAULT_WINDOW_NANOSECONDS, DEFAULT_MAXIMUM_DELAY_NANOSECONDS);
+	}
+
+	/**
+	 * Constructor that accepts the length of a calibration window and the longest delay that is trusted.
+	 * @param windowNanoseconds The length (in nanoseconds) of a calibration window.
+	 * @param maximumDelayNanoseconds The longest delay (in nanoseconds) between an event's native time and its callback that is trusted.
+	 * @throws IllegalArgumentException Throws if the window or the delay isn't positive.
+	 */
+	public NativeEventClock(long windowNanoseconds, long maximumDelayNanoseconds) throws IllegalArgumentException
+	{
+		if (windowNanoseconds <= 0 || maximumDelayNanoseconds <= 0)
+		{
+			throw new IllegalArgumentException("Calibration window and maximum delay must be greater than zero.");
+		}
+
+		this.windowNanoseconds = windowNanoseconds;
+		this.maximumDelayNanoseconds = maximumDelayNanoseconds;
+	}
+
+	/**
+	 * Returns the time an event is recorded with: its native time mapped onto the System.nanoTime() clock, or its callback time if the
+	 * native time can't be trusted or the correction is disabled. The offset is calibrated with every event. Only called from the hook thread.
+	 * @param nativeTime The time (in milliseconds) the native hook stamped the event with, from NativeInputEvent.getWhen().
+	 * @param callbackTime The time (in nanoseconds, from System.nanoTime()) the event's callback started.
+	 * @return Returns the time (in nanoseconds) to record the event with. A corrected time is never later than the callback time or earlier than the last corrected time.
+	 */
+	public long toCapturedTime(long nativeTime, long callbackTime)
+	{
+		long correctedTime = callbackTime;
+
+		if (nativeTime > 0)
+		{
+			final long nativeNanoseconds = nativeTime * NANOSECONDS_PER_MILLISECOND;
+			final long offsetSample = callbackTime - nativeNanoseconds;
+
+			if (!calibrating || callbackTime - windowStartTime >= windowNanoseconds)
+			{
+				previousWindowOffset = calibrating ? currentWindowOffset : offsetSample;
+				currentWindowOffset = offsetSample;
+				windowStartTime = callbackTime;
+				calibrating = true;
+			}
+
+			currentWindowOffset = Math.min(currentWindowOffset, offsetSample);
+
+			final long offset = Math.min(currentWindowOffset, previousWindowOffset);
+
+			correctedTime = nativeNanoseconds + offset;
+
+			if (callbackTime - correctedTime > maximumDelayNanoseconds)
+			{
+				// The native clock jumped; calibrate again from this event.
+				previousWindowOffset = offsetSample;
+				currentWindowOffset = offsetSample;
+				windowStartTime = callbackTime;
+
+				correctedTime = callbackTime;
+				offsetNanoseconds = offsetSample;
+				fallbackCount++;
+			}
+			else
+			{
+				offsetNanoseconds = offset;
+				correctedCount++;
+			}
+		}
+		else
+		{
+			fallbackCount++;
+		}
+
+		correctedTime = Math.max(correctedTime, lastCorrectedTime);
+		lastCorrectedTime = correctedTime;
+
+		dispatchDelay.record(callbackTime - correctedTime);
+
+		return correctionEnabled ? correctedTime : callbackTime;
+	}
+
+	/**
+	 * Enables or disables the correction. While it's disabled the callback times are recorded, but the offset is still calibrated and
+	 * the dispatch delay is still measured, so the two can be compared.
+	 * @param correctionEnabled True to record the corrected times; false to record the callback times.
+	 */
+	public void setCorrectionEnabled(boolean correctionEnabled)
+	{
+		this.correctionEnabled = correctionEnabled;
+	}
+
+	/**
+	 * Returns whether the corrected times are recorded.
+	 * @return Returns true if the corrected times are recorded; otherwise false.
+	 */
+	public boolean isCorrectionEnabled()
+	{
+		return correctionEnabled;
+	}
+
+	/**
+	 * Returns the time between each event's corrected time and its callback: the jitter that the correction takes out.
+	 * @return Returns the dispatch delay histogram.
+	 */
+	public LatencyHistogram getDispatchDelay()
+	{
+		return dispatchDelay;
+	}
+
+	/**
+	 * Returns the offset from the native time to the System.nanoTime() clock that was last used.
+	 * @return Returns the offset (in nanoseconds).
+	 */
+	public long getOffsetNanoseconds()
+	{
+		return offsetNanoseconds;
+	}
+
+	/**
+	 * Returns the number of events that got a corrected time.
+	 * @return Returns the number of corrected events.
+	 */
+	public long getCorrectedCount()
+	{
+		return correctedCount;
+	}
+
+	/**
+	 * Returns the number of events that kept their callback time because their native time was missing or couldn't be trusted.
+	 * @return Returns the number of events that fell back to the callback time.
+	 */
+	public long getFallbackCount()
+	{
+		return fallbackCount;
+	}
+
+	/**
+	 * Returns a compact description of the clock's counters.
+	 * <pre>
+	 * Example output ==> NativeEventClock: 1200 corrected, 2 fallback, dispatch p99 2048us
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + ": " + correctedCount + " corrected, " + fallbackCount + " fallback, dispatch p99 "
+				+ (dispatchDelay.getPercentileNanoseconds(99) / 1000) + "us";
+	}
+}
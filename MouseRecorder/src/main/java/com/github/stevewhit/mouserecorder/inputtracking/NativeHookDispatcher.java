@@ -0,0 +1,362 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.jnativehook.GlobalScreen;
+import org.jnativehook.NativeHookException;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.keyboard.NativeKeyListener;
+import org.jnativehook.mouse.NativeMouseEvent;
+import org.jnativehook.mouse.NativeMouseInputListener;
+import org.jnativehook.mouse.NativeMouseWheelEvent;
+import org.jnativehook.mouse.NativeMouseWheelListener;
+
+/**
+ * Owns the native hook: registers it once, is the only listener added to the global screen, and fans every native event out to the
+ * listeners that are attached to it. Recorders and shortcut listeners attach and detach themselves here instead of registering the
+ * hook or touching the global screen, so starting a recording doesn't wait for the hook and no events are lost while it starts.
+ * <p>
+ * The listeners are kept in copy-on-write lists, so events are dispatched without locking and listeners can be attached or detached
+ * from any thread, including from inside a listener. The events are dispatched on JNativeHook's own dispatch thread, so a listener
+ * that touches Swing components passes the event on to the event dispatching thread itself.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class NativeHookDispatcher implements NativeKeyListener, NativeMouseInputListener, NativeMouseWheelListener
+{
+	/**
+	 * The logger of the GlobalScreen, which the GUI also reports its issues to.
+	 */
+	private static final Logger logger = Logger.getLogger(GlobalScreen.class.getPackage().getName());
+
+	/**
+	 * The dispatcher that the application's recorders and shortcut listeners share.
+	 */
+	private static final NativeHookDispatcher SHARED_DISPATCHER = new NativeHookDispatcher();
+
+	/**
+	 * The listeners that the native events are passed on to.
+	 */
+	private final CopyOnWriteArrayList<NativeKeyListener> keyListeners = new CopyOnWriteArrayList<NativeKeyListener>();
+	private final CopyOnWriteArrayList<NativeMouseInputListener> mouseListeners = new CopyOnWriteArrayList<NativeMouseInputListener>();
+	private final CopyOnWriteArrayList<NativeMouseWheelListener> mouseWheelListeners = new CopyOnWriteArrayList<NativeMouseWheelListener>();
+
+	/**
+	 * Whether the native hook has been registered by this dispatcher.
+	 */
+	private boolean started;
+
+	/**
+	 * Constructor for a dispatcher that isn't shared. The application uses {@link #getSharedDispatcher()}.
+	 */
+	protected NativeHookDispatcher() {}
+
+	/**
+	 * Returns the dispatcher that the application's recorders and shortcut listeners share.
+	 * @return Returns the shared dispatcher.
+	 */
+	public static NativeHookDispatcher getSharedDispatcher()
+	{
+		return SHARED_DISPATCHER;
+	}
+
+	/**
+	 * Registers the native hook and starts passing the native events on to the attached listeners. The events are dispatched on
+	 * JNativeHook's default dispatch thread, so the recorder's trackers don't wait on the event dispatching thread. Does nothing if the
+	 * hook is already registered.
+	 * @throws IllegalStateException Throws if there is an issue registering the native hook.
+	 */
+	public synchronized void start() throws IllegalStateException
+	{
+		if (started)
+			return;
+
+		// Disable the parent handlers of the GlobalScreen's logger.
+		logger.setUseParentHandlers(false);
+		logger.setLevel(Level.ALL);
+
+		/* Note: JNativeHook does *NOT* operate on the event dispatching thread.
+		 * The default dispatcher is kept so that capturing never waits on Swing;
+		 * listeners that touch Swing components, such as the shortcut listener,
+		 * pass their events on to the event dispatching thread themselves.
+		 */
+		try
+		{
+			GlobalScreen.registerNativeHook();
+		}
+		catch (NativeHookException ex)
+		{
+			logger.warning("There was a problem registering the native hook: " + ex.getMessage());
+
+			throw new IllegalStateException("There was a problem registering the native hook. Cannot proceed to listen.");
+		}
+
+		GlobalScreen.addNativeKeyListener(this);
+		GlobalScreen.addNativeMouseListener(this);
+		GlobalScreen.addNativeMouseMotionListener(this);
+		GlobalScreen.addNativeMouseWheelListener(this);
+
+		started = true;
+	}
+
+	/**
+	 * Stops passing on the native events and unregisters the native hook. Called when the application exits.
+	 */
+	public synchronized void stop()
+	{
+		if (!started)
+			return;
+
+		started = false;
+
+		GlobalScreen.removeNativeKeyListener(this);
+		GlobalScreen.removeNativeMouseListener(this);
+		GlobalScreen.removeNativeMouseMotionListener(this);
+		GlobalScreen.removeNativeMouseWheelListener(this);
+
+		try
+		{
+			GlobalScreen.unregisterNativeHook();
+		}
+		catch (NativeHookException ex)
+		{
+			logger.warning("There was a problem unregistering the native hook: " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Returns whether the native hook has been registered by this dispatcher.
+	 * @return Returns true if the native events are being passed on; otherwise false.
+	 */
+	public synchronized boolean isStarted()
+	{
+		return started;
+	}
+
+	/**
+	 * Attaches a listener that the native key events are passed on to. Does nothing if it's already attached.
+	 * @param listener The key listener.
+	 * @throws IllegalArgumentException Throws if the listener is null.
+	 */
+	public void addKeyListener(NativeKeyListener listener) throws IllegalArgumentException
+	{
+		if (listener == null)
+		{
+			throw new IllegalArgumentException("Key listener cannot be null.");
+		}
+
+		keyListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Detaches a key listener. Does nothing if it isn't attached.
+	 * @param listener The key listener.
+	 */
+	public void removeKeyListener(NativeKeyListener listener)
+	{
+		keyListeners.remove(listener);
+	}
+
+	/**
+	 * Attaches a listener that the native mouse button and motion events are passed on to. Does nothing if it's already attached.
+	 * @param listener The mouse listener.
+	 * @throws IllegalArgumentException Throws if the listener is null.
+	 */
+	public void addMouseListener(NativeMouseInputListener listener) throws IllegalArgumentException
+	{
+		if (listener == null)
+		{
+			throw new IllegalArgumentException("Mouse listener cannot be null.");
+		}
+
+		mouseListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Detaches a mouse listener. Does nothing if it isn't attached.
+	 * @param listener The mouse listener.
+	 */
+	public void removeMouseListener(NativeMouseInputListener listener)
+	{
+		mouseListeners.remove(listener);
+	}
+
+	/**
+	 * Attaches a listener that the native mouse wheel events are passed on to. Does nothing if it's already attached.
+	 * @param listener The mouse wheel listener.
+	 * @throws IllegalArgumentException Throws if the listener is null.
+	 */
+	public void addMouseWheelListener(NativeMouseWheelListener listener) throws IllegalArgumentException
+	{
+		if (listener == null)
+		{
+			throw new IllegalArgumentException("Mouse wheel listener cannot be null.");
+		}
+
+		mouseWheelListeners.addIfAbsent(listener);
+	}
+
+	/**
+	 * Detaches a mouse wheel listener. Does nothing if it isn't attached.
+	 * @param listener The mouse wheel listener.
+	 */
+	public void removeMouseWheelListener(NativeMouseWheelListener listener)
+	{
+		mouseWheelListeners.remove(listener);
+	}
+
+	@Override
+	public void nativeKeyPressed(NativeKeyEvent e)
+	{
+		for (NativeKeyListener listener : keyListeners)
+		{
+			try
+			{
+				listener.nativeKeyPressed(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeKeyReleased(NativeKeyEvent e)
+	{
+		for (NativeKeyListener listener : keyListeners)
+		{
+			try
+			{
+				listener.nativeKeyReleased(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeKeyTyped(NativeKeyEvent e)
+	{
+		for (NativeKeyListener listener : keyListeners)
+		{
+			try
+			{
+				listener.nativeKeyTyped(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMouseClicked(NativeMouseEvent e)
+	{
+		for (NativeMouseInputListener listener : mouseListeners)
+		{
+			try
+			{
+				listener.nativeMouseClicked(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMousePressed(NativeMouseEvent e)
+	{
+		for (NativeMouseInputListener listener : mouseListeners)
+		{
+			try
+			{
+				listener.nativeMousePressed(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMouseReleased(NativeMouseEvent e)
+	{
+		for (NativeMouseInputListener listener : mouseListeners)
+		{
+			try
+			{
+				listener.nativeMouseReleased(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMouseMoved(NativeMouseEvent e)
+	{
+		for (NativeMouseInputListener listener : mouseListeners)
+		{
+			try
+			{
+				listener.nativeMouseMoved(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMouseDragged(NativeMouseEvent e)
+	{
+		for (NativeMouseInputListener listener : mouseListeners)
+		{
+			try
+			{
+				listener.nativeMouseDragged(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	@Override
+	public void nativeMouseWheelMoved(NativeMouseWheelEvent e)
+	{
+		for (NativeMouseWheelListener listener : mouseWheelListeners)
+		{
+			try
+			{
+				listener.nativeMouseWheelMoved(e);
+			}
+			catch (RuntimeException ex)
+			{
+				reportListenerFailure(listener, ex);
+			}
+		}
+	}
+
+	/**
+	 * Reports a listener that failed while handling an event to the logger, so the other listeners still get the event.
+	 * @param listener The listener that failed.
+	 * @param ex The exception it threw.
+	 */
+	private static void reportListenerFailure(Object listener, RuntimeException ex)
+	{
+		logger.warning("A native event listener (" + listener.getClass().getSimpleName() + ") failed: " + ex.getMessage());
+	}
+}
@@ -0,0 +1,183 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * Simplifies the path of recorded mouse moves with the Ramer-Douglas-Peucker algorithm, keeping only the moves that are needed for the
+ * path to stay within a tolerance of the recorded one. The path is simplified in a sliding window of moves; the last move of a
+ * window starts the next one, so the windows join up without repeating a move.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class PathSimplificationMoveFilter extends MouseMoveFilter
+{
+	/**
+	 * The maximum distance (in pixels) a dropped move may be from the simplified path.
+	 */
+	private final double tolerance;
+
+	/**
+	 * The moves of the current window.
+	 */
+	private final int[] windowXCoords;
+	private final int[] windowYCoords;
+	private final long[] windowTimeStamps;
+	private int windowSize;
+
+	/**
+	 * Work space for simplifying a window: the moves that are kept and the ranges that are still to be checked.
+	 */
+	private final boolean[] keptMoves;
+	private final int[] pendingRanges;
+
+	/**
+	 * Constructor that accepts the tolerance of the simplified path and the number of moves simplified at a time.
+	 * @param tolerance The maximum distance (in pixels) a dropped move may be from the simplified path.
+	 * @param windowCapacity The number of moves simplified at a time.
+	 * @throws IllegalArgumentException Throws if the tolerance is negative or the window holds fewer than three moves.
+	 */
+	public PathSimplificationMoveFilter(double tolerance, int windowCapacity) throws IllegalArgumentException
+	{
+		if (!(tolerance >= 0))
+		{
+			throw new IllegalArgumentException("Tolerance cannot be negative.");
+		}
+
+		if (windowCapacity < 3)
+		{
+			throw new IllegalArgumentException("Window must hold at least three moves.");
+		}
+
+		this.tolerance = tolerance;
+		this.windowXCoords = new int[windowCapacity];
+		this.windowYCoords = new int[windowCapacity];
+		this.windowTimeStamps = new long[windowCapacity];
+		this.keptMoves = new boolean[windowCapacity];
+		this.pendingRanges = new int[windowCapacity * 2];
+	}
+
+	@Override
+	protected void filterMove(int xCoord, int yCoord, long timeStamp)
+	{
+		windowXCoords[windowSize] = xCoord;
+		windowYCoords[windowSize] = yCoord;
+		windowTimeStamps[windowSize] = timeStamp;
+		windowSize++;
+
+		if (windowSize == windowXCoords.length)
+		{
+			final int lastMove = windowSize - 1;
+			simplifyWindow(lastMove);
+
+			windowXCoords[0] = windowXCoords[lastMove];
+			windowYCoords[0] = windowYCoords[lastMove];
+			windowTimeStamps[0] = windowTimeStamps[lastMove];
+			windowSize = 1;
+		}
+	}
+
+	@Override
+	protected void flushMoves()
+	{
+		if (windowSize > 0)
+		{
+			simplifyWindow(windowSize);
+			windowSize = 0;
+		}
+	}
+
+	@Override
+	protected void reset()
+	{
+		windowSize = 0;
+	}
+
+	/**
+	 * Simplifies the moves of the window and passes on the kept moves before the given index.
+	 * @param emitLimit The index of the first move that isn't passed on.
+	 */
+	private void simplifyWindow(int emitLimit)
+	{
+		final int lastMove = windowSize - 1;
+
+		for (int moveNum = 0; moveNum <= lastMove; moveNum++)
+		{
+			keptMoves[moveNum] = moveNum == 0 || moveNum == lastMove;
+		}
+
+		int pendingCount = 0;
+
+		if (lastMove > 1)
+		{
+			pendingRanges[pendingCount++] = 0;
+			pendingRanges[pendingCount++] = lastMove;
+		}
+
+		while (pendingCount > 0)
+		{
+			final int rangeEnd = pendingRanges[--pendingCount];
+			final int rangeStart = pendingRanges[--pendingCount];
+
+			int farthestMove = -1;
+			double farthestDistance = tolerance;
+
+			for (int moveNum = rangeStart + 1; moveNum < rangeEnd; moveNum++)
+			{
+				final double distance = getDistanceFromSegment(moveNum, rangeStart, rangeEnd);
+
+				if (distance > farthestDistance)
+				{
+					farthestDistance = distance;
+					farthestMove = moveNum;
+				}
+			}
+
+			if (farthestMove >= 0)
+			{
+				keptMoves[farthestMove] = true;
+
+				if (farthestMove - rangeStart > 1)
+				{
+					pendingRanges[pendingCount++] = rangeStart;
+					pendingRanges[pendingCount++] = farthestMove;
+				}
+
+				if (rangeEnd - farthestMove > 1)
+				{
+					pendingRanges[pendingCount++] = farthestMove;
+					pendingRanges[pendingCount++] = rangeEnd;
+				}
+			}
+		}
+
+		for (int moveNum = 0; moveNum < emitLimit; moveNum++)
+		{
+			if (keptMoves[moveNum])
+				emitMove(windowXCoords[moveNum], windowYCoords[moveNum], windowTimeStamps[moveNum]);
+		}
+	}
+
+	/**
+	 * Returns the distance (in pixels) of a move from the line segment between two other moves of the window.
+	 * @param moveNum The index of the move.
+	 * @param segmentStart The index of the move the segment starts at.
+	 * @param segmentEnd The index of the move the segment ends at.
+	 * @return Returns the distance of the move from the segment.
+	 */
+	private double getDistanceFromSegment(int moveNum, int segmentStart, int segmentEnd)
+	{
+		final double startX = windowXCoords[segmentStart];
+		final double startY = windowYCoords[segmentStart];
+		final double segmentX = windowXCoords[segmentEnd] - startX;
+		final double segmentY = windowYCoords[segmentEnd] - startY;
+		final double moveX = windowXCoords[moveNum] - startX;
+		final double moveY = windowYCoords[moveNum] - startY;
+
+		final double segmentLengthSquared = segmentX * segmentX + segmentY * segmentY;
+
+		if (segmentLengthSquared == 0)
+			return Math.hypot(moveX, moveY);
+
+		final double projection = Math.max(0, Math.min(1, (moveX * segmentX + moveY * segmentY) / segmentLengthSquared));
+
+		return Math.hypot(moveX - projection * segmentX, moveY - projection * segmentY);
+	}
+}
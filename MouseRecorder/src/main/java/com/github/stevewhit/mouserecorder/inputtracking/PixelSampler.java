@@ -0,0 +1,383 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.awt.AWTException;
+import java.awt.Robot;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Samples the screen color under recorded mouse button events on its own worker thread, so the native hook thread only hands over the
+ * coordinate instead of waiting for the screen. The worker owns a single Robot that is created once and reused for every sample.
+ * <p>
+ * Exactly one thread may request samples (the thread that dispatches the native events) and exactly one thread may take the sampled
+ * colors, in the order they were requested. A sample that isn't taken within the deadline after its event is reported as missed, because
+ * the screen may have already changed by then.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class PixelSampler
+{
+	/**
+	 * The default number of samples that can be waiting to be taken.
+	 */
+	public static final int DEFAULT_CAPACITY = 256;
+
+	/**
+	 * The default amount of time (in nanoseconds) after an event that its sample has to be taken within.
+	 */
+	public static final long DEFAULT_DEADLINE_NANOSECONDS = 50000000;
+
+	/**
+	 * The amount of time (in nanoseconds) the worker waits when there aren't any samples to take.
+	 */
+	private static final long IDLE_INTERVAL_NANOSECONDS = 10000000;
+
+	/**
+	 * The amount of time (in nanoseconds) that taking a sample waits between checks for its color.
+	 */
+	private static final long TAKE_INTERVAL_NANOSECONDS = 200000;
+
+	/**
+	 * The color the worker stores for a sample that it couldn't take within the deadline.
+	 */
+	private static final int MISSED_COLOR = -2;
+
+	/**
+	 * The requested samples, one array per field.
+	 */
+	private final int[] xCoords;
+	private final int[] yCoords;
+	private final long[] requestTimes;
+	private final int[] colors;
+
+	/**
+	 * The mask that turns a sequence number into a slot index (capacity - 1).
+	 */
+	private final int indexMask;
+
+	/**
+	 * The amount of time (in nanoseconds) after an event that its sample has to be taken within.
+	 */
+	private final long deadlineNanoseconds;
+
+	/**
+	 * The sequence number of the next requested sample. Only written by the requesting thread.
+	 */
+	private final AtomicLong requestSequence = new AtomicLong();
+
+	/**
+	 * The sequence number of the next sample the worker takes. Only written by the worker.
+	 */
+	private final AtomicLong sampledSequence = new AtomicLong();
+
+	/**
+	 * The sequence number of the next sampled color that is taken. Only written by the taking thread.
+	 */
+	private final AtomicLong takenSequence = new AtomicLong();
+
+	/**
+	 * The last sequence number seen by the requesting thread that frees a slot, so it only reads the other counters when the slots look full.
+	 */
+	private long cachedFreeSequence;
+
+	/**
+	 * The latencies (in nanoseconds) from each event to the moment its color was sampled.
+	 */
+	private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+	/**
+	 * The number of samples that missed their deadline. Only written by the taking thread.
+	 */
+	private volatile long missedCount;
+
+	/**
+	 * The number of samples that couldn't be requested because the sampler was stopped or full. Only written by the requesting thread.
+	 */
+	private volatile long rejectedCount;
+
+	/**
+	 * The robot used to read the screen; null if it hasn't been created or there isn't a screen.
+	 */
+	private Robot screenRobot;
+
+	/**
+	 * Whether the robot has been created.
+	 */
+	private boolean robotCreated;
+
+	/**
+	 * The worker thread; null if the sampler isn't running.
+	 */
+	private volatile Thread samplerThread;
+
+	/**
+	 * Whether the worker should keep taking samples.
+	 */
+	private volatile boolean sampling;
+
+	/**
+	 * Default constructor.
+	 */
+	public PixelSampler()
+	{
+		this(DEFAULT_CAPACITY, DEFAULT_DEADLINE_NANOSECONDS);
+	}
+
+	/**
+	 * Constructor that accepts the number of samples that can be waiting and the deadline of each sample.
+	 * @param capacity The number of samples that can be waiting to be taken. Must be a power of two.
+	 * @param deadlineNanoseconds The amount of time (in nanoseconds) after an event that its sample has to be taken within.
+	 * @throws IllegalArgumentException Throws if the capacity isn't a positive power of two or if the deadline isn't positive.
+	 */
+	public PixelSampler(int capacity, long deadlineNanoseconds) throws IllegalArgumentException
+	{
+		if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+		{
+			throw new IllegalArgumentException("Capacity must be a positive power of two.");
+		}
+
+		if (deadlineNanoseconds <= 0)
+		{
+			throw new IllegalArgumentException("Deadline must be greater than zero.");
+		}
+
+		this.xCoords = new int[capacity];
+		this.yCoords = new int[capacity];
+		this.requestTimes = new long[capacity];
+		this.colors = new int[capacity];
+		this.indexMask = capacity - 1;
+		this.deadlineNanoseconds = deadlineNanoseconds;
+	}
+
+	/**
+	 * Starts the worker thread. The robot is created the first time the sampler is started.
+	 */
+	public synchronized void start()
+	{
+		if (samplerThread != null)
+			return;
+
+		if (!robotCreated)
+		{
+			robotCreated = true;
+
+			try
+			{
+				screenRobot = new Robot();
+			}
+			catch (AWTException | RuntimeException ex)
+			{
+				System.err.println("Pixel colors won't be sampled because ==> " + ex.getMessage());
+			}
+		}
+
+		sampling = true;
+
+		samplerThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				while (sampling)
+				{
+					if (!sampleNext())
+						LockSupport.parkNanos(IDLE_INTERVAL_NANOSECONDS);
+				}
+			}
+		}, "PixelSampler");
+
+		samplerThread.setDaemon(true);
+		samplerThread.start();
+	}
+
+	/**
+	 * Stops the worker thread and waits for it to finish. Samples that are still waiting are reported as missed when they are taken.
+	 */
+	public synchronized void stop()
+	{
+		if (samplerThread == null)
+			return;
+
+		sampling = false;
+		LockSupport.unpark(samplerThread);
+
+		try
+		{
+			samplerThread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			Thread.currentThread().interrupt();
+		}
+
+		samplerThread = null;
+	}
+
+	/**
+	 * Requests the color under the mouse for an event. Must only be called by the requesting thread. A color must be taken with
+	 * {@link #takeSampledColor()} for every accepted request.
+	 * @param xCoord The x coordinate of the event.
+	 * @param yCoord The y coordinate of the event.
+	 * @param requestTime The time (in nanoseconds, from System.nanoTime()) the event was captured.
+	 * @return Returns true if the sample was requested; false if the sampler isn't running or too many samples are waiting.
+	 */
+	public boolean requestSample(int xCoord, int yCoord, long requestTime)
+	{
+		final Thread worker = samplerThread;
+		final long sequence = requestSequence.get();
+
+		if (!sampling || worker == null)
+		{
+			rejectedCount++;
+			return false;
+		}
+
+		if (sequence - cachedFreeSequence >= colors.length)
+		{
+			cachedFreeSequence = Math.min(sampledSequence.get(), takenSequence.get());
+
+			if (sequence - cachedFreeSequence >= colors.length)
+			{
+				rejectedCount++;
+				return false;
+			}
+		}
+
+		final int slotIndex = (int) sequence & indexMask;
+
+		xCoords[slotIndex] = xCoord;
+		yCoords[slotIndex] = yCoord;
+		requestTimes[slotIndex] = requestTime;
+
+		// Publish the request to the worker and wake it up.
+		requestSequence.lazySet(sequence + 1);
+		LockSupport.unpark(worker);
+
+		return true;
+	}
+
+	/**
+	 * Takes the color of the oldest requested sample, waiting until it has been sampled or its deadline has passed. Must only be called by the taking thread.
+	 * @return Returns the RGB color of the sample, or {@link CapturedEventType#INVALID_COLOR} if the sample missed its deadline or the screen couldn't be read.
+	 * @throws IllegalStateException Throws if every requested color has already been taken.
+	 */
+	public int takeSampledColor() throws IllegalStateException
+	{
+		final long sequence = takenSequence.get();
+
+		if (sequence >= requestSequence.get())
+		{
+			throw new IllegalStateException("There aren't any requested samples to take.");
+		}
+
+		final int slotIndex = (int) sequence & indexMask;
+		final long deadlineTime = requestTimes[slotIndex] + deadlineNanoseconds;
+
+		while (sampledSequence.get() <= sequence)
+		{
+			final long remainingNanoseconds = deadlineTime - System.nanoTime();
+
+			if (remainingNanoseconds <= 0)
+				break;
+
+			LockSupport.parkNanos(Math.min(remainingNanoseconds, TAKE_INTERVAL_NANOSECONDS));
+		}
+
+		int color = sampledSequence.get() > sequence ? colors[slotIndex] : MISSED_COLOR;
+
+		if (color == MISSED_COLOR)
+		{
+			missedCount++;
+			color = CapturedEventType.INVALID_COLOR;
+		}
+
+		// Hand the slot back to the requesting thread.
+		takenSequence.lazySet(sequence + 1);
+
+		return color;
+	}
+
+	/**
+	 * Returns the latencies from each event to the moment its color was sampled.
+	 * @return Returns the sample latency histogram.
+	 */
+	public LatencyHistogram getLatencyHistogram()
+	{
+		return latencyHistogram;
+	}
+
+	/**
+	 * Returns the number of samples that missed their deadline.
+	 * @return Returns the number of missed samples.
+	 */
+	public long getMissedCount()
+	{
+		return missedCount;
+	}
+
+	/**
+	 * Returns the number of samples that couldn't be requested because the sampler was stopped or full.
+	 * @return Returns the number of rejected samples.
+	 */
+	public long getRejectedCount()
+	{
+		return rejectedCount;
+	}
+
+	/**
+	 * Reads the color of a pixel on the screen. Called by the worker thread.
+	 * @param xCoord The x coordinate of the pixel.
+	 * @param yCoord The y coordinate of the pixel.
+	 * @return Returns the RGB color of the pixel, or {@link CapturedEventType#INVALID_COLOR} if the screen can't be read.
+	 */
+	protected int samplePixelColor(int xCoord, int yCoord)
+	{
+		if (screenRobot == null)
+			return CapturedEventType.INVALID_COLOR;
+
+		try
+		{
+			return screenRobot.getPixelColor(xCoord, yCoord).getRGB() & 0x00FFFFFF;
+		}
+		catch (RuntimeException ex)
+		{
+			return CapturedEventType.INVALID_COLOR;
+		}
+	}
+
+	/**
+	 * Samples the oldest requested sample that hasn't been sampled yet. Called by the worker thread.
+	 * @return Returns true if a sample was taken; false if there weren't any waiting.
+	 */
+	private boolean sampleNext()
+	{
+		final long sequence = sampledSequence.get();
+
+		if (sequence >= requestSequence.get())
+			return false;
+
+		final int slotIndex = (int) sequence & indexMask;
+		final long requestTime = requestTimes[slotIndex];
+
+		// Don't bother reading the screen for a sample that is already too old to be taken.
+		int color = MISSED_COLOR;
+
+		if (System.nanoTime() - requestTime <= deadlineNanoseconds)
+		{
+			color = samplePixelColor(xCoords[slotIndex], yCoords[slotIndex]);
+
+			final long latency = System.nanoTime() - requestTime;
+			latencyHistogram.record(latency);
+
+			if (latency > deadlineNanoseconds)
+				color = MISSED_COLOR;
+		}
+
+		colors[slotIndex] = color;
+
+		// Publish the color to the taking thread.
+		sampledSequence.lazySet(sequence + 1);
+
+		return true;
+	}
+}
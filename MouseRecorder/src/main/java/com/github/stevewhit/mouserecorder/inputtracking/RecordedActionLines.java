@@ -0,0 +1,16 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+/**
+ * A read-only view of the recording lines of captured events, in the order the events were captured.
+ * Lines are only added through the {@link CapturedEventSink} behind the view; callers that need a queue of the lines build a copy of it.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public interface RecordedActionLines extends Iterable<String>
+{
+	/**
+	 * Returns the number of recording lines.
+	 * @return Returns the number of recording lines in the view.
+	 */
+	public int size();
+}
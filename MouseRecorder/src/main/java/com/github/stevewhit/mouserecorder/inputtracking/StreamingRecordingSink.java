@@ -0,0 +1,248 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import com.github.stevewhit.mouserecorder.datahandling.TextRecordingWriter;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+
+/**
+ * The end of the capture path when a recording is streamed to a file. Each event is formatted into the writer's fixed buffer, which is
+ * written to the file whenever it fills up, so the recording never builds up in memory however long the session runs. The file is
+ * written in the text recording format and only replaces the output location when the stream is finished, which makes stopping the
+ * recording the save.
+ * <p>
+ * Only used by the recorder's drain thread, one recording session at a time. The counters can be read from any thread.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class StreamingRecordingSink implements CapturedEventSink, Closeable
+{
+	/**
+	 * The default size (in bytes) of the buffer that the events are collected in before they're written to the file.
+	 */
+	public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+	/**
+	 * The system path of the file that the recording is streamed to.
+	 */
+	private final String outputLocation;
+
+	/**
+	 * The writer that formats the events into its buffer and writes them to a temporary file next to the output location.
+	 */
+	private final TextRecordingWriter recordingWriter;
+
+	/**
+	 * The builder reused for each line.
+	 */
+	private final StringBuilder lineBuilder = new StringBuilder(64);
+
+	/**
+	 * The number of events that were written and the number that were lost because the stream failed.
+	 */
+	private volatile long writtenCount;
+	private volatile long failedCount;
+
+	/**
+	 * The first issue writing or finishing the stream; null if there hasn't been one.
+	 */
+	private volatile IOException failure;
+
+	/**
+	 * Whether the stream has been finished or closed.
+	 */
+	private volatile boolean finished;
+
+	/**
+	 * Constructor that opens the stream with the default buffer size.
+	 * @param outputLocation The system path of the file that the recording is streamed to (*.txt).
+	 * @param sourceDimensions The dimensions of the screen the recording is made on; null to leave out the SCREEN line.
+	 * @throws IllegalArgumentException Throws if the output location is null or empty, or if the dimensions aren't positive.
+	 * @throws IOException Throws if the temporary file can't be created or written to.
+	 */
+	public StreamingRecordingSink(String outputLocation, Dimension sourceDimensions) throws IllegalArgumentException, IOException
+	{
+		this(outputLocation, sourceDimensions, DEFAULT_BUFFER_SIZE);
+	}
+
+	/**
+	 * Constructor that opens the stream and writes the SCREEN line.
+	 * @param outputLocation The system path of the file that the recording is streamed to (*.txt).
+	 * @param sourceDimensions The dimensions of the screen the recording is made on; null to leave out the SCREEN line.
+	 * @param bufferSize The size (in bytes) of the buffer that the events are collected in before they're written to the file.
+	 * @throws IllegalArgumentException Throws if the output location is null or empty, if the dimensions aren't positive or if the buffer is too small.
+	 * @throws IOException Throws if the temporary file can't be created or written to.
+	 */
+	public StreamingRecordingSink(String outputLocation, Dimension sourceDimensions, int bufferSize) throws IllegalArgumentException, IOException
+	{
+		this.recordingWriter = new TextRecordingWriter(outputLocation, bufferSize);
+		this.outputLocation = outputLocation;
+
+		if (sourceDimensions != null)
+		{
+			try
+			{
+				recordingWriter.writeSourceDimensions(sourceDimensions);
+			}
+			catch (IllegalArgumentException | IOException ex)
+			{
+				recordingWriter.close();
+				throw ex;
+			}
+		}
+	}
+
+	/**
+	 * Writes the recording line of the event. Once writing has failed, the remaining events are only counted as failed.
+	 */
+	@Override
+	public void addEvent(CapturedEventType type, int xCoord, int yCoord, int code, int color, long timeStamp)
+	{
+		if (failure != null || finished)
+		{
+			failedCount++;
+			return;
+		}
+
+		lineBuilder.setLength(0);
+
+		try
+		{
+			recordingWriter.writeLine(type.appendLine(lineBuilder, xCoord, yCoord, code, color, timeStamp));
+			writtenCount++;
+		}
+		catch (IOException ex)
+		{
+			failure = ex;
+			failedCount++;
+
+			System.err.println("Could not stream the recording to " + outputLocation + " because ==> " + ex.getMessage());
+		}
+	}
+
+	/**
+	 * Writes the remaining buffered events and moves the finished recording over the output location, without any click zones.
+	 * @throws IOException Throws if writing failed earlier or if the recording can't be written or moved.
+	 * @see #finish(List)
+	 */
+	public void finish() throws IOException
+	{
+		finish(null);
+	}
+
+	/**
+	 * Writes the click zones after the remaining buffered events and moves the finished recording over the output location. The click
+	 * zones are only known once the recording stops, so they follow the actions. If writing failed earlier, the partial recording is
+	 * thrown away instead and the output location is left untouched. Does nothing if the stream is already finished.
+	 * @param clickZones The click zones of the recording; null or empty if there aren't any.
+	 * @throws IllegalArgumentException Throws if one of the click zones is null.
+	 * @throws IOException Throws if writing failed earlier or if the recording can't be written or moved.
+	 */
+	public void finish(List<ClickZoneDetails> clickZones) throws IllegalArgumentException, IOException
+	{
+		if (finished)
+			return;
+
+		finished = true;
+
+		if (failure != null)
+		{
+			recordingWriter.close();
+			throw failure;
+		}
+
+		try
+		{
+			if (clickZones != null)
+			{
+				for (ClickZoneDetails clickZone : clickZones)
+				{
+					recordingWriter.writeClickZone(clickZone);
+				}
+			}
+
+			recordingWriter.commit();
+		}
+		catch (IllegalArgumentException ex)
+		{
+			failure = new IOException("Cannot write the click zones because ==> " + ex.getMessage(), ex);
+			recordingWriter.close();
+			throw ex;
+		}
+		catch (IOException ex)
+		{
+			failure = ex;
+			throw ex;
+		}
+	}
+
+	/**
+	 * Closes the stream. If it wasn't finished, the partial recording is thrown away and the output location is left untouched.
+	 * @throws IOException Throws if there is an issue closing the temporary file.
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		finished = true;
+		recordingWriter.close();
+	}
+
+	/**
+	 * Returns the system path of the file that the recording is streamed to.
+	 * @return Returns the output location.
+	 */
+	public String getOutputLocation()
+	{
+		return outputLocation;
+	}
+
+	/**
+	 * Returns the number of events that were written to the stream.
+	 * @return Returns the number of written events.
+	 */
+	public long getWrittenCount()
+	{
+		return writtenCount;
+	}
+
+	/**
+	 * Returns the number of events that were lost because writing the stream failed.
+	 * @return Returns the number of failed events.
+	 */
+	public long getFailedCount()
+	{
+		return failedCount;
+	}
+
+	/**
+	 * Returns the first issue writing or finishing the stream.
+	 * @return Returns the issue; null if there hasn't been one.
+	 */
+	public IOException getFailure()
+	{
+		return failure;
+	}
+
+	/**
+	 * Returns whether the stream has been finished or closed.
+	 * @return Returns true if no more events are written; otherwise false.
+	 */
+	public boolean isFinished()
+	{
+		return finished;
+	}
+
+	/**
+	 * Returns a compact description of the stream's counters.
+	 * <pre>
+	 * Example output ==> StreamingRecordingSink: 1200 written, 0 failed
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		return getClass().getSimpleName() + ": " + writtenCount + " written, " + failedCount + " failed";
+	}
+}
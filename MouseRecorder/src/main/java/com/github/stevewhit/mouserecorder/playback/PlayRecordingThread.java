@@ -6,12 +6,16 @@ import java.awt.Rectangle;
 import java.awt.Robot;
 import java.rmi.AccessException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.zip.DataFormatException;
 import javax.activation.UnsupportedDataTypeException;
 import javax.activity.InvalidActivityException;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
+import com.github.stevewhit.mouserecorder.datahandling.MappedRecordingReader;
+import com.github.stevewhit.mouserecorder.datahandling.MappedRecordingReader.ActionCursor;
 import com.github.stevewhit.mouserecorder.monitor.PixelColor;
 import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
 import com.github.stevewhit.mouserecorder.monitor.ScreenUtils;
@@ -25,6 +29,7 @@ import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
 
 class PlayRecordingThread implements Runnable
 {
@@ -59,9 +64,9 @@ class PlayRecordingThread implements Runnable
 	private volatile PlayThreadStates threadState = PlayThreadStates.New;
 	
 	/**
-	 * A list of user input actions with mouse wait statements between each action.
+	 * The user input actions with mouse wait statements between each action.
 	 */
-	private Queue<AbstractInputAction> loadedRecordingWithWaits;
+	private Iterable<AbstractInputAction> loadedRecordingWithWaits;
 		
 	/**
 	 * A list of the click zones used by this recording.
@@ -133,6 +138,19 @@ class PlayRecordingThread implements Runnable
 		this.loadedRecordingClickZones = loadedRecordingClickZones;
 		this.loadedRecordingWithWaits = loadedRecordingWithWaits;
 	}
+	
+	/**
+	 * Constructor that plays a memory-mapped recording starting at a playback time. Actions are decoded as they are played, 
+	 * so the recording is never fully loaded. Every repetition starts at the same playback time.
+	 * @param loadedRecordingClickZones The click zones that are used during playback.. if any.
+	 * @param recordingReader The reader of the recording to play.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) to start playing at.
+	 */
+	public PlayRecordingThread(ArrayList<ClickZoneDetails> loadedRecordingClickZones, MappedRecordingReader recordingReader, long startPlaybackTime)
+	{
+		this.loadedRecordingClickZones = loadedRecordingClickZones;
+		this.loadedRecordingWithWaits = new MappedRecordingWithWaits(recordingReader, startPlaybackTime);
+	}
 
 	@Override
 	public void run()
@@ -366,6 +384,10 @@ class PlayRecordingThread implements Runnable
 		{
 			throw new DataFormatException("Found an invalid action during playback: " + ex.getMessage());
 		}
+		catch(IllegalStateException ex)
+		{
+			throw new DataFormatException("Could not read the next action during playback: " + ex.getMessage());
+		}
 		catch(InvalidActivityException ex)
 		{
 			throw new InvalidActivityException("Playback stopped because ==> " + ex.getMessage());
@@ -458,6 +480,10 @@ class PlayRecordingThread implements Runnable
 		{
 			throw new DataFormatException("Found an invalid action during playback: " + ex.getMessage());
 		}
+		catch(IllegalStateException ex)
+		{
+			throw new DataFormatException("Could not read the next action during playback: " + ex.getMessage());
+		}
 		catch(InvalidActivityException ex)
 		{
 			throw new InvalidActivityException("Playback stopped because ==> " + ex.getMessage());
@@ -576,6 +602,14 @@ class PlayRecordingThread implements Runnable
 		{
 			robot.mouseMove(((MouseMove)action).getLocation().getX(), ((MouseMove)action).getLocation().getY());
 		}
+		else if (action instanceof MouseWheelScroll)
+		{
+			MouseWheelScroll castMWS = (MouseWheelScroll)action;
+			
+			// The wheel scrolls whatever is under the cursor, so scroll where it was recorded.
+			robot.mouseMove(castMWS.getLocation().getX(), castMWS.getLocation().getY());
+			robot.mouseWheel(castMWS.getWheelAmount());
+		}
 		else if (action instanceof KeyboardKeyPress)
 		{
 			robot.keyPress(((KeyboardKeyPress)action).getKeyValueInt());
@@ -695,6 +729,125 @@ class PlayRecordingThread implements Runnable
 				throw new UnsupportedDataTypeException("Time Quantifier is not supported.");
 		}
 	}
+	
+	/**
+	 * Plays a memory-mapped recording by decoding each action as it is reached and inserting the wait actions between them.
+	 * Each iteration opens a new cursor at the start playback time.
+	 * @author Steve Whitmire (swhit114@gmail.com)
+	 *
+	 */
+	private static class MappedRecordingWithWaits implements Iterable<AbstractInputAction>
+	{
+		/**
+		 * The reader of the recording to play.
+		 */
+		private final MappedRecordingReader recordingReader;
+		
+		/**
+		 * The playback time (in nanoseconds from the first action) to start playing at.
+		 */
+		private final long startPlaybackTime;
+		
+		/**
+		 * Constructor that accepts the recording to play and where to start.
+		 * @param recordingReader The reader of the recording to play.
+		 * @param startPlaybackTime The playback time (in nanoseconds from the first action) to start playing at.
+		 */
+		private MappedRecordingWithWaits(MappedRecordingReader recordingReader, long startPlaybackTime)
+		{
+			this.recordingReader = recordingReader;
+			this.startPlaybackTime = startPlaybackTime;
+		}
+		
+		/**
+		 * {@inheritDoc}
+		 * <p>
+		 * Decoding problems are thrown as IllegalStateExceptions.
+		 * </p>
+		 */
+		@Override
+		public Iterator<AbstractInputAction> iterator()
+		{
+			final ActionCursor cursor;
+			
+			try
+			{
+				cursor = recordingReader.openCursor(startPlaybackTime);
+			}
+			catch (DataFormatException ex)
+			{
+				throw new IllegalStateException(ex.getMessage());
+			}
+			
+			return new Iterator<AbstractInputAction>()
+			{
+				/**
+				 * The last action that was returned (not counting wait actions).
+				 */
+				private AbstractInputAction lastAction;
+				
+				/**
+				 * The action to return after the wait action that comes before it.
+				 */
+				private AbstractInputAction actionAfterWait;
+				
+				@Override
+				public boolean hasNext()
+				{
+					try
+					{
+						return actionAfterWait != null || cursor.hasNext();
+					}
+					catch (DataFormatException ex)
+					{
+						throw new IllegalStateException(ex.getMessage());
+					}
+				}
+				
+				@Override
+				public AbstractInputAction next()
+				{
+					if (!hasNext())
+						throw new NoSuchElementException();
+					
+					if (actionAfterWait != null)
+					{
+						lastAction = actionAfterWait;
+						actionAfterWait = null;
+						
+						return lastAction;
+					}
+					
+					final AbstractInputAction action;
+					
+					try
+					{
+						action = cursor.next();
+					}
+					catch (DataFormatException ex)
+					{
+						throw new IllegalStateException(ex.getMessage());
+					}
+					
+					if (lastAction == null)
+					{
+						lastAction = action;
+						return action;
+					}
+					
+					// Add a wait action that spans from the last action to this action
+					actionAfterWait = action;
+					return new InputWaitAction(action.getTimeStamp() - lastAction.getTimeStamp(), 0);
+				}
+				
+				@Override
+				public void remove()
+				{
+					throw new UnsupportedOperationException("Actions cannot be removed from a recording during playback.");
+				}
+			};
+		}
+	}
 }
 
 
@@ -9,7 +9,11 @@ import java.util.Queue;
 import java.util.zip.DataFormatException;
 import javax.activation.UnsupportedDataTypeException;
 import javax.activity.InvalidActivityException;
-import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.CompressedRecordingIOUtils;
+import com.github.stevewhit.mouserecorder.datahandling.MappedRecordingReader;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingCache;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingData;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
 import com.github.stevewhit.mouserecorder.playback.PlayRecordingThread.PlayThreadStates;
 import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
 import com.github.stevewhit.mouserecorder.ui.PlaybackOptions.TimeQuantifier;
@@ -20,6 +24,7 @@ import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
 
 /**
  * Represents a mouse and keyboard player that emulates recorded user input actions.
@@ -43,6 +48,16 @@ public class PlaybackEngine
 	 * A list of the click zones used by this recording.
 	 */
 	private ArrayList<ClickZoneDetails> loadedRecordingClickZones;
+	
+	/**
+	 * The reader of a recording that is played straight from its file; null if the loaded recording is held in memory.
+	 */
+	private MappedRecordingReader loadedRecordingReader;
+	
+	/**
+	 * The playback time (in nanoseconds from the first action) that the recording read from its file starts playing at.
+	 */
+	private long loadedRecordingStartPlaybackTime;
 
 	/**
 	 * The most recent playback thread that is used to play a recording.
@@ -61,23 +76,43 @@ public class PlaybackEngine
 	 * @throws AccessException Throws if there is an issue loading the recording properly.
 	 */
 	public void loadNewRecording(String filePath, boolean useClickZones) throws AccessException
+	{
+		loadNewRecording(filePath, useClickZones, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Loads a recording from a file location and serializes and stores the user input actions with wait statements between each action.
+	 * @param filePath The file path location of the recording file.
+	 * @param useClickZones Enable or disable the use of click zone windows.
+	 * @param importContext A new context that fits the coordinates of the recording onto the target screen.
+	 * @throws AccessException Throws if there is an issue loading the recording properly.
+	 */
+	public void loadNewRecording(String filePath, boolean useClickZones, RecordingImportContext importContext) throws AccessException
 	{
 		if (filePath == null)
 		{
 			throw new IllegalArgumentException("Cannot load recording from a null filepath.");
 		}
 		
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Cannot load recording without an import context.");
+		}
+		
 		try
 		{
+			// Only decode the file if the shared cache doesn't already have it; the format (text or binary) is detected automatically.
+			final RecordingData importedRecording = RecordingCache.getSharedCache().getRecording(filePath, importContext);
+			
 			if (useClickZones)
 			{
 				// Load recording and click zones.
-				loadNewRecording(new LinkedList<>(DataIOHandlerUtils.importActionDataFromFile(filePath)), DataIOHandlerUtils.importClickZoneDataFromFile(filePath));
+				loadNewRecording(new LinkedList<>(importedRecording.getInputActions()), importedRecording.getClickZoneDetails());
 			}
 			else
 			{
 				// Load recording only.
-				loadNewRecording(new LinkedList<>(DataIOHandlerUtils.importActionDataFromFile(filePath)));
+				loadNewRecording(new LinkedList<>(importedRecording.getInputActions()));
 			}
 		}
 		catch(IllegalArgumentException | IOException | DataFormatException ex)
@@ -86,6 +121,71 @@ public class PlaybackEngine
 		}
 	}
 	
+	/**
+	 * Loads a recording from a file location so that it is played straight from the file, starting part-way through the recording. 
+	 * Actions are only decoded as they are played, so long recordings don't have to fit in memory. Compressed recordings are 
+	 * loaded into memory from the block that contains the start time on.
+	 * @param filePath The file path location of the recording file.
+	 * @param useClickZones Enable or disable the use of click zone windows.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) to start playing at.
+	 * @throws AccessException Throws if there is an issue loading the recording properly.
+	 */
+	public void loadNewRecording(String filePath, boolean useClickZones, long startPlaybackTime) throws AccessException
+	{
+		loadNewRecording(filePath, useClickZones, startPlaybackTime, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Loads a recording from a file location with an import context so that it is played straight from the file, starting part-way through 
+	 * the recording. See {@link #loadNewRecording(String, boolean, long)}.
+	 * @param filePath The file path location of the recording file.
+	 * @param useClickZones Enable or disable the use of click zone windows.
+	 * @param startPlaybackTime The playback time (in nanoseconds from the first action) to start playing at.
+	 * @param importContext A new context that fits the coordinates of the recording onto the target screen.
+	 * @throws AccessException Throws if there is an issue loading the recording properly.
+	 */
+	public void loadNewRecording(String filePath, boolean useClickZones, long startPlaybackTime, RecordingImportContext importContext) throws AccessException
+	{
+		if (filePath == null)
+		{
+			throw new IllegalArgumentException("Cannot load recording from a null filepath.");
+		}
+		
+		if (startPlaybackTime < 0)
+		{
+			throw new IllegalArgumentException("Cannot start playback at a negative time.");
+		}
+		
+		if (importContext == null)
+		{
+			throw new IllegalArgumentException("Cannot load recording without an import context.");
+		}
+		
+		try
+		{
+			if (CompressedRecordingIOUtils.isCompressedRecordingFile(filePath))
+			{
+				final RecordingData importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(filePath, startPlaybackTime, importContext);
+				
+				loadNewRecording(new LinkedList<>(importedRecording.getInputActions()), useClickZones ? importedRecording.getClickZoneDetails() : null);
+				return;
+			}
+			
+			final MappedRecordingReader recordingReader = new MappedRecordingReader(filePath, importContext);
+			
+			setRecordingClickZones(useClickZones ? recordingReader.getClickZoneDetails() : null);
+			
+			loadedRecordingWithWaits = null;
+			loadedRecordingWithoutWaits = null;
+			loadedRecordingReader = recordingReader;
+			loadedRecordingStartPlaybackTime = startPlaybackTime;
+		}
+		catch(IllegalArgumentException | IOException | DataFormatException ex)
+		{
+			throw new AccessException("Could not properly load the recording file because ==> " + ex.getMessage());
+		}
+	}
+	
 	/**
 	 * Serializes and stores the user input actions with wait statements between each action. Click zones are not used.
 	 * @param recordedUserInputActions A list of the recorded user input actions without wait statements.
@@ -106,6 +206,8 @@ public class PlaybackEngine
 	{
 		try
 		{
+			loadedRecordingReader = null;
+			
 			setRecordingClickZones(clickZonesForRecording);
 			setSerializedRecording(recordedUserInputActions);
 		}
@@ -135,7 +237,7 @@ public class PlaybackEngine
 			currentPlaybackThread.stop();
 		
 		// Create a new thread and start it.
-		currentPlaybackThread = new PlayRecordingThread(loadedRecordingClickZones, loadedRecordingWithWaits);
+		currentPlaybackThread = createPlaybackThread();
 		currentPlaybackThread.start(true, checkPixelColorBeforeClick, numTimesToRepeat, FINISHED_PLAYBACK_ITEM_SHORTCUT_KEYS, ERROR_DURING_PLAYBACK_SHORTCUT_KEYS);
 	}
 	
@@ -159,7 +261,7 @@ public class PlaybackEngine
 		currentPlaybackThread = null;
 		
 		// Create a new thread and start it.
-		currentPlaybackThread = new PlayRecordingThread(loadedRecordingClickZones, loadedRecordingWithWaits);
+		currentPlaybackThread = createPlaybackThread();
 		currentPlaybackThread.start(true, checkPixelColorBeforeClick, durationNumericalValue, timeQuantifier, FINISHED_PLAYBACK_ITEM_SHORTCUT_KEYS, ERROR_DURING_PLAYBACK_SHORTCUT_KEYS);
 	}
 	
@@ -197,6 +299,18 @@ public class PlaybackEngine
 		}
 	}
 	
+	/**
+	 * Creates a playback thread for the loaded recording.
+	 * @return Returns a thread that plays the loaded recording from memory or straight from its file.
+	 */
+	private PlayRecordingThread createPlaybackThread()
+	{
+		if (loadedRecordingReader != null)
+			return new PlayRecordingThread(loadedRecordingClickZones, loadedRecordingReader, loadedRecordingStartPlaybackTime);
+		
+		return new PlayRecordingThread(loadedRecordingClickZones, loadedRecordingWithWaits);
+	}
+	
 	/**
 	 * Saves the click zone details for playback.
 	 * @param recordingClickZones A list of the click zone window details.
@@ -242,6 +356,7 @@ public class PlaybackEngine
 			if (action instanceof MouseButtonPress ||
 				action instanceof MouseButtonRelease ||
 				action instanceof MouseMove ||
+				action instanceof MouseWheelScroll ||
 				action instanceof KeyboardKeyPress ||
 				action instanceof KeyboardKeyRelease)
 				{
@@ -1,11 +1,15 @@
 package com.github.stevewhit.mouserecorder.ui;
 
+import java.awt.Dimension;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.LinkedList;
 import java.util.Queue;
 import java.util.zip.DataFormatException;
 import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingCache;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingData;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingValidationReport;
 import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
 
 public class LoadedRecording
@@ -33,13 +37,55 @@ public class LoadedRecording
 	 * @throws IOException Throws if there is an error opening or reading from the file location.
 	 */
 	public LoadedRecording(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		this(fileLocation, false);
+	}
+	
+	/**
+	 * Constructor used to import items from the give file location, optionally validating the whole file first. Coordinates are clamped to the current screen.
+	 * @param fileLocation The system path location of where to find this loaded recording.
+	 * @param validateBeforeLoading Whether every line of the file should be validated before it is loaded, so that all of its problems are reported at once.
+	 * @throws IllegalArgumentException Throws if the file location is null.
+	 * @throws DataFormatException Throws if the file doesn't pass validation or if there is an issue importing any of the data from the file. 
+	 * When validating, the message lists the problems that were found.
+	 * @throws IOException Throws if there is an error opening or reading from the file location.
+	 */
+	public LoadedRecording(String fileLocation, boolean validateBeforeLoading) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		this(fileLocation, validateBeforeLoading, RecordingImportContext.forCurrentScreen());
+	}
+	
+	/**
+	 * Constructor used to import items from the give file location with an import context, optionally validating the whole file first.
+	 * @param fileLocation The system path location of where to find this loaded recording.
+	 * @param validateBeforeLoading Whether every line of the file should be validated before it is loaded, so that all of its problems are reported at once.
+	 * @param importContext A new context that fits the coordinates of the recording onto the target screen.
+	 * @throws IllegalArgumentException Throws if the file location or import context is null.
+	 * @throws DataFormatException Throws if the file doesn't pass validation or if there is an issue importing any of the data from the file. 
+	 * When validating, the message lists the problems that were found.
+	 * @throws IOException Throws if there is an error opening or reading from the file location.
+	 */
+	public LoadedRecording(String fileLocation, boolean validateBeforeLoading, RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
 	{
 		if (fileLocation == null)
 			throw new IllegalArgumentException("File location cannot be null.");
 		
+		if (importContext == null)
+			throw new IllegalArgumentException("Import context cannot be null.");
+		
 		this.fileLocationPath = fileLocation;
 		
-		loadRecordingInformationFromFile();
+		if (validateBeforeLoading)
+		{
+			final Dimension targetDimensions = importContext.getTargetDimensions();
+			final RecordingValidationReport validationReport = DataIOHandlerUtils.validateRecordingFile(fileLocation, 
+					targetDimensions == null ? new Dimension(Integer.MAX_VALUE, Integer.MAX_VALUE) : targetDimensions, RecordingValidationReport.DEFAULT_MAX_REPORTED_PROBLEMS);
+			
+			if (!validationReport.isValid())
+				throw new DataFormatException(validationReport.toString());
+		}
+		
+		loadRecordingInformationFromFile(importContext);
 	}
 	
 	/**
@@ -70,16 +116,18 @@ public class LoadedRecording
 	}
 	
 	/**
-	 * Loads all recording click zones and user input actions from the saved file location.
+	 * Loads all recording click zones and user input actions from the saved file location. 
+	 * The file is only decoded if the shared recording cache doesn't already have it for the same screen and coordinate policy.
+	 * @param importContext The context that fits the coordinates of the recording onto the target screen.
 	 * @throws IllegalArgumentException Throws if the file location is null.
 	 * @throws DataFormatException Throws if there is an issue importing any of the data from the file.
 	 * @throws IOException Throws if there is an error opening or reading from the file location.
 	 */
-	private void loadRecordingInformationFromFile() throws IllegalArgumentException, IOException, DataFormatException
+	private void loadRecordingInformationFromFile(RecordingImportContext importContext) throws IllegalArgumentException, IOException, DataFormatException
 	{
-		final ArrayList<String> importedData = DataIOHandlerUtils.importStringDataFromFile(fileLocationPath);
+		final RecordingData importedData = RecordingCache.getSharedCache().getRecording(fileLocationPath, importContext);
 		
-		inputActionList = DataIOHandlerUtils.convertToActionData(new LinkedList<>(DataIOHandlerUtils.extractInputActionStringData(importedData)));
-		clickZoneDetails = DataIOHandlerUtils.convertToClickZoneDetailsData(DataIOHandlerUtils.extractClickZoneStringData(importedData));
+		inputActionList = importedData.getInputActions();
+		clickZoneDetails = importedData.getClickZoneDetails();
 	}
 }
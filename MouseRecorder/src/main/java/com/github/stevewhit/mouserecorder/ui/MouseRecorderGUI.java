@@ -15,6 +15,7 @@ import java.awt.event.WindowEvent;
 import java.awt.event.WindowListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.io.File;
 import java.io.IOException;
 import java.rmi.AccessException;
 import java.text.NumberFormat;
@@ -34,6 +35,7 @@ import javax.swing.DefaultListModel;
 import javax.swing.ImageIcon;
 import javax.swing.JButton;
 import javax.swing.JCheckBox;
+import javax.swing.JCheckBoxMenuItem;
 import javax.swing.JComboBox;
 import javax.swing.JFileChooser;
 import javax.swing.JFormattedTextField;
@@ -50,6 +52,7 @@ import javax.swing.JTextArea;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
 import javax.swing.UIManager;
 import javax.swing.UnsupportedLookAndFeelException;
 import javax.swing.WindowConstants;
@@ -61,11 +64,21 @@ import javax.swing.event.MenuListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.text.NumberFormatter;
 import org.jnativehook.GlobalScreen;
-import org.jnativehook.NativeHookException;
-import org.jnativehook.SwingDispatchService;
+import com.github.stevewhit.mouserecorder.datahandling.BinaryRecordingIOUtils;
+import com.github.stevewhit.mouserecorder.datahandling.CompressedRecordingIOUtils;
 import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingJournal;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+import com.github.stevewhit.mouserecorder.inputtracking.CaptureStatistics;
+import com.github.stevewhit.mouserecorder.inputtracking.CapturedEventType;
 import com.github.stevewhit.mouserecorder.inputtracking.GlobalInputRecorder;
 import com.github.stevewhit.mouserecorder.inputtracking.GlobalUserShortcutListener;
+import com.github.stevewhit.mouserecorder.inputtracking.MinimumDistanceMoveFilter;
+import com.github.stevewhit.mouserecorder.inputtracking.MouseMoveFilter;
+import com.github.stevewhit.mouserecorder.inputtracking.NativeHookDispatcher;
+import com.github.stevewhit.mouserecorder.inputtracking.PathSimplificationMoveFilter;
+import com.github.stevewhit.mouserecorder.inputtracking.StreamingRecordingSink;
 import com.github.stevewhit.mouserecorder.playback.PlaybackEngine;
 import com.github.stevewhit.mouserecorder.ui.PlaybackOptions.TimeQuantifier;
 import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
@@ -84,6 +97,19 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	GlobalInputRecorder inputRecorder = new GlobalInputRecorder();
 	LinkedList<String> recordedActions;
 	
+	/** The journal that recorded actions are written to so they survive a crash until the recording is saved. **/
+	private final static String RECORDING_JOURNAL_LOCATION = System.getProperty("user.home") + File.separator + ".mouserecorder-journal.txt";
+	
+	/** Whether the failover scripts of the queue are loaded in the background once the queue starts, instead of when playback first fails. **/
+	private boolean warmUpFailoverScripts = false;
+	
+	/** The recorded mouse moves closer than this many pixels to the last kept move are dropped as jitter, when thinning out the mouse moves is enabled. **/
+	private final static int MINIMUM_MOUSE_MOVE_DISTANCE = 2;
+	
+	/** The recorded mouse path is simplified until it strays this many pixels from the real path, this many moves at a time. **/
+	private final static double MOUSE_PATH_TOLERANCE = 1.0;
+	private final static int MOUSE_PATH_WINDOW = 32;
+	
 	/** The listener that fires events if any of the user shortcuts are pressed **/
 	GlobalUserShortcutListener userShortcutListener = new GlobalUserShortcutListener();
 	
@@ -123,6 +149,10 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	private JButton iconSelectionStopPlayButton = new JButton();
 	
 	private JTextArea recordingPanelRecordedActionsTextArea = new JTextArea();
+	private JLabel recordingPanelCaptureStatusLabel = new JLabel(" ");
+	
+	/** The timer that refreshes the capture status line once a second while recording. **/
+	private Timer captureStatusTimer;
 	
 	/* Playback option components used */
 	private JPanel playbackOptionsPanel = new JPanel(new GridBagLayout());
@@ -142,6 +172,9 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	private JTextField playbackOptionsAdditionalScriptToRunIfFailsTextField = new JTextField();
 	private JButton playbackOptionsAddAdditionalScriptIfFailsButton = new JButton();
 	
+	private JLabel playbackOptionsCoordinatePolicyLabel = new JLabel("Fit recorded coordinates to this screen by:");
+	private JComboBox<String> playbackOptionsCoordinatePolicyComboBox = new JComboBox<String>();
+	
 	private JButton playbackQueueAddButton = new JButton();
 	private JButton playbackQueueRemoveButton = new JButton();
 	
@@ -289,12 +322,6 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		handler.setLevel(Level.WARNING);
 		logger.addHandler(handler);
 
-		/* Swing components must be accessed on the event dispatching
-		 * thread; you *MUST* wrap access to Swing components using the
-		 * SwingUtilities.invokeLater() or EventQueue.invokeLater() methods.
-		 */
-		GlobalScreen.setEventDispatcher(new SwingDispatchService());
-
 		setResizable(false);
 		setPreferredSize(new Dimension(490, 600));
 		pack();
@@ -302,6 +329,47 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		setVisible(true);
 		setState(JFrame.NORMAL);
 		setAlwaysOnTop(false);
+		
+		// Recover the recording of a session that was interrupted, then journal the new recordings.
+		recoverInterruptedRecording();
+		inputRecorder.setJournalLocation(RECORDING_JOURNAL_LOCATION);
+	}
+	
+	/**
+	 * Sets whether the recorded mouse moves are thinned out by the lossy move filters. Every move is recorded by default.
+	 * Takes effect the next time recording starts.
+	 * @param thinMouseMoves Whether to drop jitter and simplify the recorded mouse path.
+	 */
+	private void setThinMouseMoves(boolean thinMouseMoves)
+	{
+		if (thinMouseMoves)
+		{
+			inputRecorder.setMouseMoveFilters(new MinimumDistanceMoveFilter(MINIMUM_MOUSE_MOVE_DISTANCE), new PathSimplificationMoveFilter(MOUSE_PATH_TOLERANCE, MOUSE_PATH_WINDOW));
+		}
+		else
+		{
+			inputRecorder.setMouseMoveFilters();
+		}
+	}
+	
+	private void recoverInterruptedRecording()
+	{
+		if (!RecordingJournal.journalExists(RECORDING_JOURNAL_LOCATION))
+			return;
+		
+		final String recoveredRecordingLocation = System.getProperty("user.home") + File.separator + "RecoveredRecording_" + System.currentTimeMillis() + ".txt";
+		
+		try
+		{
+			if (RecordingJournal.recoverJournal(RECORDING_JOURNAL_LOCATION, recoveredRecordingLocation))
+			{
+				JOptionPane.showMessageDialog(this, "A recording from an interrupted session was recovered to: " + recoveredRecordingLocation);
+			}
+		}
+		catch (IllegalArgumentException | IOException e)
+		{
+			JOptionPane.showMessageDialog(this, "Could not recover the recording from an interrupted session: " + e.getMessage());
+		}
 	}
 	
 	private void startUserShortcutListener()
@@ -454,7 +522,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	{
 		// Initialize the file chooser
 		final JFileChooser fileChooser = new JFileChooser();
-		fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt", "txt"));
+		fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt, *.mrec, *.mrecz", "txt", "mrec", "mrecz"));
 		
 		// Open dialog and wait for user to save.
 		int returnValue = fileChooser.showOpenDialog(this);
@@ -465,16 +533,16 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// Verify the filename ends in .txt
 			String fileOpenLocation = fileChooser.getSelectedFile().getPath();
 		
-			if (!fileOpenLocation.endsWith(".txt"))
+			if (!fileOpenLocation.endsWith(".txt") && !fileOpenLocation.endsWith(BinaryRecordingIOUtils.BINARY_FILE_EXTENSION) && !fileOpenLocation.endsWith(CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION))
 			{
-				JOptionPane.showMessageDialog(this, "This file is not a valid recording text file.");
+				JOptionPane.showMessageDialog(this, "This file is not a valid recording file.");
 				return;
 			}
 			
 			// Add the default options to the queue.
 			try
 			{
-				currentPlaybackOptions.loadedAdditionalScriptIfFails = new LoadedRecording(fileOpenLocation);
+				currentPlaybackOptions.setAdditionalScriptIfFails(fileOpenLocation);
 				playbackOptionsAdditionalScriptToRunIfFailsTextField.setText(fileOpenLocation);
 				playbackOptionsAddAdditionalScriptIfFailsButton.setIcon(new ImageIcon(getClass().getClassLoader().getResource("images/removeAdditionalScriptButton.png")));
 			}
@@ -496,7 +564,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	
 	private void removeAdditionalScriptIfFailsButtonPressed()
 	{
-		currentPlaybackOptions.loadedAdditionalScriptIfFails = null;
+		currentPlaybackOptions.clearAdditionalScriptIfFails();
 		playbackOptionsAdditionalScriptToRunIfFailsTextField.setText("");
 		playbackOptionsAddAdditionalScriptIfFailsButton.setIcon(new ImageIcon(getClass().getClassLoader().getResource("images/addButton.png")));
 	}
@@ -505,7 +573,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	{
 		// Initialize the file chooser
 		final JFileChooser fileChooser = new JFileChooser();
-		fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt", "txt"));
+		fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt, *.mrec, *.mrecz", "txt", "mrec", "mrecz"));
 		
 		// Open dialog and wait for user to save.
 		int returnValue = fileChooser.showOpenDialog(this);
@@ -516,9 +584,9 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// Verify the filename ends in .txt, if not, add it for them.
 			String fileOpenLocation = fileChooser.getSelectedFile().getPath();
 		
-			if (!fileOpenLocation.endsWith(".txt"))
+			if (!fileOpenLocation.endsWith(".txt") && !fileOpenLocation.endsWith(BinaryRecordingIOUtils.BINARY_FILE_EXTENSION) && !fileOpenLocation.endsWith(CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION))
 			{
-				JOptionPane.showMessageDialog(this, "This file is not a valid recording text file.");
+				JOptionPane.showMessageDialog(this, "This file is not a valid recording file.");
 				return;
 			}
 			
@@ -528,7 +596,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// Add the default options to the queue.
 			try
 			{
-				addPlaybackItemToQueue(defaultOptions, false);
+				addPlaybackItemToQueue(defaultOptions, false, true);
 			}
 			catch (IllegalArgumentException | IOException e)
 			{
@@ -537,7 +605,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			}
 			catch(DataFormatException e)
 			{
-				JOptionPane.showMessageDialog(this, "This file contains invalid or unsupported data types.");
+				JOptionPane.showMessageDialog(this, "This file contains invalid or unsupported data types.\n" + e.getMessage());
 				return;
 			}
 		}
@@ -650,9 +718,9 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		}
 	}
 	
-	private void addPlaybackItemToQueue(PlaybackOptions playbackOptions, boolean keepOriginalButtons) throws IllegalArgumentException, IOException, DataFormatException
+	private void addPlaybackItemToQueue(PlaybackOptions playbackOptions, boolean keepOriginalButtons, boolean validateRecording) throws IllegalArgumentException, IOException, DataFormatException
 	{	
-		LoadedRecording loadedRecording = new LoadedRecording(playbackOptions.recordingFileLocation);
+		LoadedRecording loadedRecording = new LoadedRecording(playbackOptions.recordingFileLocation, validateRecording, playbackOptions.createImportContext());
 		
 		// Enable or disable certain options based on if there are even click zones available.
 		if (!keepOriginalButtons && loadedRecording.getClickZoneDetails().size() <= 0)
@@ -690,12 +758,44 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			currentPlaybackOptions.stopPlaybackQueueIfFailsChecked = playbackOptionsStopPlaybackQueueIfFailsCheckBox.isSelected();
 			
 			currentPlaybackOptions.runAdditionalScriptIfFailsChecked = playbackOptionsRunAdditionalScriptIfFailsCheckBox.isSelected();
-			currentPlaybackOptions.runAdditionalScriptIfFailsFileLocation = playbackOptionsAdditionalScriptToRunIfFailsTextField.getText();		
+			currentPlaybackOptions.setAdditionalScriptIfFailsFileLocation(playbackOptionsAdditionalScriptToRunIfFailsTextField.getText());		
+			
+			final CoordinatePolicy selectedCoordinatePolicy = CoordinatePolicy.values()[playbackOptionsCoordinatePolicyComboBox.getSelectedIndex()];
+			
+			if (selectedCoordinatePolicy != currentPlaybackOptions.getCoordinatePolicy())
+				changePlaybackItemCoordinatePolicy(currentPlaybackOptions, selectedCoordinatePolicy);
 		}
 		else
 			currentPlaybackOptions = new PlaybackOptions(null);
 	}
 	
+	/**
+	 * Changes the coordinate policy of a playback item and loads its recording again so that the new policy is applied to it.
+	 * The previous policy is kept if the recording can't be loaded with the new one.
+	 * @param playbackOptions The playback options of the item.
+	 * @param coordinatePolicy The new coordinate policy.
+	 */
+	private void changePlaybackItemCoordinatePolicy(PlaybackOptions playbackOptions, CoordinatePolicy coordinatePolicy)
+	{
+		final CoordinatePolicy previousCoordinatePolicy = playbackOptions.getCoordinatePolicy();
+		
+		playbackOptions.setCoordinatePolicy(coordinatePolicy);
+		
+		// The current recording isn't loaded from a file; its lines are converted with the policy when it's played.
+		if (loadedPlaybackMap.get(playbackOptions) == null)
+			return;
+		
+		try
+		{
+			loadedPlaybackMap.put(playbackOptions, new LoadedRecording(playbackOptions.recordingFileLocation, false, playbackOptions.createImportContext()));
+		}
+		catch (IllegalArgumentException | IOException | DataFormatException e)
+		{
+			playbackOptions.setCoordinatePolicy(previousCoordinatePolicy);
+			JOptionPane.showMessageDialog(this, "The recording could not be loaded with the " + coordinatePolicy + " coordinate policy because ==> " + e.getMessage());
+		}
+	}
+	
 	private void refreshPlaybackControls()
 	{
 		showPlaybackControls(currentPlaybackOptions);
@@ -764,6 +864,9 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		else
 			playbackOptionsAddAdditionalScriptIfFailsButton.setIcon(new ImageIcon(getClass().getClassLoader().getResource("images/removeAdditionalScriptButton.png")));
 		
+		/********************************* Load coordinate policy control************************************************/
+		playbackOptionsCoordinatePolicyComboBox.setSelectedIndex(currentPlaybackOptions.getCoordinatePolicy().ordinal());
+		
 		/********************************* Ignore click-zones control************************************************/
 		playbackOptionsIgnoreClickZonesDuringPlaybackCheckBox.setSelected(currentPlaybackOptions.ignoreClickZonesDuringPlaybackChecked);
 
@@ -841,6 +944,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		
 		JMenu fileMenu = new JMenu("File");
 		JMenuItem menuBarFileSaveRecording = new JMenuItem("Save Recording..");
+		JMenuItem menuBarFileRecordToFile = new JMenuItem("Record To File..");
 		JMenuItem menuBarFileSaveConfiguration = new JMenuItem("Save Configuration..");
 		JMenuItem menuBarFileLoadConfiguration = new JMenuItem("Load Configuration..");
 
@@ -857,12 +961,14 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 					menuBarFileLoadConfiguration.setEnabled(false);
 					menuBarFileSaveConfiguration.setEnabled(false);
 					menuBarFileSaveRecording.setEnabled(iconSelectionNewButton.isEnabled());
+					menuBarFileRecordToFile.setEnabled(currentRecordingState == RecordingStates.Stop);
 				}
 				
 				else if (currentPlaybackState != PlaybackStates.Disable)
 				{
 					menuBarFileLoadConfiguration.setEnabled(true);
 					menuBarFileSaveRecording.setEnabled(false);
+					menuBarFileRecordToFile.setEnabled(false);
 					menuBarFileSaveConfiguration.setEnabled(iconSelectionNewButton.isEnabled());
 				}
 			}
@@ -890,6 +996,17 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		
 		fileMenu.add(menuBarFileSaveRecording);
 		
+		menuBarFileRecordToFile.addActionListener(new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				startStreamingRecording();
+			}
+		});
+		
+		fileMenu.add(menuBarFileRecordToFile);
+		
 		menuBarFileSaveConfiguration.addActionListener(new ActionListener()
 		{
 			@Override
@@ -922,15 +1039,8 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 					resetPlaybackOptionsAndQueue(true, true);
 				}
 				
-				try
-				{
-					GlobalScreen.unregisterNativeHook();
-				}
-				catch (NativeHookException e1)
-				{
-					// TODO Auto-generated catch block
-					e1.printStackTrace();
-				}
+				// Clean up the native hook.
+				NativeHookDispatcher.getSharedDispatcher().stop();
 				
 				finalizeAndCloseWindow();
 			}
@@ -940,6 +1050,37 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 
 		menuBar.add(fileMenu);
 		
+		JMenu settingsMenu = new JMenu("Settings");
+		final JCheckBoxMenuItem menuBarSettingsThinMouseMoves = new JCheckBoxMenuItem("Thin Out Recorded Mouse Moves (Lossy)", false);
+		
+		menuBarSettingsThinMouseMoves.setToolTipText("Drops mouse jitter and simplifies the recorded mouse path. Takes effect the next time recording starts.");
+		menuBarSettingsThinMouseMoves.addActionListener(new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				setThinMouseMoves(menuBarSettingsThinMouseMoves.isSelected());
+			}
+		});
+		
+		settingsMenu.add(menuBarSettingsThinMouseMoves);
+		
+		final JCheckBoxMenuItem menuBarSettingsWarmUpFailoverScripts = new JCheckBoxMenuItem("Preload Failover Scripts When Playback Starts", warmUpFailoverScripts);
+		
+		menuBarSettingsWarmUpFailoverScripts.setToolTipText("Loads the scripts that run if playback fails in the background, so they start without a delay.");
+		menuBarSettingsWarmUpFailoverScripts.addActionListener(new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				warmUpFailoverScripts = menuBarSettingsWarmUpFailoverScripts.isSelected();
+			}
+		});
+		
+		settingsMenu.add(menuBarSettingsWarmUpFailoverScripts);
+		
+		menuBar.add(settingsMenu);
+		
 		setJMenuBar(menuBar);
 	}
 	
@@ -963,6 +1104,55 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		recordingPanelRecordedActionsTextArea.setBorder(new TitledBorder("Recorded Actions"));
 
 		recordingPanel.add(new JScrollPane(recordingPanelRecordedActionsTextArea), gbc);	
+		
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.gridy = 1;
+		gbc.weighty = 0;
+		
+		recordingPanelCaptureStatusLabel.setToolTipText("Events per second, callback, dispatch and pixel sample latency, unsaved actions, dropped or skipped events, and the moves dropped by each mouse move filter.");
+		recordingPanel.add(recordingPanelCaptureStatusLabel, gbc);
+		
+		captureStatusTimer = new Timer(1000, new ActionListener()
+		{
+			@Override
+			public void actionPerformed(ActionEvent e)
+			{
+				updateCaptureStatus();
+			}
+		});
+	}
+	
+	private void updateCaptureStatus()
+	{
+		final CaptureStatistics statistics = inputRecorder.getCaptureStatistics();
+		
+		final long movesPerSecond = statistics.getEventsPerSecond(CapturedEventType.MouseMove);
+		final long clicksPerSecond = statistics.getEventsPerSecond(CapturedEventType.MousePress) + statistics.getEventsPerSecond(CapturedEventType.MouseRelease);
+		final long wheelsPerSecond = statistics.getEventsPerSecond(CapturedEventType.MouseWheel);
+		final long keysPerSecond = statistics.getEventsPerSecond(CapturedEventType.KeyPress) + statistics.getEventsPerSecond(CapturedEventType.KeyRelease);
+		final long callbackMicroseconds = Math.max(statistics.getMouseCallbackLatency().getPercentileNanoseconds(99), statistics.getKeyCallbackLatency().getPercentileNanoseconds(99)) / 1000;
+		final long pixelSampleMicroseconds = inputRecorder.getPixelSampleLatencyHistogram().getPercentileNanoseconds(99) / 1000;
+		final long dispatchMicroseconds = inputRecorder.getNativeEventClock().getDispatchDelay().getPercentileNanoseconds(99) / 1000;
+		
+		final StreamingRecordingSink recordingStream = inputRecorder.getRecordingStream();
+		
+		// A streamed recording is saved as it's recorded, so show how much of it has been written instead of what's unsaved.
+		final String savedStatus = (inputRecorder.getStreamLocation() != null && recordingStream != null) 
+										? "Streamed " + recordingStream.getWrittenCount() + "  Failed " + recordingStream.getFailedCount()
+										: "Unsaved " + inputRecorder.getUnsavedActionCount();
+		
+		// Show how many moves each lossy filter dropped, if thinning out the mouse moves is enabled.
+		final StringBuilder filterStatus = new StringBuilder();
+		
+		for (MouseMoveFilter filter : inputRecorder.getMouseMoveFilters())
+		{
+			filterStatus.append("  ").append(filter.getClass().getSimpleName().replace("MoveFilter", "")).append(" -").append(filter.getDroppedCount());
+		}
+		
+		recordingPanelCaptureStatusLabel.setText("Move " + movesPerSecond + "/s  Click " + clicksPerSecond + "/s  Wheel " + wheelsPerSecond + "/s  Key " + keysPerSecond + "/s  |  "
+												+ "Callback p99 " + callbackMicroseconds + "us  Dispatch p99 " + dispatchMicroseconds + "us  Pixel p99 " + pixelSampleMicroseconds + "us  |  "
+												+ savedStatus + "  Dropped " + statistics.getDroppedEventCount()
+												+ "  Skipped " + statistics.getSkippedKeyCount() + filterStatus);
 	}
 	
 	private void addComponentsToPlaybackPanel()
@@ -1179,6 +1369,34 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		gbc.weighty = 0;
 		playbackOptionsPanel.add(playbackOptionsAdditionalScriptToRunIfFailsTextField, gbc);
 		
+		/********************************************Coordinate policy option***************************************************************/
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.anchor = GridBagConstraints.NORTHWEST;
+		gbc.gridx = 0;
+		gbc.insets = new Insets(0, 4, 0, 0);
+		gbc.gridy = 6;
+		gbc.weightx = 1;
+		gbc.weighty = 0;
+		playbackOptionsPanel.add(playbackOptionsCoordinatePolicyLabel, gbc);
+		
+		// Add all coordinate policies to the combobox.
+		for (CoordinatePolicy coordinatePolicy : CoordinatePolicy.values())
+			playbackOptionsCoordinatePolicyComboBox.addItem(coordinatePolicy.toString());
+		
+		playbackOptionsCoordinatePolicyComboBox.setSelectedIndex(CoordinatePolicy.Clamp.ordinal());
+		playbackOptionsCoordinatePolicyComboBox.setToolTipText("<html>Clamp: coordinates off this screen are moved to its closest edge.<br>"
+															 + "Scale: coordinates are scaled from the screen the recording was made on.<br>"
+															 + "Reject: recordings with coordinates off this screen aren't loaded.</html>");
+		
+		gbc.fill = GridBagConstraints.HORIZONTAL;
+		gbc.anchor = GridBagConstraints.NORTHEAST;
+		gbc.gridx = 1;
+		gbc.insets = new Insets(0, 0, 0, 0);
+		gbc.gridy = 6;
+		gbc.weightx = 1;
+		gbc.weighty = 0;
+		playbackOptionsPanel.add(playbackOptionsCoordinatePolicyComboBox, gbc);
+		
 		// Add the entire playback options panel to the playback panel.
 		gbc = new GridBagConstraints();
 		gbc.fill = GridBagConstraints.HORIZONTAL;
@@ -1643,7 +1861,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			{
 				// Initialize the file chooser
 				final JFileChooser fileChooser = new JFileChooser();
-				fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt", "txt"));
+				fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt, *.mrec, *.mrecz", "txt", "mrec", "mrecz"));
 				fileChooser.setDialogTitle("Save Recording");
 				
 				// Open dialog and wait for user to save.
@@ -1652,10 +1870,10 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 				// Make sure the user actually saved.
 				if (returnValue == JFileChooser.APPROVE_OPTION)
 				{
-					// Verify the filename ends in .txt, if not, add it for them.
+					// Verify the filename ends in .txt, .mrec or .mrecz, if not, add .txt for them.
 					String fileSaveLocation = fileChooser.getSelectedFile().getPath();
 					
-					if (!fileSaveLocation.endsWith(".txt"))
+					if (!fileSaveLocation.endsWith(".txt") && !fileSaveLocation.endsWith(BinaryRecordingIOUtils.BINARY_FILE_EXTENSION) && !fileSaveLocation.endsWith(CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION))
 					{
 						fileSaveLocation += ".txt";
 					}
@@ -1663,15 +1881,27 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 					// Try and save the click zone info + recorded actions to the designated file save location.
 					try
 					{
-						final LinkedList<String> exportData = new LinkedList<String>();
-						
-						// Add the click zone window data + recorded actions data.
-						exportData.addAll(getExportableClickZoneList());
-						exportData.addAll(recordedActions);
-						
-						DataIOHandlerUtils.exportStringDataToFile(exportData, fileSaveLocation);
+						if (fileSaveLocation.endsWith(CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION))
+						{
+							// Compressed recordings store the parsed actions in independently compressed blocks.
+							CompressedRecordingIOUtils.exportRecordingToCompressedFile(DataIOHandlerUtils.convertToActionData(new LinkedList<>(recordedActions)), 
+																					   DataIOHandlerUtils.convertToClickZoneDetailsData(getExportableClickZoneList()), 
+																					   fileSaveLocation);
+						}
+						else if (fileSaveLocation.endsWith(BinaryRecordingIOUtils.BINARY_FILE_EXTENSION))
+						{
+							// Binary recordings store the parsed actions and click zones.
+							BinaryRecordingIOUtils.exportRecordingToBinaryFile(DataIOHandlerUtils.convertToActionData(new LinkedList<>(recordedActions)), 
+																			   DataIOHandlerUtils.convertToClickZoneDetailsData(getExportableClickZoneList()), 
+																			   fileSaveLocation);
+						}
+						else
+						{
+							// Stream the click zone window data + recorded actions data straight to the file without copying them into one list.
+							DataIOHandlerUtils.exportRecordingLinesToFile(getExportableClickZoneList(), recordedActions, fileSaveLocation);
+						}
 					}
-					catch (IllegalArgumentException | IOException e)
+					catch (IllegalArgumentException | IOException | DataFormatException e)
 					{
 						JOptionPane.showMessageDialog(this, "Error occured trying to save recorded data to: " + fileSaveLocation);
 						return false;
@@ -1693,7 +1923,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 									
 									try
 									{
-										LoadedRecording loadedRecording = new LoadedRecording(fileSaveLocation);
+										LoadedRecording loadedRecording = new LoadedRecording(fileSaveLocation, false, options.createImportContext());
 										
 										loadedPlaybackMap.replace(options, null, loadedRecording);
 										
@@ -1715,8 +1945,8 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 						{
 							try
 							{
-								LoadedRecording newLoadedRecording = new LoadedRecording(fileSaveLocation);
 								PlaybackOptions newOptions = new PlaybackOptions(fileSaveLocation);
+								LoadedRecording newLoadedRecording = new LoadedRecording(fileSaveLocation, false, newOptions.createImportContext());
 								
 								// If there aren't any click zones, change the options.
 								if (newLoadedRecording.getClickZoneDetails() == null || newLoadedRecording.getClickZoneDetails().isEmpty())
@@ -1740,6 +1970,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// Reset text area and recorded actions.
 			recordingPanelRecordedActionsTextArea.setText(null);
 			recordedActions = new LinkedList<String>();
+			inputRecorder.discardJournal();
 			
 			// Remove all click zone windows.
 			removeAllClickZones();
@@ -1781,11 +2012,13 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			{
 				recordingPanelRecordedActionsTextArea.setText("");
 				recordedActions = new LinkedList<String>();
+				inputRecorder.discardJournal();
 				startUserShortcutListener();
 			}
 			// NO -- Cancel and stop recording.
 			else
 			{
+				inputRecorder.setStreamLocation(null);
 				startUserShortcutListener();
 				setRecordingState(RecordingStates.Stop);
 				return;
@@ -1807,7 +2040,21 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			@Override
 			public void run()
 			{
-		        inputRecorder.Record(recordingPanelRecordedActionsTextArea, toPrimitive(recorderStopShortcutKeys));
+				try
+				{
+					inputRecorder.Record(recordingPanelRecordedActionsTextArea, toPrimitive(recorderStopShortcutKeys));
+				}
+				catch (IllegalStateException ex)
+				{
+					// The recording couldn't start, e.g. the stream's file couldn't be created.
+					inputRecorder.setStreamLocation(null);
+					MouseRecorderGUI.this.setState(JFrame.NORMAL);
+					JOptionPane.showMessageDialog(MouseRecorderGUI.this, ex.getMessage());
+					setRecordingState(RecordingStates.Stop);
+					return;
+				}
+				
+		        captureStatusTimer.start();
 			}
 		});
 	}
@@ -1815,22 +2062,93 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	private void stopInputRecorder()
 	{
 		inputRecorder.StopRecording();
+		captureStatusTimer.stop();
+		updateCaptureStatus();
+	}
+	
+	private void startStreamingRecording()
+	{
+		// Initialize the file chooser
+		final JFileChooser fileChooser = new JFileChooser();
+		fileChooser.setFileFilter(new FileNameExtensionFilter("*.txt", "txt"));
+		fileChooser.setDialogTitle("Record To File");
+		
+		// Cancel / X button ==> Don't record.
+		if (fileChooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION)
+			return;
+		
+		// Verify the filename ends in .txt, if not, add it for them.
+		String fileStreamLocation = fileChooser.getSelectedFile().getPath();
+		
+		if (!fileStreamLocation.endsWith(".txt"))
+			fileStreamLocation += ".txt";
+		
+		// The recorded actions go straight to the file, so only the newest of them are shown in the text area.
+		inputRecorder.setStreamLocation(fileStreamLocation);
+		setRecordingState(RecordingStates.Record);
+	}
+	
+	private void finishStreamingRecording()
+	{
+		final StreamingRecordingSink recordingStream = inputRecorder.getRecordingStream();
+		
+		// Only a streamed recording is finished here; any other recording is saved by the user.
+		if (inputRecorder.getStreamLocation() == null || recordingStream == null)
+			return;
+		
+		inputRecorder.setStreamLocation(null);
+		
+		// Finish the file with the click zone window data, which is only known now that the recording stopped.
+		ArrayList<ClickZoneDetails> clickZones = null;
+		
+		try
+		{
+			clickZones = DataIOHandlerUtils.convertToClickZoneDetailsData(getExportableClickZoneList());
+		}
+		catch (IllegalArgumentException | DataFormatException e)
+		{
+			logger.warning("Could not add the click zones to the streamed recording: " + e.getMessage());
+			JOptionPane.showMessageDialog(this, "The click zones could not be added to the recording streamed to: " + recordingStream.getOutputLocation());
+		}
+		
+		inputRecorder.finishRecordingStream(clickZones);
+		
+		// The text area only showed the newest actions of the file and the click zones are in it, so there's nothing left to save.
+		recordingPanelRecordedActionsTextArea.setText(null);
+		recordedActions = new LinkedList<String>();
+		removeAllClickZones();
+		
+		if (recordingStream.getFailure() != null)
+		{
+			logger.warning("Could not stream the recording to " + recordingStream.getOutputLocation() + ": " + recordingStream.getFailure().getMessage());
+			JOptionPane.showMessageDialog(this, "Error occured trying to stream the recorded data to: " + recordingStream.getOutputLocation());
+			return;
+		}
+		
+		// Add the recorded file to the playback queue with default options.
+		try
+		{
+			final PlaybackOptions streamedOptions = new PlaybackOptions(recordingStream.getOutputLocation());
+			
+			loadedPlaybackMap.put(streamedOptions, new LoadedRecording(recordingStream.getOutputLocation(), false, streamedOptions.createImportContext()));
+		}
+		catch (IllegalArgumentException | IOException | DataFormatException e)
+		{
+			logger.warning("Could not add the streamed recording to the playback queue: " + e.getMessage());
+			JOptionPane.showMessageDialog(this, "There was an issue loading the recorded file.");
+		}
+		
+		refreshPlaybackQueue();
 	}
 	
 	private void resumeRecordingActions()
 	{
 		// Minimize window.
 		this.setState(JFrame.ICONIFIED);
-				
-		// It's necessary to save here because by 'pausing' the recorder we are forced
-		// to re-start a whole new GlobalInputTracker that doesn't have access to the
-		// last recorded data.
-		
-		// Save the actions that we have so far to cache
-		saveRecordedActions();
 		
-		// Re-start a new input recorder
-		startInputRecorder();
+		// Open the recorder's capture gate again; the recording session was kept while paused.
+		inputRecorder.ResumeRecording();
+		captureStatusTimer.start();
 	}
 	
 	private void saveRecordedActions()
@@ -1841,7 +2159,12 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			if (recordedActions == null)
 				recordedActions = new LinkedList<String>();
 			
-			recordedActions.addAll(inputRecorder.getLastRecordingValues());
+			// The recorder's values are a read-only view, so each line is copied into the cached list.
+			for (String recordedLine : inputRecorder.getLastRecordingValues())
+			{
+				recordedActions.add(recordedLine);
+			}
+			
 			inputRecorder.resetLastRecordingValues();
 			
 			System.out.println("TotalActions: " + recordedActions.size());
@@ -1853,8 +2176,10 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 		// Minimize window.
 		this.setState(JFrame.NORMAL);
 		
-		// Stops the global listener from recording
-		stopInputRecorder();
+		// Close the recorder's capture gate; the recording session is kept so it can be resumed.
+		inputRecorder.PauseRecording();
+		captureStatusTimer.stop();
+		updateCaptureStatus();
 	}
 	
 	private void stopRecordingActions()
@@ -1868,6 +2193,9 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// Save the recorded actions so far.
 			saveRecordedActions();
 			
+			// Finish a streamed recording and add its file to the playback queue.
+			finishStreamingRecording();
+			
 			// Bring window to the front.
 			this.setState(JFrame.NORMAL);
 		}
@@ -2016,10 +2344,48 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			loadedPlaybackOptionsAndRecordings.add(new PlaybackQueueOptionsAndRecording(entry.getKey(), entry.getValue()));
 		}
 		
+		// Load the failover scripts in the background so they're ready if playback fails, if that's enabled.
+		if (warmUpFailoverScripts)
+			startFailoverScriptWarmUp(new ArrayList<>(loadedPlaybackMap.keySet()));
+		
 		// start the playback player.
 		playNextRecording();
 	}
 	
+	/**
+	 * Loads the failover scripts of the playback options on a background thread so they're ready if playback fails. 
+	 * Scripts that can't be loaded are skipped here and reported when playback actually fails.
+	 * @param playbackOptionsList The playback options whose failover scripts should be loaded.
+	 */
+	private void startFailoverScriptWarmUp(final ArrayList<PlaybackOptions> playbackOptionsList)
+	{
+		final Thread warmUpThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (PlaybackOptions playbackOptions : playbackOptionsList)
+				{
+					if (!playbackOptions.runAdditionalScriptIfFailsChecked)
+						continue;
+					
+					try
+					{
+						playbackOptions.getAdditionalScriptIfFails();
+					}
+					catch (IllegalArgumentException | IOException | DataFormatException e)
+					{
+						logger.fine("Could not load failover script " + playbackOptions.runAdditionalScriptIfFailsFileLocation + " ahead of time: " + e.getMessage());
+					}
+				}
+			}
+		}, "Failover script warm-up");
+		
+		warmUpThread.setDaemon(true);
+		warmUpThread.setPriority(Thread.MIN_PRIORITY);
+		warmUpThread.start();
+	}
+	
 	private void reenablePanelsAndButtonsAfterPlayback()
 	{
 		// Enable playback panel
@@ -2090,8 +2456,11 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			// If we have the Current Recording file.
 			if (currentlyPlayingOptionsAndRecording.options.recordingFileLocation.equals(CURRENT_RECORDING_NAME))
 			{
-				actionsToPlay = (LinkedList<AbstractInputAction>) DataIOHandlerUtils.convertToActionData(new LinkedList<>(new ArrayList<>(recordedActions)));
-				clickZonesToUse = DataIOHandlerUtils.convertToClickZoneDetailsData(getExportableClickZoneList());
+				// The actions and click zones are one recording, so they share an import context.
+				final RecordingImportContext importContext = currentlyPlayingOptionsAndRecording.options.createImportContext();
+				
+				actionsToPlay = (LinkedList<AbstractInputAction>) DataIOHandlerUtils.convertToActionData(new LinkedList<>(new ArrayList<>(recordedActions)), importContext);
+				clickZonesToUse = DataIOHandlerUtils.convertToClickZoneDetailsData(getExportableClickZoneList(), importContext);
 			}
 			else
 			{
@@ -2139,13 +2508,25 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 			loadedPlaybackOptionsAndRecordings = null;
 		}
 		
-		if (	currentPlaybackOptions.runAdditionalScriptIfFailsChecked && 
-				currentPlaybackOptions.loadedAdditionalScriptIfFails != null && 
-				currentPlaybackOptions.loadedAdditionalScriptIfFails.getInputActionList() != null)
+		LoadedRecording additionalScript = null;
+		
+		if (currentPlaybackOptions.runAdditionalScriptIfFailsChecked)
+		{
+			// The script is only loaded the first time it's needed, unless it was already loaded in the background.
+			try
+			{
+				additionalScript = currentPlaybackOptions.getAdditionalScriptIfFails();
+			}
+			catch (IllegalArgumentException | IOException | DataFormatException e)
+			{
+				JOptionPane.showMessageDialog(this, "The additional script could not be loaded because ==> " + e.getMessage());
+			}
+		}
+		
+		if (additionalScript != null && additionalScript.getInputActionList() != null)
 		{
 			// Load the player with the user inputs and click zones.
-			playbackPlayer.loadNewRecording(new LinkedList<>(currentPlaybackOptions.loadedAdditionalScriptIfFails.getInputActionList()), 
-											currentPlaybackOptions.loadedAdditionalScriptIfFails.getClickZoneDetails());
+			playbackPlayer.loadNewRecording(new LinkedList<>(additionalScript.getInputActionList()), additionalScript.getClickZoneDetails());
 			
 			// Play the script one time.
 			try
@@ -2269,7 +2650,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 				// Need to load each of the playback options.
 				for(PlaybackOptions options : importedPlaybackConfig)
 				{
-					addPlaybackItemToQueue(options, true);
+					addPlaybackItemToQueue(options, true, false);
 				}
 				
 				refreshPlaybackQueue();
@@ -2460,14 +2841,7 @@ public class MouseRecorderGUI extends JFrame implements WindowListener, Property
 	public void windowClosed(WindowEvent e) 
 	{
 		// Clean up the native hook.
-		try 
-		{
-			GlobalScreen.unregisterNativeHook();
-		}
-		catch (NativeHookException ex) 
-		{
-			ex.printStackTrace();
-		}
+		NativeHookDispatcher.getSharedDispatcher().stop();
 		
 		System.runFinalization();
 		System.exit(0);
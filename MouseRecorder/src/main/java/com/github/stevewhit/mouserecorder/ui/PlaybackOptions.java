@@ -1,5 +1,10 @@
 package com.github.stevewhit.mouserecorder.ui;
 
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+
 /**
  * A basic class that represents the playback options used in the MouseRecorderGUI 
  * @author Steve Whitmire (swhit114@gmail.com)
@@ -50,15 +55,165 @@ public class PlaybackOptions
 
 	public boolean ignoreClickZonesDuringPlaybackChecked = false;
 	
+	/**
+	 * How the coordinates of the recording and its failover script are fitted onto the current screen when they are loaded.
+	 */
+	private CoordinatePolicy coordinatePolicy = CoordinatePolicy.Clamp;
+	
 	public boolean stopPlaybackQueueIfFailsChecked = false;
 	
 	public boolean runAdditionalScriptIfFailsChecked = false;
 	public String runAdditionalScriptIfFailsFileLocation = null;
-	public LoadedRecording loadedAdditionalScriptIfFails = null;
 	
-	public String toExportableString()
+	/**
+	 * The loaded script to run if playback fails; null until it's needed. Written under the lock and read without it.
+	 */
+	private volatile LoadedRecording loadedAdditionalScriptIfFails = null;
+	
+	/**
+	 * Returns how the coordinates of the recording and its failover script are fitted onto the current screen.
+	 * @return Returns the coordinate policy.
+	 */
+	public synchronized CoordinatePolicy getCoordinatePolicy()
+	{
+		return coordinatePolicy;
+	}
+	
+	/**
+	 * Sets how the coordinates of the recording and its failover script are fitted onto the current screen. A failover script that was 
+	 * loaded with another policy is dropped, so it's loaded again with the new policy the first time it's needed.
+	 * @param coordinatePolicy The coordinate policy.
+	 * @throws IllegalArgumentException Throws if the coordinate policy is null.
+	 */
+	public synchronized void setCoordinatePolicy(CoordinatePolicy coordinatePolicy) throws IllegalArgumentException
+	{
+		if (coordinatePolicy == null)
+			throw new IllegalArgumentException("Coordinate policy cannot be null.");
+		
+		if (coordinatePolicy != this.coordinatePolicy)
+			loadedAdditionalScriptIfFails = null;
+		
+		this.coordinatePolicy = coordinatePolicy;
+	}
+	
+	/**
+	 * Creates a context for loading the recording or its failover script onto the current screen with the coordinate policy of these options. 
+	 * A new context is needed for every recording that is loaded.
+	 * @return Returns a new import context for the current screen.
+	 */
+	public RecordingImportContext createImportContext()
+	{
+		return RecordingImportContext.forCurrentScreen(getCoordinatePolicy());
+	}
+	
+	/**
+	 * Determines whether a script is set to run if playback fails, whether or not it has been loaded yet.
+	 * @return Returns true if a script location is set or a script is loaded; otherwise false.
+	 */
+	public synchronized boolean hasAdditionalScriptIfFails()
+	{
+		return loadedAdditionalScriptIfFails != null || (runAdditionalScriptIfFailsFileLocation != null && !runAdditionalScriptIfFailsFileLocation.isEmpty());
+	}
+	
+	/**
+	 * Determines whether the script to run if playback fails has already been loaded.
+	 * @return Returns true if the script is loaded; otherwise false.
+	 */
+	public boolean isAdditionalScriptIfFailsLoaded()
+	{
+		return loadedAdditionalScriptIfFails != null;
+	}
+	
+	/**
+	 * Returns the script to run if playback fails, loading it from its file location the first time it's needed. The script is
+	 * parsed without holding the lock, so the setters called from the event dispatching thread aren't held up while it loads; it's
+	 * only kept if its file location and coordinate policy weren't changed in the meantime.
+	 * @return Returns the loaded script, or null if no script is set.
+	 * @throws IllegalArgumentException Throws if the file doesn't contain any input actions.
+	 * @throws IOException Throws if there is an error opening or reading from the file location.
+	 * @throws DataFormatException Throws if there is an issue importing any of the data from the file.
+	 */
+	public LoadedRecording getAdditionalScriptIfFails() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final LoadedRecording loadedScript = loadedAdditionalScriptIfFails;
+		
+		if (loadedScript != null)
+			return loadedScript;
+		
+		final String fileLocation;
+		final CoordinatePolicy loadedCoordinatePolicy;
+		
+		synchronized (this)
+		{
+			if (loadedAdditionalScriptIfFails != null || !hasAdditionalScriptIfFails())
+				return loadedAdditionalScriptIfFails;
+			
+			fileLocation = runAdditionalScriptIfFailsFileLocation;
+			loadedCoordinatePolicy = coordinatePolicy;
+		}
+		
+		final LoadedRecording additionalScript = new LoadedRecording(fileLocation, false, RecordingImportContext.forCurrentScreen(loadedCoordinatePolicy));
+		
+		synchronized (this)
+		{
+			// Another thread may have loaded the script first; keep the script that was published.
+			if (loadedAdditionalScriptIfFails != null)
+				return loadedAdditionalScriptIfFails;
+			
+			if (fileLocation.equals(runAdditionalScriptIfFailsFileLocation) && loadedCoordinatePolicy == coordinatePolicy)
+				loadedAdditionalScriptIfFails = additionalScript;
+		}
+		
+		return additionalScript;
+	}
+	
+	/**
+	 * Loads the script at the file location and sets it as the script to run if playback fails. The script is loaded before the
+	 * lock is taken, so a failover script that is being loaded in the background doesn't hold up the caller.
+	 * @param fileLocation The system path location of the script to run if playback fails.
+	 * @throws IllegalArgumentException Throws if the file location is null or the file doesn't contain any input actions.
+	 * @throws IOException Throws if there is an error opening or reading from the file location.
+	 * @throws DataFormatException Throws if there is an issue importing any of the data from the file.
+	 */
+	public void setAdditionalScriptIfFails(String fileLocation) throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final CoordinatePolicy loadedCoordinatePolicy = getCoordinatePolicy();
+		final LoadedRecording additionalScript = new LoadedRecording(fileLocation, false, RecordingImportContext.forCurrentScreen(loadedCoordinatePolicy));
+		
+		synchronized (this)
+		{
+			runAdditionalScriptIfFailsFileLocation = fileLocation;
+			
+			// A script loaded with a policy that was changed in the meantime is loaded again the first time it's needed.
+			loadedAdditionalScriptIfFails = loadedCoordinatePolicy == coordinatePolicy ? additionalScript : null;
+		}
+	}
+	
+	/**
+	 * Sets the file location of the script to run if playback fails without loading it. A loaded script from another location is
+	 * dropped, so the script at the new location is loaded the first time it's needed.
+	 * @param fileLocation The system path location of the script to run if playback fails; null or empty if there isn't one.
+	 */
+	public synchronized void setAdditionalScriptIfFailsFileLocation(String fileLocation)
+	{
+		if (loadedAdditionalScriptIfFails != null && !loadedAdditionalScriptIfFails.getFileLocationPath().equals(fileLocation))
+			loadedAdditionalScriptIfFails = null;
+		
+		runAdditionalScriptIfFailsFileLocation = fileLocation;
+	}
+	
+	/**
+	 * Removes the script to run if playback fails, whether or not it has been loaded yet.
+	 */
+	public synchronized void clearAdditionalScriptIfFails()
+	{
+		loadedAdditionalScriptIfFails = null;
+		runAdditionalScriptIfFailsFileLocation = null;
+	}
+	
+	public synchronized String toExportableString()
 	{
-		return String.format("PLAYBACKITEM::::%1$s::::%2$s::::%3$d::::%4$s::::%5$d::::%6$s::::%7$s::::%8$s::::%9$s::::%10$s", 
+		return String.format("PLAYBACKITEM::::%1$s::::%2$s::::%3$d::::%4$s::::%5$d::::%6$s::::%7$s::::%8$s::::%9$s::::%10$s::::%11$s", 
 								recordingFileLocation, 
 								String.valueOf(repeatNumTimesChecked),
 								repeatNumTimesNumericalValue,
@@ -69,7 +224,8 @@ public class PlaybackOptions
 								String.valueOf(ignoreClickZonesDuringPlaybackChecked),
 								String.valueOf(stopPlaybackQueueIfFailsChecked),
 								String.valueOf(runAdditionalScriptIfFailsChecked),
-								loadedAdditionalScriptIfFails == null ? "_" : loadedAdditionalScriptIfFails.getFileLocationPath()
+								!hasAdditionalScriptIfFails() ? "_" : loadedAdditionalScriptIfFails != null ? loadedAdditionalScriptIfFails.getFileLocationPath() : runAdditionalScriptIfFailsFileLocation,
+								String.valueOf(coordinatePolicy)
 								);
 	}
 }
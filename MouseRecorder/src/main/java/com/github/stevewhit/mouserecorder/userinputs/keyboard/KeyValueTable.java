@@ -0,0 +1,230 @@
+package com.github.stevewhit.mouserecorder.userinputs.keyboard;
+
+import java.awt.event.KeyEvent;
+
+/**
+ * The names of the supported keyboard key values, built once when the class is loaded. A key value is supported if it has a name,
+ * so checking a key value while a recording is loaded or played back is an array load instead of a switch. The names are kept in pages
+ * of 256 key values, indexed by the high byte of the key value; pages without a supported key value aren't created.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public final class KeyValueTable
+{
+	/**
+	 * The number of key values in a page of the table.
+	 */
+	private static final int PAGE_SIZE = 256;
+	
+	/**
+	 * The highest key value that can be looked up.
+	 */
+	private static final int MAXIMUM_KEY_VALUE = 0xFFFF;
+	
+	/**
+	 * The name of each supported key value, by page and then by the low byte of the key value; null if the key value isn't supported.
+	 */
+	private static final String[][] KEY_VALUE_NAMES = new String[(MAXIMUM_KEY_VALUE + 1) / PAGE_SIZE][];
+	
+	static
+	{
+		for (int keyValue = KeyEvent.VK_0; keyValue <= KeyEvent.VK_9; keyValue++)
+		{
+			put(keyValue, String.valueOf((char) keyValue));
+		}
+		
+		for (int keyValue = KeyEvent.VK_A; keyValue <= KeyEvent.VK_Z; keyValue++)
+		{
+			put(keyValue, String.valueOf((char) keyValue));
+		}
+		
+		for (int keyValue = KeyEvent.VK_NUMPAD0; keyValue <= KeyEvent.VK_NUMPAD9; keyValue++)
+		{
+			put(keyValue, "NUMPAD" + (char) (keyValue - KeyEvent.VK_NUMPAD0 + '0'));
+		}
+		
+		put(KeyEvent.VK_COMMA, "COMMA");
+		put(KeyEvent.VK_PERIOD, "PERIOD");
+		put(KeyEvent.VK_SLASH, "SLASH");
+		put(KeyEvent.VK_SEMICOLON, "SEMICOLON");
+		put(KeyEvent.VK_EQUALS, "EQUALS");
+		put(KeyEvent.VK_OPEN_BRACKET, "OPEN_BRACKET");
+		put(KeyEvent.VK_BACK_SLASH, "BACK_SLASH");
+		put(KeyEvent.VK_CLOSE_BRACKET, "CLOSE_BRACKET");
+		put(KeyEvent.VK_ENTER, "ENTER");
+		put(KeyEvent.VK_BACK_SPACE, "BACK_SPACE");
+		put(KeyEvent.VK_TAB, "TAB");
+		put(KeyEvent.VK_CANCEL, "CANCEL");
+		put(KeyEvent.VK_CLEAR, "CLEAR");
+		put(KeyEvent.VK_SHIFT, "SHIFT");
+		put(KeyEvent.VK_CONTROL, "CONTROL");
+		put(KeyEvent.VK_ALT, "ALT");
+		put(KeyEvent.VK_PAUSE, "PAUSE");
+		put(KeyEvent.VK_CAPS_LOCK, "CAPS_LOCK");
+		put(KeyEvent.VK_ESCAPE, "ESCAPE");
+		put(KeyEvent.VK_SPACE, "SPACE");
+		put(KeyEvent.VK_PAGE_UP, "PAGE_UP");
+		put(KeyEvent.VK_PAGE_DOWN, "PAGE_DOWN");
+		put(KeyEvent.VK_END, "END");
+		put(KeyEvent.VK_HOME, "HOME");
+		put(KeyEvent.VK_LEFT, "LEFT");
+		put(KeyEvent.VK_UP, "UP");
+		put(KeyEvent.VK_RIGHT, "RIGHT");
+		put(KeyEvent.VK_DOWN, "DOWN");
+		put(KeyEvent.VK_MULTIPLY, "MULTIPLY");
+		put(KeyEvent.VK_ADD, "ADD");
+		put(KeyEvent.VK_SEPARATOR, "SEPARATOR");
+		put(KeyEvent.VK_SUBTRACT, "SUBTRACT");
+		put(KeyEvent.VK_DECIMAL, "DECIMAL");
+		put(KeyEvent.VK_DIVIDE, "DIVIDE");
+		put(KeyEvent.VK_DELETE, "DELETE");
+		put(KeyEvent.VK_NUM_LOCK, "NUM_LOCK");
+		put(KeyEvent.VK_SCROLL_LOCK, "SCROLL_LOCK");
+		put(KeyEvent.VK_F1, "F1");
+		put(KeyEvent.VK_F2, "F2");
+		put(KeyEvent.VK_F3, "F3");
+		put(KeyEvent.VK_F4, "F4");
+		put(KeyEvent.VK_F5, "F5");
+		put(KeyEvent.VK_F6, "F6");
+		put(KeyEvent.VK_F7, "F7");
+		put(KeyEvent.VK_F8, "F8");
+		put(KeyEvent.VK_F9, "F9");
+		put(KeyEvent.VK_F10, "F10");
+		put(KeyEvent.VK_F11, "F11");
+		put(KeyEvent.VK_F12, "F12");
+		put(KeyEvent.VK_F13, "F13");
+		put(KeyEvent.VK_F14, "F14");
+		put(KeyEvent.VK_F15, "F15");
+		put(KeyEvent.VK_F16, "F16");
+		put(KeyEvent.VK_F17, "F17");
+		put(KeyEvent.VK_F18, "F18");
+		put(KeyEvent.VK_F19, "F19");
+		put(KeyEvent.VK_F20, "F20");
+		put(KeyEvent.VK_F21, "F21");
+		put(KeyEvent.VK_F22, "F22");
+		put(KeyEvent.VK_F23, "F23");
+		put(KeyEvent.VK_F24, "F24");
+		put(KeyEvent.VK_PRINTSCREEN, "PRINTSCREEN");
+		put(KeyEvent.VK_INSERT, "INSERT");
+		put(KeyEvent.VK_HELP, "HELP");
+		put(KeyEvent.VK_META, "META");
+		put(KeyEvent.VK_BACK_QUOTE, "BACK_QUOTE");
+		put(KeyEvent.VK_QUOTE, "QUOTE");
+		put(KeyEvent.VK_KP_UP, "KP_UP");
+		put(KeyEvent.VK_KP_DOWN, "KP_DOWN");
+		put(KeyEvent.VK_KP_LEFT, "KP_LEFT");
+		put(KeyEvent.VK_KP_RIGHT, "KP_RIGHT");
+		put(KeyEvent.VK_DEAD_GRAVE, "DEAD_GRAVE");
+		put(KeyEvent.VK_DEAD_ACUTE, "DEAD_ACUTE");
+		put(KeyEvent.VK_DEAD_CIRCUMFLEX, "DEAD_CIRCUMFLEX");
+		put(KeyEvent.VK_DEAD_TILDE, "DEAD_TILDE");
+		put(KeyEvent.VK_DEAD_MACRON, "DEAD_MACRON");
+		put(KeyEvent.VK_DEAD_BREVE, "DEAD_BREVE");
+		put(KeyEvent.VK_DEAD_ABOVEDOT, "DEAD_ABOVEDOT");
+		put(KeyEvent.VK_DEAD_DIAERESIS, "DEAD_DIAERESIS");
+		put(KeyEvent.VK_DEAD_ABOVERING, "DEAD_ABOVERING");
+		put(KeyEvent.VK_DEAD_DOUBLEACUTE, "DEAD_DOUBLEACUTE");
+		put(KeyEvent.VK_DEAD_CARON, "DEAD_CARON");
+		put(KeyEvent.VK_DEAD_CEDILLA, "DEAD_CEDILLA");
+		put(KeyEvent.VK_DEAD_OGONEK, "DEAD_OGONEK");
+		put(KeyEvent.VK_DEAD_IOTA, "DEAD_IOTA");
+		put(KeyEvent.VK_DEAD_VOICED_SOUND, "DEAD_VOICED_SOUND");
+		put(KeyEvent.VK_DEAD_SEMIVOICED_SOUND, "DEAD_SEMIVOICED_SOUND");
+		put(KeyEvent.VK_AMPERSAND, "AMPERSAND");
+		put(KeyEvent.VK_ASTERISK, "ASTERISK");
+		put(KeyEvent.VK_QUOTEDBL, "QUOTEDBL");
+		put(KeyEvent.VK_LESS, "LESS");
+		put(KeyEvent.VK_GREATER, "GREATER");
+		put(KeyEvent.VK_BRACELEFT, "BRACELEFT");
+		put(KeyEvent.VK_BRACERIGHT, "BRACERIGHT");
+		put(KeyEvent.VK_AT, "AT");
+		put(KeyEvent.VK_COLON, "COLON");
+		put(KeyEvent.VK_CIRCUMFLEX, "CIRCUMFLEX");
+		put(KeyEvent.VK_DOLLAR, "DOLLAR");
+		put(KeyEvent.VK_EURO_SIGN, "EURO_SIGN");
+		put(KeyEvent.VK_EXCLAMATION_MARK, "EXCLAMATION_MARK");
+		put(KeyEvent.VK_INVERTED_EXCLAMATION_MARK, "INVERTED_EXCLAMATION_MARK");
+		put(KeyEvent.VK_LEFT_PARENTHESIS, "LEFT_PARENTHESIS");
+		put(KeyEvent.VK_NUMBER_SIGN, "NUMBER_SIGN");
+		put(KeyEvent.VK_MINUS, "MINUS");
+		put(KeyEvent.VK_PLUS, "PLUS");
+		put(KeyEvent.VK_RIGHT_PARENTHESIS, "RIGHT_PARENTHESIS");
+		put(KeyEvent.VK_UNDERSCORE, "UNDERSCORE");
+		put(KeyEvent.VK_FINAL, "FINAL");
+		put(KeyEvent.VK_CONVERT, "CONVERT");
+		put(KeyEvent.VK_NONCONVERT, "NONCONVERT");
+		put(KeyEvent.VK_ACCEPT, "ACCEPT");
+		put(KeyEvent.VK_MODECHANGE, "MODECHANGE");
+		put(KeyEvent.VK_KANA, "KANA");
+		put(KeyEvent.VK_KANJI, "KANJI");
+		put(KeyEvent.VK_ALPHANUMERIC, "ALPHANUMERIC");
+		put(KeyEvent.VK_KATAKANA, "KATAKANA");
+		put(KeyEvent.VK_HIRAGANA, "HIRAGANA");
+		put(KeyEvent.VK_FULL_WIDTH, "FULL_WIDTH");
+		put(KeyEvent.VK_HALF_WIDTH, "HALF_WIDTH");
+		put(KeyEvent.VK_ROMAN_CHARACTERS, "ROMAN_CHARACTERS");
+		put(KeyEvent.VK_ALL_CANDIDATES, "ALL_CANDIDATES");
+		put(KeyEvent.VK_PREVIOUS_CANDIDATE, "PREVIOUS_CANDIDATE");
+		put(KeyEvent.VK_CODE_INPUT, "CODE_INPUT");
+		put(KeyEvent.VK_JAPANESE_KATAKANA, "JAPANESE_KATAKANA");
+		put(KeyEvent.VK_JAPANESE_HIRAGANA, "JAPANESE_HIRAGANA");
+		put(KeyEvent.VK_JAPANESE_ROMAN, "JAPANESE_ROMAN");
+		put(KeyEvent.VK_KANA_LOCK, "KANA_LOCK");
+		put(KeyEvent.VK_INPUT_METHOD_ON_OFF, "INPUT_METHOD_ON_OFF");
+		put(KeyEvent.VK_AGAIN, "AGAIN");
+		put(KeyEvent.VK_UNDO, "UNDO");
+		put(KeyEvent.VK_COPY, "COPY");
+		put(KeyEvent.VK_PASTE, "PASTE");
+		put(KeyEvent.VK_CUT, "CUT");
+		put(KeyEvent.VK_FIND, "FIND");
+		put(KeyEvent.VK_PROPS, "PROPS");
+		put(KeyEvent.VK_STOP, "STOP");
+		put(KeyEvent.VK_COMPOSE, "COMPOSE");
+		put(KeyEvent.VK_ALT_GRAPH, "ALT_GRAPH");
+	}
+	
+	/**
+	 * Private constructor to keep this as a static utility class.
+	 */
+	private KeyValueTable(){}
+	
+	/**
+	 * Returns the name of a key value.
+	 * @param keyValue The keyboard key value.
+	 * @return Returns the name of the key value, or null if the key value isn't supported.
+	 */
+	public static String getKeyValueText(int keyValue)
+	{
+		if (keyValue < 0 || keyValue > MAXIMUM_KEY_VALUE)
+			return null;
+		
+		final String[] page = KEY_VALUE_NAMES[keyValue / PAGE_SIZE];
+		
+		return page == null ? null : page[keyValue % PAGE_SIZE];
+	}
+	
+	/**
+	 * Returns whether a key value is supported.
+	 * @param keyValue The keyboard key value.
+	 * @return Returns true if the key value has a name; otherwise false.
+	 */
+	public static boolean isSupportedKeyValue(int keyValue)
+	{
+		return getKeyValueText(keyValue) != null;
+	}
+	
+	/**
+	 * Adds the name of a key value to the table, creating its page if needed.
+	 * @param keyValue The keyboard key value.
+	 * @param name The name of the key value.
+	 */
+	private static void put(int keyValue, String name)
+	{
+		if (KEY_VALUE_NAMES[keyValue / PAGE_SIZE] == null)
+		{
+			KEY_VALUE_NAMES[keyValue / PAGE_SIZE] = new String[PAGE_SIZE];
+		}
+		
+		KEY_VALUE_NAMES[keyValue / PAGE_SIZE][keyValue % PAGE_SIZE] = name;
+	}
+}
@@ -0,0 +1,61 @@
+package com.github.stevewhit.mouserecorder.userinputs.mouse;
+
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+
+/**
+ * Represents the mouse wheel being scrolled a number of notches while the pointer is at a pixel coordinate on the computer screen.
+ * @author Steve Whitmire (swhit114@gmail.com)
+ *
+ */
+public class MouseWheelScroll extends AbstractMouseInputAction
+{
+	/**
+	 * The number of notches the wheel was scrolled. Negative values scroll up (away from the user), positive values scroll down.
+	 */
+	private int wheelAmount;
+	
+	/**
+	 * Constructor that accepts the location of the pointer, the number of notches scrolled and a time stamp.
+	 * @param location The location of the mouse pointer while the wheel was scrolled.
+	 * @param wheelAmount The number of notches scrolled; negative values scroll up and positive values scroll down.
+	 * @param timeStamp The time (in nanoseconds) that this action occurred.
+	 * @throws IllegalArgumentException Throws if the location is invalid, the wheel amount is zero or the timestamp is negative.
+	 */
+	public MouseWheelScroll(PixelCoordinate2D location, int wheelAmount, long timeStamp) throws IllegalArgumentException
+	{
+		super(location, timeStamp);
+		
+		if (wheelAmount == 0)
+		{
+			throw new IllegalArgumentException("Cannot create mouse wheel action because ==> Wheel amount cannot be zero.");
+		}
+		
+		this.wheelAmount = wheelAmount;
+	}
+	
+	/**
+	 * Returns the number of notches the wheel was scrolled.
+	 * @return Returns the wheel amount; negative values scroll up and positive values scroll down.
+	 */
+	public int getWheelAmount()
+	{
+		return this.wheelAmount;
+	}
+	
+	/**
+	 * {@inheritDoc}
+	 * <pre>
+	 * Example output: MOUSEWHEEL: -3 : (123, 456)
+	 * </pre>
+	 */
+	@Override
+	public String toString()
+	{
+		if (!super.isValidAction())
+		{
+			return null;
+		}
+		
+		return String.format("MOUSEWHEEL: %1$d : %2$s", wheelAmount, getLocation());
+	}
+}
@@ -0,0 +1,151 @@
+package com.github.stevewhit.mouserecorder;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.RecordingBatchTool.TargetFormat;
+import com.github.stevewhit.mouserecorder.datahandling.CompressedRecordingIOUtils;
+import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+
+public class RecordingBatchToolTest
+{
+	File inputDirectory;
+	File outputDirectory;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		inputDirectory = new File("TestRecordingBatchToolInput");
+		outputDirectory = new File("TestRecordingBatchToolOutput");
+
+		deleteRecursively(inputDirectory);
+		deleteRecursively(outputDirectory);
+
+		new File(inputDirectory, "nested").mkdirs();
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50", "KPRESS:17:548174113763558", "MMOVED:469:76:548174113763600", "KRELEA:17:548174760943927")),
+												  new File(inputDirectory, "first.txt").getPath());
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:18:548174113763558", "KRELEA:18:548174760943927")),
+												  new File(inputDirectory, "nested" + File.separator + "second.txt").getPath());
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:18:548174113763558", "NOTSUPPORTEDID:18:548174760943927")),
+												  new File(inputDirectory, "broken.txt").getPath());
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("Not a recording")),
+												  new File(inputDirectory, "notes.md").getPath());
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		deleteRecursively(inputDirectory);
+		deleteRecursively(outputDirectory);
+
+		inputDirectory = null;
+		outputDirectory = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingBatchTool_MissingDirectory()
+	{
+		new RecordingBatchTool("TestRecordingBatchToolMissing", null, null, 1, null, 10);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingBatchTool_InvalidThreadCount()
+	{
+		new RecordingBatchTool(inputDirectory.getPath(), null, null, 0, null, 10);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateFromArguments_UnknownOption()
+	{
+		RecordingBatchTool.createFromArguments(new String[]{inputDirectory.getPath(), "--fast"});
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateFromArguments_InvalidScreen()
+	{
+		RecordingBatchTool.createFromArguments(new String[]{inputDirectory.getPath(), "--screen=1920"});
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateFromArguments_NoDirectory()
+	{
+		RecordingBatchTool.createFromArguments(new String[]{"--threads=2"});
+	}
+
+	//=======================================================
+
+	@Test
+	public void testRun_ValidateOnly() throws IOException, InterruptedException
+	{
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final int failedCount = RecordingBatchTool.createFromArguments(new String[]{inputDirectory.getPath(), "--threads=2"}).run(new PrintStream(output, true));
+
+		final String printedOutput = output.toString();
+
+		assertEquals(1, failedCount);
+		assertTrue(printedOutput.contains("FAIL broken.txt: "));
+		assertTrue(printedOutput.contains("OK   first.txt: 3 action(s)"));
+		assertTrue(printedOutput.contains("3 file(s), 1 failed, 5 action(s)"));
+		assertFalse(printedOutput.contains("notes.md"));
+	}
+
+	@Test
+	public void testRun_ScreenDimensions() throws IOException, InterruptedException
+	{
+		final ByteArrayOutputStream output = new ByteArrayOutputStream();
+		final int failedCount = new RecordingBatchTool(inputDirectory.getPath(), null, null, 2, new Dimension(400, 400), 10).run(new PrintStream(output, true));
+
+		assertEquals(2, failedCount);
+		assertTrue(output.toString().contains("FAIL first.txt: "));
+	}
+
+	@Test
+	public void testRun_ConvertToCompressed() throws IOException, InterruptedException, IllegalArgumentException, DataFormatException
+	{
+		final int failedCount = new RecordingBatchTool(inputDirectory.getPath(), TargetFormat.Compressed, outputDirectory.getPath(), 2, null, 10).run(new PrintStream(new ByteArrayOutputStream(), true));
+
+		final File convertedFirst = new File(outputDirectory, "first" + CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION);
+		final File convertedSecond = new File(outputDirectory, "nested" + File.separator + "second" + CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION);
+
+		assertEquals(1, failedCount);
+		assertTrue(CompressedRecordingIOUtils.isCompressedRecordingFile(convertedFirst.getPath()));
+		assertEquals(3, DataIOHandlerUtils.importRecordingFromFile(convertedFirst.getPath()).getInputActions().size());
+		assertEquals(1, DataIOHandlerUtils.importRecordingFromFile(convertedFirst.getPath()).getClickZoneDetails().size());
+		assertTrue(convertedSecond.exists());
+		assertFalse(new File(outputDirectory, "broken" + CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION).exists());
+	}
+
+	/**
+	 * Deletes the file or directory along with everything in it.
+	 */
+	private static void deleteRecursively(File file)
+	{
+		if (file == null || !file.exists())
+			return;
+
+		final File[] children = file.listFiles();
+
+		if (children != null)
+		{
+			for (File child : children)
+			{
+				deleteRecursively(child);
+			}
+		}
+
+		file.delete();
+	}
+}
@@ -0,0 +1,152 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.util.zip.DataFormatException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ActionLineTokenizerTest
+{
+	ActionLineTokenizer tokenizer;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		tokenizer = new ActionLineTokenizer();
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testReset_NullLine()
+	{
+		tokenizer.reset(null);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testHasTag_Valid()
+	{
+		assertTrue(tokenizer.reset("KPRESS:17:548174113763558").hasTag("KPRESS"));
+		assertTrue(tokenizer.reset("kpress:17:548174113763558").hasTag("KPRESS"));
+		assertTrue(tokenizer.reset("CZONEE").hasTag("CZONEE"));
+		assertFalse(tokenizer.reset("KPRESSED:17:548174113763558").hasTag("KPRESS"));
+		assertFalse(tokenizer.reset("KPRES:17").hasTag("KPRESS"));
+		assertFalse(tokenizer.reset("").hasTag("KPRESS"));
+	}
+
+	@Test
+	public void testGetTag_Valid()
+	{
+		assertEquals("MMOVE", tokenizer.reset("MMOVE:469:76:548171866216160").getTag());
+		assertEquals("NOTSUPPORTEDID", tokenizer.reset("NOTSUPPORTEDID").getTag());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testGetFieldCount_Valid()
+	{
+		assertEquals(0, tokenizer.reset("").getFieldCount());
+		assertEquals(1, tokenizer.reset("KPRESS").getFieldCount());
+		assertEquals(3, tokenizer.reset("KPRESS:17:548174113763558").getFieldCount());
+		assertEquals(3, tokenizer.reset("KPRESS:17:548174113763558::").getFieldCount());
+		assertEquals(4, tokenizer.reset("KPRESS::17:548174113763558").getFieldCount());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testNextNumbers_Valid() throws DataFormatException
+	{
+		tokenizer.reset("MPRESS:3:-469:+76:1399149:548179641171616");
+		tokenizer.skipTag();
+
+		assertEquals(3, tokenizer.nextInt());
+		assertEquals(-469, tokenizer.nextInt());
+		assertEquals(76, tokenizer.nextInt());
+		assertEquals(1399149, tokenizer.nextInt());
+		assertEquals(548179641171616L, tokenizer.nextLong());
+	}
+
+	@Test
+	public void testNextLong_Limits() throws DataFormatException
+	{
+		tokenizer.reset("X:" + Long.MAX_VALUE + ":" + Long.MIN_VALUE);
+		tokenizer.skipTag();
+
+		assertEquals(Long.MAX_VALUE, tokenizer.nextLong());
+		assertEquals(Long.MIN_VALUE, tokenizer.nextLong());
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextLong_Overflow() throws DataFormatException
+	{
+		tokenizer.reset("X:9223372036854775808");
+		tokenizer.skipTag();
+		tokenizer.nextLong();
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextInt_Overflow() throws DataFormatException
+	{
+		tokenizer.reset("X:2147483648");
+		tokenizer.skipTag();
+		tokenizer.nextInt();
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextInt_NotANumber() throws DataFormatException
+	{
+		tokenizer.reset("MMOVED:469:blue:548171866216160");
+		tokenizer.skipTag();
+		tokenizer.nextInt();
+		tokenizer.nextInt();
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextInt_EmptyField() throws DataFormatException
+	{
+		tokenizer.reset("KPRESS::548174113763558");
+		tokenizer.skipTag();
+		tokenizer.nextInt();
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextInt_SignOnly() throws DataFormatException
+	{
+		tokenizer.reset("KPRESS:-:548174113763558");
+		tokenizer.skipTag();
+		tokenizer.nextInt();
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testNextInt_NoMoreFields() throws DataFormatException
+	{
+		tokenizer.reset("KPRESS:17");
+		tokenizer.skipTag();
+		tokenizer.nextInt();
+		tokenizer.nextInt();
+	}
+
+	@Test
+	public void testNextInt_ReportsField()
+	{
+		tokenizer.reset("MPRESS:3:469:blue:1399149:548179641171616");
+		tokenizer.skipTag();
+
+		try
+		{
+			tokenizer.nextInt();
+			tokenizer.nextInt();
+			tokenizer.nextInt();
+			fail("Expected a DataFormatException.");
+		}
+		catch (DataFormatException ex)
+		{
+			assertEquals("Field 4 is not a valid number: \"blue\"", ex.getMessage());
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.Queue;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.monitor.Pixel;
+import com.github.stevewhit.mouserecorder.monitor.PixelColor;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButton;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
+
+public class BinaryRecordingIOUtilsTest
+{
+	File fileLoc;
+	String saveLocation;
+	LinkedList<AbstractInputAction> exportedActions;
+	ArrayList<ClickZoneDetails> exportedClickZones;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		saveLocation = "TestBinaryRecording.mrec";
+		fileLoc = new File(saveLocation);
+
+		if (fileLoc != null && fileLoc.exists())
+		{
+			fileLoc.delete();
+		}
+
+		exportedClickZones = new ArrayList<ClickZoneDetails>();
+		exportedClickZones.add(new ClickZoneDetails(698, 413, 50, 50));
+		exportedClickZones.add(new ClickZoneDetails(1222, 417, 250, 250));
+
+		exportedActions = new LinkedList<AbstractInputAction>();
+		exportedActions.add(new MouseMove(new PixelCoordinate2D(469, 76), 548171866216160L));
+		exportedActions.add(new KeyboardKeyPress(17, 548174113763558L));
+		exportedActions.add(new KeyboardKeyRelease(17, 548174760943927L));
+		exportedActions.add(new MouseButtonPress(MouseButton.ScrollWheel, new Pixel(new PixelColor(1399149), new PixelCoordinate2D(469, 76)), 548179641171616L));
+		exportedActions.add(new MouseButtonRelease(MouseButton.ScrollWheel, new Pixel(new PixelColor(1399149), new PixelCoordinate2D(469, 76)), 548180249079966L));
+		exportedActions.add(new MouseButtonPress(MouseButton.Right, new Pixel(new PixelColor(0xFFFFFF), new PixelCoordinate2D(0, 0)), 548181397050226L));
+		exportedActions.add(new MouseButtonRelease(MouseButton.Right, new Pixel(new PixelColor(0), new PixelCoordinate2D(1919, 1079)), 548181525054397L));
+		exportedActions.add(new KeyboardKeyPress(18, 548187439805729L));
+
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, saveLocation);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (fileLoc != null && fileLoc.exists())
+		{
+			fileLoc.delete();
+		}
+
+		fileLoc = null;
+		saveLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToBinaryFile_NullActions() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(null, exportedClickZones, saveLocation);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToBinaryFile_EmptyActions() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(new LinkedList<AbstractInputAction>(), exportedClickZones, saveLocation);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToBinaryFile_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, "");
+	}
+
+	@Test
+	public void testExportRecordingToBinaryFile_NullClickZones() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, null, saveLocation);
+
+		assertTrue(BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation).getClickZoneDetails().isEmpty());
+	}
+
+	@Test
+	public void testExportRecordingToBinaryFile_FailureKeepsExistingFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final long existingLength = fileLoc.length();
+		final LinkedList<AbstractInputAction> invalidActions = new LinkedList<AbstractInputAction>(exportedActions);
+		invalidActions.add(null);
+
+		try
+		{
+			BinaryRecordingIOUtils.exportRecordingToBinaryFile(invalidActions, null, saveLocation);
+			fail("Expected an IllegalArgumentException.");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Expected.
+		}
+
+		assertEquals(existingLength, fileLoc.length());
+		assertEquals(exportedActions.size(), BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation).getInputActions().size());
+
+		for (File leftOverFile : new File(".").getAbsoluteFile().listFiles())
+		{
+			assertFalse(leftOverFile.getName().startsWith(saveLocation + ".") && leftOverFile.getName().endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	public void testExportRecordingToBinaryFile_SmallerThanText() throws IllegalArgumentException, IOException
+	{
+		// Every text line is at least 20 bytes.
+		assertTrue(fileLoc.length() < exportedActions.size() * 20);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testImportRecordingFromBinaryFile_Valid() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RecordingData importedRecording = BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation);
+		Queue<AbstractInputAction> importedActions = importedRecording.getInputActions();
+
+		assertTrue(importedActions.size() == 8);
+		assertTrue(importedActions.peek() instanceof MouseMove);
+		assertTrue(importedActions.toArray()[7] instanceof KeyboardKeyPress);
+
+		Object[] expected = exportedActions.toArray();
+		Object[] actual = importedActions.toArray();
+
+		for (int i = 0; i < expected.length; i++)
+		{
+			assertEquals(expected[i].getClass(), actual[i].getClass());
+			assertEquals(((AbstractInputAction) expected[i]).getTimeStamp(), ((AbstractInputAction) actual[i]).getTimeStamp());
+			assertEquals(expected[i].toString(), actual[i].toString());
+		}
+
+		assertTrue(importedRecording.getClickZoneDetails().size() == 2);
+		assertTrue(importedRecording.getClickZoneDetails().get(1).getWindowDimensions().equals(new Dimension(250, 250)));
+		assertTrue(importedRecording.getClickZoneDetails().get(1).getWindowLocation().equals(new Point(1222, 417)));
+	}
+
+	@Test
+	public void testImportRecordingFromBinaryFile_MouseWheel() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		LinkedList<AbstractInputAction> actions = new LinkedList<AbstractInputAction>();
+		actions.add(new MouseWheelScroll(new PixelCoordinate2D(469, 76), -12, 5000L));
+		actions.add(new MouseWheelScroll(new PixelCoordinate2D(469, 76), 3, 6000L));
+
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(actions, null, saveLocation);
+
+		Object[] actual = BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation).getInputActions().toArray();
+
+		assertEquals(-12, ((MouseWheelScroll) actual[0]).getWheelAmount());
+		assertEquals(3, ((MouseWheelScroll) actual[1]).getWheelAmount());
+		assertEquals(new PixelCoordinate2D(469, 76), ((MouseWheelScroll) actual[1]).getLocation());
+		assertEquals(6000L, ((MouseWheelScroll) actual[1]).getTimeStamp());
+	}
+
+	@Test
+	public void testImportRecordingFromBinaryFile_DecreasingTimestamps() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		LinkedList<AbstractInputAction> actions = new LinkedList<AbstractInputAction>();
+		actions.add(new KeyboardKeyPress(17, 5000L));
+		actions.add(new KeyboardKeyRelease(17, 10L));
+
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(actions, null, saveLocation);
+
+		Object[] actual = BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation).getInputActions().toArray();
+
+		assertEquals(5000L, ((AbstractInputAction) actual[0]).getTimeStamp());
+		assertEquals(10L, ((AbstractInputAction) actual[1]).getTimeStamp());
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromBinaryFile_Truncated() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RandomAccessFile file = new RandomAccessFile(fileLoc, "rw");
+		file.setLength(file.length() - 3);
+		file.close();
+
+		BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromBinaryFile_UnsupportedVersion() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RandomAccessFile file = new RandomAccessFile(fileLoc, "rw");
+		file.seek(BinaryRecordingIOUtils.MAGIC_BYTES.length);
+		file.writeByte(BinaryRecordingIOUtils.FORMAT_VERSION + 1);
+		file.close();
+
+		BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromBinaryFile_NotBinary() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), saveLocation);
+
+		BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIsBinaryRecordingFile_NullFileName() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.isBinaryRecordingFile(null);
+	}
+
+	@Test(expected=IOException.class)
+	public void testIsBinaryRecordingFile_FileDoesntExist() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.isBinaryRecordingFile("FileThatDoesntExist.mrec");
+	}
+
+	@Test
+	public void testIsBinaryRecordingFile_Valid() throws IllegalArgumentException, IOException
+	{
+		assertTrue(BinaryRecordingIOUtils.isBinaryRecordingFile(saveLocation));
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), saveLocation);
+		assertFalse(BinaryRecordingIOUtils.isBinaryRecordingFile(saveLocation));
+
+		FileOutputStream os = new FileOutputStream(fileLoc);
+		os.write('M');
+		os.close();
+		assertFalse(BinaryRecordingIOUtils.isBinaryRecordingFile(saveLocation));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testDataIOHandlerUtils_DetectsBinaryFormat() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		assertTrue(DataIOHandlerUtils.importActionDataFromFile(saveLocation).size() == 8);
+		assertTrue(DataIOHandlerUtils.importClickZoneDataFromFile(saveLocation).size() == 2);
+		assertTrue(DataIOHandlerUtils.importRecordingFromFile(saveLocation).getInputActions().size() == 8);
+	}
+
+	@Test
+	public void testImportRecordingFromBinaryFile_SourceDimensions() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, saveLocation, new Dimension(1920, 1080));
+
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(960, 540), RecordingImportContext.CoordinatePolicy.Scale);
+		RecordingData importedRecording = BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation, importContext);
+
+		assertEquals(new Dimension(1920, 1080), importContext.getSourceDimensions());
+		assertEquals(new PixelCoordinate2D(235, 38), ((MouseMove) importedRecording.getInputActions().peek()).getLocation());
+		assertEquals(new Point(611, 209), importedRecording.getClickZoneDetails().get(1).getWindowLocation());
+	}
+
+	@Test
+	public void testImportRecordingFromBinaryFile_NoSourceDimensions() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, saveLocation, null);
+
+		RecordingImportContext importContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Scale);
+
+		assertEquals(8, BinaryRecordingIOUtils.importRecordingFromBinaryFile(saveLocation, importContext).getInputActions().size());
+		assertNull(importContext.getSourceDimensions());
+	}
+}
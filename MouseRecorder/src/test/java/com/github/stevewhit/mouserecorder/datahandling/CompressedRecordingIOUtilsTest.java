@@ -0,0 +1,278 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.monitor.Pixel;
+import com.github.stevewhit.mouserecorder.monitor.PixelColor;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButton;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+
+public class CompressedRecordingIOUtilsTest
+{
+	static final long FIRST_TIME_STAMP = 548171866216160L;
+	static final long TIME_BETWEEN_ACTIONS = 8000000L;
+
+	File fileLoc;
+	File binaryFileLoc;
+	String saveLocation;
+	String binarySaveLocation;
+	LinkedList<AbstractInputAction> exportedActions;
+	ArrayList<ClickZoneDetails> exportedClickZones;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		saveLocation = "TestCompressedRecording" + CompressedRecordingIOUtils.COMPRESSED_FILE_EXTENSION;
+		binarySaveLocation = "TestCompressedRecording" + BinaryRecordingIOUtils.BINARY_FILE_EXTENSION;
+		fileLoc = new File(saveLocation);
+		binaryFileLoc = new File(binarySaveLocation);
+
+		deleteFiles();
+
+		exportedClickZones = new ArrayList<ClickZoneDetails>();
+		exportedClickZones.add(new ClickZoneDetails(698, 413, 50, 50));
+		exportedClickZones.add(new ClickZoneDetails(1222, 417, 250, 250));
+
+		// A long, slowly moving recording with a click every so often.
+		exportedActions = new LinkedList<AbstractInputAction>();
+
+		for (int itemNum = 0; itemNum < 10000; itemNum++)
+		{
+			final long timeStamp = FIRST_TIME_STAMP + itemNum * TIME_BETWEEN_ACTIONS;
+
+			if (itemNum % 50 == 0)
+				exportedActions.add(new MouseButtonPress(MouseButton.Left, new Pixel(new PixelColor(1399149), new PixelCoordinate2D(itemNum % 1920, 76)), timeStamp));
+			else if (itemNum % 50 == 25)
+				exportedActions.add(new KeyboardKeyPress(65 + itemNum % 26, timeStamp));
+			else
+				exportedActions.add(new MouseMove(new PixelCoordinate2D(itemNum % 1920, 500 + itemNum % 7), timeStamp));
+		}
+
+		CompressedRecordingIOUtils.exportRecordingToCompressedFile(exportedActions, exportedClickZones, saveLocation, 1000);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		deleteFiles();
+
+		fileLoc = null;
+		binaryFileLoc = null;
+		saveLocation = null;
+		binarySaveLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToCompressedFile_NullActions() throws IllegalArgumentException, IOException
+	{
+		CompressedRecordingIOUtils.exportRecordingToCompressedFile(null, exportedClickZones, saveLocation);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToCompressedFile_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		CompressedRecordingIOUtils.exportRecordingToCompressedFile(exportedActions, exportedClickZones, "");
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testExportRecordingToCompressedFile_InvalidBlockSize() throws IllegalArgumentException, IOException
+	{
+		CompressedRecordingIOUtils.exportRecordingToCompressedFile(exportedActions, exportedClickZones, saveLocation, 0);
+	}
+
+	@Test
+	public void testExportRecordingToCompressedFile_SmallerThanBinary() throws IllegalArgumentException, IOException
+	{
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, binarySaveLocation);
+
+		assertTrue(fileLoc.length() < binaryFileLoc.length());
+	}
+
+	@Test
+	public void testExportRecordingToCompressedFile_FailureKeepsExistingFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final long existingLength = fileLoc.length();
+		final LinkedList<AbstractInputAction> invalidActions = new LinkedList<AbstractInputAction>(exportedActions);
+		invalidActions.add(null);
+
+		try
+		{
+			CompressedRecordingIOUtils.exportRecordingToCompressedFile(invalidActions, null, saveLocation);
+			fail("Expected an IllegalArgumentException.");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Expected.
+		}
+
+		assertEquals(existingLength, fileLoc.length());
+		assertSameActions(exportedActions, CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation).getInputActions().toArray());
+
+		for (File leftOverFile : new File(".").getAbsoluteFile().listFiles())
+		{
+			assertFalse(leftOverFile.getName().startsWith(saveLocation + ".") && leftOverFile.getName().endsWith(".tmp"));
+		}
+	}
+
+	//=======================================================
+
+	@Test
+	public void testImportRecordingFromCompressedFile_Valid() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final RecordingData importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+
+		assertSameActions(exportedActions, importedRecording.getInputActions().toArray());
+		assertTrue(importedRecording.getClickZoneDetails().size() == 2);
+		assertTrue(importedRecording.getClickZoneDetails().get(1).getWindowDimensions().equals(new Dimension(250, 250)));
+		assertTrue(importedRecording.getClickZoneDetails().get(1).getWindowLocation().equals(new Point(1222, 417)));
+	}
+
+	@Test
+	public void testImportRecordingFromCompressedFile_SingleBlock() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		CompressedRecordingIOUtils.exportRecordingToCompressedFile(exportedActions, null, saveLocation);
+
+		final RecordingData importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+
+		assertSameActions(exportedActions, importedRecording.getInputActions().toArray());
+		assertTrue(importedRecording.getClickZoneDetails().isEmpty());
+	}
+
+	@Test
+	public void testImportRecordingFromCompressedFile_FromStartTime() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		// Starts between two actions in the middle of the fifth block.
+		final RecordingData importedRecording = CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation, 4321 * TIME_BETWEEN_ACTIONS + 1);
+
+		assertSameActions(exportedActions.subList(4322, exportedActions.size()), importedRecording.getInputActions().toArray());
+		assertTrue(importedRecording.getClickZoneDetails().size() == 2);
+	}
+
+	@Test
+	public void testImportRecordingFromCompressedFile_PastEnd() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		assertTrue(CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation, Long.MAX_VALUE).getInputActions().isEmpty());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testImportRecordingFromCompressedFile_NegativeStartTime() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation, -1);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromCompressedFile_Truncated() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RandomAccessFile file = new RandomAccessFile(fileLoc, "rw");
+		file.setLength(file.length() - 3);
+		file.close();
+
+		CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromCompressedFile_CorruptBlock() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RandomAccessFile file = new RandomAccessFile(fileLoc, "rw");
+		file.seek(file.length() / 2);
+		file.writeInt(0x7F7F7F7F);
+		file.close();
+
+		CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromCompressedFile_UnsupportedVersion() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		RandomAccessFile file = new RandomAccessFile(fileLoc, "rw");
+		file.seek(CompressedRecordingIOUtils.MAGIC_BYTES.length);
+		file.writeByte(CompressedRecordingIOUtils.FORMAT_VERSION + 1);
+		file.close();
+
+		CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromCompressedFile_NotCompressed() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), saveLocation);
+
+		CompressedRecordingIOUtils.importRecordingFromCompressedFile(saveLocation);
+	}
+
+	@Test
+	public void testImportRecordingFromFile_DetectsCompressed() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		assertSameActions(exportedActions, DataIOHandlerUtils.importRecordingFromFile(saveLocation).getInputActions().toArray());
+		assertTrue(DataIOHandlerUtils.importClickZoneDataFromFile(saveLocation).size() == 2);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testIsCompressedRecordingFile_NullFileName() throws IllegalArgumentException, IOException
+	{
+		CompressedRecordingIOUtils.isCompressedRecordingFile(null);
+	}
+
+	@Test
+	public void testIsCompressedRecordingFile_Valid() throws IllegalArgumentException, IOException
+	{
+		assertTrue(CompressedRecordingIOUtils.isCompressedRecordingFile(saveLocation));
+		assertFalse(BinaryRecordingIOUtils.isBinaryRecordingFile(saveLocation));
+
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(exportedActions, exportedClickZones, binarySaveLocation);
+
+		assertFalse(CompressedRecordingIOUtils.isCompressedRecordingFile(binarySaveLocation));
+	}
+
+	/**
+	 * Asserts that the imported actions are the same as the expected actions in the same order.
+	 */
+	private static void assertSameActions(List<AbstractInputAction> expected, Object[] actual)
+	{
+		assertEquals(expected.size(), actual.length);
+
+		int index = 0;
+
+		for (AbstractInputAction expectedAction : expected)
+		{
+			assertEquals(expectedAction.getClass(), actual[index].getClass());
+			assertEquals(expectedAction.getTimeStamp(), ((AbstractInputAction) actual[index]).getTimeStamp());
+			assertEquals(expectedAction.toString(), actual[index].toString());
+			index++;
+		}
+	}
+
+	/**
+	 * Deletes the recordings written by the tests.
+	 */
+	private void deleteFiles()
+	{
+		for (File file : new File[]{fileLoc, binaryFileLoc})
+		{
+			if (file != null && file.exists())
+				file.delete();
+		}
+	}
+}
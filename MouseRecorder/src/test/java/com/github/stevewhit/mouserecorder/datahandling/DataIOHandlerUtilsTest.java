@@ -19,6 +19,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
 import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
 import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
 import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
@@ -26,16 +27,20 @@ import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
 import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
 
 public class DataIOHandlerUtilsTest
 {
 	File fileLoc;
 	String saveLocation;
 	LinkedList<String> exportedItems;
+	RecordingImportContext importContext;
 	
 	@Before
 	public void setUp() throws Exception
 	{
+		importContext = new RecordingImportContext(null, RecordingImportContext.CoordinatePolicy.Clamp);
+		
 		saveLocation = "TestDataExportModule.txt";
 		fileLoc = new File(saveLocation);
 		
@@ -362,59 +367,316 @@ public class DataIOHandlerUtilsTest
 
 	//=======================================================
 	
+	@Test(expected=IllegalArgumentException.class)
+	public void testStreamRecordingFromFile_NullListener() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.streamRecordingFromFile(saveLocation, null);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testStreamRecordingFromFile_EmptyLocation() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.streamRecordingFromFile("", new RecordingData());
+	}
+	
+	@Test
+	public void testStreamRecordingFromFile_ReportsLineNumber() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50", "KPRESS:17:548174113763558", "KRELEA:17")), saveLocation);
+		
+		try
+		{
+			DataIOHandlerUtils.streamRecordingFromFile(saveLocation, new RecordingData());
+			fail("Expected a DataFormatException.");
+		}
+		catch (DataFormatException ex)
+		{
+			assertTrue(ex.getMessage().startsWith("Cancelled data import on line 3 "));
+		}
+	}
+	
+	@Test
+	public void testStreamRecordingFromFile_Valid() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558", "CZONEE:698:413:50:50", "KRELEA:17:548174760943927", "MPRESS:1:469:76:1399149:548179641171616")), saveLocation);
+		
+		final ArrayList<Object> readOrder = new ArrayList<Object>();
+		
+		DataIOHandlerUtils.streamRecordingFromFile(saveLocation, new RecordingDataListener()
+		{
+			@Override
+			public void inputActionRead(AbstractInputAction inputAction)
+			{
+				readOrder.add(inputAction);
+			}
+			
+			@Override
+			public void clickZoneRead(ClickZoneDetails clickZone)
+			{
+				readOrder.add(clickZone);
+			}
+		});
+		
+		assertTrue(readOrder.size() == 4);
+		assertTrue(readOrder.get(0) instanceof KeyboardKeyPress);
+		assertTrue(readOrder.get(1) instanceof ClickZoneDetails);
+		assertTrue(readOrder.get(2) instanceof KeyboardKeyRelease);
+		assertTrue(readOrder.get(3) instanceof MouseButtonPress);
+	}
+	
+	@Test
+	public void testImportClickZoneDataFromFile_SkipsInputActions() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50", "MMOVED:469:76:548171866216160", "CZONEE:754:415:100:100")), saveLocation);
+		
+		assertTrue(DataIOHandlerUtils.importClickZoneDataFromFile(saveLocation).size() == 2);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testImportRecordingFromFile_NoInputActions() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50")), saveLocation);
+		
+		DataIOHandlerUtils.importRecordingFromFile(saveLocation);
+	}
+	
+	//=======================================================
+	
 	@Test(expected=IllegalArgumentException.class)
 	public void testCreateInputActionByParsing_nullDetails() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing(null);
+		DataIOHandlerUtils.createInputActionByParsing(null, importContext);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testCreateInputActionByParsing_NullContext() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
+	{
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160", null);
+	}
+	
+	@Test(expected=DataFormatException.class)
+	public void testCreateInputActionByParsing_RejectPolicy() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
+	{
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160", new RecordingImportContext(new Dimension(400, 300), RecordingImportContext.CoordinatePolicy.Reject));
 	}
 	
 	@Test(expected=IllegalArgumentException.class)
 	public void testCreateInputActionByParsing_EmptyDetails() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("");
+		DataIOHandlerUtils.createInputActionByParsing("", importContext);
 	}
 	
 	@Test(expected=DataFormatException.class)
 	public void testCreateInputActionByParsing_UnsupportedID() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("MMOVE:469:76:548171866216160");
+		DataIOHandlerUtils.createInputActionByParsing("MMOVE:469:76:548171866216160", importContext);
 	}
 	
 	@Test(expected=DataFormatException.class)
 	public void testCreateInputActionByParsing_DoesntHaveRequiredFields() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:548171866216160");
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:548171866216160", importContext);
 	}
 	
 	@Test(expected=DataFormatException.class)
 	public void testCreateInputActionByParsing_WrongDataTypeInField() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:blue:548171866216160");
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:blue:548171866216160", importContext);
 	}
 	
 	@Test(expected=DataFormatException.class)
 	public void testCreateInputActionByParsing_MissingColon() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("MMOVED469:blue:548171866216160");
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED469:blue:548171866216160", importContext);
 	}
 
 	@Test(expected=DataFormatException.class)
 	public void testCreateInputActionByParsing_TooManyFields() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160:1234");
+		DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160:1234", importContext);
 	}
 	
 	@Test
 	public void testCreateInputActionByParsing_Valid() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
 	{
-		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160") instanceof MouseMove);
-		assertTrue(DataIOHandlerUtils.createInputActionByParsing("KPRESS:17:548174113763558") instanceof KeyboardKeyPress);
-		assertTrue(DataIOHandlerUtils.createInputActionByParsing("KRELEA:17:548174760943927") instanceof KeyboardKeyRelease);
-		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MPRESS:3:469:76:1399149:548179641171616") instanceof MouseButtonPress);
-		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MRELEA:3:469:76:1399149:548180249079966") instanceof MouseButtonRelease);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MMOVED:469:76:548171866216160", importContext) instanceof MouseMove);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("KPRESS:17:548174113763558", importContext) instanceof KeyboardKeyPress);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("KRELEA:17:548174760943927", importContext) instanceof KeyboardKeyRelease);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MPRESS:3:469:76:1399149:548179641171616", importContext) instanceof MouseButtonPress);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MRELEA:3:469:76:1399149:548180249079966", importContext) instanceof MouseButtonRelease);
+		assertTrue(DataIOHandlerUtils.createInputActionByParsing("MWHEEL:469:76:-3:548181397050226", importContext) instanceof MouseWheelScroll);
+	}
+	
+	@Test
+	public void testCreateInputActionByParsing_MouseWheel() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
+	{
+		MouseWheelScroll scroll = (MouseWheelScroll) DataIOHandlerUtils.createInputActionByParsing("MWHEEL:469:76:-3:548181397050226", importContext);
+		
+		assertEquals(new PixelCoordinate2D(469, 76), scroll.getLocation());
+		assertEquals(-3, scroll.getWheelAmount());
+		assertEquals(548181397050226L, scroll.getTimeStamp());
+	}
+	
+	@Test(expected=DataFormatException.class)
+	public void testCreateInputActionByParsing_MouseWheelZeroAmount() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
+	{
+		DataIOHandlerUtils.createInputActionByParsing("MWHEEL:469:76:0:548181397050226", importContext);
+	}
+	
+	@Test(expected=DataFormatException.class)
+	public void testCreateInputActionByParsing_MouseWheelMissingField() throws IllegalArgumentException, UnsupportedDataTypeException, DataFormatException
+	{
+		DataIOHandlerUtils.createInputActionByParsing("MWHEEL:469:76:548181397050226", importContext);
 	}
 	//=======================================================
 	
+	
+	//=======================================================
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testValidateRecordingFile_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.validateRecordingFile("", new Dimension(1920, 1080), 10);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testValidateRecordingFile_NullScreenDimensions() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.validateRecordingFile(saveLocation, null, 10);
+	}
+	
+	@Test
+	public void testValidateRecordingFile_Valid() throws IllegalArgumentException, IOException
+	{
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation, new Dimension(1920, 1080), 10);
+		
+		assertTrue(report.isValid());
+		assertEquals(exportedItems.size(), report.getCheckedCount());
+	}
+	
+	@Test
+	public void testValidateRecordingFile_CurrentScreen() throws IllegalArgumentException, IOException
+	{
+		// The tests run headless, so there isn't a screen to check the coordinates against.
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation);
+		
+		assertTrue(report.isValid());
+		assertEquals(exportedItems.size(), report.getCheckedCount());
+	}
+	
+	@Test
+	public void testValidateRecordingFile_ReportsEveryProblem() throws IllegalArgumentException, IOException
+	{
+		exportedItems.set(1, "CZONEE:754:415:100");
+		exportedItems.set(5, "KPRESS:17:blue");
+		exportedItems.set(6, "NOTSUPPORTEDID:17:548174760943927");
+		exportedItems.set(7, "MPRESS:3:2469:76:1399149:548179641171616");
+		exportedItems.set(8, "MRELEA:7:469:76:1399149:548180249079966");
+		exportedItems.add("MMOVED:469:1081:548187439805730");
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, saveLocation);
+		
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation, new Dimension(1920, 1080), 10);
+		
+		assertFalse(report.isValid());
+		assertFalse(report.isTruncated());
+		assertEquals(6, report.getProblemCount());
+		assertTrue(report.getReportedProblems().get(0).startsWith("Line 2: "));
+		assertTrue(report.getReportedProblems().get(1).startsWith("Line 6: "));
+		assertTrue(report.getReportedProblems().get(2).startsWith("Line 7: "));
+		assertTrue(report.getReportedProblems().get(3).equals("Line 8: Coordinate (2469, 76) is outside of the screen dimensions (1920x1080)."));
+		assertTrue(report.getReportedProblems().get(4).startsWith("Line 9: "));
+		assertTrue(report.getReportedProblems().get(5).startsWith("Line 14: Coordinate (469, 1081)"));
+	}
+	
+	@Test
+	public void testValidateRecordingFile_CapsReport() throws IllegalArgumentException, IOException
+	{
+		LinkedList<String> brokenItems = new LinkedList<String>();
+		
+		for (int lineNum = 0; lineNum < 1000; lineNum++)
+		{
+			brokenItems.add("KPRESS:17");
+		}
+		
+		DataIOHandlerUtils.exportStringDataToFile(brokenItems, saveLocation);
+		
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation, new Dimension(1920, 1080), 5);
+		
+		assertEquals(1000, report.getProblemCount());
+		assertEquals(5, report.getReportedProblems().size());
+		assertTrue(report.isTruncated());
+		assertTrue(report.getReportedProblems().get(4).startsWith("Line 5: "));
+	}
+	
+	@Test
+	public void testValidateRecordingFile_NoInputActions() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50")), saveLocation);
+		
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation, new Dimension(1920, 1080), 5);
+		
+		assertEquals(1, report.getProblemCount());
+	}
+	
+	@Test
+	public void testValidateRecordingFile_Binary() throws IllegalArgumentException, IOException
+	{
+		LinkedList<AbstractInputAction> actions = new LinkedList<AbstractInputAction>();
+		actions.add(new KeyboardKeyPress(17, 548174113763558L));
+		actions.add(new MouseMove(new PixelCoordinate2D(2000, 76), 548174113763600L));
+		actions.add(new MouseMove(new PixelCoordinate2D(20, 76), 548174113763700L));
+		
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(actions, null, saveLocation);
+		
+		RecordingValidationReport report = DataIOHandlerUtils.validateRecordingFile(saveLocation, new Dimension(1920, 1080), 5);
+		
+		assertEquals(3, report.getCheckedCount());
+		assertEquals(1, report.getProblemCount());
+		assertTrue(report.getReportedProblems().get(0).startsWith("Action 2: "));
+	}
+	
+	//=======================================================
+	
+	@Test
+	public void testImportRecordingFromFile_ScreenHeader() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		exportedItems.addFirst("SCREEN:1920:1080");
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, saveLocation);
+	
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(960, 540), RecordingImportContext.CoordinatePolicy.Scale);
+		RecordingData importedRecording = DataIOHandlerUtils.importRecordingFromFile(saveLocation, importContext);
+	
+		assertEquals(new Dimension(1920, 1080), importContext.getSourceDimensions());
+		assertEquals(new PixelCoordinate2D(235, 38), ((MouseMove) importedRecording.getInputActions().peek()).getLocation());
+		assertEquals(new Point(349, 207), importedRecording.getClickZoneDetails().get(0).getWindowLocation());
+		assertEquals(5, importedRecording.getClickZoneDetails().size());
+	}
+	
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromFile_ScreenHeaderNotFirst() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		exportedItems.add(2, "SCREEN:1920:1080");
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, saveLocation);
+	
+		DataIOHandlerUtils.importRecordingFromFile(saveLocation);
+	}
+	
+	@Test(expected=DataFormatException.class)
+	public void testImportRecordingFromFile_RejectPolicy() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.importRecordingFromFile(saveLocation, new RecordingImportContext(new Dimension(1000, 1000), RecordingImportContext.CoordinatePolicy.Reject));
+	}
+	
+	@Test
+	public void testExportRecordingToTextFile_WritesScreenHeader() throws IllegalArgumentException, IOException
+	{
+		LinkedList<AbstractInputAction> actions = new LinkedList<AbstractInputAction>();
+		actions.add(new KeyboardKeyPress(17, 548174113763558L));
+	
+		DataIOHandlerUtils.exportRecordingToTextFile(actions, null, saveLocation, new Dimension(1920, 1080));
+	
+		assertEquals(Arrays.asList("SCREEN:1920:1080", "KPRESS:17:548174113763558"), DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+	}
 }
 
 
@@ -0,0 +1,241 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.MappedRecordingReader.ActionCursor;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+public class MappedRecordingReaderTest
+{
+	static final long FIRST_TIME_STAMP = 548174113763558L;
+	static final long TIME_BETWEEN_ACTIONS = 100000000L;
+
+	File textFileLoc;
+	File binaryFileLoc;
+	String textSaveLocation;
+	String binarySaveLocation;
+	LinkedList<String> exportedItems;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		textSaveLocation = "TestMappedRecording.txt";
+		binarySaveLocation = "TestMappedRecording" + BinaryRecordingIOUtils.BINARY_FILE_EXTENSION;
+		textFileLoc = new File(textSaveLocation);
+		binaryFileLoc = new File(binarySaveLocation);
+
+		deleteRecordingFiles();
+
+		exportedItems = new LinkedList<String>();
+		exportedItems.add("CZONEE:698:413:50:50");
+
+		for (int itemNum = 0; itemNum < 100; itemNum++)
+		{
+			exportedItems.add("KPRESS:" + (65 + itemNum % 26) + ":" + (FIRST_TIME_STAMP + itemNum * TIME_BETWEEN_ACTIONS));
+			exportedItems.add("MPRESS:" + (itemNum % 3 + 1) + ":" + itemNum + ":76:1399149:" + (FIRST_TIME_STAMP + itemNum * TIME_BETWEEN_ACTIONS + TIME_BETWEEN_ACTIONS / 2));
+		}
+
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, textSaveLocation);
+
+		final RecordingData recording = DataIOHandlerUtils.importRecordingFromFile(textSaveLocation);
+		BinaryRecordingIOUtils.exportRecordingToBinaryFile(recording.getInputActions(), recording.getClickZoneDetails(), binarySaveLocation);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		deleteRecordingFiles();
+
+		textFileLoc = null;
+		binaryFileLoc = null;
+		textSaveLocation = null;
+		binarySaveLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMappedRecordingReader_EmptyLocation() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		new MappedRecordingReader("");
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMappedRecordingReader_InvalidIndexInterval() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		new MappedRecordingReader(textSaveLocation, false, 0);
+	}
+
+	@Test(expected=IOException.class)
+	public void testMappedRecordingReader_FileDoesntExist() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		new MappedRecordingReader("FileThatDoesntExist.txt");
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testMappedRecordingReader_NoInputActions() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		exportedItems.clear();
+		exportedItems.add("CZONEE:698:413:50:50");
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, textSaveLocation);
+
+		new MappedRecordingReader(textSaveLocation, false, TIME_BETWEEN_ACTIONS);
+	}
+
+	@Test
+	public void testMappedRecordingReader_ReadsClickZonesAndLength() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		for (String saveLocation : new String[]{textSaveLocation, binarySaveLocation})
+		{
+			final MappedRecordingReader reader = new MappedRecordingReader(saveLocation, false, TIME_BETWEEN_ACTIONS);
+
+			assertTrue(reader.getClickZoneDetails().size() == 1);
+			assertEquals(99 * TIME_BETWEEN_ACTIONS + TIME_BETWEEN_ACTIONS / 2, reader.getPlaybackLength());
+		}
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testOpenCursor_NegativeStartTime() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		new MappedRecordingReader(textSaveLocation, false, TIME_BETWEEN_ACTIONS).openCursor(-1);
+	}
+
+	@Test
+	public void testOpenCursor_FromStartMatchesImport() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final Object[] importedActions = DataIOHandlerUtils.importRecordingFromFile(textSaveLocation).getInputActions().toArray();
+
+		for (String saveLocation : new String[]{textSaveLocation, binarySaveLocation})
+		{
+			final ArrayList<AbstractInputAction> readActions = readAll(new MappedRecordingReader(saveLocation, false, TIME_BETWEEN_ACTIONS).openCursor(0));
+
+			assertEquals(importedActions.length, readActions.size());
+
+			for (int index = 0; index < importedActions.length; index++)
+			{
+				assertEquals(importedActions[index].toString(), readActions.get(index).toString());
+				assertEquals(((AbstractInputAction) importedActions[index]).getTimeStamp(), readActions.get(index).getTimeStamp());
+			}
+		}
+	}
+
+	@Test
+	public void testOpenCursor_SeeksToStartTime() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		// Intervals smaller than, equal to and larger than the time between actions.
+		for (long indexInterval : new long[]{1, TIME_BETWEEN_ACTIONS, TIME_BETWEEN_ACTIONS * 7})
+		{
+			for (String saveLocation : new String[]{textSaveLocation, binarySaveLocation})
+			{
+				final MappedRecordingReader reader = new MappedRecordingReader(saveLocation, false, indexInterval);
+
+				// Starting between two actions begins with the later one.
+				final ArrayList<AbstractInputAction> readActions = readAll(reader.openCursor(42 * TIME_BETWEEN_ACTIONS + 1));
+
+				assertEquals(115, readActions.size());
+				assertEquals(FIRST_TIME_STAMP + 42 * TIME_BETWEEN_ACTIONS + TIME_BETWEEN_ACTIONS / 2, readActions.get(0).getTimeStamp());
+				assertEquals(FIRST_TIME_STAMP + 99 * TIME_BETWEEN_ACTIONS + TIME_BETWEEN_ACTIONS / 2, readActions.get(readActions.size() - 1).getTimeStamp());
+			}
+		}
+	}
+
+	@Test
+	public void testOpenCursor_PastEnd() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final ActionCursor cursor = new MappedRecordingReader(binarySaveLocation, false, TIME_BETWEEN_ACTIONS).openCursor(Long.MAX_VALUE);
+
+		assertFalse(cursor.hasNext());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testIndexFile_CreatedAndReused() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		for (String saveLocation : new String[]{textSaveLocation, binarySaveLocation})
+		{
+			final File indexFile = new File(saveLocation + MappedRecordingReader.INDEX_FILE_EXTENSION);
+
+			final MappedRecordingReader builtReader = new MappedRecordingReader(saveLocation);
+			assertTrue(indexFile.exists());
+			assertTrue(builtReader.isIndexFileCurrent());
+
+			final long indexFileModified = indexFile.lastModified();
+
+			final MappedRecordingReader loadedReader = new MappedRecordingReader(saveLocation);
+			assertEquals(indexFileModified, indexFile.lastModified());
+			assertEquals(builtReader.getIndexSize(), loadedReader.getIndexSize());
+			assertEquals(builtReader.getPlaybackLength(), loadedReader.getPlaybackLength());
+			assertEquals(builtReader.getClickZoneDetails().size(), loadedReader.getClickZoneDetails().size());
+			assertEquals(readAll(builtReader.openCursor(TIME_BETWEEN_ACTIONS * 3)).size(), readAll(loadedReader.openCursor(TIME_BETWEEN_ACTIONS * 3)).size());
+		}
+	}
+
+	@Test
+	public void testIndexFile_SaveFails() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		// A directory in the way of the index file can't be written to.
+		final File indexFile = new File(textSaveLocation + MappedRecordingReader.INDEX_FILE_EXTENSION);
+		assertTrue(indexFile.mkdir());
+
+		final MappedRecordingReader reader = new MappedRecordingReader(textSaveLocation);
+
+		assertFalse(reader.isIndexFileCurrent());
+		assertEquals(200, readAll(reader.openCursor(0)).size());
+	}
+
+	@Test
+	public void testIndexFile_RebuiltWhenRecordingChanges() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		new MappedRecordingReader(textSaveLocation);
+
+		// Drop the last half of the recording.
+		while (exportedItems.size() > 101)
+			exportedItems.removeLast();
+
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, textSaveLocation);
+
+		final MappedRecordingReader reader = new MappedRecordingReader(textSaveLocation);
+
+		assertEquals(49 * TIME_BETWEEN_ACTIONS + TIME_BETWEEN_ACTIONS / 2, reader.getPlaybackLength());
+		assertEquals(100, readAll(reader.openCursor(0)).size());
+	}
+
+	/**
+	 * Reads the remaining actions of the cursor.
+	 */
+	private static ArrayList<AbstractInputAction> readAll(ActionCursor cursor) throws DataFormatException
+	{
+		final ArrayList<AbstractInputAction> actions = new ArrayList<AbstractInputAction>();
+
+		while (cursor.hasNext())
+			actions.add(cursor.next());
+
+		return actions;
+	}
+
+	/**
+	 * Deletes the recordings and their index files.
+	 */
+	private void deleteRecordingFiles()
+	{
+		for (String saveLocation : new String[]{textSaveLocation, binarySaveLocation})
+		{
+			for (File file : new File[]{new File(saveLocation), new File(saveLocation + MappedRecordingReader.INDEX_FILE_EXTENSION)})
+			{
+				if (file.exists())
+					file.delete();
+			}
+		}
+	}
+}
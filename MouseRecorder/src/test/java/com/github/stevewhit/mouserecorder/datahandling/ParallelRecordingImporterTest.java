@@ -0,0 +1,150 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+
+public class ParallelRecordingImporterTest
+{
+	File fileLoc;
+	String saveLocation;
+	LinkedList<String> exportedItems;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		saveLocation = "TestParallelImport.txt";
+		fileLoc = new File(saveLocation);
+
+		if (fileLoc != null && fileLoc.exists())
+		{
+			fileLoc.delete();
+		}
+
+		exportedItems = new LinkedList<String>();
+		exportedItems.add("CZONEE:698:413:50:50");
+
+		for (int itemNum = 0; itemNum < 500; itemNum++)
+		{
+			exportedItems.add("KPRESS:" + (65 + itemNum % 26) + ":" + (548174113763558L + itemNum * 10));
+			exportedItems.add("MPRESS:" + (itemNum % 3 + 1) + ":" + itemNum + ":76:1399149:" + (548174113763558L + itemNum * 10 + 5));
+
+			if (itemNum % 100 == 0)
+				exportedItems.add("CZONEE:" + itemNum + ":417:250:250");
+		}
+
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, saveLocation);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (fileLoc != null && fileLoc.exists())
+		{
+			fileLoc.delete();
+		}
+
+		fileLoc = null;
+		saveLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testImportRecordingFromTextFile_EmptyLocation() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		ParallelRecordingImporter.importRecordingFromTextFile("", 64);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testImportRecordingFromTextFile_InvalidChunkSize() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		ParallelRecordingImporter.importRecordingFromTextFile(saveLocation, 0);
+	}
+
+	@Test(expected=IOException.class)
+	public void testImportRecordingFromTextFile_FileDoesntExist() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		ParallelRecordingImporter.importRecordingFromTextFile("FileThatDoesntExist.txt", 64);
+	}
+
+	@Test
+	public void testImportRecordingFromTextFile_MatchesSequential() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final RecordingData sequentialRecording = new RecordingData();
+		DataIOHandlerUtils.streamRecordingFromFile(saveLocation, sequentialRecording);
+
+		// Chunk sizes smaller than a line, around a line and much larger than a line.
+		for (int chunkSize : new int[]{1, 7, 64, 4096, Integer.MAX_VALUE})
+		{
+			assertSameRecording(sequentialRecording, ParallelRecordingImporter.importRecordingFromTextFile(saveLocation, chunkSize));
+		}
+	}
+
+	@Test
+	public void testImportRecordingFromTextFile_WindowsLineEndings() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		FileOutputStream os = new FileOutputStream(fileLoc);
+		os.write("CZONEE:698:413:50:50\r\nKPRESS:17:548174113763558\r\nKRELEA:17:548174760943927".getBytes("US-ASCII"));
+		os.close();
+
+		final RecordingData importedRecording = ParallelRecordingImporter.importRecordingFromTextFile(saveLocation, 8);
+
+		assertTrue(importedRecording.getClickZoneDetails().size() == 1);
+		assertTrue(importedRecording.getInputActions().size() == 2);
+	}
+
+	@Test
+	public void testImportRecordingFromTextFile_ReportsGlobalLineNumber() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		exportedItems.set(900, "KPRESS:17:blue");
+		exportedItems.set(950, "NOTSUPPORTEDID");
+		DataIOHandlerUtils.exportStringDataToFile(exportedItems, saveLocation);
+
+		try
+		{
+			ParallelRecordingImporter.importRecordingFromTextFile(saveLocation, 64);
+			fail("Expected a DataFormatException.");
+		}
+		catch (DataFormatException ex)
+		{
+			assertTrue(ex.getMessage().startsWith("Cancelled data import on line 901 "));
+		}
+	}
+
+	/**
+	 * Asserts that both recordings contain the same click zones and actions in the same order.
+	 */
+	private static void assertSameRecording(RecordingData expected, RecordingData actual)
+	{
+		assertEquals(expected.getInputActions().size(), actual.getInputActions().size());
+		assertEquals(expected.getClickZoneDetails().size(), actual.getClickZoneDetails().size());
+
+		final Object[] expectedActions = expected.getInputActions().toArray();
+		final Object[] actualActions = actual.getInputActions().toArray();
+
+		for (int index = 0; index < expectedActions.length; index++)
+		{
+			assertEquals(expectedActions[index].toString(), actualActions[index].toString());
+			assertEquals(((AbstractInputAction) expectedActions[index]).getTimeStamp(), ((AbstractInputAction) actualActions[index]).getTimeStamp());
+		}
+
+		for (int index = 0; index < expected.getClickZoneDetails().size(); index++)
+		{
+			final ClickZoneDetails expectedZone = expected.getClickZoneDetails().get(index);
+			final ClickZoneDetails actualZone = actual.getClickZoneDetails().get(index);
+
+			assertEquals(expectedZone.getWindowLocation(), actualZone.getWindowLocation());
+			assertEquals(expectedZone.getWindowDimensions(), actualZone.getWindowDimensions());
+		}
+	}
+}
@@ -0,0 +1,195 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+
+public class RecordingCacheTest
+{
+	File fileLoc;
+	File otherFileLoc;
+	String saveLocation;
+	String otherSaveLocation;
+	RecordingCache cache;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		saveLocation = "TestRecordingCache.txt";
+		otherSaveLocation = "TestRecordingCacheOther.txt";
+		fileLoc = new File(saveLocation);
+		otherFileLoc = new File(otherSaveLocation);
+
+		deleteFiles();
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("CZONEE:698:413:50:50", "KPRESS:17:548174113763558", "KRELEA:17:548174760943927")), saveLocation);
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:18:548174113763558", "KRELEA:18:548174760943927")), otherSaveLocation);
+
+		cache = new RecordingCache(RecordingCache.DEFAULT_MAX_ESTIMATED_BYTES);
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		deleteFiles();
+
+		cache = null;
+		fileLoc = null;
+		otherFileLoc = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingCache_NegativeMax()
+	{
+		new RecordingCache(-1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetRecording_EmptyLocation() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording("");
+	}
+
+	@Test(expected=IOException.class)
+	public void testGetRecording_MissingFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording("TestRecordingCacheMissing.txt");
+	}
+
+	@Test
+	public void testGetRecording_DecodesOnce() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final RecordingData firstRecording = cache.getRecording(saveLocation);
+		final RecordingData secondRecording = cache.getRecording("." + File.separator + saveLocation);
+
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.size());
+		assertEquals(2, secondRecording.getInputActions().size());
+		assertEquals(1, secondRecording.getClickZoneDetails().size());
+		assertSame(firstRecording.getInputActions().peek(), secondRecording.getInputActions().peek());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetRecording_NullContext() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording(saveLocation, null);
+	}
+
+	@Test
+	public void testGetRecording_OtherCoordinatePolicy() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording(saveLocation, new RecordingImportContext(null, CoordinatePolicy.Clamp));
+		cache.getRecording(saveLocation, new RecordingImportContext(null, CoordinatePolicy.Scale));
+		cache.getRecording(saveLocation, new RecordingImportContext(null, CoordinatePolicy.Scale));
+
+		assertEquals(2, cache.getMissCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testGetRecording_CopiesAreIndependent() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final RecordingData firstRecording = cache.getRecording(saveLocation);
+		firstRecording.getInputActions().clear();
+		firstRecording.getClickZoneDetails().clear();
+
+		final RecordingData secondRecording = cache.getRecording(saveLocation);
+
+		assertEquals(2, secondRecording.getInputActions().size());
+		assertEquals(1, secondRecording.getClickZoneDetails().size());
+	}
+
+	@Test
+	public void testGetRecording_ChangedFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording(saveLocation);
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), saveLocation);
+
+		assertEquals(1, cache.getRecording(saveLocation).getInputActions().size());
+		assertEquals(2, cache.getMissCount());
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.size());
+	}
+
+	@Test
+	public void testGetRecording_EvictsLeastRecentlyUsed() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		// Room for the three actions and one click zone of both recordings, but not for another recording.
+		cache = new RecordingCache(4 * RecordingCache.ESTIMATED_BYTES_PER_ACTION + RecordingCache.ESTIMATED_BYTES_PER_CLICK_ZONE);
+
+		cache.getRecording(saveLocation);
+		cache.getRecording(otherSaveLocation);
+		cache.getRecording(saveLocation);
+
+		assertEquals(2, cache.size());
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:19:548174113763558")), "TestRecordingCacheThird.txt");
+
+		try
+		{
+			cache.getRecording("TestRecordingCacheThird.txt");
+		}
+		finally
+		{
+			new File("TestRecordingCacheThird.txt").delete();
+		}
+
+		assertEquals(1, cache.getEvictionCount());
+		assertEquals(2, cache.size());
+
+		// The recently used recording is still cached, while the other one was evicted.
+		cache.getRecording(saveLocation);
+		assertEquals(2, cache.getHitCount());
+
+		cache.getRecording(otherSaveLocation);
+		assertEquals(4, cache.getMissCount());
+	}
+
+	@Test
+	public void testGetRecording_TooLargeToCache() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache = new RecordingCache(0);
+
+		assertEquals(2, cache.getRecording(saveLocation).getInputActions().size());
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getEstimatedBytes());
+	}
+
+	@Test
+	public void testInvalidate() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		cache.getRecording(saveLocation);
+		cache.invalidate(saveLocation);
+
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.getEstimatedBytes());
+
+		cache.getRecording(saveLocation);
+		assertEquals(2, cache.getMissCount());
+	}
+
+	/**
+	 * Deletes the recordings written by the tests.
+	 */
+	private void deleteFiles()
+	{
+		for (File file : new File[]{fileLoc, otherFileLoc})
+		{
+			if (file != null && file.exists())
+				file.delete();
+		}
+	}
+}
@@ -0,0 +1,130 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+
+public class RecordingImportContextTest
+{
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingImportContext_NullPolicy()
+	{
+		new RecordingImportContext(new Dimension(1920, 1080), null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingImportContext_InvalidTarget()
+	{
+		new RecordingImportContext(new Dimension(0, 1080), CoordinatePolicy.Clamp);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetSourceDimensions_Invalid()
+	{
+		new RecordingImportContext(new Dimension(1920, 1080), CoordinatePolicy.Scale).setSourceDimensions(new Dimension(1920, -1));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testFitCoordinate_Clamp() throws DataFormatException
+	{
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Clamp);
+		importContext.setSourceDimensions(new Dimension(1920, 1080));
+
+		assertEquals(new PixelCoordinate2D(469, 76), importContext.fitCoordinate(469, 76));
+		assertEquals(new PixelCoordinate2D(1279, 719), importContext.fitCoordinate(1919, 1079));
+		assertEquals(new PixelCoordinate2D(0, 0), importContext.fitCoordinate(-5, -1));
+	}
+
+	@Test
+	public void testFitCoordinate_ClampUsesHeightForY() throws DataFormatException
+	{
+		// A tall screen catches the y coordinate being limited to the width instead of the height.
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(600, 1600), CoordinatePolicy.Clamp);
+
+		assertEquals(new PixelCoordinate2D(599, 1200), importContext.fitCoordinate(900, 1200));
+	}
+
+	@Test
+	public void testFitCoordinate_Scale() throws DataFormatException
+	{
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Scale);
+		importContext.setSourceDimensions(new Dimension(1920, 1080));
+
+		assertEquals(new PixelCoordinate2D(640, 360), importContext.fitCoordinate(960, 540));
+		assertEquals(new PixelCoordinate2D(1279, 719), importContext.fitCoordinate(1919, 1079));
+	}
+
+	@Test
+	public void testFitCoordinate_ScaleWithoutSource() throws DataFormatException
+	{
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Scale);
+		importContext.setSourceDimensions(null);
+
+		assertEquals(new PixelCoordinate2D(960, 540), importContext.fitCoordinate(960, 540));
+		assertNull(importContext.getSourceDimensions());
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testFitCoordinate_Reject() throws DataFormatException
+	{
+		new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Reject).fitCoordinate(1280, 76);
+	}
+
+	@Test
+	public void testFitCoordinate_NoTarget() throws DataFormatException
+	{
+		RecordingImportContext importContext = new RecordingImportContext(null, CoordinatePolicy.Scale);
+		importContext.setSourceDimensions(new Dimension(1920, 1080));
+
+		assertEquals(new PixelCoordinate2D(5000, 76), importContext.fitCoordinate(5000, 76));
+		assertEquals(new PixelCoordinate2D(0, 76), importContext.fitCoordinate(-1, 76));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testFitClickZone_ShrinksToFit() throws DataFormatException
+	{
+		ClickZoneDetails clickZone = new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Clamp).fitClickZone(1222, 417, 250, 250);
+
+		assertEquals(new Point(1222, 417), clickZone.getWindowLocation());
+		assertEquals(new Dimension(58, 250), clickZone.getWindowDimensions());
+	}
+
+	@Test
+	public void testFitClickZones_Scale() throws DataFormatException
+	{
+		RecordingImportContext importContext = new RecordingImportContext(new Dimension(960, 540), CoordinatePolicy.Scale);
+		importContext.setSourceDimensions(new Dimension(1920, 1080));
+
+		List<ClickZoneDetails> clickZones = importContext.fitClickZones(Arrays.asList(new ClickZoneDetails(698, 414, 50, 50), new ClickZoneDetails(1000, 500, 1, 1)));
+
+		assertEquals(new Point(349, 207), clickZones.get(0).getWindowLocation());
+		assertEquals(new Dimension(25, 25), clickZones.get(0).getWindowDimensions());
+		assertEquals(new Dimension(1, 1), clickZones.get(1).getWindowDimensions());
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testFitClickZone_Reject() throws DataFormatException
+	{
+		new RecordingImportContext(new Dimension(1280, 720), CoordinatePolicy.Reject).fitClickZone(1222, 417, 250, 250);
+	}
+
+	@Test(expected=DataFormatException.class)
+	public void testFitClickZone_InvalidSize() throws DataFormatException
+	{
+		new RecordingImportContext(null, CoordinatePolicy.Clamp).fitClickZone(698, 413, 0, 50);
+	}
+}
@@ -0,0 +1,395 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RecordingJournalTest
+{
+	File journalFileLoc;
+	File recoveredFileLoc;
+	String journalLocation;
+	String recoveredLocation;
+	RecordingJournal journal;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		journalLocation = "TestRecordingJournal.txt";
+		recoveredLocation = "TestRecoveredRecording.txt";
+		journalFileLoc = new File(journalLocation);
+		recoveredFileLoc = new File(recoveredLocation);
+
+		deleteFiles();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (journal != null)
+			journal.close();
+
+		deleteFiles();
+
+		journal = null;
+		journalFileLoc = null;
+		recoveredFileLoc = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingJournal_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal("");
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingJournal_InvalidFlushInterval() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, 0, 1000);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingJournal_InvalidSyncInterval() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, 100, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingJournal_InvalidDimensions() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, new Dimension(0, 1080));
+	}
+
+	@Test
+	public void testRecordingJournal_WritesScreenLine() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, new Dimension(1920, 1080));
+		journal.append("KPRESS:17:548174113763558");
+		journal.close();
+
+		// The SCREEN line is only written to a new journal and isn't one of the added lines.
+		journal = new RecordingJournal(journalLocation, new Dimension(1280, 720));
+		journal.append("KRELEA:17:548174760943927");
+		journal.close();
+
+		assertEquals(1, journal.size());
+		assertEquals("KRELEA:17:548174760943927", journal.iterator().next());
+		assertEquals("SCREEN:1920:1080\nKPRESS:17:548174113763558\nKRELEA:17:548174760943927\n", readJournal());
+	}
+
+	@Test
+	public void testRecordingJournal_DropsPartialLine() throws IllegalArgumentException, IOException
+	{
+		writeJournal("KPRESS:17:548174113763558\nKRELEA:17:5481747");
+
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KPRESS:18:548174113763600");
+		journal.close();
+
+		assertEquals("KPRESS:17:548174113763558\nKPRESS:18:548174113763600\n", readJournal());
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAppend_NullLine() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.append(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAppend_LineBreak() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KPRESS:17:548174113763558\nKRELEA:17:548174760943927");
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAppend_Closed() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.close();
+		journal.append("KPRESS:17:548174113763558");
+	}
+
+	@Test
+	public void testAppend_AfterFlushFailure() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, 60000, 60000);
+		journal.append("KPRESS:17:548174113763558");
+
+		// Interrupting the flushing thread closes the journal channel, so the write fails.
+		Thread.currentThread().interrupt();
+
+		try
+		{
+			journal.flush();
+			fail("The flush should have failed.");
+		}
+		catch (IOException ex)
+		{
+			// Expected.
+		}
+		finally
+		{
+			Thread.interrupted();
+		}
+
+		try
+		{
+			journal.append("KRELEA:17:548174760943927");
+			fail("The append should have thrown the flush failure.");
+		}
+		catch (IOException ex)
+		{
+			// Expected.
+		}
+
+		assertEquals(1, journal.size());
+
+		final RecordingJournal failedJournal = journal;
+		journal = null;
+
+		try
+		{
+			failedJournal.close();
+			fail("The close should have thrown the flush failure.");
+		}
+		catch (IOException ex)
+		{
+			// Expected.
+		}
+	}
+
+	//=======================================================
+
+	@Test
+	public void testIterator_ReadsAddedLinesInOrder() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+
+		for (int itemNum = 0; itemNum < 1000; itemNum++)
+		{
+			journal.append("KPRESS:" + (65 + itemNum % 26) + ":" + (548174113763558L + itemNum));
+		}
+
+		assertEquals(1000, journal.size());
+
+		final LinkedList<String> readLines = readLines(journal);
+
+		assertEquals(1000, readLines.size());
+		assertEquals("KPRESS:65:548174113763558", readLines.getFirst());
+		assertEquals("KPRESS:" + (65 + 999 % 26) + ":" + (548174113763558L + 999), readLines.getLast());
+	}
+
+	@Test
+	public void testIterator_OnlyReadsLinesOfThisJournal() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KPRESS:17:548174113763558");
+		journal.close();
+
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KRELEA:17:548174760943927");
+		journal.close();
+
+		final LinkedList<String> readLines = readLines(journal);
+
+		assertEquals(1, readLines.size());
+		assertEquals("KRELEA:17:548174760943927", readLines.getFirst());
+		assertEquals("KPRESS:17:548174113763558\nKRELEA:17:548174760943927\n", readJournal());
+	}
+
+	@Test
+	public void testIterator_Close() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KPRESS:17:548174113763558");
+		journal.append("KRELEA:17:548174760943927");
+
+		final Iterator<String> lineIterator = journal.iterator();
+
+		assertTrue(lineIterator instanceof Closeable);
+		assertEquals("KPRESS:17:548174113763558", lineIterator.next());
+
+		((Closeable) lineIterator).close();
+		((Closeable) lineIterator).close();
+
+		assertFalse(lineIterator.hasNext());
+	}
+
+	@Test
+	public void testFlush_WritesWithoutClosing() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, 60000, 60000);
+		journal.append("KPRESS:17:548174113763558");
+
+		assertEquals("", readJournal());
+
+		journal.flush();
+
+		assertEquals("KPRESS:17:548174113763558\n", readJournal());
+	}
+
+	@Test
+	public void testFlusher_WritesInBackground() throws IllegalArgumentException, IOException, InterruptedException
+	{
+		journal = new RecordingJournal(journalLocation, 10, 10);
+		journal.append("KPRESS:17:548174113763558");
+
+		final long deadline = System.currentTimeMillis() + 5000;
+
+		while (readJournal().isEmpty() && System.currentTimeMillis() < deadline)
+		{
+			Thread.sleep(10);
+		}
+
+		assertEquals("KPRESS:17:548174113763558\n", readJournal());
+	}
+
+	@Test
+	public void testDelete() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation);
+		journal.append("KPRESS:17:548174113763558");
+		journal.delete();
+
+		assertFalse(journalFileLoc.exists());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testJournalExists() throws IllegalArgumentException, IOException
+	{
+		assertFalse(RecordingJournal.journalExists(journalLocation));
+		assertFalse(RecordingJournal.journalExists(null));
+
+		writeJournal("KPRESS:17:548174113763558\n");
+
+		assertTrue(RecordingJournal.journalExists(journalLocation));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecoverJournal_EmptyRecordingLocation() throws IllegalArgumentException, IOException
+	{
+		RecordingJournal.recoverJournal(journalLocation, "");
+	}
+
+	@Test
+	public void testRecoverJournal_NoJournal() throws IllegalArgumentException, IOException
+	{
+		assertFalse(RecordingJournal.recoverJournal(journalLocation, recoveredLocation));
+		assertFalse(recoveredFileLoc.exists());
+	}
+
+	@Test
+	public void testRecoverJournal_OnlyPartialLine() throws IllegalArgumentException, IOException
+	{
+		writeJournal("KPRESS:17:5481");
+
+		assertFalse(RecordingJournal.recoverJournal(journalLocation, recoveredLocation));
+		assertFalse(journalFileLoc.exists());
+		assertFalse(recoveredFileLoc.exists());
+	}
+
+	@Test
+	public void testRecoverJournal_Valid() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		writeJournal("KPRESS:17:548174113763558\nMPRESS:1:698:413:1399149:548174113763600\nKRELEA:17:5481747");
+
+		assertTrue(RecordingJournal.recoverJournal(journalLocation, recoveredLocation));
+		assertFalse(journalFileLoc.exists());
+
+		final RecordingData recoveredRecording = DataIOHandlerUtils.importRecordingFromFile(recoveredLocation);
+
+		assertEquals(2, recoveredRecording.getInputActions().size());
+	}
+
+	@Test
+	public void testRecoverJournal_KeepsScreenLine() throws IllegalArgumentException, IOException
+	{
+		journal = new RecordingJournal(journalLocation, new Dimension(1920, 1080));
+		journal.append("KPRESS:17:548174113763558");
+		journal.close();
+		journal = null;
+
+		assertTrue(RecordingJournal.recoverJournal(journalLocation, recoveredLocation));
+		assertEquals("SCREEN:1920:1080", DataIOHandlerUtils.importStringDataFromFile(recoveredLocation).get(0));
+	}
+
+	/**
+	 * Reads every line of the journal into a list.
+	 */
+	private static LinkedList<String> readLines(RecordingJournal journal)
+	{
+		final LinkedList<String> lines = new LinkedList<String>();
+
+		for (String line : journal)
+		{
+			lines.add(line);
+		}
+
+		return lines;
+	}
+
+	/**
+	 * Writes the contents to the journal file.
+	 */
+	private void writeJournal(String contents) throws IOException
+	{
+		final FileOutputStream os = new FileOutputStream(journalFileLoc);
+
+		try
+		{
+			os.write(contents.getBytes("US-ASCII"));
+		}
+		finally
+		{
+			os.close();
+		}
+	}
+
+	/**
+	 * Reads the contents of the journal file.
+	 */
+	private String readJournal() throws IOException
+	{
+		final List<String> lines = Files.readAllLines(journalFileLoc.toPath());
+		final StringBuilder contents = new StringBuilder();
+
+		for (String line : lines)
+		{
+			contents.append(line).append('\n');
+		}
+
+		return contents.toString();
+	}
+
+	/**
+	 * Deletes the journal and the recovered recording.
+	 */
+	private void deleteFiles()
+	{
+		for (File file : new File[]{journalFileLoc, recoveredFileLoc})
+		{
+			if (file != null && file.exists())
+				file.delete();
+		}
+	}
+}
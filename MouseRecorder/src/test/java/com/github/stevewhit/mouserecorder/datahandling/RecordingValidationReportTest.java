@@ -0,0 +1,37 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class RecordingValidationReportTest
+{
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordingValidationReport_NegativeMax()
+	{
+		new RecordingValidationReport(-1);
+	}
+
+	@Test
+	public void testToString_Valid()
+	{
+		final RecordingValidationReport report = new RecordingValidationReport(2);
+
+		assertTrue(report.isValid());
+		assertEquals("Recording is valid.", report.toString());
+	}
+
+	@Test
+	public void testToString_Truncated()
+	{
+		final RecordingValidationReport report = new RecordingValidationReport(2);
+		report.addProblem("Line 1", "First.");
+		report.addProblem("Line 2", "Second.");
+		report.addProblem("Line 3", "Third.");
+
+		assertFalse(report.isValid());
+		assertTrue(report.isTruncated());
+		assertEquals(3, report.getProblemCount());
+		assertEquals("Recording contains 3 problems:\nLine 1: First.\nLine 2: Second.\n... and 1 more.", report.toString());
+	}
+}
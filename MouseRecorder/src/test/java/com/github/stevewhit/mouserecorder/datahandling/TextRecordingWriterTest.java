@@ -0,0 +1,223 @@
+package com.github.stevewhit.mouserecorder.datahandling;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.monitor.Pixel;
+import com.github.stevewhit.mouserecorder.monitor.PixelColor;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+import com.github.stevewhit.mouserecorder.userinputs.AbstractInputAction;
+import com.github.stevewhit.mouserecorder.userinputs.InputWaitAction;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButton;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonPress;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseButtonRelease;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseMove;
+import com.github.stevewhit.mouserecorder.userinputs.mouse.MouseWheelScroll;
+
+public class TextRecordingWriterTest
+{
+	File fileLoc;
+	String saveLocation;
+	TextRecordingWriter writer;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		saveLocation = "TestTextRecordingWriter.txt";
+		fileLoc = new File(saveLocation);
+
+		if (fileLoc.exists())
+			fileLoc.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (writer != null)
+			writer.close();
+
+		if (fileLoc != null && fileLoc.exists())
+			fileLoc.delete();
+
+		writer = null;
+		fileLoc = null;
+		saveLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTextRecordingWriter_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter("");
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testTextRecordingWriter_BufferTooSmall() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation, 16);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testWriteLine_NullLine() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation);
+		writer.writeLine(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testWriteAction_Unsupported() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation);
+		writer.writeAction(new InputWaitAction(10, 548174113763558L));
+	}
+
+	@Test(expected=IOException.class)
+	public void testWriteLine_Closed() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation);
+		writer.close();
+		writer.writeLine("KPRESS:17:548174113763558");
+	}
+
+	//=======================================================
+
+	@Test
+	public void testWriteAction_MatchesTrackerFormat() throws IllegalArgumentException, IOException
+	{
+		// A small buffer makes the writer drain in the middle of the recording.
+		writer = new TextRecordingWriter(saveLocation, 160);
+		writer.writeClickZone(new ClickZoneDetails(698, 413, 50, 50));
+		writer.writeAction(new MouseMove(new PixelCoordinate2D(469, 76), 548171866216160L));
+		writer.writeAction(new KeyboardKeyPress(17, 548174113763558L));
+		writer.writeAction(new KeyboardKeyRelease(17, 548174760943927L));
+		writer.writeAction(new MouseButtonPress(MouseButton.ScrollWheel, new Pixel(new PixelColor(1399149), new PixelCoordinate2D(0, 76)), 548179641171616L));
+		writer.writeAction(new MouseButtonRelease(MouseButton.Right, new Pixel(new PixelColor(16777215), new PixelCoordinate2D(469, 0)), 548180249079966L));
+		writer.commit();
+
+		assertEquals(Arrays.asList("CZONEE:698:413:50:50",
+								   "MMOVED:469:76:548171866216160",
+								   "KPRESS:17:548174113763558",
+								   "KRELEA:17:548174760943927",
+								   "MPRESS:3:0:76:1399149:548179641171616",
+								   "MRELEA:2:469:0:16777215:548180249079966"),
+					 DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+	}
+
+	@Test
+	public void testWriteAction_MouseWheel() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation);
+		writer.writeAction(new MouseWheelScroll(new PixelCoordinate2D(469, 76), -3, 548181397050226L));
+		writer.writeAction(new MouseWheelScroll(new PixelCoordinate2D(0, 0), 7, 548181397050300L));
+		writer.commit();
+
+		assertEquals(Arrays.asList("MWHEEL:469:76:-3:548181397050226",
+								   "MWHEEL:0:0:7:548181397050300"),
+					 DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+	}
+
+	@Test
+	public void testWriteLine_ManyLines() throws IllegalArgumentException, IOException
+	{
+		writer = new TextRecordingWriter(saveLocation, 160);
+
+		for (int lineNum = 0; lineNum < 1000; lineNum++)
+		{
+			writer.writeLine("KPRESS:" + (65 + lineNum % 26) + ":" + (548174113763558L + lineNum));
+		}
+
+		writer.commit();
+
+		final ArrayList<String> writtenLines = DataIOHandlerUtils.importStringDataFromFile(saveLocation);
+
+		assertEquals(1000, writtenLines.size());
+		assertEquals("KPRESS:" + (65 + 999 % 26) + ":" + (548174113763558L + 999), writtenLines.get(999));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testCommit_ReplacesExistingFile() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558", "KRELEA:17:548174760943927")), saveLocation);
+
+		writer = new TextRecordingWriter(saveLocation);
+		writer.writeLine("KPRESS:18:548174113763558");
+		writer.commit();
+
+		assertEquals(Arrays.asList("KPRESS:18:548174113763558"), DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+		assertEquals(0, countTemporaryFiles());
+	}
+
+	@Test
+	public void testClose_WithoutCommitKeepsExistingFile() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), saveLocation);
+
+		writer = new TextRecordingWriter(saveLocation, 160);
+
+		for (int lineNum = 0; lineNum < 100; lineNum++)
+		{
+			writer.writeLine("KPRESS:18:548174113763558");
+		}
+
+		writer.close();
+
+		assertEquals(Arrays.asList("KPRESS:17:548174113763558"), DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+		assertEquals(0, countTemporaryFiles());
+	}
+
+	@Test
+	public void testExportRecordingToTextFile_Valid() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final LinkedList<AbstractInputAction> actions = new LinkedList<AbstractInputAction>();
+		actions.add(new KeyboardKeyPress(17, 548174113763558L));
+		actions.add(new MouseButtonPress(MouseButton.Left, new Pixel(new PixelColor(1399149), new PixelCoordinate2D(698, 413)), 548174113763600L));
+		actions.add(new KeyboardKeyRelease(17, 548174760943927L));
+
+		DataIOHandlerUtils.exportRecordingToTextFile(actions, Arrays.asList(new ClickZoneDetails(698, 413, 50, 50)), saveLocation);
+
+		final RecordingData importedRecording = DataIOHandlerUtils.importRecordingFromFile(saveLocation);
+
+		assertEquals(3, importedRecording.getInputActions().size());
+		assertEquals(1, importedRecording.getClickZoneDetails().size());
+		assertEquals(548174113763600L, ((AbstractInputAction) importedRecording.getInputActions().toArray()[1]).getTimeStamp());
+	}
+
+	@Test
+	public void testExportRecordingLinesToFile_ClickZonesFirst() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.exportRecordingLinesToFile(Arrays.asList("CZONEE:698:413:50:50"), Arrays.asList("KPRESS:17:548174113763558"), saveLocation);
+
+		assertEquals(Arrays.asList("CZONEE:698:413:50:50", "KPRESS:17:548174113763558"), DataIOHandlerUtils.importStringDataFromFile(saveLocation));
+	}
+
+	/**
+	 * Counts the temporary files left next to the save location.
+	 */
+	private int countTemporaryFiles()
+	{
+		final File[] temporaryFiles = fileLoc.getAbsoluteFile().getParentFile().listFiles();
+		int temporaryFileCount = 0;
+
+		for (File file : temporaryFiles)
+		{
+			if (file.getName().startsWith(saveLocation + ".") && file.getName().endsWith(".tmp"))
+				temporaryFileCount++;
+		}
+
+		return temporaryFileCount;
+	}
+}
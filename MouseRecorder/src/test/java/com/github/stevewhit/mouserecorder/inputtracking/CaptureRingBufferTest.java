@@ -0,0 +1,141 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Test;
+
+public class CaptureRingBufferTest
+{
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCaptureRingBuffer_NotPowerOfTwo()
+	{
+		new CaptureRingBuffer(100);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testCaptureRingBuffer_ZeroCapacity()
+	{
+		new CaptureRingBuffer(0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testOffer_NullType()
+	{
+		new CaptureRingBuffer(4).offer(null, 0, 0, 17, 0, 548174113763558L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testDrainTo_NullDestination()
+	{
+		new CaptureRingBuffer(4).drainTo(null);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testDrainTo_KeepsOrder()
+	{
+		CaptureRingBuffer buffer = new CaptureRingBuffer(4);
+		CapturedEventLog drainedEvents = new CapturedEventLog();
+
+		assertTrue(buffer.offer(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L));
+		assertTrue(buffer.offer(CapturedEventType.MouseMove, 469, 76, 0, 0, 548174113763600L));
+		assertTrue(buffer.offer(CapturedEventType.MousePress, 469, 76, 1, 1399149, 548174113763700L));
+
+		assertEquals(3, buffer.size());
+		assertEquals(2, buffer.drainTo(drainedEvents, 2));
+		assertEquals(1, buffer.drainTo(drainedEvents));
+		assertEquals(0, buffer.drainTo(drainedEvents));
+		assertEquals(0, buffer.size());
+		assertEquals(Arrays.asList("KPRESS:17:548174113763558", "MMOVED:469:76:548174113763600", "MPRESS:1:469:76:1399149:548174113763700"),
+					 drainedEvents.copyLines());
+	}
+
+	@Test
+	public void testOffer_CountsDroppedEvents()
+	{
+		CaptureRingBuffer buffer = new CaptureRingBuffer(2);
+		CapturedEventLog drainedEvents = new CapturedEventLog();
+
+		assertTrue(buffer.offer(CapturedEventType.KeyPress, 0, 0, 1, 0, 1L));
+		assertTrue(buffer.offer(CapturedEventType.KeyPress, 0, 0, 2, 0, 2L));
+		assertFalse(buffer.offer(CapturedEventType.KeyPress, 0, 0, 3, 0, 3L));
+		assertFalse(buffer.offer(CapturedEventType.KeyPress, 0, 0, 4, 0, 4L));
+
+		assertEquals(2, buffer.getDroppedCount());
+
+		buffer.drainTo(drainedEvents, 1);
+
+		assertTrue(buffer.offer(CapturedEventType.KeyPress, 0, 0, 5, 0, 5L));
+		assertEquals(2, buffer.getDroppedCount());
+
+		buffer.drainTo(drainedEvents);
+
+		assertEquals(Arrays.asList("KPRESS:1:1", "KPRESS:2:2", "KPRESS:5:5"), drainedEvents.copyLines());
+	}
+
+	@Test
+	public void testOffer_WrapsAround()
+	{
+		CaptureRingBuffer buffer = new CaptureRingBuffer(4);
+		CapturedEventLog drainedEvents = new CapturedEventLog();
+
+		for (int eventNum = 0; eventNum < 1000; eventNum++)
+		{
+			assertTrue(buffer.offer(CapturedEventType.MouseMove, eventNum, eventNum, 0, 0, eventNum));
+
+			if (eventNum % 3 == 2)
+				buffer.drainTo(drainedEvents);
+		}
+
+		buffer.drainTo(drainedEvents);
+
+		assertEquals(1000, drainedEvents.size());
+		assertEquals(999L, drainedEvents.getTimeStamp(999));
+		assertEquals(0, buffer.getDroppedCount());
+	}
+
+	@Test
+	public void testDrainTo_ConcurrentProducer() throws InterruptedException
+	{
+		final CaptureRingBuffer buffer = new CaptureRingBuffer(64);
+		final int eventCount = 200000;
+
+		final Thread producerThread = new Thread(new Runnable()
+		{
+			@Override
+			public void run()
+			{
+				for (int eventNum = 0; eventNum < eventCount; eventNum++)
+				{
+					// Retry dropped events so every event is drained once.
+					while (!buffer.offer(CapturedEventType.MouseMove, eventNum, -eventNum, 0, 0, eventNum))
+					{
+						Thread.yield();
+					}
+				}
+			}
+		});
+
+		producerThread.start();
+
+		final CapturedEventLog drainedEvents = new CapturedEventLog();
+
+		while (drainedEvents.size() < eventCount)
+		{
+			buffer.drainTo(drainedEvents);
+		}
+
+		producerThread.join();
+
+		for (int eventNum = 0; eventNum < eventCount; eventNum++)
+		{
+			assertEquals(eventNum, drainedEvents.getTimeStamp(eventNum));
+		}
+
+		assertEquals("MMOVED:199999:-199999:199999", drainedEvents.appendLine(eventCount - 1, new StringBuilder()).toString());
+	}
+}
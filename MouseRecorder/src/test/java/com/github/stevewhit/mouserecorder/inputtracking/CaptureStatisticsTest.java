@@ -0,0 +1,102 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CaptureStatisticsTest
+{
+	private static final long SECOND = 1000000000L;
+
+	CaptureStatistics statistics;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		statistics = new CaptureStatistics();
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordEvent_NullType()
+	{
+		statistics.recordEvent(null, 0, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetEventCount_NullType()
+	{
+		statistics.getEventCount(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testRecordDroppedEvents_Negative()
+	{
+		statistics.recordDroppedEvents(-1);
+	}
+
+	@Test
+	public void testRecordDroppedEvents()
+	{
+		assertEquals(0, statistics.getDroppedEventCount());
+
+		statistics.recordDroppedEvents(3);
+		statistics.recordDroppedEvents(0);
+		statistics.recordDroppedEvents(2);
+
+		assertEquals(5, statistics.getDroppedEventCount());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testRecordEvent_CountsByType()
+	{
+		statistics.recordEvent(CapturedEventType.MouseMove, 10 * SECOND, 10 * SECOND + 2000);
+		statistics.recordEvent(CapturedEventType.MouseMove, 10 * SECOND + 5, 10 * SECOND + 1005);
+		statistics.recordEvent(CapturedEventType.KeyPress, 10 * SECOND + 9, 10 * SECOND + 509);
+
+		assertEquals(2, statistics.getEventCount(CapturedEventType.MouseMove));
+		assertEquals(1, statistics.getEventCount(CapturedEventType.KeyPress));
+		assertEquals(0, statistics.getEventCount(CapturedEventType.MousePress));
+		assertEquals(2, statistics.getMouseCallbackLatency().getCount());
+		assertEquals(2000, statistics.getMouseCallbackLatency().getMaxNanoseconds());
+		assertEquals(1, statistics.getKeyCallbackLatency().getCount());
+		assertEquals(500, statistics.getKeyCallbackLatency().getMaxNanoseconds());
+	}
+
+	@Test
+	public void testGetEventsPerSecond_LastFullSecond()
+	{
+		for (int moveNum = 0; moveNum < 120; moveNum++)
+		{
+			statistics.recordEvent(CapturedEventType.MouseMove, 10 * SECOND + moveNum, 10 * SECOND + moveNum);
+		}
+
+		// Still inside the counted second, so the second before it (nothing) is reported.
+		assertEquals(0, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 10 * SECOND + 500));
+		assertEquals(120, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 11 * SECOND + 500));
+		assertEquals(0, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 12 * SECOND));
+
+		statistics.recordEvent(CapturedEventType.MouseMove, 11 * SECOND, 11 * SECOND);
+
+		assertEquals(120, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 11 * SECOND + 500));
+		assertEquals(1, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 12 * SECOND + 500));
+
+		statistics.recordEvent(CapturedEventType.MouseMove, 15 * SECOND, 15 * SECOND);
+
+		assertEquals(0, statistics.getEventsPerSecond(CapturedEventType.MouseMove, 15 * SECOND + 500));
+		assertEquals(0, statistics.getEventsPerSecond(CapturedEventType.KeyPress, 15 * SECOND + 500));
+	}
+
+	@Test
+	public void testRecordSkippedKey()
+	{
+		statistics.recordSkippedKey();
+		statistics.recordSkippedKey();
+
+		assertEquals(2, statistics.getSkippedKeyCount());
+	}
+}
@@ -0,0 +1,109 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+
+public class CapturedEventLogTest
+{
+	CapturedEventLog eventLog;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		eventLog = new CapturedEventLog();
+		eventLog.addEvent(CapturedEventType.MouseMove, 469, 76, 0, 0, 548171866216160L);
+		eventLog.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		eventLog.addEvent(CapturedEventType.KeyRelease, 0, 0, 17, 0, 548174760943927L);
+		eventLog.addEvent(CapturedEventType.MousePress, 469, 76, 3, 1399149, 548179641171616L);
+		eventLog.addEvent(CapturedEventType.MouseRelease, 469, 76, 3, CapturedEventType.INVALID_COLOR, 548180249079966L);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddEvent_NullType()
+	{
+		eventLog.addEvent(null, 0, 0, 0, 0, 0L);
+	}
+
+	@Test(expected=UnsupportedOperationException.class)
+	public void testIterator_Remove()
+	{
+		final Iterator<String> lines = eventLog.iterator();
+
+		lines.next();
+		lines.remove();
+	}
+
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void testGetType_OutOfBounds()
+	{
+		eventLog.getType(5);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testIterator_MatchesTrackerFormat()
+	{
+		assertEquals(Arrays.asList("MMOVED:469:76:548171866216160",
+								   "KPRESS:17:548174113763558",
+								   "KRELEA:17:548174760943927",
+								   "MPRESS:3:469:76:1399149:548179641171616",
+								   "MRELEA:3:469:76:INVALIDCOLOR:548180249079966"),
+					 new ArrayList<String>(eventLog.copyLines()));
+		assertEquals(5, eventLog.size());
+	}
+
+	@Test
+	public void testIterator_ParsesAsRecording() throws IllegalArgumentException, DataFormatException
+	{
+		LinkedList<String> recordedLines = eventLog.copyLines();
+		recordedLines.removeLast();
+
+		assertEquals(4, DataIOHandlerUtils.convertToActionData(recordedLines).size());
+	}
+
+	@Test
+	public void testAppendLine_MouseWheelParses() throws IllegalArgumentException, DataFormatException
+	{
+		CapturedEventLog wheelLog = new CapturedEventLog();
+		wheelLog.addEvent(CapturedEventType.MouseWheel, 469, 76, -3, 0, 548181397050226L);
+
+		assertEquals("MWHEEL:469:76:-3:548181397050226", wheelLog.iterator().next());
+		assertEquals(1, DataIOHandlerUtils.convertToActionData(wheelLog.copyLines()).size());
+	}
+
+	@Test
+	public void testAddEvent_ManyChunks()
+	{
+		CapturedEventLog largeLog = new CapturedEventLog();
+
+		for (int eventNum = 0; eventNum < 10000; eventNum++)
+		{
+			largeLog.addEvent(CapturedEventType.KeyPress, 0, 0, 65 + eventNum % 26, 0, 548174113763558L + eventNum);
+		}
+
+		assertEquals(10000, largeLog.size());
+		assertEquals(CapturedEventType.KeyPress, largeLog.getType(9999));
+		assertEquals(548174113763558L + 4096, largeLog.getTimeStamp(4096));
+
+		int lineCount = 0;
+
+		for (String line : largeLog)
+		{
+			assertEquals("KPRESS:" + (65 + lineCount % 26) + ":" + (548174113763558L + lineCount), line);
+			lineCount++;
+		}
+
+		assertEquals(10000, lineCount);
+	}
+}
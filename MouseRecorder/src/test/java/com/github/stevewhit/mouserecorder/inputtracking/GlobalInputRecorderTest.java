@@ -0,0 +1,85 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GlobalInputRecorderTest
+{
+	GlobalInputRecorder recorder;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		recorder = new GlobalInputRecorder(CaptureRingBuffer.DEFAULT_CAPACITY, new NativeHookDispatcher());
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGlobalInputRecorder_NullDispatcher()
+	{
+		new GlobalInputRecorder(CaptureRingBuffer.DEFAULT_CAPACITY, null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGlobalInputRecorder_InvalidCapacity()
+	{
+		new GlobalInputRecorder(3, new NativeHookDispatcher());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testIsCapturing_NotRecording()
+	{
+		assertFalse(recorder.isCapturing());
+
+		recorder.PauseRecording();
+
+		assertFalse(recorder.isCapturing());
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testResumeRecording_NotRecording()
+	{
+		recorder.ResumeRecording();
+	}
+
+	@Test
+	public void testStopRecording_NotRecording()
+	{
+		recorder.StopRecording();
+
+		assertFalse(recorder.isCapturing());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testSetStreamLocation()
+	{
+		assertNull(recorder.getStreamLocation());
+		assertNull(recorder.getRecordingStream());
+
+		recorder.setStreamLocation("TestStreamLocation.txt");
+
+		assertEquals("TestStreamLocation.txt", recorder.getStreamLocation());
+
+		recorder.setStreamLocation(null);
+
+		assertNull(recorder.getStreamLocation());
+	}
+
+	@Test
+	public void testStopRecording_StreamingNotRecording()
+	{
+		recorder.setStreamLocation("TestStreamLocation.txt");
+		recorder.StopRecording();
+
+		assertNull(recorder.getRecordingStream());
+		assertFalse(new File("TestStreamLocation.txt").exists());
+	}
+}
@@ -0,0 +1,60 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.KeyEvent;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GlobalKeyTrackerTest
+{
+	GlobalInputRecorder recorder;
+	CaptureRingBuffer actionsBuffer;
+	GlobalKeyTracker keyTracker;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		recorder = new GlobalInputRecorder(CaptureRingBuffer.DEFAULT_CAPACITY, new NativeHookDispatcher());
+		actionsBuffer = new CaptureRingBuffer(16);
+		keyTracker = new GlobalKeyTracker(recorder, actionsBuffer, new int[]{KeyEvent.VK_ALT, KeyEvent.VK_R});
+	}
+
+	/**
+	 * Returns a native key press of the key, stamped with the native time.
+	 */
+	private static NativeKeyEvent keyPress(int keyCode, long nativeTime)
+	{
+		return new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, nativeTime, 0, 0, keyCode, NativeKeyEvent.CHAR_UNDEFINED);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGlobalKeyTracker_NullBuffer()
+	{
+		new GlobalKeyTracker(recorder, null, null);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testNativeKeyPressed_CancellationReleasesOnNativeClock()
+	{
+		// Both presses have the same native time, so they're recorded at the same corrected time.
+		keyTracker.nativeKeyPressed(keyPress(NativeKeyEvent.VC_ALT_L, 1000));
+		keyTracker.nativeKeyPressed(keyPress(NativeKeyEvent.VC_R, 1000));
+
+		final CapturedEventLog recordedEvents = new CapturedEventLog();
+		actionsBuffer.drainTo(recordedEvents);
+
+		// The press of the last cancellation key isn't recorded; both keys are released where it was pressed.
+		assertEquals(3, recordedEvents.size());
+		assertEquals(CapturedEventType.KeyPress, recordedEvents.getType(0));
+		assertEquals(CapturedEventType.KeyRelease, recordedEvents.getType(1));
+		assertEquals(CapturedEventType.KeyRelease, recordedEvents.getType(2));
+		assertEquals(recordedEvents.getTimeStamp(0), recordedEvents.getTimeStamp(1));
+		assertEquals(recordedEvents.getTimeStamp(0), recordedEvents.getTimeStamp(2));
+	}
+}
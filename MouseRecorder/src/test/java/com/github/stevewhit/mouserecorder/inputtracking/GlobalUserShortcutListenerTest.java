@@ -0,0 +1,112 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.KeyEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import javax.swing.SwingUtilities;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GlobalUserShortcutListenerTest
+{
+	NativeHookDispatcher dispatcher;
+	GlobalUserShortcutListener shortcutListener;
+	ArrayList<Boolean> firedOnEventDispatchThread;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		// The dispatcher never registers the native hook; the test passes the events to it directly.
+		dispatcher = new NativeHookDispatcher()
+		{
+			@Override
+			public synchronized void start() {}
+		};
+
+		shortcutListener = new GlobalUserShortcutListener(dispatcher);
+		firedOnEventDispatchThread = new ArrayList<Boolean>();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		shortcutListener.StopListening();
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGlobalUserShortcutListener_NullDispatcher()
+	{
+		new GlobalUserShortcutListener(null);
+	}
+
+	@Test
+	public void testStartListening_FiresOnEventDispatchThread() throws Exception
+	{
+		final ArrayList<Integer[]> keySequences = new ArrayList<Integer[]>();
+		keySequences.add(new Integer[]{KeyEvent.VK_ALT, KeyEvent.VK_R});
+
+		shortcutListener.StartListening(new PropertyChangeListener()
+		{
+			@Override
+			public void propertyChange(PropertyChangeEvent evt)
+			{
+				firedOnEventDispatchThread.add(SwingUtilities.isEventDispatchThread());
+			}
+		}, keySequences);
+
+		dispatcher.nativeKeyPressed(keyPress(NativeKeyEvent.VC_ALT_L));
+		dispatcher.nativeKeyPressed(keyPress(NativeKeyEvent.VC_R));
+
+		// Wait for the key events that were passed on to the event dispatching thread.
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			@Override
+			public void run() {}
+		});
+
+		assertEquals(1, firedOnEventDispatchThread.size());
+		assertTrue(firedOnEventDispatchThread.get(0));
+	}
+
+	@Test
+	public void testStopListening() throws Exception
+	{
+		final ArrayList<Integer[]> keySequences = new ArrayList<Integer[]>();
+		keySequences.add(new Integer[]{KeyEvent.VK_R});
+
+		shortcutListener.StartListening(new PropertyChangeListener()
+		{
+			@Override
+			public void propertyChange(PropertyChangeEvent evt)
+			{
+				firedOnEventDispatchThread.add(SwingUtilities.isEventDispatchThread());
+			}
+		}, keySequences);
+		shortcutListener.StopListening();
+
+		dispatcher.nativeKeyPressed(keyPress(NativeKeyEvent.VC_R));
+
+		SwingUtilities.invokeAndWait(new Runnable()
+		{
+			@Override
+			public void run() {}
+		});
+
+		assertTrue(firedOnEventDispatchThread.isEmpty());
+	}
+
+	/**
+	 * Creates a native key press event of the key.
+	 */
+	private static NativeKeyEvent keyPress(int keyCode)
+	{
+		return new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, 0L, 0, 0, keyCode, NativeKeyEvent.CHAR_UNDEFINED);
+	}
+}
@@ -0,0 +1,215 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.KeyEvent;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class KeyShortcutMatcherTest
+{
+	KeyShortcutMatcher matcher;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		matcher = new KeyShortcutMatcher();
+		matcher.setCombinations(Arrays.asList(
+				new int[]{KeyEvent.VK_ALT, KeyEvent.VK_R},
+				new int[]{KeyEvent.VK_CONTROL, KeyEvent.VK_ALT, KeyEvent.VK_SHIFT, KeyEvent.VK_E},
+				new int[]{KeyEvent.VK_ALT, KeyEvent.VK_WINDOWS}));
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCombinations_NullList()
+	{
+		matcher.setCombinations(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCombinations_NullCombination()
+	{
+		matcher.setCombinations(Arrays.asList(new int[]{KeyEvent.VK_ALT}, null));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCombinations_EmptyCombination()
+	{
+		matcher.setCombinations(Arrays.asList(new int[0]));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCombinations_KeyOutOfRange()
+	{
+		matcher.setCombinations(Arrays.asList(new int[]{KeyEvent.VK_ALT, KeyShortcutMatcher.KEY_CODE_LIMIT}));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCombinations_NegativeKey()
+	{
+		matcher.setCombinations(Arrays.asList(new int[]{-1}));
+	}
+
+	@Test
+	public void testSetCombinations_InvalidKeepsPreviousCombinations()
+	{
+		try
+		{
+			matcher.setCombinations(Arrays.asList(new int[]{KeyEvent.VK_A}, new int[0]));
+			fail("Expected an IllegalArgumentException.");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Expected.
+		}
+
+		assertEquals(3, matcher.getCombinationCount());
+		assertFalse(matcher.isCombinationKey(KeyEvent.VK_A));
+	}
+
+	@Test
+	public void testSetCombinations_Replaces()
+	{
+		matcher.setCombinations(new ArrayList<int[]>(Arrays.asList(new int[]{KeyEvent.VK_Q})));
+
+		assertEquals(1, matcher.getCombinationCount());
+		assertTrue(matcher.isCombinationKey(KeyEvent.VK_Q));
+		assertFalse(matcher.isCombinationKey(KeyEvent.VK_ALT));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testGetCombination()
+	{
+		final int[] combination = matcher.getCombination(0);
+
+		assertArrayEquals(new int[]{KeyEvent.VK_ALT, KeyEvent.VK_R}, combination);
+
+		combination[0] = KeyEvent.VK_Q;
+
+		assertArrayEquals(new int[]{KeyEvent.VK_ALT, KeyEvent.VK_R}, matcher.getCombination(0));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetCombination_IndexOutOfRange()
+	{
+		matcher.getCombination(3);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testPress()
+	{
+		assertTrue(matcher.press(KeyEvent.VK_A));
+		assertFalse(matcher.press(KeyEvent.VK_A));
+		assertTrue(matcher.isPressed(KeyEvent.VK_A));
+		assertFalse(matcher.isPressed(KeyEvent.VK_B));
+	}
+
+	@Test
+	public void testPress_KeyOutOfRange()
+	{
+		assertFalse(matcher.press(-1));
+		assertFalse(matcher.press(KeyShortcutMatcher.KEY_CODE_LIMIT));
+		assertFalse(matcher.isPressed(KeyShortcutMatcher.KEY_CODE_LIMIT));
+	}
+
+	@Test
+	public void testRelease()
+	{
+		matcher.press(KeyEvent.VK_A);
+
+		assertTrue(matcher.release(KeyEvent.VK_A));
+		assertFalse(matcher.release(KeyEvent.VK_A));
+		assertFalse(matcher.isPressed(KeyEvent.VK_A));
+		assertFalse(matcher.release(KeyShortcutMatcher.KEY_CODE_LIMIT));
+	}
+
+	@Test
+	public void testReleaseAll()
+	{
+		matcher.press(KeyEvent.VK_A);
+		matcher.press(KeyEvent.VK_WINDOWS);
+		matcher.releaseAll();
+
+		assertFalse(matcher.isPressed(KeyEvent.VK_A));
+		assertFalse(matcher.isPressed(KeyEvent.VK_WINDOWS));
+	}
+
+	@Test
+	public void testIsCombinationKey()
+	{
+		assertTrue(matcher.isCombinationKey(KeyEvent.VK_ALT));
+		assertTrue(matcher.isCombinationKey(KeyEvent.VK_E));
+		assertTrue(matcher.isCombinationKey(KeyEvent.VK_WINDOWS));
+		assertFalse(matcher.isCombinationKey(KeyEvent.VK_A));
+		assertFalse(matcher.isCombinationKey(-1));
+	}
+
+	//=======================================================
+
+	@Test
+	public void testFindPressedCombination_NonePressed()
+	{
+		matcher.press(KeyEvent.VK_ALT);
+		matcher.press(KeyEvent.VK_A);
+
+		assertEquals(-1, matcher.findPressedCombination());
+	}
+
+	@Test
+	public void testFindPressedCombination()
+	{
+		matcher.press(KeyEvent.VK_CONTROL);
+		matcher.press(KeyEvent.VK_SHIFT);
+		matcher.press(KeyEvent.VK_ALT);
+
+		assertEquals(-1, matcher.findPressedCombination());
+
+		matcher.press(KeyEvent.VK_E);
+
+		assertEquals(1, matcher.findPressedCombination());
+
+		matcher.release(KeyEvent.VK_SHIFT);
+
+		assertEquals(-1, matcher.findPressedCombination());
+	}
+
+	@Test
+	public void testFindPressedCombination_KeysInDifferentWords()
+	{
+		matcher.press(KeyEvent.VK_WINDOWS);
+
+		assertEquals(-1, matcher.findPressedCombination());
+
+		matcher.press(KeyEvent.VK_ALT);
+
+		assertEquals(2, matcher.findPressedCombination());
+	}
+
+	@Test
+	public void testFindPressedCombination_FirstMatchWins()
+	{
+		matcher.press(KeyEvent.VK_ALT);
+		matcher.press(KeyEvent.VK_WINDOWS);
+		matcher.press(KeyEvent.VK_R);
+
+		assertEquals(0, matcher.findPressedCombination());
+	}
+
+	@Test
+	public void testFindPressedCombination_NoCombinations()
+	{
+		matcher = new KeyShortcutMatcher();
+		matcher.press(KeyEvent.VK_ALT);
+
+		assertEquals(0, matcher.getCombinationCount());
+		assertEquals(-1, matcher.findPressedCombination());
+	}
+}
@@ -0,0 +1,64 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.KeyEvent;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.userinputs.keyboard.KeyboardKeyPress;
+
+public class KeyboardKeyConverterUtilsTest
+{
+	@Test
+	public void testNativeKeyToEventKey()
+	{
+		assertEquals(KeyEvent.VK_ESCAPE, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_ESCAPE));
+		assertEquals(KeyEvent.VK_A, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_A));
+		assertEquals(KeyEvent.VK_1, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_1));
+		assertEquals(KeyEvent.VK_SHIFT, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_SHIFT_L));
+		assertEquals(KeyEvent.VK_SHIFT, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_SHIFT_R));
+		assertEquals(KeyEvent.VK_META, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_META_R));
+	}
+	
+	@Test
+	public void testNativeKeyToEventKey_Keypad()
+	{
+		assertEquals(KeyEvent.VK_NUMPAD0, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_0));
+		assertEquals(KeyEvent.VK_NUMPAD1, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_1));
+		assertEquals(KeyEvent.VK_NUMPAD9, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_9));
+		assertEquals(KeyEvent.VK_DECIMAL, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_SEPARATOR));
+		assertEquals(KeyEvent.VK_DIVIDE, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_DIVIDE));
+		assertEquals(KeyEvent.VK_ENTER, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_KP_ENTER));
+	}
+	
+	@Test
+	public void testNativeKeyToEventKey_Unsupported()
+	{
+		assertEquals(-1, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_UNDEFINED));
+		assertEquals(-1, KeyboardKeyConverterUtils.nativeKeyToEventKey(NativeKeyEvent.VC_CONTEXT_MENU));
+		assertEquals(-1, KeyboardKeyConverterUtils.nativeKeyToEventKey(-1));
+		assertEquals(-1, KeyboardKeyConverterUtils.nativeKeyToEventKey(Integer.MAX_VALUE));
+	}
+	
+	@Test
+	public void testNativeKeyToEventKey_Event()
+	{
+		final NativeKeyEvent event = new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, 0L, 0, 0, NativeKeyEvent.VC_KP_5, NativeKeyEvent.CHAR_UNDEFINED);
+		
+		assertEquals(KeyEvent.VK_NUMPAD5, KeyboardKeyConverterUtils.nativeKeyToEventKey(event));
+	}
+	
+	@Test
+	public void testNativeKeyToEventKey_AllKeysCanBePlayedBack()
+	{
+		for (int nativeKeyCode = 0; nativeKeyCode <= 0xFFFF; nativeKeyCode++)
+		{
+			final int eventKey = KeyboardKeyConverterUtils.nativeKeyToEventKey(nativeKeyCode);
+			
+			if (eventKey != -1)
+			{
+				assertTrue(new KeyboardKeyPress(eventKey, 0).isValidAction());
+			}
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest
+{
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetPercentileNanoseconds_OutOfRange()
+	{
+		new LatencyHistogram().getPercentileNanoseconds(101);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testGetBucketCount_OutOfRange()
+	{
+		new LatencyHistogram().getBucketCount(64);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testRecord_Empty()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMeanNanoseconds());
+		assertEquals(0, histogram.getPercentileNanoseconds(99));
+	}
+
+	@Test
+	public void testRecord_Buckets()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(-5);
+		histogram.record(0);
+		histogram.record(1);
+		histogram.record(1000);
+		histogram.record(1023);
+		histogram.record(1024);
+
+		assertEquals(6, histogram.getCount());
+		assertEquals(3, histogram.getBucketCount(0));
+		assertEquals(2, histogram.getBucketCount(9));
+		assertEquals(1, histogram.getBucketCount(10));
+		assertEquals(1024, histogram.getMaxNanoseconds());
+		assertEquals((1 + 1000 + 1023 + 1024) / 6, histogram.getMeanNanoseconds());
+	}
+
+	@Test
+	public void testGetPercentileNanoseconds_UpperBoundOfBucket()
+	{
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		for (int latencyNum = 0; latencyNum < 99; latencyNum++)
+		{
+			histogram.record(1500);
+		}
+
+		histogram.record(5000000);
+
+		assertEquals(2047, histogram.getPercentileNanoseconds(50));
+		assertEquals(2047, histogram.getPercentileNanoseconds(99));
+		assertEquals(5000000, histogram.getPercentileNanoseconds(100));
+		assertEquals("n=100 p50<=2us p99<=2us max=5000us", histogram.toString());
+	}
+}
@@ -0,0 +1,117 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import javax.swing.JTextArea;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LiveEventLogTest
+{
+	JTextArea outputTextArea;
+	LiveEventLog liveEventLog;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		outputTextArea = new JTextArea("Recording...");
+		liveEventLog = new LiveEventLog(outputTextArea, LiveEventLog.DEFAULT_FLUSH_INTERVAL_MILLISECONDS, 4);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testLiveEventLog_NullTextArea()
+	{
+		new LiveEventLog(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testLiveEventLog_InvalidMaximumLines()
+	{
+		new LiveEventLog(outputTextArea, LiveEventLog.DEFAULT_FLUSH_INTERVAL_MILLISECONDS, 0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddEvent_NullType()
+	{
+		liveEventLog.addEvent(null, 0, 0, 0);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testFlush_AppendsPendingLines()
+	{
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 469, 76, 0);
+		liveEventLog.addEvent(CapturedEventType.KeyPress, 0, 0, NativeKeyEvent.VC_CONTROL_L);
+
+		assertEquals("Recording...", outputTextArea.getText());
+
+		liveEventLog.flush();
+
+		assertEquals("Recording...\nMouse Moved: (469, 76)\nKey Pressed: '" + NativeKeyEvent.getKeyText(NativeKeyEvent.VC_CONTROL_L) + "'",
+					 outputTextArea.getText());
+		assertEquals(0, liveEventLog.getSuppressedCount());
+	}
+
+	@Test
+	public void testFlush_FormatsEachType()
+	{
+		final LiveEventLog largeEventLog = new LiveEventLog(outputTextArea);
+
+		largeEventLog.addEvent(CapturedEventType.MousePress, 469, 76, 1);
+		largeEventLog.addEvent(CapturedEventType.MouseRelease, 469, 76, 1);
+		largeEventLog.addEvent(CapturedEventType.MouseWheel, 469, 76, -3);
+		largeEventLog.addEvent(CapturedEventType.KeyRelease, 0, 0, NativeKeyEvent.VC_R);
+		largeEventLog.flush();
+
+		assertEquals("Recording...\nMouse Button 1 Pressed @ (469, 76)\nMouse Button 1 Released @ (469, 76)\nMouse Wheel Scrolled: -3 @ (469, 76)"
+					 + "\nKey Released: '" + NativeKeyEvent.getKeyText(NativeKeyEvent.VC_R) + "'", outputTextArea.getText());
+	}
+
+	@Test
+	public void testFlush_NothingPending()
+	{
+		liveEventLog.flush();
+
+		assertEquals("Recording...", outputTextArea.getText());
+	}
+
+	@Test
+	public void testFlush_SuppressesOverflow()
+	{
+		for (int lineNum = 1; lineNum <= 10; lineNum++)
+		{
+			liveEventLog.addEvent(CapturedEventType.MouseMove, lineNum, 0, 0);
+		}
+
+		liveEventLog.flush();
+
+		assertEquals("7 events suppressed\nMouse Moved: (8, 0)\nMouse Moved: (9, 0)\nMouse Moved: (10, 0)", outputTextArea.getText());
+		assertEquals(7, liveEventLog.getSuppressedCount());
+
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 11, 0, 0);
+		liveEventLog.flush();
+
+		assertEquals("Mouse Moved: (8, 0)\nMouse Moved: (9, 0)\nMouse Moved: (10, 0)\nMouse Moved: (11, 0)", outputTextArea.getText());
+	}
+
+	@Test
+	public void testFlush_KeepsRollingLines()
+	{
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 1, 0, 0);
+		liveEventLog.flush();
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 2, 0, 0);
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 3, 0, 0);
+		liveEventLog.flush();
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 4, 0, 0);
+		liveEventLog.addEvent(CapturedEventType.MouseMove, 5, 0, 0);
+		liveEventLog.flush();
+
+		assertEquals(4, outputTextArea.getLineCount());
+		assertEquals("Mouse Moved: (2, 0)\nMouse Moved: (3, 0)\nMouse Moved: (4, 0)\nMouse Moved: (5, 0)", outputTextArea.getText());
+		assertEquals(0, liveEventLog.getSuppressedCount());
+	}
+}
@@ -0,0 +1,107 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MinimumDistanceMoveFilterTest
+{
+	CapturedEventLog eventLog;
+	MinimumDistanceMoveFilter filter;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		eventLog = new CapturedEventLog();
+		filter = new MinimumDistanceMoveFilter(5);
+		filter.connect(eventLog);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMinimumDistanceMoveFilter_InvalidDistance()
+	{
+		new MinimumDistanceMoveFilter(0);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConnect_NullSink()
+	{
+		filter.connect(null);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAddEvent_NotConnected()
+	{
+		new MinimumDistanceMoveFilter(5).addEvent(CapturedEventType.MouseMove, 1, 1, 0, 0, 1L);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testAddEvent_DropsJitter()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 100, 100, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 100, 0, 0, 2L);
+		filter.addEvent(CapturedEventType.MouseMove, 102, 102, 0, 0, 3L);
+		filter.addEvent(CapturedEventType.MouseMove, 104, 103, 0, 0, 4L);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 101, 0, 0, 5L);
+
+		assertEquals(Arrays.asList("MMOVED:100:100:1",
+								   "MMOVED:104:103:4"),
+					 eventLog.copyLines());
+		assertEquals(5, filter.getEventsIn());
+		assertEquals(2, filter.getEventsOut());
+		assertEquals(3, filter.getDroppedCount());
+		assertEquals("MinimumDistanceMoveFilter: 5 in, 2 out", filter.toString());
+	}
+
+	@Test
+	public void testAddEvent_HeldMoveBeforePress()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 100, 100, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 100, 0, 0, 2L);
+		filter.addEvent(CapturedEventType.MouseMove, 102, 101, 0, 0, 3L);
+		filter.addEvent(CapturedEventType.MousePress, 102, 101, 1, 255, 4L);
+		filter.addEvent(CapturedEventType.MouseRelease, 102, 101, 1, 255, 5L);
+		filter.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 6L);
+
+		assertEquals(Arrays.asList("MMOVED:100:100:1",
+								   "MMOVED:102:101:3",
+								   "MPRESS:1:102:101:255:4",
+								   "MRELEA:1:102:101:255:5",
+								   "KPRESS:17:6"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testFlush_PassesHeldMove()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 100, 100, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 100, 0, 0, 2L);
+		filter.flush();
+		filter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:100:100:1",
+								   "MMOVED:101:100:2"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testConnect_ForgetsPreviousSession()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 100, 100, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 100, 0, 0, 2L);
+
+		final CapturedEventLog nextEventLog = new CapturedEventLog();
+		filter.connect(nextEventLog);
+		filter.addEvent(CapturedEventType.MouseMove, 101, 101, 0, 0, 3L);
+		filter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:101:101:3"), nextEventLog.copyLines());
+		assertEquals(1, eventLog.size());
+	}
+}
@@ -0,0 +1,83 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MinimumIntervalMoveFilterTest
+{
+	CapturedEventLog eventLog;
+	MinimumIntervalMoveFilter filter;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		eventLog = new CapturedEventLog();
+		filter = new MinimumIntervalMoveFilter(10);
+		filter.connect(eventLog);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMinimumIntervalMoveFilter_InvalidInterval()
+	{
+		new MinimumIntervalMoveFilter(-1);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testAddEvent_CapsMoveRate()
+	{
+		for (int moveNum = 0; moveNum < 25; moveNum++)
+		{
+			filter.addEvent(CapturedEventType.MouseMove, moveNum, moveNum, 0, 0, moveNum * 2L);
+		}
+
+		filter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:0:0:0",
+								   "MMOVED:5:5:10",
+								   "MMOVED:10:10:20",
+								   "MMOVED:15:15:30",
+								   "MMOVED:20:20:40",
+								   "MMOVED:24:24:48"),
+					 eventLog.copyLines());
+		assertEquals(25, filter.getEventsIn());
+		assertEquals(6, filter.getEventsOut());
+	}
+
+	@Test
+	public void testAddEvent_KeepsButtonEvents()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 1, 1, 0, 0, 0L);
+		filter.addEvent(CapturedEventType.MousePress, 1, 1, 1, 255, 1L);
+		filter.addEvent(CapturedEventType.MouseRelease, 1, 1, 1, 255, 2L);
+		filter.addEvent(CapturedEventType.MousePress, 1, 1, 1, 255, 3L);
+		filter.addEvent(CapturedEventType.MouseRelease, 1, 1, 1, 255, 4L);
+
+		assertEquals(5, eventLog.size());
+		assertEquals(5, filter.getEventsOut());
+	}
+
+	@Test
+	public void testFlush_Chained()
+	{
+		final MinimumDistanceMoveFilter firstFilter = new MinimumDistanceMoveFilter(100);
+		firstFilter.connect(filter);
+
+		firstFilter.addEvent(CapturedEventType.MouseMove, 0, 0, 0, 0, 0L);
+		firstFilter.addEvent(CapturedEventType.MouseMove, 200, 0, 0, 0, 5L);
+		firstFilter.addEvent(CapturedEventType.MouseMove, 210, 0, 0, 0, 6L);
+		firstFilter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:0:0:0",
+								   "MMOVED:210:0:6"),
+					 eventLog.copyLines());
+		assertEquals(3, firstFilter.getEventsOut());
+		assertEquals(3, filter.getEventsIn());
+	}
+}
@@ -0,0 +1,108 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MouseWheelCoalescerTest
+{
+	CapturedEventLog eventLog;
+	MouseWheelCoalescer coalescer;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		eventLog = new CapturedEventLog();
+		coalescer = new MouseWheelCoalescer(50);
+		coalescer.connect(eventLog);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testMouseWheelCoalescer_NegativeWindow()
+	{
+		new MouseWheelCoalescer(-1);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testConnect_NullSink()
+	{
+		coalescer.connect(null);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testAddEvent_NotConnected()
+	{
+		new MouseWheelCoalescer(50).addEvent(CapturedEventType.MouseWheel, 1, 1, 1, 0, 1L);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testAddEvent_MergesBurst()
+	{
+		for (int notchNum = 0; notchNum < 10; notchNum++)
+		{
+			coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 1, 0, 1000 + notchNum * 40L);
+		}
+
+		assertEquals(0, eventLog.size());
+
+		coalescer.flush();
+
+		assertEquals(Arrays.asList("MWHEEL:469:76:10:1000"), eventLog.copyLines());
+		assertEquals(10, coalescer.getEventsIn());
+		assertEquals(1, coalescer.getEventsOut());
+		assertEquals("MouseWheelCoalescer: 10 in, 1 out", coalescer.toString());
+	}
+
+	@Test
+	public void testAddEvent_SplitsOnGapAndDirection()
+	{
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 1, 0, 1000L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 2, 0, 1050L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 1, 0, 1101L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, -1, 0, 1120L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, -1, 0, 1130L);
+		coalescer.flush();
+
+		assertEquals(Arrays.asList("MWHEEL:469:76:3:1000",
+								   "MWHEEL:469:76:1:1101",
+								   "MWHEEL:469:76:-2:1120"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testAddEvent_OtherEventsEndBurst()
+	{
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, -1, 0, 1000L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, -1, 0, 1010L);
+		coalescer.addEvent(CapturedEventType.MouseMove, 470, 76, 0, 0, 1020L);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 470, 76, -1, 0, 1030L);
+		coalescer.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 1040L);
+		coalescer.flush();
+
+		assertEquals(Arrays.asList("MWHEEL:469:76:-2:1000",
+								   "MMOVED:470:76:1020",
+								   "MWHEEL:470:76:-1:1030",
+								   "KPRESS:17:1040"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testConnect_ForgetsPreviousSession()
+	{
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 1, 0, 1000L);
+
+		final CapturedEventLog nextEventLog = new CapturedEventLog();
+		coalescer.connect(nextEventLog);
+		coalescer.addEvent(CapturedEventType.MouseWheel, 469, 76, 1, 0, 1010L);
+		coalescer.flush();
+
+		assertEquals(Arrays.asList("MWHEEL:469:76:1:1010"), nextEventLog.copyLines());
+		assertEquals(0, eventLog.size());
+	}
+}
@@ -0,0 +1,159 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class NativeEventClockTest
+{
+	/**
+	 * The System.nanoTime() value that the native clock's zero falls on in these tests.
+	 */
+	static final long CLOCK_OFFSET = 5000000000000L;
+
+	NativeEventClock clock;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		clock = new NativeEventClock(1000000000L, 500000000L);
+	}
+
+	/**
+	 * Returns the System.nanoTime() value of a native time, as the two clocks are set up in these tests.
+	 */
+	static long toNanoTime(long nativeTime)
+	{
+		return CLOCK_OFFSET + nativeTime * 1000000L;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNativeEventClock_ZeroWindow()
+	{
+		new NativeEventClock(0, 500000000L);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testNativeEventClock_NegativeDelay()
+	{
+		new NativeEventClock(1000000000L, -1);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testToCapturedTime_RemovesDispatchDelay()
+	{
+		// The first event is dispatched without delay, the later ones are held up by different amounts.
+		assertEquals(toNanoTime(1000), clock.toCapturedTime(1000, toNanoTime(1000)));
+		assertEquals(toNanoTime(1010), clock.toCapturedTime(1010, toNanoTime(1010) + 30000000L));
+		assertEquals(toNanoTime(1020), clock.toCapturedTime(1020, toNanoTime(1020) + 2000000L));
+		assertEquals(toNanoTime(1030), clock.toCapturedTime(1030, toNanoTime(1030) + 45000000L));
+
+		assertEquals(4, clock.getCorrectedCount());
+		assertEquals(0, clock.getFallbackCount());
+		assertEquals(CLOCK_OFFSET, clock.getOffsetNanoseconds());
+		assertEquals(4, clock.getDispatchDelay().getCount());
+		assertEquals(45000000L, clock.getDispatchDelay().getMaxNanoseconds());
+	}
+
+	@Test
+	public void testToCapturedTime_SmallerDelayImprovesOffset()
+	{
+		// The first event is held up; the offset is improved once an event arrives sooner.
+		assertEquals(toNanoTime(1000) + 5000000L, clock.toCapturedTime(1000, toNanoTime(1000) + 5000000L));
+		assertEquals(toNanoTime(1010) + 1000000L, clock.toCapturedTime(1010, toNanoTime(1010) + 1000000L));
+		assertEquals(toNanoTime(1020) + 1000000L, clock.toCapturedTime(1020, toNanoTime(1020) + 15000000L));
+	}
+
+	@Test
+	public void testToCapturedTime_NeverLaterThanCallback()
+	{
+		clock.toCapturedTime(1000, toNanoTime(1000) + 10000000L);
+
+		final long callbackTime = toNanoTime(1010) + 10000000L;
+
+		assertTrue(clock.toCapturedTime(1010, callbackTime) <= callbackTime);
+	}
+
+	@Test
+	public void testToCapturedTime_NeverGoesBackwards()
+	{
+		final long firstTime = clock.toCapturedTime(1000, toNanoTime(1000) + 40000000L);
+
+		// A later event that arrives sooner lowers the offset, but its time can't be before the first event's.
+		assertEquals(firstTime, clock.toCapturedTime(1001, toNanoTime(1001)));
+	}
+
+	@Test
+	public void testToCapturedTime_FollowsDrift()
+	{
+		clock.toCapturedTime(1000, toNanoTime(1000));
+
+		// The native clock falls behind by 5ms; the old offset is forgotten after two calibration windows.
+		final long driftedOffset = CLOCK_OFFSET + 5000000L;
+
+		clock.toCapturedTime(2500, driftedOffset + 2500 * 1000000L);
+		clock.toCapturedTime(4000, driftedOffset + 4000 * 1000000L);
+
+		assertEquals(driftedOffset + 4010 * 1000000L, clock.toCapturedTime(4010, driftedOffset + 4010 * 1000000L + 3000000L));
+		assertEquals(driftedOffset, clock.getOffsetNanoseconds());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testToCapturedTime_MissingNativeTime()
+	{
+		final long callbackTime = toNanoTime(1000);
+
+		assertEquals(callbackTime, clock.toCapturedTime(0, callbackTime));
+		assertEquals(0, clock.getCorrectedCount());
+		assertEquals(1, clock.getFallbackCount());
+	}
+
+	@Test
+	public void testToCapturedTime_NativeClockJumpedBack()
+	{
+		clock.toCapturedTime(100000, toNanoTime(100000));
+
+		// The native clock starts over; the event keeps its callback time and the calibration restarts from it.
+		final long callbackTime = toNanoTime(100010);
+
+		assertEquals(callbackTime, clock.toCapturedTime(10, callbackTime));
+		assertEquals(1, clock.getFallbackCount());
+		assertEquals(callbackTime + 10 * 1000000L, clock.toCapturedTime(20, callbackTime + 10 * 1000000L + 4000000L));
+		assertEquals(2, clock.getCorrectedCount());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testSetCorrectionEnabled()
+	{
+		assertTrue(clock.isCorrectionEnabled());
+
+		clock.setCorrectionEnabled(false);
+		clock.toCapturedTime(1000, toNanoTime(1000));
+
+		// The callback time is recorded, but the delay is still measured.
+		final long callbackTime = toNanoTime(1010) + 30000000L;
+
+		assertFalse(clock.isCorrectionEnabled());
+		assertEquals(callbackTime, clock.toCapturedTime(1010, callbackTime));
+		assertEquals(2, clock.getCorrectedCount());
+		assertEquals(30000000L, clock.getDispatchDelay().getMaxNanoseconds());
+	}
+
+	@Test
+	public void testToString()
+	{
+		clock.toCapturedTime(1000, toNanoTime(1000));
+		clock.toCapturedTime(0, toNanoTime(1010));
+
+		assertEquals("NativeEventClock: 1 corrected, 1 fallback, dispatch p99 " + (clock.getDispatchDelay().getPercentileNanoseconds(99) / 1000) + "us", clock.toString());
+	}
+}
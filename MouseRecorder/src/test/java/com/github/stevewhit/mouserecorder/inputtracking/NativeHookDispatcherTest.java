@@ -0,0 +1,205 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.jnativehook.keyboard.NativeKeyEvent;
+import org.jnativehook.keyboard.NativeKeyListener;
+import org.jnativehook.mouse.NativeMouseEvent;
+import org.jnativehook.mouse.NativeMouseInputListener;
+import org.jnativehook.mouse.NativeMouseWheelEvent;
+import org.jnativehook.mouse.NativeMouseWheelListener;
+import org.junit.Before;
+import org.junit.Test;
+
+public class NativeHookDispatcherTest
+{
+	NativeHookDispatcher dispatcher;
+	ArrayList<String> receivedEvents;
+
+	NativeKeyEvent keyEvent = new NativeKeyEvent(NativeKeyEvent.NATIVE_KEY_PRESSED, 0L, 0, 0, NativeKeyEvent.VC_A, NativeKeyEvent.CHAR_UNDEFINED);
+	NativeMouseEvent mouseEvent = new NativeMouseEvent(NativeMouseEvent.NATIVE_MOUSE_MOVED, 0L, 0, 10, 20, 0);
+	NativeMouseWheelEvent wheelEvent = new NativeMouseWheelEvent(NativeMouseEvent.NATIVE_MOUSE_WHEEL, 0L, 0, 10, 20, 0, NativeMouseWheelEvent.WHEEL_UNIT_SCROLL, 3, -1);
+
+	@Before
+	public void setUp() throws Exception
+	{
+		dispatcher = new NativeHookDispatcher();
+		receivedEvents = new ArrayList<String>();
+	}
+
+	//=======================================================
+
+	@Test
+	public void testGetSharedDispatcher()
+	{
+		assertNotNull(NativeHookDispatcher.getSharedDispatcher());
+		assertSame(NativeHookDispatcher.getSharedDispatcher(), NativeHookDispatcher.getSharedDispatcher());
+	}
+
+	@Test
+	public void testIsStarted_NotStarted()
+	{
+		assertFalse(dispatcher.isStarted());
+
+		// Stopping a dispatcher that was never started doesn't touch the native hook.
+		dispatcher.stop();
+		assertFalse(dispatcher.isStarted());
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddKeyListener_Null()
+	{
+		dispatcher.addKeyListener(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddMouseListener_Null()
+	{
+		dispatcher.addMouseListener(null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testAddMouseWheelListener_Null()
+	{
+		dispatcher.addMouseWheelListener(null);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testDispatch_FansOutToAttachedListeners()
+	{
+		dispatcher.addKeyListener(new RecordingListener("first"));
+		dispatcher.addKeyListener(new RecordingListener("second"));
+		dispatcher.addMouseListener(new RecordingListener("mouse"));
+		dispatcher.addMouseWheelListener(new RecordingListener("wheel"));
+
+		dispatcher.nativeKeyPressed(keyEvent);
+		dispatcher.nativeKeyReleased(keyEvent);
+		dispatcher.nativeMouseMoved(mouseEvent);
+		dispatcher.nativeMousePressed(mouseEvent);
+		dispatcher.nativeMouseWheelMoved(wheelEvent);
+
+		assertEquals(Arrays.asList("first:KeyPressed", "second:KeyPressed", "first:KeyReleased", "second:KeyReleased",
+				"mouse:MouseMoved", "mouse:MousePressed", "wheel:MouseWheelMoved"), receivedEvents);
+	}
+
+	@Test
+	public void testAddKeyListener_OnlyOnce()
+	{
+		final RecordingListener listener = new RecordingListener("key");
+		dispatcher.addKeyListener(listener);
+		dispatcher.addKeyListener(listener);
+
+		dispatcher.nativeKeyPressed(keyEvent);
+
+		assertEquals(Arrays.asList("key:KeyPressed"), receivedEvents);
+	}
+
+	@Test
+	public void testRemoveListeners()
+	{
+		final RecordingListener listener = new RecordingListener("all");
+		dispatcher.addKeyListener(listener);
+		dispatcher.addMouseListener(listener);
+		dispatcher.addMouseWheelListener(listener);
+
+		dispatcher.removeKeyListener(listener);
+		dispatcher.removeMouseListener(listener);
+		dispatcher.removeMouseWheelListener(listener);
+
+		// Removing a listener that isn't attached does nothing.
+		dispatcher.removeKeyListener(listener);
+		dispatcher.removeKeyListener(null);
+
+		dispatcher.nativeKeyPressed(keyEvent);
+		dispatcher.nativeMouseDragged(mouseEvent);
+		dispatcher.nativeMouseWheelMoved(wheelEvent);
+
+		assertTrue(receivedEvents.isEmpty());
+	}
+
+	@Test
+	public void testDispatch_ListenerDetachesItself()
+	{
+		dispatcher.addKeyListener(new RecordingListener("first")
+		{
+			@Override
+			public void nativeKeyPressed(NativeKeyEvent e)
+			{
+				super.nativeKeyPressed(e);
+				dispatcher.removeKeyListener(this);
+			}
+		});
+		dispatcher.addKeyListener(new RecordingListener("second"));
+
+		dispatcher.nativeKeyPressed(keyEvent);
+		dispatcher.nativeKeyPressed(keyEvent);
+
+		assertEquals(Arrays.asList("first:KeyPressed", "second:KeyPressed", "second:KeyPressed"), receivedEvents);
+	}
+
+	@Test
+	public void testDispatch_FailingListenerDoesNotStopOthers()
+	{
+		dispatcher.addMouseListener(new RecordingListener("failing")
+		{
+			@Override
+			public void nativeMouseReleased(NativeMouseEvent e)
+			{
+				throw new IllegalStateException("Listener failure.");
+			}
+		});
+		dispatcher.addMouseListener(new RecordingListener("working"));
+
+		dispatcher.nativeMouseReleased(mouseEvent);
+
+		assertEquals(Arrays.asList("working:MouseReleased"), receivedEvents);
+	}
+
+	//=======================================================
+
+	/**
+	 * A listener that adds the name of each event it gets to the received events.
+	 */
+	private class RecordingListener implements NativeKeyListener, NativeMouseInputListener, NativeMouseWheelListener
+	{
+		private final String name;
+
+		RecordingListener(String name)
+		{
+			this.name = name;
+		}
+
+		@Override
+		public void nativeKeyPressed(NativeKeyEvent e) { receivedEvents.add(name + ":KeyPressed"); }
+
+		@Override
+		public void nativeKeyReleased(NativeKeyEvent e) { receivedEvents.add(name + ":KeyReleased"); }
+
+		@Override
+		public void nativeKeyTyped(NativeKeyEvent e) { receivedEvents.add(name + ":KeyTyped"); }
+
+		@Override
+		public void nativeMouseClicked(NativeMouseEvent e) { receivedEvents.add(name + ":MouseClicked"); }
+
+		@Override
+		public void nativeMousePressed(NativeMouseEvent e) { receivedEvents.add(name + ":MousePressed"); }
+
+		@Override
+		public void nativeMouseReleased(NativeMouseEvent e) { receivedEvents.add(name + ":MouseReleased"); }
+
+		@Override
+		public void nativeMouseMoved(NativeMouseEvent e) { receivedEvents.add(name + ":MouseMoved"); }
+
+		@Override
+		public void nativeMouseDragged(NativeMouseEvent e) { receivedEvents.add(name + ":MouseDragged"); }
+
+		@Override
+		public void nativeMouseWheelMoved(NativeMouseWheelEvent e) { receivedEvents.add(name + ":MouseWheelMoved"); }
+	}
+}
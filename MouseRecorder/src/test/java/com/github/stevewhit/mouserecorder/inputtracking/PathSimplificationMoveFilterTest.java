@@ -0,0 +1,105 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PathSimplificationMoveFilterTest
+{
+	CapturedEventLog eventLog;
+	PathSimplificationMoveFilter filter;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		eventLog = new CapturedEventLog();
+		filter = new PathSimplificationMoveFilter(1.0, 8);
+		filter.connect(eventLog);
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testPathSimplificationMoveFilter_NegativeTolerance()
+	{
+		new PathSimplificationMoveFilter(-1.0, 8);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testPathSimplificationMoveFilter_SmallWindow()
+	{
+		new PathSimplificationMoveFilter(1.0, 2);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testAddEvent_StraightLine()
+	{
+		for (int moveNum = 0; moveNum <= 14; moveNum++)
+		{
+			filter.addEvent(CapturedEventType.MouseMove, moveNum * 10, moveNum * 5, 0, 0, moveNum);
+		}
+
+		filter.flush();
+
+		// The windows join at the 8th and 15th moves.
+		assertEquals(Arrays.asList("MMOVED:0:0:0",
+								   "MMOVED:70:35:7",
+								   "MMOVED:140:70:14"),
+					 eventLog.copyLines());
+		assertEquals(15, filter.getEventsIn());
+		assertEquals(3, filter.getEventsOut());
+	}
+
+	@Test
+	public void testAddEvent_KeepsCorner()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 0, 0, 0, 0, 0L);
+		filter.addEvent(CapturedEventType.MouseMove, 10, 0, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 20, 1, 0, 0, 2L);
+		filter.addEvent(CapturedEventType.MouseMove, 20, 10, 0, 0, 3L);
+		filter.addEvent(CapturedEventType.MouseMove, 20, 20, 0, 0, 4L);
+		filter.addEvent(CapturedEventType.MousePress, 20, 20, 1, 255, 5L);
+
+		assertEquals(Arrays.asList("MMOVED:0:0:0",
+								   "MMOVED:20:1:2",
+								   "MMOVED:20:20:4",
+								   "MPRESS:1:20:20:255:5"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testAddEvent_ZeroToleranceKeepsBends()
+	{
+		filter = new PathSimplificationMoveFilter(0, 8);
+		filter.connect(eventLog);
+
+		filter.addEvent(CapturedEventType.MouseMove, 0, 0, 0, 0, 0L);
+		filter.addEvent(CapturedEventType.MouseMove, 1, 1, 0, 0, 1L);
+		filter.addEvent(CapturedEventType.MouseMove, 2, 0, 0, 0, 2L);
+		filter.addEvent(CapturedEventType.MouseMove, 3, 0, 0, 0, 3L);
+		filter.addEvent(CapturedEventType.MouseMove, 4, 0, 0, 0, 4L);
+		filter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:0:0:0",
+								   "MMOVED:1:1:1",
+								   "MMOVED:2:0:2",
+								   "MMOVED:4:0:4"),
+					 eventLog.copyLines());
+	}
+
+	@Test
+	public void testAddEvent_SingleMoveBeforeRelease()
+	{
+		filter.addEvent(CapturedEventType.MouseMove, 5, 6, 0, 0, 0L);
+		filter.addEvent(CapturedEventType.MouseRelease, 5, 6, 1, 255, 1L);
+		filter.flush();
+
+		assertEquals(Arrays.asList("MMOVED:5:6:0",
+								   "MRELEA:1:5:6:255:1"),
+					 eventLog.copyLines());
+	}
+}
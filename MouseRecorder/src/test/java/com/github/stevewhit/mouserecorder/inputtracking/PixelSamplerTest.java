@@ -0,0 +1,129 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class PixelSamplerTest
+{
+	PixelSampler sampler;
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (sampler != null)
+			sampler.stop();
+
+		sampler = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testPixelSampler_NotPowerOfTwo()
+	{
+		new PixelSampler(3, PixelSampler.DEFAULT_DEADLINE_NANOSECONDS);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testPixelSampler_InvalidDeadline()
+	{
+		new PixelSampler(4, 0);
+	}
+
+	@Test(expected=IllegalStateException.class)
+	public void testTakeSampledColor_NothingRequested()
+	{
+		sampler = new CoordinateColorSampler(4, PixelSampler.DEFAULT_DEADLINE_NANOSECONDS, 0);
+		sampler.start();
+		sampler.takeSampledColor();
+	}
+
+	@Test
+	public void testRequestSample_NotStarted()
+	{
+		sampler = new CoordinateColorSampler(4, PixelSampler.DEFAULT_DEADLINE_NANOSECONDS, 0);
+
+		assertFalse(sampler.requestSample(469, 76, System.nanoTime()));
+		assertEquals(1, sampler.getRejectedCount());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testTakeSampledColor_InRequestOrder()
+	{
+		sampler = new CoordinateColorSampler(4, 1000000000L, 0);
+		sampler.start();
+
+		for (int requestNum = 0; requestNum < 20; requestNum++)
+		{
+			assertTrue(sampler.requestSample(requestNum, 76, System.nanoTime()));
+			assertTrue(sampler.requestSample(requestNum, 77, System.nanoTime()));
+
+			assertEquals(requestNum * 1000 + 76, sampler.takeSampledColor());
+			assertEquals(requestNum * 1000 + 77, sampler.takeSampledColor());
+		}
+
+		assertEquals(40, sampler.getLatencyHistogram().getCount());
+		assertEquals(0, sampler.getMissedCount());
+	}
+
+	@Test
+	public void testTakeSampledColor_MissedDeadline()
+	{
+		sampler = new CoordinateColorSampler(4, 5000000L, 50);
+		sampler.start();
+
+		assertTrue(sampler.requestSample(469, 76, System.nanoTime()));
+		assertEquals(CapturedEventType.INVALID_COLOR, sampler.takeSampledColor());
+		assertEquals(1, sampler.getMissedCount());
+	}
+
+	@Test
+	public void testRequestSample_Full()
+	{
+		sampler = new CoordinateColorSampler(2, 1000000000L, 0);
+		sampler.start();
+
+		assertTrue(sampler.requestSample(1, 1, System.nanoTime()));
+		assertTrue(sampler.requestSample(2, 2, System.nanoTime()));
+		assertFalse(sampler.requestSample(3, 3, System.nanoTime()));
+
+		assertEquals(1001, sampler.takeSampledColor());
+		assertTrue(sampler.requestSample(4, 4, System.nanoTime()));
+		assertEquals(2002, sampler.takeSampledColor());
+		assertEquals(4004, sampler.takeSampledColor());
+		assertEquals(1, sampler.getRejectedCount());
+	}
+
+	/**
+	 * Samples a color made from the coordinate instead of reading the screen, optionally taking a while to do it.
+	 */
+	private static class CoordinateColorSampler extends PixelSampler
+	{
+		private final long sampleMilliseconds;
+
+		private CoordinateColorSampler(int capacity, long deadlineNanoseconds, long sampleMilliseconds)
+		{
+			super(capacity, deadlineNanoseconds);
+			this.sampleMilliseconds = sampleMilliseconds;
+		}
+
+		@Override
+		protected int samplePixelColor(int xCoord, int yCoord)
+		{
+			try
+			{
+				Thread.sleep(sampleMilliseconds);
+			}
+			catch (InterruptedException ex)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			return xCoord * 1000 + yCoord;
+		}
+	}
+}
@@ -0,0 +1,212 @@
+package com.github.stevewhit.mouserecorder.inputtracking;
+
+import static org.junit.Assert.*;
+
+import java.awt.Dimension;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingData;
+import com.github.stevewhit.mouserecorder.ui.ClickZoneDetails;
+
+public class StreamingRecordingSinkTest
+{
+	File fileLoc;
+	String outputLocation;
+	StreamingRecordingSink sink;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		outputLocation = "TestStreamingRecordingSink.txt";
+		fileLoc = new File(outputLocation);
+
+		if (fileLoc.exists())
+			fileLoc.delete();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		if (sink != null)
+			sink.close();
+
+		if (fileLoc != null && fileLoc.exists())
+			fileLoc.delete();
+
+		sink = null;
+		fileLoc = null;
+		outputLocation = null;
+	}
+
+	//=======================================================
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testStreamingRecordingSink_EmptyLocation() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink("", null);
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testStreamingRecordingSink_InvalidDimensions() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, new Dimension(0, 1080));
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testStreamingRecordingSink_BufferTooSmall() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null, 16);
+	}
+
+	//=======================================================
+
+	@Test
+	public void testFinish_WritesRecording() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, new Dimension(1920, 1080));
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		sink.addEvent(CapturedEventType.MouseMove, 698, 413, 0, 0, 548174113763580L);
+		sink.addEvent(CapturedEventType.KeyRelease, 0, 0, 17, 0, 548174760943927L);
+
+		// Nothing is at the output location until the stream is finished.
+		assertFalse(fileLoc.exists());
+
+		sink.finish();
+
+		assertTrue(sink.isFinished());
+		assertEquals(3, sink.getWrittenCount());
+		assertEquals(0, sink.getFailedCount());
+		assertNull(sink.getFailure());
+		assertEquals(Arrays.asList("SCREEN:1920:1080", "KPRESS:17:548174113763558", "MMOVED:698:413:548174113763580", "KRELEA:17:548174760943927"),
+					 DataIOHandlerUtils.importStringDataFromFile(outputLocation));
+	}
+
+	@Test
+	public void testFinish_NoDimensions() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		sink.finish();
+
+		assertEquals(Arrays.asList("KPRESS:17:548174113763558"), DataIOHandlerUtils.importStringDataFromFile(outputLocation));
+	}
+
+	@Test
+	public void testFinish_WritesClickZones() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		sink.finish(Arrays.asList(new ClickZoneDetails(698, 413, 50, 50)));
+
+		assertEquals(Arrays.asList("KPRESS:17:548174113763558", "CZONEE:698:413:50:50"), DataIOHandlerUtils.importStringDataFromFile(outputLocation));
+		assertEquals(1, DataIOHandlerUtils.importRecordingFromFile(outputLocation).getClickZoneDetails().size());
+	}
+
+	@Test
+	public void testFinish_NullClickZone() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+
+		try
+		{
+			sink.finish(Arrays.asList((ClickZoneDetails) null));
+			fail("Expected an IllegalArgumentException.");
+		}
+		catch (IllegalArgumentException ex)
+		{
+			// Expected.
+		}
+
+		assertNotNull(sink.getFailure());
+		assertFalse(fileLoc.exists());
+	}
+
+	@Test
+	public void testFinish_SmallBufferWritesEveryEvent() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null, 160);
+
+		for (int eventNum = 0; eventNum < 1000; eventNum++)
+		{
+			sink.addEvent(CapturedEventType.MouseMove, eventNum, eventNum + 1, 0, 0, 548174113763558L + eventNum);
+		}
+
+		sink.finish();
+
+		final RecordingData importedRecording = DataIOHandlerUtils.importRecordingFromFile(outputLocation);
+
+		assertEquals(1000, sink.getWrittenCount());
+		assertEquals(1000, importedRecording.getInputActions().size());
+	}
+
+	@Test
+	public void testFinish_ReplacesExistingFile() throws IllegalArgumentException, IOException
+	{
+		DataIOHandlerUtils.exportRecordingLinesToFile(Arrays.asList("CZONEE:698:413:50:50"), Arrays.asList("KPRESS:17:548174113763558"), outputLocation);
+
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyRelease, 0, 0, 17, 0, 548174760943927L);
+		sink.finish();
+
+		assertEquals(Arrays.asList("KRELEA:17:548174760943927"), DataIOHandlerUtils.importStringDataFromFile(outputLocation));
+	}
+
+	@Test
+	public void testFinish_Twice() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		sink.finish();
+		sink.finish();
+
+		assertEquals(1, DataIOHandlerUtils.importStringDataFromFile(outputLocation).size());
+	}
+
+	@Test
+	public void testAddEvent_AfterFinish() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.finish();
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+
+		assertEquals(0, sink.getWrittenCount());
+		assertEquals(1, sink.getFailedCount());
+		assertTrue(DataIOHandlerUtils.importStringDataFromFile(outputLocation).isEmpty());
+	}
+
+	//=======================================================
+
+	@Test
+	public void testClose_LeavesOutputLocationUntouched() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, new Dimension(1920, 1080));
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+		sink.close();
+
+		assertTrue(sink.isFinished());
+		assertFalse(fileLoc.exists());
+
+		final File[] leftOverFiles = new File(".").getAbsoluteFile().listFiles();
+
+		for (File leftOverFile : leftOverFiles)
+		{
+			assertFalse(leftOverFile.getName().startsWith(outputLocation + ".") && leftOverFile.getName().endsWith(".tmp"));
+		}
+	}
+
+	@Test
+	public void testToString() throws IllegalArgumentException, IOException
+	{
+		sink = new StreamingRecordingSink(outputLocation, null);
+		sink.addEvent(CapturedEventType.KeyPress, 0, 0, 17, 0, 548174113763558L);
+
+		assertEquals("StreamingRecordingSink: 1 written, 0 failed", sink.toString());
+	}
+}
@@ -0,0 +1,192 @@
+package com.github.stevewhit.mouserecorder.ui;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.zip.DataFormatException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.datahandling.DataIOHandlerUtils;
+import com.github.stevewhit.mouserecorder.datahandling.RecordingImportContext.CoordinatePolicy;
+
+public class PlaybackOptionsTest
+{
+	File configFileLoc;
+	File scriptFileLoc;
+	String configLocation;
+	String scriptLocation;
+
+	@Before
+	public void setUp() throws Exception
+	{
+		configLocation = "TestPlaybackConfiguration.txt";
+		scriptLocation = "TestFailoverScript.txt";
+		configFileLoc = new File(configLocation);
+		scriptFileLoc = new File(scriptLocation);
+
+		deleteFiles();
+	}
+
+	@After
+	public void tearDown() throws Exception
+	{
+		deleteFiles();
+
+		configFileLoc = null;
+		scriptFileLoc = null;
+	}
+
+	//=======================================================
+
+	@Test
+	public void testImportPlaybackConfiguration_DoesNotLoadFailoverScript() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		// The failover script doesn't exist yet, so loading it while importing would fail.
+		final PlaybackOptions exportedOptions = new PlaybackOptions("TestRecording.txt");
+		exportedOptions.runAdditionalScriptIfFailsChecked = true;
+		exportedOptions.runAdditionalScriptIfFailsFileLocation = scriptLocation;
+
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList(exportedOptions.toExportableString())), configLocation);
+
+		final ArrayList<PlaybackOptions> importedOptions = DataIOHandlerUtils.importPlaybackConfigurationFromFile(configLocation);
+
+		assertEquals(1, importedOptions.size());
+		assertFalse(importedOptions.get(0).isAdditionalScriptIfFailsLoaded());
+		assertTrue(importedOptions.get(0).hasAdditionalScriptIfFails());
+		assertEquals(exportedOptions.toExportableString(), importedOptions.get(0).toExportableString());
+	}
+
+	@Test
+	public void testImportPlaybackConfiguration_CoordinatePolicy() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final PlaybackOptions exportedOptions = new PlaybackOptions("TestRecording.txt");
+		exportedOptions.setCoordinatePolicy(CoordinatePolicy.Scale);
+
+		// Lines exported before the coordinate policy was added keep the default policy.
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList(exportedOptions.toExportableString(), 
+				"PLAYBACKITEM::::TestRecording.txt::::true::::0::::false::::1::::Seconds::::false::::false::::false::::_")), configLocation);
+
+		final ArrayList<PlaybackOptions> importedOptions = DataIOHandlerUtils.importPlaybackConfigurationFromFile(configLocation);
+
+		assertEquals(2, importedOptions.size());
+		assertEquals(CoordinatePolicy.Scale, importedOptions.get(0).getCoordinatePolicy());
+		assertEquals(CoordinatePolicy.Clamp, importedOptions.get(1).getCoordinatePolicy());
+		assertEquals(CoordinatePolicy.Scale, importedOptions.get(0).createImportContext().getCoordinatePolicy());
+	}
+
+	@Test(expected=IllegalArgumentException.class)
+	public void testSetCoordinatePolicy_Null()
+	{
+		new PlaybackOptions("TestRecording.txt").setCoordinatePolicy(null);
+	}
+
+	@Test
+	public void testSetCoordinatePolicy_DropsLoadedScript() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), scriptLocation);
+
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.setAdditionalScriptIfFails(scriptLocation);
+
+		// The same policy keeps the loaded script; another policy drops it so it's loaded again with that policy.
+		options.setCoordinatePolicy(CoordinatePolicy.Clamp);
+		assertTrue(options.isAdditionalScriptIfFailsLoaded());
+
+		options.setCoordinatePolicy(CoordinatePolicy.Reject);
+		assertFalse(options.isAdditionalScriptIfFailsLoaded());
+		assertNotNull(options.getAdditionalScriptIfFails());
+	}
+
+	@Test
+	public void testGetAdditionalScriptIfFails_LoadsOnFirstUse() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558", "KRELEA:17:548174760943927")), scriptLocation);
+
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.runAdditionalScriptIfFailsFileLocation = scriptLocation;
+
+		final LoadedRecording additionalScript = options.getAdditionalScriptIfFails();
+
+		assertEquals(2, additionalScript.getInputActionList().size());
+		assertSame(additionalScript, options.getAdditionalScriptIfFails());
+	}
+
+	@Test
+	public void testGetAdditionalScriptIfFails_NoScript() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.runAdditionalScriptIfFailsFileLocation = "";
+
+		assertFalse(options.hasAdditionalScriptIfFails());
+		assertNull(options.getAdditionalScriptIfFails());
+		assertTrue(options.toExportableString().endsWith("::::_::::Clamp"));
+	}
+
+	@Test
+	public void testSetAdditionalScriptIfFails() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558", "KRELEA:17:548174760943927")), scriptLocation);
+
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.setAdditionalScriptIfFails(scriptLocation);
+
+		assertEquals(scriptLocation, options.runAdditionalScriptIfFailsFileLocation);
+		assertTrue(options.isAdditionalScriptIfFailsLoaded());
+
+		final LoadedRecording additionalScript = options.getAdditionalScriptIfFails();
+
+		// Setting the same location keeps the loaded script; another location drops it.
+		options.setAdditionalScriptIfFailsFileLocation(scriptLocation);
+		assertSame(additionalScript, options.getAdditionalScriptIfFails());
+
+		options.setAdditionalScriptIfFailsFileLocation("TestOtherFailoverScript.txt");
+		assertFalse(options.isAdditionalScriptIfFailsLoaded());
+		assertEquals("TestOtherFailoverScript.txt", options.runAdditionalScriptIfFailsFileLocation);
+	}
+
+	@Test(expected=IOException.class)
+	public void testSetAdditionalScriptIfFails_MissingFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.setAdditionalScriptIfFails(scriptLocation);
+	}
+
+	@Test
+	public void testClearAdditionalScriptIfFails() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		DataIOHandlerUtils.exportStringDataToFile(new LinkedList<String>(Arrays.asList("KPRESS:17:548174113763558")), scriptLocation);
+
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.setAdditionalScriptIfFails(scriptLocation);
+		options.clearAdditionalScriptIfFails();
+
+		assertFalse(options.hasAdditionalScriptIfFails());
+		assertNull(options.getAdditionalScriptIfFails());
+	}
+
+	@Test(expected=IOException.class)
+	public void testGetAdditionalScriptIfFails_MissingFile() throws IllegalArgumentException, IOException, DataFormatException
+	{
+		final PlaybackOptions options = new PlaybackOptions("TestRecording.txt");
+		options.runAdditionalScriptIfFailsFileLocation = scriptLocation;
+
+		options.getAdditionalScriptIfFails();
+	}
+
+	/**
+	 * Deletes the configuration and script written by the tests.
+	 */
+	private void deleteFiles()
+	{
+		for (File file : new File[]{configFileLoc, scriptFileLoc})
+		{
+			if (file != null && file.exists())
+				file.delete();
+		}
+	}
+}
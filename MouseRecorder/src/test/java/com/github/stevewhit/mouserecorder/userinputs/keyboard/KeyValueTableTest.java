@@ -0,0 +1,58 @@
+package com.github.stevewhit.mouserecorder.userinputs.keyboard;
+
+import static org.junit.Assert.*;
+
+import java.awt.event.KeyEvent;
+import org.junit.Test;
+
+public class KeyValueTableTest
+{
+	@Test
+	public void testGetKeyValueText_LettersAndDigits()
+	{
+		assertEquals("A", KeyValueTable.getKeyValueText(KeyEvent.VK_A));
+		assertEquals("Z", KeyValueTable.getKeyValueText(KeyEvent.VK_Z));
+		assertEquals("0", KeyValueTable.getKeyValueText(KeyEvent.VK_0));
+		assertEquals("9", KeyValueTable.getKeyValueText(KeyEvent.VK_9));
+	}
+	
+	@Test
+	public void testGetKeyValueText_Numpad()
+	{
+		assertEquals("NUMPAD0", KeyValueTable.getKeyValueText(KeyEvent.VK_NUMPAD0));
+		assertEquals("NUMPAD7", KeyValueTable.getKeyValueText(KeyEvent.VK_NUMPAD7));
+		assertEquals("DECIMAL", KeyValueTable.getKeyValueText(KeyEvent.VK_DECIMAL));
+	}
+	
+	@Test
+	public void testGetKeyValueText_NamedKeys()
+	{
+		assertEquals("CONTROL", KeyValueTable.getKeyValueText(KeyEvent.VK_CONTROL));
+		assertEquals("BACK_QUOTE", KeyValueTable.getKeyValueText(KeyEvent.VK_BACK_QUOTE));
+		assertEquals("F24", KeyValueTable.getKeyValueText(KeyEvent.VK_F24));
+		assertEquals("EURO_SIGN", KeyValueTable.getKeyValueText(KeyEvent.VK_EURO_SIGN));
+		assertEquals("ALT_GRAPH", KeyValueTable.getKeyValueText(KeyEvent.VK_ALT_GRAPH));
+		assertEquals("UNDO", KeyValueTable.getKeyValueText(KeyEvent.VK_UNDO));
+	}
+	
+	@Test
+	public void testGetKeyValueText_Unsupported()
+	{
+		assertNull(KeyValueTable.getKeyValueText(0));
+		assertNull(KeyValueTable.getKeyValueText(-1));
+		assertNull(KeyValueTable.getKeyValueText(KeyEvent.VK_WINDOWS));
+		assertNull(KeyValueTable.getKeyValueText(0x10000));
+		assertNull(KeyValueTable.getKeyValueText(Integer.MAX_VALUE));
+	}
+	
+	//=======================================================
+	
+	@Test
+	public void testIsSupportedKeyValue()
+	{
+		assertTrue(KeyValueTable.isSupportedKeyValue(KeyEvent.VK_SHIFT));
+		assertTrue(KeyValueTable.isSupportedKeyValue(KeyEvent.VK_NUMPAD3));
+		assertFalse(KeyValueTable.isSupportedKeyValue(0));
+		assertFalse(KeyValueTable.isSupportedKeyValue(-5));
+	}
+}
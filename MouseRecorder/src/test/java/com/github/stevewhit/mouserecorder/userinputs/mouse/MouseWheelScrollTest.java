@@ -0,0 +1,71 @@
+package com.github.stevewhit.mouserecorder.userinputs.mouse;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import com.github.stevewhit.mouserecorder.monitor.PixelCoordinate2D;
+
+public class MouseWheelScrollTest
+{
+	MouseWheelScroll scroll;
+	PixelCoordinate2D location;
+	
+	@Before
+	public void setUp() throws Exception
+	{
+		location = new PixelCoordinate2D(100, 135);
+		
+		scroll = new MouseWheelScroll(location, -3, 12341242134132l);
+	}
+	
+	@After
+	public void tearDown() throws Exception
+	{
+		scroll = null;
+		location = null;
+	}
+	
+	//========================================================
+	
+	@Test
+	public void testToString()
+	{
+		assertEquals("MOUSEWHEEL: -3 : (100, 135)", scroll.toString());
+	}
+
+	//========================================================
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMouseWheelScroll_nullLocation()
+	{
+		scroll = new MouseWheelScroll(null, 1, 13241241l);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMouseWheelScroll_ZeroAmount()
+	{
+		scroll = new MouseWheelScroll(location, 0, 13241241l);
+	}
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void testMouseWheelScroll_NegTimeStamp()
+	{
+		scroll = new MouseWheelScroll(location, 1, -1);
+	}
+	
+	@Test
+	public void testMouseWheelScroll_Valid()
+	{
+		assertTrue(scroll.getLocation().equals(new PixelCoordinate2D(100, 135)));
+		assertEquals(-3, scroll.getWheelAmount());
+		assertTrue(scroll.isValidAction());
+		assertTrue(scroll.getActionId() != null);
+		
+		scroll = new MouseWheelScroll(location, 5, 0);
+		assertEquals(5, scroll.getWheelAmount());
+	}
+	
+	//========================================================
+	
+}